@@ -0,0 +1,156 @@
+package com.hilltop.hotel.benchmark;
+
+import com.hilltop.hotel.configuration.DataSourceRoutingProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Location;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.RoomRequestDto;
+import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
+import com.hilltop.hotel.geo.HotelGeoIndex;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.search.RoomCatalog;
+import com.hilltop.hotel.service.HotelService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog fixture
+ * Builds deterministic synthetic hotels and rooms for the benchmarks.
+ */
+final class CatalogFixture {
+
+    static final String LOCATION = "Colombo";
+    private static final int[] ROOM_TYPE_MARKUPS = {10, 20, 35};
+
+    private CatalogFixture() {
+    }
+
+    /**
+     * This method is used to create a single shard router. Searches never span shards, so no transaction manager
+     * is needed.
+     *
+     * @return shard router.
+     */
+    static ShardRouter shardRouter() {
+        return new ShardRouter(new DataSourceRoutingProperties(), null, null);
+    }
+
+    /**
+     * This method is used to create a hotel service over the given hotels that ignores published events. Every
+     * location name resolves to {@link #LOCATION} without a database.
+     *
+     * @param hotels hotels
+     * @return hotel service.
+     */
+    static HotelService hotelService(List<Hotel> hotels) {
+        HotelRepository hotelRepository = repository(hotels);
+        ShardRouter shardRouter = shardRouter();
+        Location location = new Location(1, LOCATION);
+        LocationDictionary locationDictionary = new LocationDictionary(null, shardRouter, 0, Duration.ZERO) {
+            @Override
+            public Optional<Location> find(String name) {
+                return Optional.of(location);
+            }
+
+            @Override
+            public Location resolve(String name) {
+                return location;
+            }
+        };
+        return new HotelService(hotelRepository, shardRouter, new HotelGeoIndex(hotelRepository, shardRouter),
+                locationDictionary, new RoomCatalog(Duration.ofHours(1)), null, event -> {
+                }, new SimpleMeterRegistry(), Duration.ofSeconds(2));
+    }
+
+    /**
+     * This method is used to create room types.
+     *
+     * @return room type list.
+     */
+    static List<RoomType> roomTypes() {
+        List<RoomType> roomTypes = new ArrayList<>();
+        for (int markup : ROOM_TYPE_MARKUPS) {
+            RoomTypeRequestDto roomTypeRequestDto = new RoomTypeRequestDto();
+            roomTypeRequestDto.setName("Type " + markup);
+            roomTypeRequestDto.setMarkupPercentage(markup);
+            roomTypes.add(new RoomType(roomTypeRequestDto));
+        }
+        return roomTypes;
+    }
+
+    /**
+     * This method is used to create hotels of one location with rooms of up to maxPeople capacity.
+     *
+     * @param hotelCount    hotelCount
+     * @param roomsPerHotel roomsPerHotel
+     * @param maxPeople     maximum room capacity
+     * @param seed          random seed
+     * @return hotel list.
+     */
+    static List<Hotel> hotels(int hotelCount, int roomsPerHotel, int maxPeople, long seed) {
+        Random random = new Random(seed);
+        List<RoomType> roomTypes = roomTypes();
+        List<Hotel> hotels = new ArrayList<>(hotelCount);
+        for (int i = 0; i < hotelCount; i++) {
+            Hotel hotel = new Hotel(hotelRequestDto("Hotel " + i));
+            Set<Room> rooms = new HashSet<>();
+            for (int j = 0; j < roomsPerHotel; j++) {
+                RoomType roomType = roomTypes.get(random.nextInt(roomTypes.size()));
+                rooms.add(new Room(roomRequestDto("R" + j, 1 + random.nextInt(maxPeople),
+                        50 + random.nextInt(200)), hotel, roomType));
+            }
+            hotel.setRooms(rooms);
+            hotels.add(hotel);
+        }
+        return hotels;
+    }
+
+    /**
+     * This method is used to create a hotel repository that serves the given hotels for any location and by id.
+     *
+     * @param hotels hotels
+     * @return hotel repository.
+     */
+    static HotelRepository repository(List<Hotel> hotels) {
+        return (HotelRepository) Proxy.newProxyInstance(HotelRepository.class.getClassLoader(),
+                new Class<?>[]{HotelRepository.class}, (proxy, method, args) -> {
+                    if ("findByLocation".equals(method.getName()) || "findAll".equals(method.getName()))
+                        return hotels;
+                    if ("findAllWithRoomsByIdIn".equals(method.getName())) {
+                        Set<?> ids = new HashSet<>((Collection<?>) args[0]);
+                        return hotels.stream().filter(hotel -> ids.contains(hotel.getId()))
+                                .collect(Collectors.toList());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static HotelRequestDto hotelRequestDto(String name) {
+        HotelRequestDto hotelRequestDto = new HotelRequestDto();
+        hotelRequestDto.setName(name);
+        hotelRequestDto.setLocation(LOCATION);
+        return hotelRequestDto;
+    }
+
+    static RoomRequestDto roomRequestDto(String roomNo, int maxPeople, double cost) {
+        RoomRequestDto roomRequestDto = new RoomRequestDto();
+        roomRequestDto.setRoomNo(roomNo);
+        roomRequestDto.setMaxPeople(maxPeople);
+        roomRequestDto.setCost(cost);
+        return roomRequestDto;
+    }
+}
@@ -0,0 +1,152 @@
+package com.hilltop.hotel.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.hotel.HotelApplication;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.RoomRequestDto;
+import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
+import com.hilltop.hotel.grpc.GrpcServer;
+import com.hilltop.hotel.grpc.proto.HotelCatalogGrpc;
+import com.hilltop.hotel.grpc.proto.HotelLookupResponse;
+import com.hilltop.hotel.grpc.proto.LookupRequest;
+import com.hilltop.hotel.grpc.proto.SearchHotelsRequest;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC and REST benchmark
+ * Compares the internal gRPC API with the REST endpoints for the same search and lookup, end to end over loopback
+ * against the application with the test profile. Both sides include decoding the response, protobuf for gRPC and a
+ * Jackson tree for REST. The gRPC search drains the server stream, so it measures the full result like the REST
+ * response does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrpcRestBenchmark {
+
+    private static final String LOCATION = "Negombo";
+    private static final int PAX_COUNT = 2;
+    private static final int LOOKUP_IDS = 50;
+
+    @Param({"10", "100"})
+    private int hotelsPerLocation;
+    @Param({"5", "20"})
+    private int roomsPerHotel;
+
+    private ConfigurableApplicationContext context;
+    private ManagedChannel channel;
+    private HotelCatalogGrpc.HotelCatalogBlockingStub stub;
+    private HttpClient httpClient;
+    private ObjectMapper objectMapper;
+    private String baseUri;
+    private LookupRequest lookupRequest;
+    private String lookupBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = SpringApplication.run(HotelApplication.class, "--spring.profiles.active=test", "--server.port=0",
+                "--hilltop.grpc.port=0");
+        List<String> hotelIds = seed();
+        channel = ManagedChannelBuilder.forAddress("localhost", context.getBean(GrpcServer.class).getPort())
+                .usePlaintext().build();
+        stub = HotelCatalogGrpc.newBlockingStub(channel);
+        httpClient = HttpClient.newHttpClient();
+        objectMapper = new ObjectMapper();
+        baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/hill-top-hotel";
+        List<String> lookupIds = hotelIds.subList(0, Math.min(LOOKUP_IDS, hotelIds.size()));
+        lookupRequest = LookupRequest.newBuilder().addAllIds(lookupIds).build();
+        lookupBody = objectMapper.writeValueAsString(Map.of("ids", lookupIds));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public int searchGrpc() {
+        int hotels = 0;
+        Iterator<com.hilltop.hotel.grpc.proto.Hotel> iterator = stub.searchHotels(SearchHotelsRequest.newBuilder()
+                .setLocation(LOCATION).setPaxCount(PAX_COUNT).build());
+        while (iterator.hasNext()) {
+            iterator.next();
+            hotels++;
+        }
+        return hotels;
+    }
+
+    @Benchmark
+    public JsonNode searchRest() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUri + "/api/v1/hotel?location=" + LOCATION + "&paxCount="
+                + PAX_COUNT)).GET().build());
+    }
+
+    @Benchmark
+    public HotelLookupResponse lookupGrpc() {
+        return stub.lookupHotels(lookupRequest);
+    }
+
+    @Benchmark
+    public JsonNode lookupRest() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUri + "/api/v1/hotel/lookup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(lookupBody)).build());
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        return objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body());
+    }
+
+    private List<String> seed() {
+        RoomTypeRequestDto roomTypeRequestDto = new RoomTypeRequestDto();
+        roomTypeRequestDto.setName("Standard");
+        roomTypeRequestDto.setMarkupPercentage(10);
+        RoomType roomType = context.getBean(RoomTypeRepository.class).save(new RoomType(roomTypeRequestDto));
+        HotelRepository hotelRepository = context.getBean(HotelRepository.class);
+        RoomRepository roomRepository = context.getBean(RoomRepository.class);
+        List<String> hotelIds = new ArrayList<>(hotelsPerLocation);
+        for (int i = 0; i < hotelsPerLocation; i++) {
+            HotelRequestDto hotelRequestDto = new HotelRequestDto();
+            hotelRequestDto.setName("Hotel " + i);
+            hotelRequestDto.setLocation(LOCATION);
+            Hotel hotel = hotelRepository.save(new Hotel(hotelRequestDto));
+            hotelIds.add(hotel.getId());
+            List<Room> rooms = new ArrayList<>(roomsPerHotel);
+            for (int j = 0; j < roomsPerHotel; j++) {
+                RoomRequestDto roomRequestDto = new RoomRequestDto();
+                roomRequestDto.setRoomNo("R" + j);
+                roomRequestDto.setMaxPeople(j % 4 + 1);
+                roomRequestDto.setCost(50 + (i * 31 + j * 17) % 250);
+                rooms.add(new Room(roomRequestDto, hotel, roomType));
+            }
+            roomRepository.saveAll(rooms);
+        }
+        return hotelIds;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hilltop.hotel.benchmark;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.enumeration.SearchSort;
+import com.hilltop.hotel.service.HotelService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hotel search benchmark
+ * Measures {@link HotelService#getHotelsByLocationAndPaxCount(String, int)} against an in-memory catalog.
+ * The pax count selects the search path: an exact capacity match, an upgrade to a larger room, or the room
+ * combination fallback. {@link #searchTopTen()} keeps only the ten cheapest hotels with a bounded heap. After the
+ * first invocation the location is served from the room catalog, so the steady state scans primitive arrays and
+ * materializes only the result hotels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotelSearchBenchmark {
+
+    private static final int MAX_ROOM_CAPACITY = 4;
+    private static final int TOP_K = 10;
+
+    @Param({"10", "100", "1000"})
+    private int hotelsPerLocation;
+    @Param({"5", "20", "50"})
+    private int roomsPerHotel;
+    @Param({"EXACT", "UPGRADE", "COMBINATION"})
+    private SearchPath searchPath;
+
+    private HotelService hotelService;
+
+    @Setup
+    public void setUp() {
+        List<Hotel> hotels = CatalogFixture.hotels(hotelsPerLocation, roomsPerHotel, MAX_ROOM_CAPACITY, 42);
+        hotelService = CatalogFixture.hotelService(hotels);
+    }
+
+    @Benchmark
+    public Map<Hotel, List<Room>> search() {
+        return hotelService.getHotelsByLocationAndPaxCount(CatalogFixture.LOCATION, searchPath.paxCount);
+    }
+
+    @Benchmark
+    public Map<Hotel, List<Room>> searchTopTen() {
+        return hotelService.getHotelsByLocationAndPaxCount(CatalogFixture.LOCATION, searchPath.paxCount, null, null,
+                SearchSort.PRICE, TOP_K);
+    }
+
+    /**
+     * Search path selected by the pax count relative to the generated room capacities (1 to 4).
+     */
+    public enum SearchPath {
+        EXACT(2),
+        UPGRADE(MAX_ROOM_CAPACITY - 1),
+        COMBINATION(MAX_ROOM_CAPACITY * 2 + 1);
+
+        private final int paxCount;
+
+        SearchPath(int paxCount) {
+            this.paxCount = paxCount;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.hilltop.hotel.benchmark;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.RoomRequestDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id generation benchmark
+ * Measures creation of {@link Hotel} and {@link Room} entities including their generated ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private HotelRequestDto hotelRequestDto;
+    private RoomRequestDto roomRequestDto;
+    private Hotel hotel;
+    private RoomType roomType;
+
+    @Setup
+    public void setUp() {
+        hotelRequestDto = CatalogFixture.hotelRequestDto("Hotel");
+        roomRequestDto = CatalogFixture.roomRequestDto("R1", 2, 100);
+        hotel = new Hotel(hotelRequestDto);
+        roomType = CatalogFixture.roomTypes().get(0);
+    }
+
+    @Benchmark
+    public Hotel newHotel() {
+        return new Hotel(hotelRequestDto);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Hotel newHotelContended() {
+        return new Hotel(hotelRequestDto);
+    }
+
+    @Benchmark
+    public Room newRoom() {
+        return new Room(roomRequestDto, hotel, roomType);
+    }
+}
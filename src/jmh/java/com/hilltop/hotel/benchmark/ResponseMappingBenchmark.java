@@ -0,0 +1,56 @@
+package com.hilltop.hotel.benchmark;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.response.HotelListResponseDto;
+import com.hilltop.hotel.domain.response.RoomListResponseDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response mapping benchmark
+ * Measures mapping of entities to {@link HotelListResponseDto} and {@link RoomListResponseDto}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int hotelsPerLocation;
+    @Param({"5", "50"})
+    private int roomsPerHotel;
+
+    private List<Hotel> hotels;
+    private List<Room> rooms;
+    private Map<Hotel, List<Room>> searchResult;
+
+    @Setup
+    public void setUp() {
+        hotels = CatalogFixture.hotels(hotelsPerLocation, roomsPerHotel, 4, 42);
+        rooms = new ArrayList<>(hotels.get(0).getRooms());
+        searchResult = CatalogFixture.hotelService(hotels).getHotelsByLocationAndPaxCount(CatalogFixture.LOCATION, 2);
+    }
+
+    @Benchmark
+    public HotelListResponseDto mapHotelList() {
+        return new HotelListResponseDto(hotels);
+    }
+
+    @Benchmark
+    public HotelListResponseDto mapSearchResult() {
+        return new HotelListResponseDto(searchResult);
+    }
+
+    @Benchmark
+    public RoomListResponseDto mapRoomList() {
+        return new RoomListResponseDto(rooms);
+    }
+}
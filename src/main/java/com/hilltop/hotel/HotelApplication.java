@@ -1,14 +1,21 @@
 package com.hilltop.hotel;
 
+import com.hilltop.hotel.startup.StartupReportListener;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 
 @SpringBootApplication
 @EnableEurekaClient
 public class HotelApplication {
 
+    private static final int STARTUP_STEP_CAPACITY = 10000;
+
     public static void main(String[] args) {
-        SpringApplication.run(HotelApplication.class, args);
+        SpringApplication application = new SpringApplication(HotelApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.addListeners(new StartupReportListener());
+        application.run(args);
     }
 }
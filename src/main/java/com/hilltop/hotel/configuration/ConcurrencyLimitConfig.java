@@ -0,0 +1,34 @@
+package com.hilltop.hotel.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.hotel.limit.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Concurrency limit configuration
+ * Registers the interceptor that limits concurrent requests per endpoint group ahead of the other interceptors.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "hilltop.concurrency-limit", name = "enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitProperties concurrencyLimitProperties, MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper) {
+        this.concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(concurrencyLimitProperties, meterRegistry,
+                objectMapper);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
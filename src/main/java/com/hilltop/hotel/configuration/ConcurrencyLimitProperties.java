@@ -0,0 +1,69 @@
+package com.hilltop.hotel.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Concurrency limit properties
+ * Endpoint groups with their own adaptive concurrency limit. Handlers are assigned to groups by handler name, e.g.
+ * {@code hilltop.concurrency-limit.endpoints.[HotelController.searchHotelsNearby]=search}; other GET handlers
+ * belong to {@code list} and the remaining ones to {@code write}. A handler that serves different work depending on
+ * its request parameters is only assigned to its group when the request has all of the listed parameters, e.g.
+ * {@code hilltop.concurrency-limit.endpoint-parameters.[HotelController.listOrSearchHotels]=location,paxCount}.
+ * Limits of a group are set like {@code hilltop.concurrency-limit.groups.search.max-limit=100}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hilltop.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    public static final String LIST_GROUP = "list";
+    public static final String WRITE_GROUP = "write";
+    private boolean enabled = true;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private Map<String, String> endpoints = new HashMap<>();
+    private Map<String, List<String>> endpointParameters = new HashMap<>();
+    private Map<String, Group> groups = new HashMap<>();
+
+    /**
+     * This method is used to get the group of a handler.
+     *
+     * @param handlerName      handler name
+     * @param httpMethod       http method of the request
+     * @param parameterPresent whether the request has a parameter
+     * @return group name.
+     */
+    public String getGroup(String handlerName, String httpMethod, Predicate<String> parameterPresent) {
+        String group = endpoints.get(handlerName);
+        if (group != null && endpointParameters.getOrDefault(handlerName, List.of()).stream()
+                .allMatch(parameterPresent))
+            return group;
+        return "GET".equals(httpMethod) ? LIST_GROUP : WRITE_GROUP;
+    }
+
+    /**
+     * This method is used to get the limits of a group, the defaults when the group is not configured.
+     *
+     * @param group group name
+     * @return limits.
+     */
+    public Group getGroupLimits(String group) {
+        return groups.getOrDefault(group, new Group());
+    }
+
+    @Getter
+    @Setter
+    public static class Group {
+
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+    }
+}
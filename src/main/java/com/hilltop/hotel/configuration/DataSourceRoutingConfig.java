@@ -0,0 +1,173 @@
+package com.hilltop.hotel.configuration;
+
+import com.hilltop.hotel.datasource.ClientContextFilter;
+import com.hilltop.hotel.datasource.ReadWriteRoutingDataSource;
+import com.hilltop.hotel.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data source routing configuration
+ * Active when read replicas or additional shards are configured. Connections go to the shard of the current
+ * thread, there read-only transactions go to the replicas, writes and reads of clients that recently wrote go to the
+ * primary. Every target keeps its own Hikari pool.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+@Conditional(DataSourceRoutingConfig.RoutingConfiguredCondition.class)
+public class DataSourceRoutingConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final List<HikariDataSource> shardPools = new ArrayList<>();
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(DataSourceRoutingProperties dataSourceRoutingProperties) {
+        return new ReadYourWritesTracker(dataSourceRoutingProperties.getReplicaLagTolerance(), Clock.systemUTC());
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 DataSourceRoutingProperties dataSourceRoutingProperties,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        String driverClassName = primaryDataSource.getDriverClassName();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+        List<DataSourceRoutingProperties.Shard> shards = dataSourceRoutingProperties.getShards();
+        for (int i = 0; i < shards.size(); i++) {
+            String name = ReadWriteRoutingDataSource.primaryKey(i + 1);
+            HikariDataSource shardPool = createPool(name, shards.get(i), driverClassName, false);
+            shardPools.add(shardPool);
+            targets.put(name, shardPool);
+        }
+        int[] replicaCounts = new int[dataSourceRoutingProperties.getShardCount()];
+        for (int shard = 0; shard < replicaCounts.length; shard++) {
+            List<DataSourceRoutingProperties.Replica> replicas = dataSourceRoutingProperties.getReplicas(shard);
+            replicaCounts[shard] = replicas.size();
+            for (int i = 0; i < replicas.size(); i++) {
+                String name = ReadWriteRoutingDataSource.replicaKey(shard, i);
+                targets.put(name, createPool(name, replicas.get(i), driverClassName, true));
+            }
+        }
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(replicaCounts, readYourWritesTracker);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public MeterBinder routedPoolMetrics(DataSource dataSource) {
+        // shard and replica pools are not beans, so bind their hikari metrics once the routing data source exists.
+        return meterRegistry -> pools.forEach(pool -> pool.setMetricRegistry(meterRegistry));
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardFlywayMigrationStrategy() {
+        // flyway is configured with the default data source, which is shard 0, so apply the same migrations to the
+        // primary of every other shard. Replicas get them through replication.
+        return flyway -> {
+            flyway.migrate();
+            shardPools.forEach(shardPool -> Flyway.configure().configuration(flyway.getConfiguration())
+                    .dataSource(shardPool).load().migrate());
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseHibernatePropertiesCustomizer() {
+        // release the routed connection after each transaction so the next one can pick another target.
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientContextFilter> clientContextFilter(
+            DataSourceRoutingProperties dataSourceRoutingProperties) {
+        FilterRegistrationBean<ClientContextFilter> registration =
+                new FilterRegistrationBean<>(new ClientContextFilter(dataSourceRoutingProperties.getClientIdHeader()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * This method is used to create the connection pool of a shard or replica.
+     *
+     * @param name            pool name
+     * @param settings        connection settings
+     * @param driverClassName driver of the default data source
+     * @param readOnly        read only pool
+     * @return connection pool.
+     */
+    private HikariDataSource createPool(String name, DataSourceRoutingProperties.Replica settings,
+                                        String driverClassName, boolean readOnly) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(settings.getUrl());
+        pool.setUsername(settings.getUsername());
+        pool.setPassword(settings.getPassword());
+        pool.setDriverClassName(driverClassName);
+        pool.setMaximumPoolSize(settings.getMaximumPoolSize());
+        pool.setReadOnly(readOnly);
+        pools.add(pool);
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    /**
+     * Matches when a replica or a shard is configured.
+     */
+    static class RoutingConfiguredCondition extends AnyNestedCondition {
+
+        RoutingConfiguredCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "hilltop.datasource", name = "replicas[0].url")
+        static class ReplicasConfigured {
+        }
+
+        @ConditionalOnProperty(prefix = "hilltop.datasource", name = "shards[0].url")
+        static class ShardsConfigured {
+        }
+    }
+}
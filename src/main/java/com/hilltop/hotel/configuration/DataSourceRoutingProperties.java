@@ -0,0 +1,69 @@
+package com.hilltop.hotel.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data source routing properties
+ * Shard 0 is the default data source ({@code spring.datasource.*}) with its read replicas
+ * ({@code hilltop.datasource.replicas[n].*}). Every {@code hilltop.datasource.shards[n]} entry adds shard n + 1.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hilltop.datasource")
+public class DataSourceRoutingProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    private List<Shard> shards = new ArrayList<>();
+    private Map<String, Integer> shardMap = new HashMap<>();
+    private int virtualNodes = 64;
+    private Duration replicaLagTolerance = Duration.ofSeconds(2);
+    private String clientIdHeader = "X-Client-Id";
+
+    /**
+     * This method is used to get the number of shards including the default data source.
+     *
+     * @return shard count.
+     */
+    public int getShardCount() {
+        return shards.size() + 1;
+    }
+
+    /**
+     * This method is used to get the replicas of a shard.
+     *
+     * @param shard shard
+     * @return replicas.
+     */
+    public List<Replica> getReplicas(int shard) {
+        return shard == 0 ? replicas : shards.get(shard - 1).getReplicas();
+    }
+
+    /**
+     * Replica connection settings.
+     */
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+
+    /**
+     * Shard connection settings.
+     */
+    @Getter
+    @Setter
+    public static class Shard extends Replica {
+        private List<Replica> replicas = new ArrayList<>();
+    }
+}
@@ -0,0 +1,52 @@
+package com.hilltop.hotel.configuration;
+
+import com.hilltop.hotel.deadline.DeadlineDataSource;
+import com.hilltop.hotel.deadline.DeadlineInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Deadline configuration
+ * Starts a deadline for every request right after admission and applies it to the statements of the primary data
+ * source, the routing data source when shards or replicas are configured.
+ */
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(prefix = "hilltop.deadline", name = "enabled", matchIfMissing = true)
+public class DeadlineConfig implements WebMvcConfigurer {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+    private final DeadlineProperties deadlineProperties;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineConfig(DeadlineProperties deadlineProperties, MeterRegistry meterRegistry) {
+        this.deadlineProperties = deadlineProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && DATA_SOURCE_BEAN.equals(beanName)
+                        ? new DeadlineDataSource((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DeadlineInterceptor(deadlineProperties, meterRegistry))
+                .order(Ordered.HIGHEST_PRECEDENCE + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hilltop.hotel.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deadline properties
+ * Time a request may take. Clients set it with the {@code header} in milliseconds, up to {@code max-timeout};
+ * otherwise the endpoint timeout applies, keyed by handler name, e.g.
+ * {@code hilltop.deadline.endpoints.[HotelController.listOrSearchHotels]=PT3S}, or else the default timeout.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hilltop.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+    private String header = "X-Request-Timeout";
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    private Duration maxTimeout = Duration.ofSeconds(30);
+    private Map<String, Duration> endpoints = new HashMap<>();
+
+    /**
+     * This method is used to get the timeout of a request.
+     *
+     * @param handlerName   handler name
+     * @param headerTimeout header value in milliseconds, null when absent
+     * @return timeout.
+     */
+    public Duration getTimeout(String handlerName, String headerTimeout) {
+        if (headerTimeout != null) {
+            try {
+                long millis = Long.parseLong(headerTimeout.trim());
+                if (millis > 0)
+                    return Duration.ofMillis(Math.min(millis, maxTimeout.toMillis()));
+            } catch (NumberFormatException e) {
+                // fall back to the endpoint timeout
+            }
+        }
+        return endpoints.getOrDefault(handlerName, defaultTimeout);
+    }
+}
@@ -0,0 +1,24 @@
+package com.hilltop.hotel.configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics configuration
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Enables {@link io.micrometer.core.annotation.Timed} on service methods.
+     *
+     * @param meterRegistry meterRegistry
+     * @return timed aspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.hilltop.hotel.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Query budget properties
+ * Maximum number of sql statements a request may execute. Endpoint budgets are keyed by handler name,
+ * e.g. {@code hilltop.query-budget.endpoints.[HotelController.listOrSearchHotels]=3}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hilltop.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+    private int defaultMaxQueries = 10;
+    private int repeatedStatementThreshold = 3;
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    /**
+     * This method is used to get the query budget of a handler.
+     *
+     * @param handlerName handlerName
+     * @return max query count.
+     */
+    public int getMaxQueries(String handlerName) {
+        return endpoints.getOrDefault(handlerName, defaultMaxQueries);
+    }
+}
@@ -0,0 +1,45 @@
+package com.hilltop.hotel.configuration;
+
+import com.hilltop.hotel.metrics.QueryBudgetInterceptor;
+import com.hilltop.hotel.metrics.QueryCountInterceptor;
+import com.hilltop.hotel.metrics.QueryCountStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Query profiling configuration
+ * Registers the hibernate statement inspector and interceptor that count queries and rows per request.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+@ConditionalOnProperty(prefix = "hilltop.query-budget", name = "enabled", matchIfMissing = true)
+public class QueryProfilingConfig implements WebMvcConfigurer {
+
+    private final QueryBudgetProperties queryBudgetProperties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryProfilingConfig(QueryBudgetProperties queryBudgetProperties, MeterRegistry meterRegistry) {
+        this.queryBudgetProperties = queryBudgetProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountStatementInspector());
+            hibernateProperties.put(AvailableSettings.INTERCEPTOR, new QueryCountInterceptor());
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(queryBudgetProperties, meterRegistry));
+    }
+}
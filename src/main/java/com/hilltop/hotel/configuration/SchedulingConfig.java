@@ -0,0 +1,13 @@
+package com.hilltop.hotel.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration
+ * Enables background work that is kept off the request path, such as the periodic summary reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,25 @@
+package com.hilltop.hotel.configuration;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Sharding configuration
+ * Without configured shards every location maps to shard 0, the default data source.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(DataSourceRoutingProperties dataSourceRoutingProperties,
+                                   PlatformTransactionManager transactionManager,
+                                   EntityManagerFactory entityManagerFactory) {
+        return new ShardRouter(dataSourceRoutingProperties, transactionManager, entityManagerFactory);
+    }
+}
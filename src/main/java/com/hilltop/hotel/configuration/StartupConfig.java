@@ -0,0 +1,31 @@
+package com.hilltop.hotel.configuration;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup configuration
+ * With {@code spring.main.lazy-initialization=true} only the beans on the request path (controllers and
+ * services) are created eagerly so that the first request does not pay for their creation. The warm-up after
+ * startup is configured by {@link WarmUpProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class StartupConfig {
+
+    private static final String[] EAGER_PACKAGES = {"com.hilltop.hotel.controller", "com.hilltop.hotel.service"};
+
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> {
+            String packageName = beanType.getPackageName();
+            for (String eagerPackage : EAGER_PACKAGES) {
+                if (packageName.startsWith(eagerPackage))
+                    return true;
+            }
+            return false;
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package com.hilltop.hotel.configuration;
 
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.ApiKey;
@@ -10,16 +14,20 @@ import springfox.documentation.service.SecurityReference;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spi.service.contexts.SecurityContext;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+import java.lang.reflect.Field;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * Swagger configuration
+ * Disabled with {@code springfox.documentation.enabled=false}.
  */
 @Configuration
 @EnableSwagger2
+@ConditionalOnProperty(name = "springfox.documentation.enabled", matchIfMissing = true)
 public class SwaggerConfig {
 
     @Bean
@@ -33,6 +41,37 @@ public class SwaggerConfig {
                 .build();
     }
 
+    /**
+     * Springfox only understands ant path matching, while actuator endpoints are always mapped with path
+     * patterns. This post processor hides the path pattern based handler mappings from springfox.
+     *
+     * @return bean post processor.
+     */
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof WebMvcRequestHandlerProvider)
+                    removePathPatternHandlerMappings(bean);
+                return bean;
+            }
+
+            @SuppressWarnings("unchecked")
+            private void removePathPatternHandlerMappings(Object bean) {
+                Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+                if (field == null)
+                    return;
+                ReflectionUtils.makeAccessible(field);
+                List<RequestMappingInfoHandlerMapping> handlerMappings =
+                        (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+                if (handlerMappings != null)
+                    handlerMappings.removeIf(mapping -> mapping.getPatternParser() != null);
+            }
+        };
+    }
+
     private ApiKey apiKey() {
         return new ApiKey("JWT", "Authorization", "header");
     }
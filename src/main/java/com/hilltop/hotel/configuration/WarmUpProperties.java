@@ -0,0 +1,27 @@
+package com.hilltop.hotel.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warm-up properties
+ * Synthetic workload run after startup before the instance is marked UP in Eureka. Without configured locations
+ * the locations with the most hotels are warmed up.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hilltop.warm-up")
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+    private Duration budget = Duration.ofSeconds(60);
+    private int iterations = 500;
+    private int connections = 10;
+    private List<String> locations = new ArrayList<>();
+    private int locationLimit = 10;
+}
@@ -4,13 +4,18 @@ import com.hilltop.hotel.domain.response.ResponseDto;
 import com.hilltop.hotel.domain.response.ResponseWrapper;
 import com.hilltop.hotel.enumeration.ErrorMessage;
 import com.hilltop.hotel.enumeration.SuccessMessage;
+import com.hilltop.hotel.exception.DeadlineExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 
 /**
  * Base controller
  */
+@Slf4j
 @CrossOrigin
 public class BaseController {
 
@@ -28,6 +33,21 @@ public class BaseController {
         return new ResponseEntity<>(responseWrapper, httpStatus);
     }
 
+    /**
+     * This method is used to get success response with the version of the changed data as ETag.
+     *
+     * @param successMessage success message
+     * @param responseDto    response data
+     * @param httpStatus     http status
+     * @param version        version of the data
+     * @return success response.
+     */
+    protected ResponseEntity<ResponseWrapper> getSuccessResponse(SuccessMessage successMessage, ResponseDto responseDto,
+                                                                 HttpStatus httpStatus, long version) {
+        ResponseWrapper responseWrapper = new ResponseWrapper(successMessage.getMessage(), responseDto);
+        return ResponseEntity.status(httpStatus).eTag(String.valueOf(version)).body(responseWrapper);
+    }
+
     /**
      * This method is used to send bad request error response.
      *
@@ -39,6 +59,71 @@ public class BaseController {
         return new ResponseEntity<>(responseWrapper, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * This method is used to send precondition failed error response for outdated versions.
+     *
+     * @return precondition failed error response.
+     */
+    protected ResponseEntity<ResponseWrapper> getPreconditionFailedErrorResponse() {
+        ResponseWrapper responseWrapper = new ResponseWrapper(ErrorMessage.VERSION_CONFLICT.getMessage());
+        return new ResponseEntity<>(responseWrapper, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * This method is used to get the version of an If-Match header.
+     *
+     * @param ifMatch If-Match header value, e.g. "3"
+     * @return version, null when any version matches and -1 when the value is not a version.
+     */
+    protected Long getIfMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*"))
+            return null;
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith("W/"))
+            eTag = eTag.substring(2);
+        try {
+            return Long.parseLong(eTag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * This method is used to send gone error response for data that is no longer retained.
+     *
+     * @param errorMessage error message
+     * @return gone error response.
+     */
+    protected ResponseEntity<ResponseWrapper> getGoneErrorResponse(ErrorMessage errorMessage) {
+        ResponseWrapper responseWrapper = new ResponseWrapper(errorMessage.getMessage());
+        return new ResponseEntity<>(responseWrapper, HttpStatus.GONE);
+    }
+
+    /**
+     * This method is used to send service unavailable error response for requests that can not be taken now.
+     *
+     * @param errorMessage error message
+     * @return service unavailable error response.
+     */
+    protected ResponseEntity<ResponseWrapper> getServiceUnavailableErrorResponse(ErrorMessage errorMessage) {
+        ResponseWrapper responseWrapper = new ResponseWrapper(errorMessage.getMessage());
+        return new ResponseEntity<>(responseWrapper, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * This method is used to send gateway timeout error response for requests abandoned at their deadline or whose
+     * query was cancelled by its timeout.
+     *
+     * @param e deadline exceeded or query timeout exception
+     * @return gateway timeout error response.
+     */
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<ResponseWrapper> handleDeadlineExceeded(RuntimeException e) {
+        log.debug("Request deadline exceeded. {}", e.getMessage());
+        ResponseWrapper responseWrapper = new ResponseWrapper(ErrorMessage.DEADLINE_EXCEEDED.getMessage());
+        return new ResponseEntity<>(responseWrapper, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     /**
      * This method sends internal server error response.
      *
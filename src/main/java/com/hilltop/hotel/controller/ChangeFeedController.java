@@ -0,0 +1,60 @@
+package com.hilltop.hotel.controller;
+
+import com.hilltop.hotel.domain.response.ChangeFeedResponseDto;
+import com.hilltop.hotel.domain.response.ResponseWrapper;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.enumeration.SuccessMessage;
+import com.hilltop.hotel.exception.ChangeFeedCursorExpiredException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.InvalidChangeFeedCursorException;
+import com.hilltop.hotel.service.ChangeFeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/v1/changes")
+public class ChangeFeedController extends BaseController {
+
+    private static final int MAX_LIMIT = 1000;
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * This method is used to get the hotel, room and room type changes after a cursor, oldest first.
+     *
+     * @param after cursor returned with the previous page, omitted to start at the oldest retained change
+     * @param limit maximum change count
+     * @return change feed page.
+     */
+    @GetMapping("")
+    public ResponseEntity<ResponseWrapper> getChanges(@RequestParam(required = false) String after,
+                                                      @RequestParam(defaultValue = "500") int limit) {
+        try {
+            if (limit < 1 || limit > MAX_LIMIT) {
+                log.debug("Invalid change feed limit: {}", limit);
+                return getBadRequestErrorResponse(ErrorMessage.INVALID_CHANGE_FEED_PARAMETERS);
+            }
+            ChangeFeedResponseDto changeFeedResponseDto = changeFeedService.getChanges(after, limit);
+            log.debug("Successfully returned {} catalog changes.", changeFeedResponseDto.getChanges().size());
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_RETURNED, changeFeedResponseDto, HttpStatus.OK);
+        } catch (InvalidChangeFeedCursorException e) {
+            log.debug("Invalid change feed cursor. {}", e.getMessage());
+            return getBadRequestErrorResponse(ErrorMessage.INVALID_CHANGE_FEED_PARAMETERS);
+        } catch (ChangeFeedCursorExpiredException e) {
+            log.debug("Expired change feed cursor. {}", e.getMessage());
+            return getGoneErrorResponse(ErrorMessage.CHANGE_FEED_CURSOR_EXPIRED);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to get catalog changes. ", e);
+            return getInternalServerError();
+        }
+    }
+}
@@ -2,22 +2,33 @@ package com.hilltop.hotel.controller;
 
 import com.hilltop.hotel.domain.entity.Hotel;
 import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.request.HotelPatchRequestDto;
 import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.LookupRequestDto;
 import com.hilltop.hotel.domain.request.UpdateHotelRequestDto;
 import com.hilltop.hotel.domain.response.HotelListResponseDto;
+import com.hilltop.hotel.domain.response.HotelLookupResponseDto;
+import com.hilltop.hotel.domain.response.HotelSummaryResponseDto;
 import com.hilltop.hotel.domain.response.ResponseWrapper;
 import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.enumeration.SearchSort;
 import com.hilltop.hotel.enumeration.SuccessMessage;
 import com.hilltop.hotel.exception.DataNotFoundException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.ShardRelocationException;
+import com.hilltop.hotel.exception.VersionConflictException;
+import com.hilltop.hotel.geo.GeoDistance;
 import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.HotelSummaryService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Hotel controller
@@ -27,10 +38,13 @@ import java.util.Map;
 @RequestMapping("/api/v1/hotel")
 public class HotelController extends BaseController {
 
+    private static final double MAX_NEARBY_RADIUS_KM = 100;
     private final HotelService hotelService;
+    private final HotelSummaryService hotelSummaryService;
 
-    public HotelController(HotelService hotelService) {
+    public HotelController(HotelService hotelService, HotelSummaryService hotelSummaryService) {
         this.hotelService = hotelService;
+        this.hotelSummaryService = hotelSummaryService;
     }
 
     /**
@@ -46,6 +60,10 @@ public class HotelController extends BaseController {
                 log.debug("Required fields missing. data: {}", hotelRequestDto.toLogJson());
                 return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
             }
+            if (!hotelRequestDto.hasValidCoordinates()) {
+                log.debug("Invalid coordinates. data: {}", hotelRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.INVALID_COORDINATES);
+            }
             hotelService.addHotel(hotelRequestDto);
             return getSuccessResponse(SuccessMessage.SUCCESSFULLY_ADDED, null, HttpStatus.CREATED);
         } catch (HillTopHotelApplicationException e) {
@@ -67,11 +85,57 @@ public class HotelController extends BaseController {
                 log.debug("Required fields missing. data: {}", updateHotelRequestDto.toLogJson());
                 return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
             }
+            if (!updateHotelRequestDto.hasValidCoordinates()) {
+                log.debug("Invalid coordinates. data: {}", updateHotelRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.INVALID_COORDINATES);
+            }
             hotelService.updateHotel(updateHotelRequestDto);
             return getSuccessResponse(SuccessMessage.SUCCESSFULLY_UPDATED, null, HttpStatus.OK);
         } catch (DataNotFoundException e) {
             log.error("Data not found.", e);
             return getBadRequestErrorResponse(ErrorMessage.DATA_NOT_FOUND);
+        } catch (ShardRelocationException e) {
+            log.debug("Rejected hotel relocation. {}", e.getMessage());
+            return getBadRequestErrorResponse(ErrorMessage.SHARD_RELOCATION_NOT_SUPPORTED);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to update hotel. ", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to update the given hotel fields.
+     *
+     * @param id                   hotelId
+     * @param ifMatch              version the change is based on
+     * @param hotelPatchRequestDto hotelPatchRequestDto
+     * @return success/error response with the new version as ETag.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ResponseWrapper> patchHotel(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody HotelPatchRequestDto hotelPatchRequestDto) {
+        try {
+            if (!hotelPatchRequestDto.isRequiredFieldsAvailable()) {
+                log.debug("Required fields missing. data: {}", hotelPatchRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
+            }
+            if (!hotelPatchRequestDto.hasValidCoordinates()) {
+                log.debug("Invalid coordinates. data: {}", hotelPatchRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.INVALID_COORDINATES);
+            }
+            long version = hotelService.patchHotel(id, hotelPatchRequestDto, getIfMatchVersion(ifMatch));
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_UPDATED, null, HttpStatus.OK, version);
+        } catch (DataNotFoundException e) {
+            log.error("Data not found.", e);
+            return getBadRequestErrorResponse(ErrorMessage.DATA_NOT_FOUND);
+        } catch (VersionConflictException e) {
+            log.debug("Rejected outdated hotel update. {}", e.getMessage());
+            return getPreconditionFailedErrorResponse();
+        } catch (ShardRelocationException e) {
+            log.debug("Rejected hotel relocation. {}", e.getMessage());
+            return getBadRequestErrorResponse(ErrorMessage.SHARD_RELOCATION_NOT_SUPPORTED);
         } catch (HillTopHotelApplicationException e) {
             log.error("Failed to update hotel. ", e);
             return getInternalServerError();
@@ -83,18 +147,33 @@ public class HotelController extends BaseController {
      *
      * @param location hotel location
      * @param paxCount paxCount
+     * @param minPrice optional minimum room price of a search
+     * @param maxPrice optional maximum room price of a search
+     * @param sort     search order, price (default) or capacityFit
+     * @param limit    optional maximum hotel count of a search
      * @return hotel list.
      */
     @GetMapping("")
     public ResponseEntity<ResponseWrapper> listOrSearchHotels(@RequestParam(required = false) String location,
-                                                              @RequestParam(required = false) Integer paxCount) {
+                                                              @RequestParam(required = false) Integer paxCount,
+                                                              @RequestParam(required = false) Double minPrice,
+                                                              @RequestParam(required = false) Double maxPrice,
+                                                              @RequestParam(defaultValue = "price") String sort,
+                                                              @RequestParam(required = false) Integer limit) {
         try {
             HotelListResponseDto hotelListResponseDto;
             if (location == null || paxCount == null)
                 hotelListResponseDto = new HotelListResponseDto(hotelService.getHotelList());
             else {
-                Map<Hotel, List<Room>> hotelAndRoomsMap =
-                        hotelService.getHotelsByLocationAndPaxCount(location, paxCount);
+                Optional<SearchSort> searchSort = SearchSort.fromValue(sort);
+                if (searchSort.isEmpty() || (limit != null && (limit < 1 || limit > HotelService.MAX_SEARCH_LIMIT))
+                        || (minPrice != null && maxPrice != null && minPrice > maxPrice)) {
+                    log.debug("Invalid search parameters. sort: {}, limit: {}, minPrice: {}, maxPrice: {}",
+                            sort, limit, minPrice, maxPrice);
+                    return getBadRequestErrorResponse(ErrorMessage.INVALID_SEARCH_PARAMETERS);
+                }
+                Map<Hotel, List<Room>> hotelAndRoomsMap = hotelService.getHotelsByLocationAndPaxCount(location,
+                        paxCount, minPrice, maxPrice, searchSort.get(), limit);
                 hotelListResponseDto = new HotelListResponseDto(hotelAndRoomsMap);
             }
             log.debug("Successfully returned all hotels.");
@@ -104,4 +183,86 @@ public class HotelController extends BaseController {
             return getInternalServerError();
         }
     }
+
+    /**
+     * This method is used to get hotels by ids, together with the ids that were not found.
+     *
+     * @param lookupRequestDto lookupRequestDto
+     * @return found hotels and missing ids.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ResponseWrapper> lookupHotels(@RequestBody LookupRequestDto lookupRequestDto) {
+        try {
+            if (!lookupRequestDto.isRequiredFieldsAvailable()) {
+                log.debug("Required fields missing. data: {}", lookupRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
+            }
+            if (!lookupRequestDto.isWithinLimit()) {
+                log.debug("Too many hotel ids to look up: {}", lookupRequestDto.getIds().size());
+                return getBadRequestErrorResponse(ErrorMessage.TOO_MANY_LOOKUP_IDS);
+            }
+            HotelLookupResponseDto hotelLookupResponseDto = new HotelLookupResponseDto(lookupRequestDto.getIds(),
+                    hotelService.getHotelsByIds(lookupRequestDto.getIds()));
+            log.debug("Successfully returned hotels by ids.");
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_RETURNED, hotelLookupResponseDto, HttpStatus.OK);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to look up hotels. ", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to search hotels near a point that have rooms for the pax count, nearest first.
+     *
+     * @param latitude  latitude of the search point
+     * @param longitude longitude of the search point
+     * @param radiusKm  search radius in km
+     * @param paxCount  paxCount
+     * @param limit     optional maximum hotel count
+     * @return hotel list with distances.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<ResponseWrapper> searchHotelsNearby(@RequestParam double latitude,
+                                                              @RequestParam double longitude,
+                                                              @RequestParam(defaultValue = "5") double radiusKm,
+                                                              @RequestParam int paxCount,
+                                                              @RequestParam(required = false) Integer limit) {
+        try {
+            if (!GeoDistance.isValid(latitude, longitude) || radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM
+                    || (limit != null && (limit < 1 || limit > HotelService.MAX_SEARCH_LIMIT))) {
+                log.debug("Invalid nearby search parameters. latitude: {}, longitude: {}, radiusKm: {}, limit: {}",
+                        latitude, longitude, radiusKm, limit);
+                return getBadRequestErrorResponse(ErrorMessage.INVALID_SEARCH_PARAMETERS);
+            }
+            Map<Hotel, List<Room>> hotelAndRoomsMap =
+                    hotelService.getHotelsNearby(latitude, longitude, radiusKm, paxCount, limit);
+            log.debug("Successfully returned nearby hotels.");
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_RETURNED,
+                    new HotelListResponseDto(hotelAndRoomsMap, latitude, longitude), HttpStatus.OK);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to search nearby hotels.", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to get the room count, capacity histogram and room type prices of a hotel.
+     *
+     * @param id hotelId
+     * @return hotel summary.
+     */
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<ResponseWrapper> getHotelSummary(@PathVariable String id) {
+        try {
+            HotelSummaryResponseDto hotelSummaryResponseDto = hotelSummaryService.getHotelSummary(id);
+            log.debug("Successfully returned hotel summary.");
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_RETURNED, hotelSummaryResponseDto, HttpStatus.OK);
+        } catch (DataNotFoundException e) {
+            log.error("Data not found.", e);
+            return getBadRequestErrorResponse(ErrorMessage.DATA_NOT_FOUND);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to get hotel summary.", e);
+            return getInternalServerError();
+        }
+    }
 }
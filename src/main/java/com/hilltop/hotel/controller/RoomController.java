@@ -1,18 +1,32 @@
 package com.hilltop.hotel.controller;
 
+import com.hilltop.hotel.domain.request.LookupRequestDto;
+import com.hilltop.hotel.domain.request.RoomBulkDeleteRequestDto;
+import com.hilltop.hotel.domain.request.RoomPatchRequestDto;
 import com.hilltop.hotel.domain.request.RoomRequestDto;
 import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.domain.response.BulkDeleteResponseDto;
 import com.hilltop.hotel.domain.response.ResponseWrapper;
 import com.hilltop.hotel.domain.response.RoomListResponseDto;
+import com.hilltop.hotel.domain.response.RoomLookupResponseDto;
+import com.hilltop.hotel.domain.response.RoomUpdateStatusResponseDto;
 import com.hilltop.hotel.enumeration.ErrorMessage;
 import com.hilltop.hotel.enumeration.SuccessMessage;
 import com.hilltop.hotel.exception.DataNotFoundException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.ShardRelocationException;
+import com.hilltop.hotel.exception.VersionConflictException;
+import com.hilltop.hotel.exception.WriteBehindRejectedException;
 import com.hilltop.hotel.service.RoomService;
+import com.hilltop.hotel.writebehind.RoomWriteBehindQueue;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Arrays;
 
 @RestController
 @Slf4j
@@ -20,10 +34,15 @@ import org.springframework.web.bind.annotation.*;
 public class RoomController extends BaseController {
 
     private static final String MISSING_FIELDS = "Required fields missing. data: {}";
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
     private final RoomService roomService;
+    private final RoomWriteBehindQueue roomWriteBehindQueue;
 
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, RoomWriteBehindQueue roomWriteBehindQueue) {
         this.roomService = roomService;
+        this.roomWriteBehindQueue = roomWriteBehindQueue;
     }
 
     /**
@@ -52,23 +71,95 @@ public class RoomController extends BaseController {
     }
 
     /**
-     * This method is used to update room details.
+     * This method is used to update room details. With {@code Prefer: respond-async} the update is validated,
+     * stored in the outbox of its shard, accepted with 202 and a trackingId, and applied later in a group commit.
      *
      * @param updateRoomRequestDto updateRoomRequestDto
+     * @param prefer               Prefer header
      * @return success/error response.
      */
     @PutMapping("")
-    public ResponseEntity<ResponseWrapper> updateRoom(@RequestBody UpdateRoomRequestDto updateRoomRequestDto) {
+    public ResponseEntity<ResponseWrapper> updateRoom(@RequestBody UpdateRoomRequestDto updateRoomRequestDto,
+                                                      @RequestHeader(value = PREFER, required = false) String prefer) {
         try {
             if (!updateRoomRequestDto.isRequiredFieldsAvailableForUpdate()) {
                 log.debug(MISSING_FIELDS, updateRoomRequestDto.toLogJson());
                 return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
             }
+            if (roomWriteBehindQueue.isEnabled() && isRespondAsync(prefer)) {
+                RoomUpdateStatusResponseDto roomUpdateStatusResponseDto =
+                        roomWriteBehindQueue.accept(updateRoomRequestDto);
+                return ResponseEntity.accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/updates/{trackingId}")
+                                .buildAndExpand(roomUpdateStatusResponseDto.getTrackingId()).toUri())
+                        .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                        .body(new ResponseWrapper(SuccessMessage.SUCCESSFULLY_ACCEPTED.getMessage(),
+                                roomUpdateStatusResponseDto));
+            }
             roomService.updateRoom(updateRoomRequestDto);
             return getSuccessResponse(SuccessMessage.SUCCESSFULLY_UPDATED, null, HttpStatus.OK);
         } catch (DataNotFoundException e) {
             log.error("Data not found.", e);
             return getBadRequestErrorResponse(ErrorMessage.DATA_NOT_FOUND);
+        } catch (ShardRelocationException e) {
+            log.debug("Rejected room relocation. {}", e.getMessage());
+            return getBadRequestErrorResponse(ErrorMessage.SHARD_RELOCATION_NOT_SUPPORTED);
+        } catch (WriteBehindRejectedException e) {
+            log.warn("Rejected room update. {}", e.getMessage());
+            return getServiceUnavailableErrorResponse(ErrorMessage.ROOM_UPDATE_QUEUE_FULL);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to update room. ", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to get the status of a room update accepted with {@code Prefer: respond-async}.
+     *
+     * @param trackingId trackingId
+     * @return success/error response with the room update status.
+     */
+    @GetMapping("/updates/{trackingId}")
+    public ResponseEntity<ResponseWrapper> getRoomUpdateStatus(@PathVariable String trackingId) {
+        try {
+            RoomUpdateStatusResponseDto roomUpdateStatusResponseDto = roomWriteBehindQueue.getStatus(trackingId);
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_RETURNED, roomUpdateStatusResponseDto,
+                    HttpStatus.OK);
+        } catch (DataNotFoundException e) {
+            log.debug("Room update status not found. {}", e.getMessage());
+            return getBadRequestErrorResponse(ErrorMessage.DATA_NOT_FOUND);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to get room update status. ", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to update the given room fields.
+     *
+     * @param id                  roomId
+     * @param ifMatch             version the change is based on
+     * @param roomPatchRequestDto roomPatchRequestDto
+     * @return success/error response with the new version as ETag.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ResponseWrapper> patchRoom(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody RoomPatchRequestDto roomPatchRequestDto) {
+        try {
+            if (!roomPatchRequestDto.isRequiredFieldsAvailable()) {
+                log.debug(MISSING_FIELDS, roomPatchRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
+            }
+            long version = roomService.patchRoom(id, roomPatchRequestDto, getIfMatchVersion(ifMatch));
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_UPDATED, null, HttpStatus.OK, version);
+        } catch (DataNotFoundException e) {
+            log.error("Data not found.", e);
+            return getBadRequestErrorResponse(ErrorMessage.DATA_NOT_FOUND);
+        } catch (VersionConflictException e) {
+            log.debug("Rejected outdated room update. {}", e.getMessage());
+            return getPreconditionFailedErrorResponse();
         } catch (HillTopHotelApplicationException e) {
             log.error("Failed to update room. ", e);
             return getInternalServerError();
@@ -92,6 +183,58 @@ public class RoomController extends BaseController {
         }
     }
 
+    /**
+     * This method is used to delete rooms by ids or by hotel id and an optional room number filter.
+     *
+     * @param roomBulkDeleteRequestDto roomBulkDeleteRequestDto
+     * @return deleted room count.
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<ResponseWrapper> deleteRooms(@RequestBody RoomBulkDeleteRequestDto roomBulkDeleteRequestDto) {
+        try {
+            if (!roomBulkDeleteRequestDto.isRequiredFieldsAvailable()) {
+                log.debug(MISSING_FIELDS, roomBulkDeleteRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
+            }
+            int deletedCount = roomBulkDeleteRequestDto.isHotelScoped()
+                    ? roomService.deleteRoomsByHotelId(roomBulkDeleteRequestDto.getHotelId(),
+                    roomBulkDeleteRequestDto.getRoomNo())
+                    : roomService.deleteRoomsByIds(roomBulkDeleteRequestDto.getIds());
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_DELETED, new BulkDeleteResponseDto(deletedCount),
+                    HttpStatus.OK);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to delete rooms. ", e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method is used to get rooms by ids, together with the ids that were not found.
+     *
+     * @param lookupRequestDto lookupRequestDto
+     * @return found rooms and missing ids.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ResponseWrapper> lookupRooms(@RequestBody LookupRequestDto lookupRequestDto) {
+        try {
+            if (!lookupRequestDto.isRequiredFieldsAvailable()) {
+                log.debug(MISSING_FIELDS, lookupRequestDto.toLogJson());
+                return getBadRequestErrorResponse(ErrorMessage.MISSING_REQUIRED_FIELDS);
+            }
+            if (!lookupRequestDto.isWithinLimit()) {
+                log.debug("Too many room ids to look up: {}", lookupRequestDto.getIds().size());
+                return getBadRequestErrorResponse(ErrorMessage.TOO_MANY_LOOKUP_IDS);
+            }
+            RoomLookupResponseDto roomLookupResponseDto = new RoomLookupResponseDto(lookupRequestDto.getIds(),
+                    roomService.getRoomsByIds(lookupRequestDto.getIds()));
+            log.debug("Successfully returned rooms by ids.");
+            return getSuccessResponse(SuccessMessage.SUCCESSFULLY_RETURNED, roomLookupResponseDto, HttpStatus.OK);
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to look up rooms. ", e);
+            return getInternalServerError();
+        }
+    }
+
     /**
      * This method is used to list room details by hotel id.
      *
@@ -111,4 +254,15 @@ public class RoomController extends BaseController {
             return getInternalServerError();
         }
     }
+
+    /**
+     * This method is used to check whether a Prefer header asks for an asynchronous response.
+     *
+     * @param prefer Prefer header, e.g. "respond-async, wait=5"
+     * @return true/false
+     */
+    private static boolean isRespondAsync(String prefer) {
+        return prefer != null && Arrays.stream(prefer.split(","))
+                .anyMatch(preference -> preference.trim().equalsIgnoreCase(RESPOND_ASYNC));
+    }
 }
@@ -0,0 +1,25 @@
+package com.hilltop.hotel.datasource;
+
+/**
+ * Client context
+ * Identity of the client that issued the current request, used for read-your-writes routing.
+ */
+public final class ClientContext {
+
+    private static final ThreadLocal<String> CLIENT_ID = new ThreadLocal<>();
+
+    private ClientContext() {
+    }
+
+    public static String getClientId() {
+        return CLIENT_ID.get();
+    }
+
+    public static void setClientId(String clientId) {
+        CLIENT_ID.set(clientId);
+    }
+
+    public static void clear() {
+        CLIENT_ID.remove();
+    }
+}
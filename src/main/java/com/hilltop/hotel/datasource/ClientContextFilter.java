@@ -0,0 +1,37 @@
+package com.hilltop.hotel.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Client context filter
+ * Binds the client id header to the request thread and clears the request's client and shard context afterwards.
+ * Requests without the header are not tracked for read-your-writes and read from the replicas; the remote address
+ * is never used instead, since clients behind one proxy or NAT share it.
+ */
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    private final String clientIdHeader;
+
+    public ClientContextFilter(String clientIdHeader) {
+        this.clientIdHeader = clientIdHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(clientIdHeader);
+        ClientContext.setClientId(clientId == null || clientId.isBlank() ? null : clientId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientContext.clear();
+            ShardContext.clear();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hilltop.hotel.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read write routing data source
+ * Routes to the shard of the {@link ShardContext}, there read-only transactions go to the shard's replicas
+ * (round robin) and everything else to the shard's primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the target is chosen once the
+ * transaction's read-only flag and shard are known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica-";
+    private static final String SHARD = "shard-";
+    private final int[] replicaCounts;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Routing data source.
+     *
+     * @param replicaCounts         replica count of each shard
+     * @param readYourWritesTracker readYourWritesTracker
+     */
+    public ReadWriteRoutingDataSource(int[] replicaCounts, ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaCounts = replicaCounts.clone();
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    /**
+     * This method is used to get the lookup key of a shard's primary.
+     *
+     * @param shard shard
+     * @return lookup key.
+     */
+    public static String primaryKey(int shard) {
+        return shard == 0 ? PRIMARY : SHARD + shard;
+    }
+
+    /**
+     * This method is used to get the lookup key of a shard's replica.
+     *
+     * @param shard   shard
+     * @param replica replica index
+     * @return lookup key.
+     */
+    public static String replicaKey(int shard, int replica) {
+        return shard == 0 ? REPLICA + replica : SHARD + shard + "-" + REPLICA + replica;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardContext.getShard();
+        String clientId = ClientContext.getClientId();
+        int replicaCount = replicaCounts[shard];
+        if (replicaCount > 0 && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !readYourWritesTracker.requiresPrimary(clientId))
+            return replicaKey(shard, Math.floorMod(nextReplica.getAndIncrement(), replicaCount));
+        recordWrite(clientId);
+        return primaryKey(shard);
+    }
+
+    /**
+     * This method is used to record a write once the current read-write transaction commits. Primary connections
+     * outside of a read-write transaction, such as read-only transactions without a replica, are not writes.
+     *
+     * @param clientId clientId
+     */
+    private void recordWrite(String clientId) {
+        if (clientId == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite(clientId);
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.hilltop.hotel.datasource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read your writes tracker
+ * Remembers when each client last wrote to the primary. Reads of a client within the replica lag tolerance of
+ * its last write are served by the primary so the client always sees its own writes. Writes are only remembered
+ * by this instance, so a client routed to another instance right after a write may read from a lagging replica;
+ * read-your-writes across instances needs sticky routing of clients to one instance.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10000;
+    private final Map<String, Long> lastWriteMillis = new ConcurrentHashMap<>();
+    private final long lagToleranceMillis;
+    private final Clock clock;
+
+    public ReadYourWritesTracker(Duration lagTolerance, Clock clock) {
+        this.lagToleranceMillis = lagTolerance.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * This method is used to record a write of the given client.
+     *
+     * @param clientId clientId
+     */
+    public void recordWrite(String clientId) {
+        if (clientId == null)
+            return;
+        long now = clock.millis();
+        lastWriteMillis.put(clientId, now);
+        if (lastWriteMillis.size() > PURGE_THRESHOLD)
+            lastWriteMillis.values().removeIf(writeMillis -> now - writeMillis > lagToleranceMillis);
+    }
+
+    /**
+     * This method is used to check whether the client wrote within the replica lag tolerance.
+     *
+     * @param clientId clientId
+     * @return true if reads of the client must go to the primary.
+     */
+    public boolean requiresPrimary(String clientId) {
+        if (clientId == null)
+            return false;
+        Long writeMillis = lastWriteMillis.get(clientId);
+        if (writeMillis == null)
+            return false;
+        if (clock.millis() - writeMillis > lagToleranceMillis) {
+            lastWriteMillis.remove(clientId, writeMillis);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hilltop.hotel.datasource;
+
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.search.CatalogChangeLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PersistenceException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Room type shard backfill
+ * Every shard holds all room types, but room types stored before sharding exist on shard 0 only. At startup the room
+ * types of shard 0 missing on another shard are copied to it and logged in its change log, shard by shard. Copies
+ * already present are left untouched, so the backfill is a no-op once all shards are complete. Runs as an application
+ * runner, so it has finished before the application reports ready and the warm-up marks the instance up in Eureka.
+ */
+@Component
+@Slf4j
+public class RoomTypeShardBackfill implements ApplicationRunner {
+
+    private final RoomTypeRepository roomTypeRepository;
+    private final ShardRouter shardRouter;
+    private final CatalogChangeLog catalogChangeLog;
+
+    public RoomTypeShardBackfill(RoomTypeRepository roomTypeRepository, ShardRouter shardRouter,
+                                 CatalogChangeLog catalogChangeLog) {
+        this.roomTypeRepository = roomTypeRepository;
+        this.shardRouter = shardRouter;
+        this.catalogChangeLog = catalogChangeLog;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    /**
+     * This method is used to copy the room types of shard 0 to every other shard missing them.
+     *
+     * @return copied room type count, summed over all shards.
+     */
+    public int backfill() {
+        int copied = 0;
+        try {
+            List<RoomType> roomTypes = shardRouter.executeOnShard(0, true, roomTypeRepository::findAll);
+            for (int shard = 1; shard < shardRouter.getShardCount(); shard++)
+                copied += shardRouter.executeOnShard(shard, false, () -> backfillShard(roomTypes));
+            if (copied > 0)
+                log.info("Copied {} room types from shard 0 to the other shards.", copied);
+        } catch (DataAccessException | PersistenceException e) {
+            log.error("Failed to copy room types to every shard, the next startup will retry. ", e);
+        }
+        return copied;
+    }
+
+    private int backfillShard(List<RoomType> roomTypes) {
+        Set<String> existingIds = roomTypeRepository.findAll().stream()
+                .map(RoomType::getId)
+                .collect(Collectors.toSet());
+        List<RoomType> missing = roomTypes.stream()
+                .filter(roomType -> !existingIds.contains(roomType.getId()))
+                .collect(Collectors.toList());
+        roomTypeRepository.saveAll(missing);
+        missing.forEach(roomType -> catalogChangeLog.recordRoomType(roomType.getId()));
+        return missing.size();
+    }
+}
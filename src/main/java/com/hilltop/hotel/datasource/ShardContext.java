@@ -0,0 +1,26 @@
+package com.hilltop.hotel.datasource;
+
+/**
+ * Shard context
+ * Shard the next connection of the current thread is routed to. Shard 0 is the default data source.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int getShard() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static void setShard(int shard) {
+        SHARD.set(shard);
+    }
+
+    public static void clear() {
+        SHARD.remove();
+    }
+}
@@ -0,0 +1,51 @@
+package com.hilltop.hotel.datasource;
+
+import java.util.UUID;
+
+/**
+ * Shard ids
+ * Ids of sharded entities carry their shard, e.g. {@code hid-s3-<uuid>}. Ids without a shard (all ids created before
+ * sharding and every id on shard 0) belong to shard 0.
+ */
+public final class ShardIds {
+
+    private static final String SHARD_MARKER = "s";
+
+    private ShardIds() {
+    }
+
+    /**
+     * This method is used to create a new id on the given shard.
+     *
+     * @param prefix id prefix, e.g. hid-
+     * @param shard  shard
+     * @return id.
+     */
+    public static String newId(String prefix, int shard) {
+        if (shard == 0)
+            return prefix + UUID.randomUUID();
+        return prefix + SHARD_MARKER + shard + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * This method is used to get the shard encoded in an id.
+     *
+     * @param id id
+     * @return shard, 0 for ids without a shard.
+     */
+    public static int shardOf(String id) {
+        if (id == null)
+            return 0;
+        int start = id.indexOf('-') + 1;
+        if (start == 0 || !id.startsWith(SHARD_MARKER, start))
+            return 0;
+        int end = id.indexOf('-', start);
+        if (end <= start + 1)
+            return 0;
+        try {
+            return Integer.parseInt(id.substring(start + 1, end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
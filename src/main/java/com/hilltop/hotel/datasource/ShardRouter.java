@@ -0,0 +1,188 @@
+package com.hilltop.hotel.datasource;
+
+import com.hilltop.hotel.configuration.DataSourceRoutingProperties;
+import com.hilltop.hotel.deadline.RequestDeadline;
+import com.hilltop.hotel.exception.DataNotFoundException;
+import com.hilltop.hotel.location.LocationNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Shard router
+ * Maps a location to a shard by its normalized name, through the shard map or else a consistent hash ring, and
+ * routes the current transaction there. Entities found by id are routed by the shard encoded in the id. A route
+ * never outlives its transaction or {@link #executeOnShard} call.
+ */
+@Slf4j
+public class ShardRouter {
+
+    private static final String ROUTED_SHARD_KEY = ShardRouter.class.getName() + ".routedShard";
+    private final int shardCount;
+    private final Map<String, Integer> shardMap = new HashMap<>();
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ShardRouter(DataSourceRoutingProperties dataSourceRoutingProperties,
+                       PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory) {
+        this.shardCount = dataSourceRoutingProperties.getShardCount();
+        this.transactionManager = transactionManager;
+        this.entityManagerFactory = entityManagerFactory;
+        dataSourceRoutingProperties.getShardMap().forEach((location, shard) -> {
+            if (shard < 0 || shard >= shardCount)
+                throw new IllegalArgumentException("Shard " + shard + " of location " + location
+                        + " is not configured.");
+            shardMap.put(LocationNames.normalize(location), shard);
+        });
+        for (int shard = 0; shard < shardCount; shard++)
+            for (int node = 0; node < dataSourceRoutingProperties.getVirtualNodes(); node++)
+                ring.put(hash("shard-" + shard + "#" + node), shard);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * This method is used to get the shard of a location.
+     *
+     * @param location location
+     * @return shard.
+     */
+    public int shardForLocation(String location) {
+        if (shardCount == 1 || location == null)
+            return 0;
+        String key = LocationNames.normalize(location);
+        Integer shard = shardMap.get(key);
+        if (shard != null)
+            return shard;
+        Map.Entry<Long, Integer> node = ring.ceilingEntry(hash(key));
+        return node == null ? ring.firstEntry().getValue() : node.getValue();
+    }
+
+    /**
+     * This method is used to route the current transaction to the shard of a location. The previous shard of the
+     * thread is restored once the transaction completes.
+     *
+     * @param location location
+     * @return shard.
+     */
+    public int routeByLocation(String location) {
+        return route(shardForLocation(location));
+    }
+
+    /**
+     * This method is used to get the shard encoded in an id. An id of a shard that is not configured is not found,
+     * it is never mapped to another shard.
+     *
+     * @param id entity id
+     * @return shard.
+     */
+    public int shardForId(String id) {
+        int shard = ShardIds.shardOf(id);
+        if (shard >= shardCount) {
+            log.error("Shard {} of id: {} is not configured, {} shards are configured.", shard, id, shardCount);
+            throw new DataNotFoundException("Shard " + shard + " of id: " + id + " is not configured.");
+        }
+        return shard;
+    }
+
+    /**
+     * This method is used to route the current transaction to the shard encoded in an id. The previous shard of the
+     * thread is restored once the transaction completes.
+     *
+     * @param id entity id
+     * @return shard.
+     */
+    public int routeById(String id) {
+        return route(shardForId(id));
+    }
+
+    /**
+     * This method is used to run an action on every shard, each in its own transaction and persistence context.
+     *
+     * @param readOnly read only transaction
+     * @param action   action
+     * @param <T>      result type
+     * @return results in shard order.
+     */
+    public <T> List<T> executeOnAllShards(boolean readOnly, Supplier<T> action) {
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++)
+            results.add(executeOnShard(shard, readOnly, action));
+        return results;
+    }
+
+    /**
+     * This method is used to run an action on one shard in its own transaction and persistence context.
+     * An entity manager opened for the whole request (open in view) is set aside meanwhile. Nothing is run once
+     * the request deadline has passed.
+     *
+     * @param shard    shard
+     * @param readOnly read only transaction
+     * @param action   action
+     * @param <T>      result type
+     * @return result.
+     */
+    public <T> T executeOnShard(int shard, boolean readOnly, Supplier<T> action) {
+        RequestDeadline.check();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int previousShard = ShardContext.getShard();
+        Object requestEntityManager = TransactionSynchronizationManager.isActualTransactionActive() ? null
+                : TransactionSynchronizationManager.getResource(entityManagerFactory);
+        if (requestEntityManager != null)
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        try {
+            ShardContext.setShard(shard);
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            ShardContext.setShard(previousShard);
+            if (requestEntityManager != null)
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, requestEntityManager);
+        }
+    }
+
+    /**
+     * This method is used to route the current transaction to a shard. Connections are taken on the first statement
+     * and the commit may still flush, so the route has to last until the transaction completes rather than until the
+     * routing method returns. The shard the thread had before the first route of the transaction is restored then.
+     *
+     * @param shard shard
+     * @return shard.
+     */
+    private static int route(int shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Routing to a shard needs a transaction, use executeOnShard without one.");
+        if (!TransactionSynchronizationManager.hasResource(ROUTED_SHARD_KEY)) {
+            int previousShard = ShardContext.getShard();
+            TransactionSynchronizationManager.bindResource(ROUTED_SHARD_KEY, previousShard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ROUTED_SHARD_KEY);
+                    ShardContext.setShard(previousShard);
+                }
+            });
+        }
+        ShardContext.setShard(shard);
+        return shard;
+    }
+
+    private static long hash(String key) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(key.getBytes(StandardCharsets.UTF_8));
+        return crc32.getValue();
+    }
+}
@@ -0,0 +1,63 @@
+package com.hilltop.hotel.deadline;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline data source
+ * Applies the {@link RequestDeadline} of the current thread to every statement created on its connections: no
+ * statement is created once the deadline has passed, and the others get the remaining time as query timeout. JDBC
+ * timeouts are whole seconds, so the remaining time is rounded up and the driver cancels a statement at most a
+ * second after the deadline.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withDeadline(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withDeadline(super.getConnection(username, password));
+    }
+
+    private static Connection withDeadline(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("equals"))
+                        return proxy == args[0];
+                    if (method.getName().equals("hashCode"))
+                        return System.identityHashCode(proxy);
+                    boolean createsStatement = Statement.class.isAssignableFrom(method.getReturnType());
+                    if (createsStatement)
+                        RequestDeadline.check();
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (createsStatement && RequestDeadline.isSet())
+                        ((Statement) result).setQueryTimeout(getQueryTimeoutSeconds());
+                    return result;
+                });
+    }
+
+    private static int getQueryTimeoutSeconds() {
+        long remainingNanos = RequestDeadline.getRemainingNanos();
+        long seconds = (remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, seconds));
+    }
+}
@@ -0,0 +1,48 @@
+package com.hilltop.hotel.deadline;
+
+import com.hilltop.hotel.configuration.DeadlineProperties;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.metrics.QueryBudgetInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Deadline interceptor
+ * Starts the {@link RequestDeadline} of every request from the timeout header or the endpoint timeout and counts
+ * the requests that ended with 504 because it passed.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    private final DeadlineProperties deadlineProperties;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineInterceptor(DeadlineProperties deadlineProperties, MeterRegistry meterRegistry) {
+        this.deadlineProperties = deadlineProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod)
+            RequestDeadline.start(deadlineProperties.getTimeout(
+                    QueryBudgetInterceptor.getHandlerName((HandlerMethod) handler),
+                    request.getHeader(deadlineProperties.getHeader())));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(handler instanceof HandlerMethod))
+            return;
+        RequestDeadline.clear();
+        if (response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value())
+            meterRegistry.counter(MetricName.REQUEST_DEADLINE_EXCEEDED, "handler",
+                    QueryBudgetInterceptor.getHandlerName((HandlerMethod) handler)).increment();
+    }
+}
@@ -0,0 +1,56 @@
+package com.hilltop.hotel.deadline;
+
+import com.hilltop.hotel.exception.DeadlineExceededException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Query timeout aspect
+ * Services wrap every data access failure in a {@link HillTopHotelApplicationException}, possibly several levels
+ * deep. A query cancelled by its timeout, which {@link DeadlineDataSource} sets from the request deadline, is raised
+ * as a {@link DeadlineExceededException} instead, so it is answered as a timeout and not as an internal error.
+ */
+@Aspect
+@Component
+public class QueryTimeoutAspect {
+
+    /**
+     * This method is used to raise query timeouts of public service methods as deadline exceeded, wherever the
+     * timeout is in the cause chain of the failure.
+     *
+     * @param joinPoint joinPoint
+     * @return service method result.
+     * @throws Throwable service method error
+     */
+    @Around("execution(public * com.hilltop.hotel.service..*(..))")
+    public Object translateQueryTimeouts(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (QueryTimeoutException e) {
+            throw new DeadlineExceededException("Query cancelled at the request deadline.", e);
+        } catch (RuntimeException e) {
+            if (isCausedByQueryTimeout(e))
+                throw new DeadlineExceededException(e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * This method is used to check whether a query timeout is in the cause chain of a failure.
+     *
+     * @param failure failure
+     * @return true when caused by a query timeout.
+     */
+    private static boolean isCausedByQueryTimeout(Throwable failure) {
+        for (Throwable cause = failure.getCause(); cause != null && cause != failure; cause = cause.getCause())
+            if (cause instanceof QueryTimeoutException)
+                return true;
+        return false;
+    }
+}
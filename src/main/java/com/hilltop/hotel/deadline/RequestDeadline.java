@@ -0,0 +1,61 @@
+package com.hilltop.hotel.deadline;
+
+import com.hilltop.hotel.exception.DeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * Request deadline
+ * Holds the deadline of the request handled by the current thread. Work on the thread checks it before starting
+ * a step and sql statements get the remaining time as query timeout, so a request whose client has given up stops
+ * holding connections. Threads without a deadline are not limited.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * This method is used to set the deadline of the current thread to the given timeout from now.
+     *
+     * @param timeout timeout
+     */
+    public static void start(Duration timeout) {
+        DEADLINE.set(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * This method is used to remove the deadline of the current thread.
+     */
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * This method is used to get the time left until the deadline.
+     *
+     * @return remaining nanos, {@link Long#MAX_VALUE} without a deadline and at most 0 once it has passed.
+     */
+    public static long getRemainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    public static boolean isExpired() {
+        return getRemainingNanos() <= 0;
+    }
+
+    /**
+     * This method is used to abandon work once the deadline of the current thread has passed.
+     */
+    public static void check() {
+        if (isExpired())
+            throw new DeadlineExceededException("Request deadline exceeded.");
+    }
+}
@@ -0,0 +1,63 @@
+package com.hilltop.hotel.domain.entity;
+
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Catalog change entity
+ * Entry of the per shard change log, appended in the transaction of a hotel, room or room type write. The version
+ * increases monotonically within a shard. The hotel id of a room change is the hotel the room belongs to, the
+ * location id is set when a hotel got a new location. A deleted change is the tombstone of a deleted room.
+ */
+@Entity
+@Table(name = "catalog_change", indexes = {
+        @Index(name = "idx_catalog_change_entity", columnList = "entityType, entityId, version"),
+        @Index(name = "idx_catalog_change_changed_at", columnList = "changedAt")})
+@Getter
+@NoArgsConstructor
+public class CatalogChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long version;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CatalogEntityType entityType;
+    @Column(nullable = false)
+    private String entityId;
+    private String hotelId;
+    private Integer locationId;
+    @Column(nullable = false)
+    private String origin;
+    @Column(nullable = false)
+    private Instant changedAt;
+    private boolean deleted;
+
+    public CatalogChange(CatalogEntityType entityType, String entityId, String hotelId, Integer locationId,
+                         String origin) {
+        this(entityType, entityId, hotelId, locationId, origin, false);
+    }
+
+    public CatalogChange(CatalogEntityType entityType, String entityId, String hotelId, Integer locationId,
+                         String origin, boolean deleted) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.hotelId = hotelId;
+        this.locationId = locationId;
+        this.origin = origin;
+        this.changedAt = Instant.now();
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hilltop.hotel.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Catalog change floor entity
+ * Single row per shard holding the highest change version removed by the change log retention. Change feed
+ * cursors below it may have missed a deleted room.
+ */
+@Entity
+@Table(name = "catalog_change_floor")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeFloor {
+
+    public static final int ID = 0;
+    @Id
+    private int id;
+    private long version;
+}
@@ -1,16 +1,18 @@
 package com.hilltop.hotel.domain.entity;
 
+import com.hilltop.hotel.datasource.ShardIds;
 import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.location.LocationConverter;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * Hotel entity
+ * The location is stored as its location dictionary id.
  */
 @Entity
 @Table
@@ -25,12 +27,22 @@ public class Hotel {
     @Id
     private String id;
     private String name;
+    @Convert(converter = LocationConverter.class)
+    @Column(name = "location_id")
     private String location;
-    @OneToMany(mappedBy = "hotel", fetch = FetchType.EAGER)
+    private Double latitude;
+    private Double longitude;
+    @Version
+    private long version;
+    @OneToMany(mappedBy = "hotel")
     private Set<Room> rooms;
 
     public Hotel(HotelRequestDto hotelRequestDto) {
-        this.id = HOTEL_ID_PREFIX + UUID.randomUUID();
+        this(hotelRequestDto, 0);
+    }
+
+    public Hotel(HotelRequestDto hotelRequestDto, int shard) {
+        this.id = ShardIds.newId(HOTEL_ID_PREFIX, shard);
         updateHotel(hotelRequestDto);
     }
 
@@ -42,5 +54,7 @@ public class Hotel {
     public void updateHotel(HotelRequestDto hotelRequestDto) {
         this.name = hotelRequestDto.getName();
         this.location = hotelRequestDto.getLocation();
+        this.latitude = hotelRequestDto.getLatitude();
+        this.longitude = hotelRequestDto.getLongitude();
     }
 }
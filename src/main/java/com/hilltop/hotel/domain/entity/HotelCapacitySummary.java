@@ -0,0 +1,41 @@
+package com.hilltop.hotel.domain.entity;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Hotel capacity summary entity
+ * Room count of one room capacity (max people) in a hotel.
+ */
+@Entity
+@Table
+@IdClass(HotelCapacitySummary.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelCapacitySummary {
+
+    @Id
+    private String hotelId;
+    @Id
+    private int maxPeople;
+    private long roomCount;
+
+    /**
+     * Hotel capacity summary key.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String hotelId;
+        private int maxPeople;
+    }
+}
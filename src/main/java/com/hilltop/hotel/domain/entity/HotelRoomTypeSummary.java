@@ -0,0 +1,53 @@
+package com.hilltop.hotel.domain.entity;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Hotel room type summary entity
+ * Room count and price range of one room type in a hotel.
+ */
+@Entity
+@Table
+@IdClass(HotelRoomTypeSummary.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelRoomTypeSummary {
+
+    @Id
+    private String hotelId;
+    @Id
+    private String roomTypeId;
+    private long roomCount;
+    private double totalPrice;
+    private double minPrice;
+    private double maxPrice;
+
+    /**
+     * This method is used to get the average room price.
+     *
+     * @return average price.
+     */
+    public double getAvgPrice() {
+        return roomCount == 0 ? 0 : totalPrice / roomCount;
+    }
+
+    /**
+     * Hotel room type summary key.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String hotelId;
+        private String roomTypeId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.hilltop.hotel.domain.entity;
+
+import com.hilltop.hotel.location.LocationNames;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Location entity
+ * Entry of the location dictionary. Hotels refer to a location by its dense integer id.
+ */
+@Entity
+@Table
+@Getter
+@NoArgsConstructor
+public class Location {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @Column(nullable = false, unique = true)
+    private String normalizedName;
+    @Column(nullable = false)
+    private String name;
+
+    public Location(String name) {
+        this.name = LocationNames.displayName(name);
+        this.normalizedName = LocationNames.normalize(name);
+    }
+
+    public Location(int id, String name) {
+        this(name);
+        this.id = id;
+    }
+}
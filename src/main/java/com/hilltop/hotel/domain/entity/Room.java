@@ -1,12 +1,12 @@
 package com.hilltop.hotel.domain.entity;
 
+import com.hilltop.hotel.datasource.ShardIds;
 import com.hilltop.hotel.domain.request.RoomRequestDto;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
-import java.util.UUID;
 
 /**
  * Room entity
@@ -32,9 +32,11 @@ public class Room {
     @ManyToOne
     @JoinColumn(nullable = false)
     private Hotel hotel;
+    @Version
+    private long version;
 
     public Room(RoomRequestDto roomRequestDto, Hotel hotel, RoomType roomType) {
-        this.id = ROOM_ID_PREFIX + UUID.randomUUID();
+        this.id = ShardIds.newId(ROOM_ID_PREFIX, ShardIds.shardOf(hotel.getId()));
         updateRoom(roomRequestDto, hotel, roomType);
     }
 
@@ -51,16 +53,17 @@ public class Room {
         this.maxPeople = roomRequestDto.getMaxPeople();
         this.cost = roomRequestDto.getCost();
         this.hotel = hotel;
-        this.price = calculateRoomPrice(roomType);
+        this.price = calculateRoomPrice(cost, roomType.getMarkupPercentage());
     }
 
     /**
      * This method is used to calculate room price.
      *
-     * @param roomType roomType
+     * @param cost             cost
+     * @param markupPercentage markup percentage of the room type
      * @return room price.
      */
-    private double calculateRoomPrice(RoomType roomType) {
-        return cost * (100 + roomType.getMarkupPercentage()) / 100;
+    public static double calculateRoomPrice(double cost, double markupPercentage) {
+        return cost * (100 + markupPercentage) / 100;
     }
 }
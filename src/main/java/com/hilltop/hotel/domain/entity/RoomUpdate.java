@@ -0,0 +1,98 @@
+package com.hilltop.hotel.domain.entity;
+
+import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.time.Instant;
+
+/**
+ * Room update entity
+ * Outbox entry of a write-behind room update, stored on the room's shard in the transaction that accepts the update.
+ * It stays PENDING until it is applied and is then finished with its outcome in the transaction of the room update.
+ * The id orders the updates of a shard by acceptance.
+ */
+@Entity
+@Table(name = "room_update",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_update_tracking_id", columnNames = "trackingId"),
+        indexes = {
+                @Index(name = "idx_room_update_status", columnList = "status, id"),
+                @Index(name = "idx_room_update_room", columnList = "roomId, status"),
+                @Index(name = "idx_room_update_finished_at", columnList = "finishedAt")})
+@Getter
+@NoArgsConstructor
+public class RoomUpdate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Column(nullable = false)
+    private String trackingId;
+    @Column(nullable = false)
+    private String roomId;
+    @Column(nullable = false)
+    private String hotelId;
+    @Column(nullable = false)
+    private String roomTypeId;
+    @Column(nullable = false)
+    private String roomNo;
+    private int maxPeople;
+    private double cost;
+    private long expectedVersion;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RoomUpdateStatus status;
+    @Column(nullable = false)
+    private Instant acceptedAt;
+    private Instant finishedAt;
+
+    public RoomUpdate(String trackingId, UpdateRoomRequestDto updateRoomRequestDto, long expectedVersion) {
+        this.trackingId = trackingId;
+        this.roomId = updateRoomRequestDto.getId();
+        this.hotelId = updateRoomRequestDto.getHotelId();
+        this.roomTypeId = updateRoomRequestDto.getRoomTypeId();
+        this.roomNo = updateRoomRequestDto.getRoomNo();
+        this.maxPeople = updateRoomRequestDto.getMaxPeople();
+        this.cost = updateRoomRequestDto.getCost();
+        this.expectedVersion = expectedVersion;
+        this.status = RoomUpdateStatus.PENDING;
+        this.acceptedAt = Instant.now();
+    }
+
+    /**
+     * This method is used to get the update as a request.
+     *
+     * @return updateRoomRequestDto.
+     */
+    public UpdateRoomRequestDto toUpdateRoomRequestDto() {
+        UpdateRoomRequestDto updateRoomRequestDto = new UpdateRoomRequestDto();
+        updateRoomRequestDto.setId(roomId);
+        updateRoomRequestDto.setHotelId(hotelId);
+        updateRoomRequestDto.setRoomTypeId(roomTypeId);
+        updateRoomRequestDto.setRoomNo(roomNo);
+        updateRoomRequestDto.setMaxPeople(maxPeople);
+        updateRoomRequestDto.setCost(cost);
+        return updateRoomRequestDto;
+    }
+
+    /**
+     * This method is used to finish the update with its outcome.
+     *
+     * @param status outcome
+     */
+    public void finish(RoomUpdateStatus status) {
+        this.status = status;
+        this.finishedAt = Instant.now();
+    }
+}
@@ -0,0 +1,38 @@
+package com.hilltop.hotel.domain.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Hotel patch requestDto
+ * Only the given fields are updated.
+ */
+@Getter
+@Setter
+public class HotelPatchRequestDto implements RequestDto {
+
+    private String name;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+
+    /**
+     * Used to validate that at least one field is given and that given fields are non-empty.
+     *
+     * @return true/false
+     */
+    @Override
+    public boolean isRequiredFieldsAvailable() {
+        return (name != null || location != null || latitude != null || longitude != null)
+                && (name == null || isNonEmpty(name)) && (location == null || isNonEmpty(location));
+    }
+
+    /**
+     * Used to validate that coordinates are given together and are on the globe.
+     *
+     * @return true/false
+     */
+    public boolean hasValidCoordinates() {
+        return isValidCoordinates(latitude, longitude);
+    }
+}
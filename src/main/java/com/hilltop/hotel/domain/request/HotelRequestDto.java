@@ -12,6 +12,8 @@ public class HotelRequestDto implements RequestDto {
 
     private String name;
     private String location;
+    private Double latitude;
+    private Double longitude;
 
     /**
      * Used to validate required fields.
@@ -23,4 +25,13 @@ public class HotelRequestDto implements RequestDto {
         return isNonEmpty(name) && isNonEmpty(location);
     }
 
+    /**
+     * Used to validate the optional coordinates.
+     *
+     * @return true/false
+     */
+    public boolean hasValidCoordinates() {
+        return isValidCoordinates(latitude, longitude);
+    }
+
 }
@@ -0,0 +1,39 @@
+package com.hilltop.hotel.domain.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Lookup requestDto
+ * Ids of hotels or rooms to resolve with one request.
+ */
+@Getter
+@Setter
+public class LookupRequestDto implements RequestDto {
+
+    public static final int MAX_IDS = 500;
+    private List<String> ids;
+
+    /**
+     * Used to validate required fields.
+     *
+     * @return true/false
+     */
+    @Override
+    public boolean isRequiredFieldsAvailable() {
+        return ids != null && !ids.isEmpty() && ids.stream().allMatch(this::isNonEmpty);
+    }
+
+    /**
+     * Used to check whether the id count is within the lookup limit.
+     *
+     * @return true/false
+     */
+    @JsonIgnore
+    public boolean isWithinLimit() {
+        return ids.size() <= MAX_IDS;
+    }
+}
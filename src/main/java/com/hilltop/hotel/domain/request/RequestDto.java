@@ -3,6 +3,7 @@ package com.hilltop.hotel.domain.request;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.geo.GeoDistance;
 
 /**
  * RequestDto
@@ -26,6 +27,19 @@ public interface RequestDto {
         return field != null && !field.trim().isEmpty();
     }
 
+    /**
+     * This method checks the given coordinates are either both absent or both given and on the globe.
+     *
+     * @param latitude  latitude
+     * @param longitude longitude
+     * @return true/ false
+     */
+    default boolean isValidCoordinates(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null)
+            return latitude == null && longitude == null;
+        return GeoDistance.isValid(latitude, longitude);
+    }
+
     /**
      * This method converts object to json string.
      *
@@ -0,0 +1,41 @@
+package com.hilltop.hotel.domain.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Room bulk delete requestDto
+ * Either room ids, or a hotel id with an optional room number filter.
+ */
+@Getter
+@Setter
+public class RoomBulkDeleteRequestDto implements RequestDto {
+
+    private List<String> ids;
+    private String hotelId;
+    private String roomNo;
+
+    /**
+     * Used to validate required fields.
+     *
+     * @return true/false
+     */
+    @Override
+    public boolean isRequiredFieldsAvailable() {
+        boolean idsAvailable = ids != null && !ids.isEmpty() && ids.stream().allMatch(this::isNonEmpty);
+        return idsAvailable != isNonEmpty(hotelId);
+    }
+
+    /**
+     * Used to check whether the rooms of a hotel are deleted instead of rooms by ids.
+     *
+     * @return true/false
+     */
+    @JsonIgnore
+    public boolean isHotelScoped() {
+        return isNonEmpty(hotelId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.hilltop.hotel.domain.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Room patch requestDto
+ * Only the given fields are updated.
+ */
+@Getter
+@Setter
+public class RoomPatchRequestDto implements RequestDto {
+
+    private String roomNo;
+    private String roomTypeId;
+    private Integer maxPeople;
+    private Double cost;
+
+    /**
+     * Used to validate that at least one field is given and that given fields are valid.
+     *
+     * @return true/false
+     */
+    @Override
+    public boolean isRequiredFieldsAvailable() {
+        return (roomNo != null || roomTypeId != null || maxPeople != null || cost != null)
+                && (roomNo == null || isNonEmpty(roomNo)) && (roomTypeId == null || isNonEmpty(roomTypeId))
+                && (maxPeople == null || maxPeople > 0) && (cost == null || cost > 0);
+    }
+
+    /**
+     * Used to check whether the room price changes.
+     *
+     * @return true/false
+     */
+    @JsonIgnore
+    public boolean isPriceChanged() {
+        return roomTypeId != null || cost != null;
+    }
+}
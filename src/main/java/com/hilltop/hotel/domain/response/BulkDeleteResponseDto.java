@@ -0,0 +1,16 @@
+package com.hilltop.hotel.domain.response;
+
+import lombok.Getter;
+
+/**
+ * Bulk delete responseDto
+ */
+@Getter
+public class BulkDeleteResponseDto implements ResponseDto {
+
+    private final int deletedCount;
+
+    public BulkDeleteResponseDto(int deletedCount) {
+        this.deletedCount = deletedCount;
+    }
+}
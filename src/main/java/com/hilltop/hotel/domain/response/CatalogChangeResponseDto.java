@@ -0,0 +1,28 @@
+package com.hilltop.hotel.domain.response;
+
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import lombok.Getter;
+
+/**
+ * Catalog change response dto
+ */
+@Getter
+public class CatalogChangeResponseDto {
+
+    private final long version;
+    private final CatalogEntityType entityType;
+    private final String entityId;
+    private final String hotelId;
+    private final boolean deleted;
+    private final String changedAt;
+
+    public CatalogChangeResponseDto(CatalogChange catalogChange) {
+        this.version = catalogChange.getVersion();
+        this.entityType = catalogChange.getEntityType();
+        this.entityId = catalogChange.getEntityId();
+        this.hotelId = catalogChange.getHotelId();
+        this.deleted = catalogChange.isDeleted();
+        this.changedAt = catalogChange.getChangedAt().toString();
+    }
+}
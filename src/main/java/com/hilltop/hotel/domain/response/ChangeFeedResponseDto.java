@@ -0,0 +1,19 @@
+package com.hilltop.hotel.domain.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Change feed response dto
+ * A page of catalog changes with the cursor to request the next page with.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeFeedResponseDto implements ResponseDto {
+
+    private final List<CatalogChangeResponseDto> changes;
+    private final String cursor;
+    private final boolean hasMore;
+}
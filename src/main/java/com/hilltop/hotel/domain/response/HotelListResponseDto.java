@@ -2,6 +2,7 @@ package com.hilltop.hotel.domain.response;
 
 import com.hilltop.hotel.domain.entity.Hotel;
 import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.geo.GeoDistance;
 import lombok.Getter;
 
 import java.util.ArrayList;
@@ -28,4 +29,14 @@ public class HotelListResponseDto implements ResponseDto {
         }
         this.hotelList = hotelResponseDtoList;
     }
+
+    public HotelListResponseDto(Map<Hotel, List<Room>> hotelAndRoomsMap, double latitude, double longitude) {
+        List<HotelResponseDto> hotelResponseDtoList = new ArrayList<>();
+        for (Map.Entry<Hotel, List<Room>> mapEntry : hotelAndRoomsMap.entrySet()) {
+            Hotel hotel = mapEntry.getKey();
+            hotelResponseDtoList.add(new HotelResponseDto(hotel, mapEntry.getValue(),
+                    GeoDistance.distanceKm(latitude, longitude, hotel.getLatitude(), hotel.getLongitude())));
+        }
+        this.hotelList = hotelResponseDtoList;
+    }
 }
@@ -0,0 +1,25 @@
+package com.hilltop.hotel.domain.response;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Hotel lookup responseDto
+ * Found hotels in the order of the requested ids and the ids that were not found.
+ */
+@Getter
+public class HotelLookupResponseDto implements ResponseDto {
+
+    private final List<HotelResponseDto> hotelList;
+    private final List<String> missingIds;
+
+    public HotelLookupResponseDto(List<String> ids, List<Hotel> hotelList) {
+        this.hotelList = hotelList.stream().map(HotelResponseDto::new).collect(Collectors.toList());
+        Set<String> foundIds = hotelList.stream().map(Hotel::getId).collect(Collectors.toSet());
+        this.missingIds = ids.stream().distinct().filter(id -> !foundIds.contains(id)).collect(Collectors.toList());
+    }
+}
@@ -17,6 +17,13 @@ public class HotelResponseDto implements ResponseDto {
     private final String id;
     private final String name;
     private final String location;
+    private final long version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Double latitude;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Double longitude;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<RoomResponseDto> rooms;
 
@@ -24,12 +31,23 @@ public class HotelResponseDto implements ResponseDto {
         this.id = hotel.getId();
         this.name = hotel.getName();
         this.location = hotel.getLocation();
+        this.version = hotel.getVersion();
+        this.latitude = hotel.getLatitude();
+        this.longitude = hotel.getLongitude();
     }
 
     public HotelResponseDto(Hotel hotel, List<Room> roomList) {
         this.id = hotel.getId();
         this.name = hotel.getName();
         this.location = hotel.getLocation();
+        this.version = hotel.getVersion();
+        this.latitude = hotel.getLatitude();
+        this.longitude = hotel.getLongitude();
         this.rooms = roomList.stream().map(RoomResponseDto::new).collect(Collectors.toList());
     }
+
+    public HotelResponseDto(Hotel hotel, List<Room> roomList, double distanceKm) {
+        this(hotel, roomList);
+        this.distanceKm = distanceKm;
+    }
 }
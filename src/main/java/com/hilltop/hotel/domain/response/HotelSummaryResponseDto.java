@@ -0,0 +1,42 @@
+package com.hilltop.hotel.domain.response;
+
+import com.hilltop.hotel.domain.entity.HotelCapacitySummary;
+import com.hilltop.hotel.domain.entity.HotelRoomTypeSummary;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Hotel summary responseDto
+ */
+@Getter
+public class HotelSummaryResponseDto implements ResponseDto {
+
+    private final String hotelId;
+    private final long roomCount;
+    private final int maxPeople;
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Map<Integer, Long> capacityHistogram = new TreeMap<>();
+    private final List<RoomTypeSummaryResponseDto> roomTypes;
+
+    public HotelSummaryResponseDto(String hotelId, List<HotelRoomTypeSummary> roomTypeSummaries,
+                                   List<HotelCapacitySummary> capacitySummaries) {
+        this.hotelId = hotelId;
+        for (HotelCapacitySummary capacitySummary : capacitySummaries)
+            capacityHistogram.put(capacitySummary.getMaxPeople(), capacitySummary.getRoomCount());
+        this.roomCount = capacityHistogram.values().stream().mapToLong(Long::longValue).sum();
+        this.maxPeople = capacitySummaries.stream().mapToInt(HotelCapacitySummary::getMaxPeople).max().orElse(0);
+        this.minPrice = roomTypeSummaries.stream().map(HotelRoomTypeSummary::getMinPrice)
+                .min(Comparator.naturalOrder()).orElse(null);
+        this.maxPrice = roomTypeSummaries.stream().map(HotelRoomTypeSummary::getMaxPrice)
+                .max(Comparator.naturalOrder()).orElse(null);
+        this.roomTypes = roomTypeSummaries.stream()
+                .sorted(Comparator.comparing(HotelRoomTypeSummary::getRoomTypeId))
+                .map(RoomTypeSummaryResponseDto::new).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,25 @@
+package com.hilltop.hotel.domain.response;
+
+import com.hilltop.hotel.domain.entity.Room;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Room lookup responseDto
+ * Found rooms in the order of the requested ids and the ids that were not found.
+ */
+@Getter
+public class RoomLookupResponseDto implements ResponseDto {
+
+    private final List<RoomResponseDto> roomList;
+    private final List<String> missingIds;
+
+    public RoomLookupResponseDto(List<String> ids, List<Room> roomList) {
+        this.roomList = roomList.stream().map(RoomResponseDto::new).collect(Collectors.toList());
+        Set<String> foundIds = roomList.stream().map(Room::getId).collect(Collectors.toSet());
+        this.missingIds = ids.stream().distinct().filter(id -> !foundIds.contains(id)).collect(Collectors.toList());
+    }
+}
@@ -14,6 +14,7 @@ public class RoomResponseDto implements ResponseDto {
     private final String roomType;
     private final int maxPeople;
     private final double price;
+    private final long version;
 
     public RoomResponseDto(Room room) {
         this.id = room.getId();
@@ -21,5 +22,6 @@ public class RoomResponseDto implements ResponseDto {
         this.roomType = room.getRoomType().getName();
         this.maxPeople = room.getMaxPeople();
         this.price = room.getPrice();
+        this.version = room.getVersion();
     }
 }
@@ -0,0 +1,25 @@
+package com.hilltop.hotel.domain.response;
+
+import com.hilltop.hotel.domain.entity.HotelRoomTypeSummary;
+import lombok.Getter;
+
+/**
+ * Room type summary responseDto
+ */
+@Getter
+public class RoomTypeSummaryResponseDto implements ResponseDto {
+
+    private final String roomTypeId;
+    private final long roomCount;
+    private final double minPrice;
+    private final double maxPrice;
+    private final double avgPrice;
+
+    public RoomTypeSummaryResponseDto(HotelRoomTypeSummary hotelRoomTypeSummary) {
+        this.roomTypeId = hotelRoomTypeSummary.getRoomTypeId();
+        this.roomCount = hotelRoomTypeSummary.getRoomCount();
+        this.minPrice = hotelRoomTypeSummary.getMinPrice();
+        this.maxPrice = hotelRoomTypeSummary.getMaxPrice();
+        this.avgPrice = hotelRoomTypeSummary.getAvgPrice();
+    }
+}
@@ -0,0 +1,21 @@
+package com.hilltop.hotel.domain.response;
+
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import lombok.Getter;
+
+/**
+ * Room update status responseDto
+ */
+@Getter
+public class RoomUpdateStatusResponseDto implements ResponseDto {
+
+    private final String trackingId;
+    private final String roomId;
+    private final RoomUpdateStatus status;
+
+    public RoomUpdateStatusResponseDto(String trackingId, String roomId, RoomUpdateStatus status) {
+        this.trackingId = trackingId;
+        this.roomId = roomId;
+        this.status = status;
+    }
+}
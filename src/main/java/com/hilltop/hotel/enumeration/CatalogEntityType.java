@@ -0,0 +1,11 @@
+package com.hilltop.hotel.enumeration;
+
+/**
+ * Catalog entity types recorded in the catalog change log.
+ */
+public enum CatalogEntityType {
+
+    HOTEL,
+    ROOM,
+    ROOM_TYPE
+}
@@ -10,7 +10,17 @@ public enum ErrorMessage {
 
     INTERNAL_SERVER_ERROR("Something went wrong."),
     MISSING_REQUIRED_FIELDS("Required fields are missing."),
-    DATA_NOT_FOUND("Data not found.");
+    DATA_NOT_FOUND("Data not found."),
+    SHARD_RELOCATION_NOT_SUPPORTED("Moving data to a location on another shard is not supported."),
+    VERSION_CONFLICT("Data was modified by another request."),
+    INVALID_SEARCH_PARAMETERS("Search parameters are invalid."),
+    INVALID_COORDINATES("Latitude and longitude must be given together and be valid."),
+    TOO_MANY_LOOKUP_IDS("Too many ids to look up with one request."),
+    INVALID_CHANGE_FEED_PARAMETERS("Change feed cursor or limit is invalid."),
+    CHANGE_FEED_CURSOR_EXPIRED("Change feed cursor is older than the retained changes, a full resync is required."),
+    SERVICE_OVERLOADED("Too many concurrent requests, retry later."),
+    DEADLINE_EXCEEDED("Request deadline exceeded."),
+    ROOM_UPDATE_QUEUE_FULL("Too many pending room updates, retry later.");
 
     private final String message;
 
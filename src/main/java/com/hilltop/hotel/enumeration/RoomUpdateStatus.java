@@ -0,0 +1,12 @@
+package com.hilltop.hotel.enumeration;
+
+/**
+ * Room update statuses of write-behind room updates.
+ */
+public enum RoomUpdateStatus {
+
+    PENDING,
+    COMPLETED,
+    CONFLICT,
+    FAILED
+}
@@ -0,0 +1,32 @@
+package com.hilltop.hotel.enumeration;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Hotel search sort orders.
+ */
+@Getter
+public enum SearchSort {
+
+    PRICE("price"),
+    CAPACITY_FIT("capacityFit");
+
+    private final String value;
+
+    SearchSort(String value) {
+        this.value = value;
+    }
+
+    /**
+     * This method is used to find the sort order of a request parameter value.
+     *
+     * @param value request parameter value
+     * @return sort order, empty when the value is unknown.
+     */
+    public static Optional<SearchSort> fromValue(String value) {
+        return Arrays.stream(values()).filter(searchSort -> searchSort.value.equalsIgnoreCase(value)).findFirst();
+    }
+}
@@ -11,7 +11,8 @@ public enum SuccessMessage {
     SUCCESSFULLY_ADDED("Successfully added."),
     SUCCESSFULLY_UPDATED("Successfully updated."),
     SUCCESSFULLY_RETURNED("Successfully returned data."),
-    SUCCESSFULLY_DELETED("Successfully deleted.");
+    SUCCESSFULLY_DELETED("Successfully deleted."),
+    SUCCESSFULLY_ACCEPTED("Successfully accepted.");
 
     private final String message;
 
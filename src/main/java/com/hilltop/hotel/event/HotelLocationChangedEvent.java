@@ -0,0 +1,21 @@
+package com.hilltop.hotel.event;
+
+import lombok.Getter;
+
+/**
+ * Hotel location changed event
+ * Published when the coordinates of a hotel are set or changed so the geo index can follow.
+ */
+@Getter
+public class HotelLocationChangedEvent {
+
+    private final String hotelId;
+    private final Double latitude;
+    private final Double longitude;
+
+    public HotelLocationChangedEvent(String hotelId, Double latitude, Double longitude) {
+        this.hotelId = hotelId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hilltop.hotel.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Hotel rooms changed event
+ * Published when rooms are added or changed, or when a hotel is added to or moved between locations, so read
+ * models built from the rooms of a location are rebuilt.
+ */
+@Getter
+public class HotelRoomsChangedEvent {
+
+    private final Set<String> hotelIds;
+    private final Integer locationId;
+
+    public HotelRoomsChangedEvent(Collection<String> hotelIds, Integer locationId) {
+        this.hotelIds = Set.copyOf(hotelIds);
+        this.locationId = locationId;
+    }
+}
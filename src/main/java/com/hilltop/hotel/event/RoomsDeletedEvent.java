@@ -0,0 +1,25 @@
+package com.hilltop.hotel.event;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rooms deleted event
+ * Published once per delete batch so caches and indexes of the affected hotels are invalidated together.
+ */
+@Getter
+public class RoomsDeletedEvent {
+
+    private final Set<String> hotelIds;
+    private final List<String> roomIds;
+    private final Map<String, String> hotelIdsByRoomId;
+
+    public RoomsDeletedEvent(Map<String, String> hotelIdsByRoomId) {
+        this.hotelIdsByRoomId = Map.copyOf(hotelIdsByRoomId);
+        this.hotelIds = Set.copyOf(hotelIdsByRoomId.values());
+        this.roomIds = List.copyOf(hotelIdsByRoomId.keySet());
+    }
+}
@@ -0,0 +1,16 @@
+package com.hilltop.hotel.exception;
+
+/**
+ * Change feed cursor expired exception
+ * Thrown when a change feed cursor is below the retention floor, so deleted rooms may have been missed.
+ */
+public class ChangeFeedCursorExpiredException extends HillTopHotelApplicationException {
+    /**
+     * Change feed cursor expired exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public ChangeFeedCursorExpiredException(String errorMessage) {
+        super(errorMessage);
+    }
+}
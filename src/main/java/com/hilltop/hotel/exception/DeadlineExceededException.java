@@ -0,0 +1,27 @@
+package com.hilltop.hotel.exception;
+
+/**
+ * Deadline exceeded exception
+ * Thrown when the deadline of the current request has passed, so the remaining work is abandoned. It is not an
+ * application failure, so callers answer it with a timeout rather than an internal error.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    /**
+     * Deadline exceeded exception with error message and throwable error.
+     *
+     * @param errorMessage error message
+     * @param error        error
+     */
+    public DeadlineExceededException(String errorMessage, Throwable error) {
+        super(errorMessage, error);
+    }
+
+    /**
+     * Deadline exceeded exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public DeadlineExceededException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hilltop.hotel.exception;
+
+/**
+ * Invalid change feed cursor exception
+ * Thrown when a change feed cursor is malformed or does not match the shard count.
+ */
+public class InvalidChangeFeedCursorException extends HillTopHotelApplicationException {
+    /**
+     * Invalid change feed cursor exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public InvalidChangeFeedCursorException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hilltop.hotel.exception;
+
+/**
+ * Shard relocation exception
+ * Thrown when an update would move a hotel or room to another shard.
+ */
+public class ShardRelocationException extends HillTopHotelApplicationException {
+    /**
+     * Shard relocation exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public ShardRelocationException(String errorMessage) {
+        super(errorMessage);
+    }
+}
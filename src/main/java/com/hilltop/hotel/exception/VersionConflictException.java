@@ -0,0 +1,16 @@
+package com.hilltop.hotel.exception;
+
+/**
+ * Version conflict exception
+ * Thrown when an update is based on an outdated version.
+ */
+public class VersionConflictException extends HillTopHotelApplicationException {
+    /**
+     * Version conflict exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public VersionConflictException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hilltop.hotel.exception;
+
+/**
+ * Write behind rejected exception
+ * Thrown when a write-behind room update is not accepted because the queue is full or stopped.
+ */
+public class WriteBehindRejectedException extends HillTopHotelApplicationException {
+    /**
+     * Write behind rejected exception with error message.
+     *
+     * @param errorMessage error message
+     */
+    public WriteBehindRejectedException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -0,0 +1,42 @@
+package com.hilltop.hotel.geo;
+
+/**
+ * Geo distance
+ * Great circle distances and coordinate validation on a spherical earth.
+ */
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * This method is used to calculate the haversine distance between two points.
+     *
+     * @param latitude1  latitude of the first point
+     * @param longitude1 longitude of the first point
+     * @param latitude2  latitude of the second point
+     * @param longitude2 longitude of the second point
+     * @return distance in km.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeDelta = Math.toRadians(latitude2 - latitude1);
+        double longitudeDelta = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2) + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * This method is used to check that a latitude and longitude pair is on the globe.
+     *
+     * @param latitude  latitude
+     * @param longitude longitude
+     * @return true/false
+     */
+    public static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hilltop.hotel.geo;
+
+import lombok.Getter;
+
+/**
+ * Geo hit
+ * A hotel found by a proximity search with its distance from the search point.
+ */
+@Getter
+public class GeoHit {
+
+    private final String hotelId;
+    private final double distanceKm;
+
+    public GeoHit(String hotelId, double distanceKm) {
+        this.hotelId = hotelId;
+        this.distanceKm = distanceKm;
+    }
+}
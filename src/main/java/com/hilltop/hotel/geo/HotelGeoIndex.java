@@ -0,0 +1,238 @@
+package com.hilltop.hotel.geo;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.event.HotelLocationChangedEvent;
+import com.hilltop.hotel.repository.HotelCoordinates;
+import com.hilltop.hotel.repository.HotelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Hotel geo index
+ * In-memory grid of hotel coordinates. Hotels are bucketed into cells of {@value #CELL_SIZE_DEGREES} degrees so a
+ * proximity search only measures distances to the hotels in the cells overlapping its bounding box. Local hotel
+ * writes are applied after commit, hotels changed by other instances are reloaded by the change log tailer, and the
+ * index is rebuilt from all shards at startup and periodically as a safety net. Bounding boxes are clamped, not
+ * wrapped, at the antimeridian.
+ */
+@Component
+@Slf4j
+public class HotelGeoIndex {
+
+    static final double CELL_SIZE_DEGREES = 0.05;
+    private static final long CELL_COLUMNS = (long) Math.ceil(360 / CELL_SIZE_DEGREES) + 1;
+    private final HotelRepository hotelRepository;
+    private final ShardRouter shardRouter;
+    private volatile Buckets buckets = new Buckets();
+
+    public HotelGeoIndex(HotelRepository hotelRepository, ShardRouter shardRouter) {
+        this.hotelRepository = hotelRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * This method is used to add or move a hotel.
+     *
+     * @param hotelId   hotelId
+     * @param latitude  latitude
+     * @param longitude longitude
+     */
+    public void put(String hotelId, double latitude, double longitude) {
+        buckets.put(hotelId, latitude, longitude);
+    }
+
+    /**
+     * This method is used to remove a hotel.
+     *
+     * @param hotelId hotelId
+     */
+    public void remove(String hotelId) {
+        buckets.remove(hotelId);
+    }
+
+    /**
+     * This method is used to get the indexed hotel count.
+     *
+     * @return hotel count.
+     */
+    public int size() {
+        return buckets.points.size();
+    }
+
+    /**
+     * This method is used to find the hotels within a radius, nearest first.
+     *
+     * @param latitude  latitude of the search point
+     * @param longitude longitude of the search point
+     * @param radiusKm  radius in km
+     * @return hotels with their distance.
+     */
+    public List<GeoHit> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        double latitudeDelta = radiusKm / GeoDistance.KM_PER_DEGREE_LATITUDE;
+        double minLatitude = Math.max(-90, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90, latitude + latitudeDelta);
+        double minCos = Math.min(Math.cos(Math.toRadians(minLatitude)), Math.cos(Math.toRadians(maxLatitude)));
+        double longitudeDelta = minCos <= 0 ? 180
+                : Math.min(180, radiusKm / (GeoDistance.KM_PER_DEGREE_LATITUDE * minCos));
+        Buckets current = buckets;
+        List<GeoHit> hits = new ArrayList<>();
+        for (String hotelId : current.findWithinBox(minLatitude, longitude - longitudeDelta, maxLatitude,
+                longitude + longitudeDelta)) {
+            double[] point = current.points.get(hotelId);
+            if (point == null)
+                continue;
+            double distanceKm = GeoDistance.distanceKm(latitude, longitude, point[0], point[1]);
+            if (distanceKm <= radiusKm)
+                hits.add(new GeoHit(hotelId, distanceKm));
+        }
+        hits.sort(Comparator.comparingDouble(GeoHit::getDistanceKm).thenComparing(GeoHit::getHotelId));
+        return hits;
+    }
+
+    /**
+     * This method is used to apply a committed hotel coordinate change.
+     *
+     * @param hotelLocationChangedEvent hotelLocationChangedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelLocationChanged(HotelLocationChangedEvent hotelLocationChangedEvent) {
+        if (hotelLocationChangedEvent.getLatitude() == null || hotelLocationChangedEvent.getLongitude() == null)
+            remove(hotelLocationChangedEvent.getHotelId());
+        else
+            put(hotelLocationChangedEvent.getHotelId(), hotelLocationChangedEvent.getLatitude(),
+                    hotelLocationChangedEvent.getLongitude());
+    }
+
+    /**
+     * This method is used to reload the coordinates of the given hotels, removing those without coordinates.
+     *
+     * @param hotelIds hotelIds
+     */
+    public void refreshHotels(Collection<String> hotelIds) {
+        Map<Integer, List<String>> hotelIdsByShard = hotelIds.stream()
+                .collect(Collectors.groupingBy(shardRouter::shardForId));
+        for (Map.Entry<Integer, List<String>> shardHotelIds : hotelIdsByShard.entrySet()) {
+            Set<String> removed = new HashSet<>(shardHotelIds.getValue());
+            for (HotelCoordinates coordinates : shardRouter.executeOnShard(shardHotelIds.getKey(), true,
+                    () -> hotelRepository.findCoordinatesByIdIn(shardHotelIds.getValue()))) {
+                put(coordinates.getId(), coordinates.getLatitude(), coordinates.getLongitude());
+                removed.remove(coordinates.getId());
+            }
+            removed.forEach(this::remove);
+        }
+    }
+
+    /**
+     * This method is used to rebuild the index from the hotels of all shards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${hilltop.geo.refresh-interval:PT5M}",
+            fixedDelayString = "${hilltop.geo.refresh-interval:PT5M}")
+    public void refresh() {
+        try {
+            Buckets rebuilt = new Buckets();
+            for (List<HotelCoordinates> shardCoordinates :
+                    shardRouter.executeOnAllShards(true, hotelRepository::findAllCoordinates)) {
+                for (HotelCoordinates coordinates : shardCoordinates)
+                    rebuilt.put(coordinates.getId(), coordinates.getLatitude(), coordinates.getLongitude());
+            }
+            buckets = rebuilt;
+            log.debug("Rebuilt hotel geo index with {} hotels.", rebuilt.points.size());
+        } catch (DataAccessException e) {
+            log.error("Failed to rebuild hotel geo index, keeping the current one. ", e);
+        }
+    }
+
+    /**
+     * This method is used to get the cell row of a latitude.
+     *
+     * @param latitude latitude
+     * @return cell row.
+     */
+    private static long row(double latitude) {
+        return (long) Math.floor((latitude + 90) / CELL_SIZE_DEGREES);
+    }
+
+    /**
+     * This method is used to get the cell column of a longitude.
+     *
+     * @param longitude longitude
+     * @return cell column.
+     */
+    private static long column(double longitude) {
+        return (long) Math.floor((longitude + 180) / CELL_SIZE_DEGREES);
+    }
+
+    /**
+     * Buckets
+     * Hotel coordinates and the hotels of every non-empty cell. Writes are serialized, reads are lock free.
+     */
+    private static final class Buckets {
+
+        private final Map<String, double[]> points = new ConcurrentHashMap<>();
+        private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+        private synchronized void put(String hotelId, double latitude, double longitude) {
+            remove(hotelId);
+            points.put(hotelId, new double[]{latitude, longitude});
+            cells.computeIfAbsent(row(latitude) * CELL_COLUMNS + column(longitude),
+                    cell -> ConcurrentHashMap.newKeySet()).add(hotelId);
+        }
+
+        private synchronized void remove(String hotelId) {
+            double[] point = points.remove(hotelId);
+            if (point == null)
+                return;
+            long cell = row(point[0]) * CELL_COLUMNS + column(point[1]);
+            Set<String> hotelIds = cells.get(cell);
+            hotelIds.remove(hotelId);
+            if (hotelIds.isEmpty())
+                cells.remove(cell);
+        }
+
+        /**
+         * This method is used to find the hotels in the cells overlapping a bounding box. Walks the non-empty cells
+         * instead when the box covers more cells than there are.
+         *
+         * @param minLatitude  minLatitude
+         * @param minLongitude minLongitude
+         * @param maxLatitude  maxLatitude
+         * @param maxLongitude maxLongitude
+         * @return candidate hotelIds.
+         */
+        private List<String> findWithinBox(double minLatitude, double minLongitude, double maxLatitude,
+                                           double maxLongitude) {
+            long minRow = row(minLatitude);
+            long maxRow = row(maxLatitude);
+            long minColumn = column(Math.max(-180, minLongitude));
+            long maxColumn = column(Math.min(180, maxLongitude));
+            List<String> candidates = new ArrayList<>();
+            if ((maxRow - minRow + 1) * (maxColumn - minColumn + 1) > cells.size()) {
+                for (Map.Entry<Long, Set<String>> cell : cells.entrySet()) {
+                    long row = cell.getKey() / CELL_COLUMNS;
+                    long column = cell.getKey() % CELL_COLUMNS;
+                    if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn)
+                        candidates.addAll(cell.getValue());
+                }
+                return candidates;
+            }
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long column = minColumn; column <= maxColumn; column++) {
+                    Set<String> hotelIds = cells.get(row * CELL_COLUMNS + column);
+                    if (hotelIds != null)
+                        candidates.addAll(hotelIds);
+                }
+            }
+            return candidates;
+        }
+    }
+}
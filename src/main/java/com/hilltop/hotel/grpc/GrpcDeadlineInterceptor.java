@@ -0,0 +1,48 @@
+package com.hilltop.hotel.grpc;
+
+import com.hilltop.hotel.configuration.DeadlineProperties;
+import com.hilltop.hotel.deadline.RequestDeadline;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC deadline interceptor
+ * Runs the handler of a call with the {@link RequestDeadline} of the call: the deadline set by the caller, up to
+ * the max timeout, or else the default timeout.
+ */
+final class GrpcDeadlineInterceptor implements ServerInterceptor {
+
+    private final DeadlineProperties deadlineProperties;
+
+    GrpcDeadlineInterceptor(DeadlineProperties deadlineProperties) {
+        this.deadlineProperties = deadlineProperties;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        Deadline deadline = Context.current().getDeadline();
+        long timeoutNanos = deadline == null ? deadlineProperties.getDefaultTimeout().toNanos()
+                : Math.min(deadline.timeRemaining(TimeUnit.NANOSECONDS), deadlineProperties.getMaxTimeout().toNanos());
+        long deadlineNanos = System.nanoTime() + timeoutNanos;
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+            @Override
+            public void onHalfClose() {
+                RequestDeadline.start(Duration.ofNanos(deadlineNanos - System.nanoTime()));
+                try {
+                    super.onHalfClose();
+                } finally {
+                    RequestDeadline.clear();
+                }
+            }
+        };
+    }
+}
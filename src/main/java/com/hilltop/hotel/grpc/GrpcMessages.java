@@ -0,0 +1,75 @@
+package com.hilltop.hotel.grpc;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+
+import java.util.List;
+
+/**
+ * gRPC messages
+ * Maps entities to the protobuf messages of the internal API, with the fields of {@code HotelResponseDto} and
+ * {@code RoomResponseDto}. Entities are mapped directly, without the response dtos in between.
+ */
+final class GrpcMessages {
+
+    private GrpcMessages() {
+    }
+
+    /**
+     * This method is used to map a hotel without rooms.
+     *
+     * @param hotel hotel
+     * @return hotel message.
+     */
+    static com.hilltop.hotel.grpc.proto.Hotel toHotel(Hotel hotel) {
+        return hotelBuilder(hotel).build();
+    }
+
+    /**
+     * This method is used to map a hotel with the given rooms.
+     *
+     * @param hotel hotel
+     * @param rooms rooms
+     * @return hotel message.
+     */
+    static com.hilltop.hotel.grpc.proto.Hotel toHotel(Hotel hotel, List<Room> rooms) {
+        com.hilltop.hotel.grpc.proto.Hotel.Builder builder = hotelBuilder(hotel);
+        for (Room room : rooms)
+            builder.addRooms(toRoom(room));
+        return builder.build();
+    }
+
+    /**
+     * This method is used to map a room.
+     *
+     * @param room room
+     * @return room message.
+     */
+    static com.hilltop.hotel.grpc.proto.Room toRoom(Room room) {
+        com.hilltop.hotel.grpc.proto.Room.Builder builder = com.hilltop.hotel.grpc.proto.Room.newBuilder()
+                .setId(room.getId())
+                .setMaxPeople(room.getMaxPeople())
+                .setPrice(room.getPrice())
+                .setVersion(room.getVersion());
+        if (room.getRoomNo() != null)
+            builder.setRoomNo(room.getRoomNo());
+        if (room.getRoomType() != null && room.getRoomType().getName() != null)
+            builder.setRoomType(room.getRoomType().getName());
+        return builder.build();
+    }
+
+    private static com.hilltop.hotel.grpc.proto.Hotel.Builder hotelBuilder(Hotel hotel) {
+        com.hilltop.hotel.grpc.proto.Hotel.Builder builder = com.hilltop.hotel.grpc.proto.Hotel.newBuilder()
+                .setId(hotel.getId())
+                .setVersion(hotel.getVersion());
+        if (hotel.getName() != null)
+            builder.setName(hotel.getName());
+        if (hotel.getLocation() != null)
+            builder.setLocation(hotel.getLocation());
+        if (hotel.getLatitude() != null)
+            builder.setLatitude(hotel.getLatitude());
+        if (hotel.getLongitude() != null)
+            builder.setLongitude(hotel.getLongitude());
+        return builder;
+    }
+}
@@ -0,0 +1,108 @@
+package com.hilltop.hotel.grpc;
+
+import com.hilltop.hotel.configuration.DeadlineProperties;
+import com.netflix.appinfo.ApplicationInfoManager;
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC server
+ * Serves the internal gRPC services on {@code hilltop.grpc.port}, next to the REST endpoints on the server port.
+ * The bound port is registered in the Eureka metadata as {@code grpc.port}, so other services find it with the
+ * instance. Calls run with a request deadline like REST requests when deadlines are enabled. On shutdown, running
+ * calls get {@code hilltop.grpc.shutdown-timeout} to finish before they are cancelled.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "hilltop.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+
+    public static final String PORT_METADATA_KEY = "grpc.port";
+    private final List<BindableService> services;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final ObjectProvider<DeadlineProperties> deadlineProperties;
+    private final int port;
+    private final Duration shutdownTimeout;
+    private Server server;
+
+    public GrpcServer(List<BindableService> services, ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                      ObjectProvider<DeadlineProperties> deadlineProperties,
+                      @Value("${hilltop.grpc.port:6565}") int port,
+                      @Value("${hilltop.grpc.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.services = services;
+        this.applicationInfoManager = applicationInfoManager;
+        this.deadlineProperties = deadlineProperties;
+        this.port = port;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * This method is used to start the server and register its port in Eureka.
+     */
+    @Override
+    public synchronized void start() {
+        NettyServerBuilder serverBuilder = NettyServerBuilder.forPort(port);
+        DeadlineProperties deadlines = deadlineProperties.getIfAvailable();
+        for (BindableService service : services)
+            serverBuilder.addService(deadlines == null ? service.bindService()
+                    : ServerInterceptors.intercept(service, new GrpcDeadlineInterceptor(deadlines)));
+        try {
+            server = serverBuilder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start the gRPC server on port: " + port, e);
+        }
+        log.info("Started the gRPC server on port {} with {} services.", server.getPort(), services.size());
+        applicationInfoManager.ifAvailable(manager ->
+                manager.registerAppMetadata(Map.of(PORT_METADATA_KEY, String.valueOf(server.getPort()))));
+    }
+
+    /**
+     * This method is used to stop accepting calls and wait for running calls up to the shutdown timeout.
+     */
+    @Override
+    public synchronized void stop() {
+        if (server == null)
+            return;
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC calls did not finish within {}, cancelling them.", shutdownTimeout);
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        log.info("Stopped the gRPC server.");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * This method is used to get the bound port, which differs from the configured one when that is 0.
+     *
+     * @return port, -1 when the server is not running.
+     */
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getPort();
+    }
+}
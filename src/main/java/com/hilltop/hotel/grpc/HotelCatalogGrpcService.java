@@ -0,0 +1,259 @@
+package com.hilltop.hotel.grpc;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.request.LookupRequestDto;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.enumeration.SearchSort;
+import com.hilltop.hotel.exception.DeadlineExceededException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.grpc.proto.HotelCatalogGrpc;
+import com.hilltop.hotel.grpc.proto.HotelLookupResponse;
+import com.hilltop.hotel.grpc.proto.ListHotelsRequest;
+import com.hilltop.hotel.grpc.proto.ListRoomsRequest;
+import com.hilltop.hotel.grpc.proto.LookupRequest;
+import com.hilltop.hotel.grpc.proto.RoomLookupResponse;
+import com.hilltop.hotel.grpc.proto.SearchHotelsRequest;
+import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.RoomService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hotel catalog gRPC service
+ * Internal counterpart of the search, list and lookup endpoints for service to service calls. Requests are
+ * validated like the REST endpoints, invalid ones fail with {@code INVALID_ARGUMENT}, service failures with
+ * {@code INTERNAL} and calls past their deadline with {@code DEADLINE_EXCEEDED}. Result lists are streamed one
+ * message at a time as the transport becomes ready, so a slow caller does not make the server buffer a large result
+ * set.
+ */
+@Component
+@Slf4j
+public class HotelCatalogGrpcService extends HotelCatalogGrpc.HotelCatalogImplBase {
+
+    private final HotelService hotelService;
+    private final RoomService roomService;
+
+    public HotelCatalogGrpcService(HotelService hotelService, RoomService roomService) {
+        this.hotelService = hotelService;
+        this.roomService = roomService;
+    }
+
+    /**
+     * This method is used to stream the hotels of a location with rooms for the pax count, in search order.
+     *
+     * @param request          search request
+     * @param responseObserver hotel stream
+     */
+    @Override
+    public void searchHotels(SearchHotelsRequest request,
+                             StreamObserver<com.hilltop.hotel.grpc.proto.Hotel> responseObserver) {
+        Optional<SearchSort> searchSort = request.getSort().isEmpty() ? Optional.of(SearchSort.PRICE)
+                : SearchSort.fromValue(request.getSort());
+        Integer limit = request.hasLimit() ? request.getLimit() : null;
+        if (request.getLocation().isEmpty() || request.getPaxCount() < 1 || searchSort.isEmpty()
+                || (limit != null && (limit < 1 || limit > HotelService.MAX_SEARCH_LIMIT))
+                || (request.hasMinPrice() && request.hasMaxPrice() && request.getMinPrice() > request.getMaxPrice())) {
+            log.debug("Invalid gRPC search parameters. request: {}", request);
+            responseObserver.onError(invalidArgument(ErrorMessage.INVALID_SEARCH_PARAMETERS));
+            return;
+        }
+        try {
+            Map<Hotel, List<Room>> hotelAndRoomsMap = hotelService.getHotelsByLocationAndPaxCount(
+                    request.getLocation(), request.getPaxCount(),
+                    request.hasMinPrice() ? request.getMinPrice() : null,
+                    request.hasMaxPrice() ? request.getMaxPrice() : null, searchSort.get(), limit);
+            stream(hotelAndRoomsMap.entrySet().iterator(),
+                    hotelAndRooms -> GrpcMessages.toHotel(hotelAndRooms.getKey(), hotelAndRooms.getValue()),
+                    responseObserver);
+        } catch (DeadlineExceededException e) {
+            log.debug("Failed to search hotels over gRPC before the deadline. {}", e.getMessage());
+            responseObserver.onError(deadlineExceeded());
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to search hotels over gRPC. ", e);
+            responseObserver.onError(internal());
+        }
+    }
+
+    /**
+     * This method is used to stream all hotels, ordered by name.
+     *
+     * @param request          list request
+     * @param responseObserver hotel stream
+     */
+    @Override
+    public void listHotels(ListHotelsRequest request,
+                           StreamObserver<com.hilltop.hotel.grpc.proto.Hotel> responseObserver) {
+        try {
+            stream(hotelService.getHotelList().iterator(), GrpcMessages::toHotel, responseObserver);
+        } catch (DeadlineExceededException e) {
+            log.debug("Failed to list hotels over gRPC before the deadline. {}", e.getMessage());
+            responseObserver.onError(deadlineExceeded());
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to list hotels over gRPC. ", e);
+            responseObserver.onError(internal());
+        }
+    }
+
+    /**
+     * This method is used to stream the rooms of a hotel.
+     *
+     * @param request          hotel id and optional room number filter
+     * @param responseObserver room stream
+     */
+    @Override
+    public void listRooms(ListRoomsRequest request,
+                          StreamObserver<com.hilltop.hotel.grpc.proto.Room> responseObserver) {
+        if (request.getHotelId().isEmpty()) {
+            responseObserver.onError(invalidArgument(ErrorMessage.MISSING_REQUIRED_FIELDS));
+            return;
+        }
+        try {
+            List<Room> rooms = roomService.getRoomListByHotelIdAndSearchTerm(request.getHotelId(),
+                    request.hasSearchTerm() ? request.getSearchTerm() : null);
+            stream(rooms.iterator(), GrpcMessages::toRoom, responseObserver);
+        } catch (DeadlineExceededException e) {
+            log.debug("Failed to list rooms over gRPC before the deadline. {}", e.getMessage());
+            responseObserver.onError(deadlineExceeded());
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to list rooms over gRPC. ", e);
+            responseObserver.onError(internal());
+        }
+    }
+
+    /**
+     * This method is used to get hotels by ids, together with the ids that were not found.
+     *
+     * @param request          ids
+     * @param responseObserver found hotels and missing ids
+     */
+    @Override
+    public void lookupHotels(LookupRequest request, StreamObserver<HotelLookupResponse> responseObserver) {
+        if (!isValid(request, responseObserver))
+            return;
+        try {
+            List<Hotel> hotels = hotelService.getHotelsByIds(request.getIdsList());
+            HotelLookupResponse.Builder builder = HotelLookupResponse.newBuilder();
+            Set<String> foundIds = new HashSet<>();
+            for (Hotel hotel : hotels) {
+                builder.addHotels(GrpcMessages.toHotel(hotel));
+                foundIds.add(hotel.getId());
+            }
+            builder.addAllMissingIds(getMissingIds(request, foundIds));
+            responseObserver.onNext(builder.build());
+            responseObserver.onCompleted();
+        } catch (DeadlineExceededException e) {
+            log.debug("Failed to look up hotels over gRPC before the deadline. {}", e.getMessage());
+            responseObserver.onError(deadlineExceeded());
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to look up hotels over gRPC. ", e);
+            responseObserver.onError(internal());
+        }
+    }
+
+    /**
+     * This method is used to get rooms by ids, together with the ids that were not found.
+     *
+     * @param request          ids
+     * @param responseObserver found rooms and missing ids
+     */
+    @Override
+    public void lookupRooms(LookupRequest request, StreamObserver<RoomLookupResponse> responseObserver) {
+        if (!isValid(request, responseObserver))
+            return;
+        try {
+            List<Room> rooms = roomService.getRoomsByIds(request.getIdsList());
+            RoomLookupResponse.Builder builder = RoomLookupResponse.newBuilder();
+            Set<String> foundIds = new HashSet<>();
+            for (Room room : rooms) {
+                builder.addRooms(GrpcMessages.toRoom(room));
+                foundIds.add(room.getId());
+            }
+            builder.addAllMissingIds(getMissingIds(request, foundIds));
+            responseObserver.onNext(builder.build());
+            responseObserver.onCompleted();
+        } catch (DeadlineExceededException e) {
+            log.debug("Failed to look up rooms over gRPC before the deadline. {}", e.getMessage());
+            responseObserver.onError(deadlineExceeded());
+        } catch (HillTopHotelApplicationException e) {
+            log.error("Failed to look up rooms over gRPC. ", e);
+            responseObserver.onError(internal());
+        }
+    }
+
+    /**
+     * This method is used to validate a lookup request like the REST lookup endpoints.
+     *
+     * @param request          lookup request
+     * @param responseObserver response observer failed for invalid requests
+     * @return true/false
+     */
+    private static boolean isValid(LookupRequest request, StreamObserver<?> responseObserver) {
+        if (request.getIdsCount() == 0 || request.getIdsList().stream().anyMatch(id -> id.trim().isEmpty())) {
+            responseObserver.onError(invalidArgument(ErrorMessage.MISSING_REQUIRED_FIELDS));
+            return false;
+        }
+        if (request.getIdsCount() > LookupRequestDto.MAX_IDS) {
+            responseObserver.onError(invalidArgument(ErrorMessage.TOO_MANY_LOOKUP_IDS));
+            return false;
+        }
+        return true;
+    }
+
+    private static List<String> getMissingIds(LookupRequest request, Set<String> foundIds) {
+        return request.getIdsList().stream().distinct().filter(id -> !foundIds.contains(id))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method is used to send the mapped elements as the call becomes ready and complete the call after the
+     * last one. Runs again from the ready handler when the transport buffer drained.
+     *
+     * @param iterator         elements
+     * @param mapper           element to message mapper
+     * @param responseObserver response stream
+     * @param <T>              element type
+     * @param <M>              message type
+     */
+    private static <T, M> void stream(Iterator<T> iterator, Function<T, M> mapper,
+                                      StreamObserver<M> responseObserver) {
+        ServerCallStreamObserver<M> serverCallStreamObserver = (ServerCallStreamObserver<M>) responseObserver;
+        boolean[] completed = new boolean[1];
+        Runnable drain = () -> {
+            while (serverCallStreamObserver.isReady() && iterator.hasNext())
+                serverCallStreamObserver.onNext(mapper.apply(iterator.next()));
+            if (!iterator.hasNext() && !completed[0]) {
+                completed[0] = true;
+                serverCallStreamObserver.onCompleted();
+            }
+        };
+        serverCallStreamObserver.setOnCancelHandler(() -> log.debug("gRPC stream cancelled by the caller."));
+        serverCallStreamObserver.setOnReadyHandler(drain);
+        drain.run();
+    }
+
+    private static RuntimeException invalidArgument(ErrorMessage errorMessage) {
+        return Status.INVALID_ARGUMENT.withDescription(errorMessage.getMessage()).asRuntimeException();
+    }
+
+    private static RuntimeException deadlineExceeded() {
+        return Status.DEADLINE_EXCEEDED.withDescription(ErrorMessage.DEADLINE_EXCEEDED.getMessage())
+                .asRuntimeException();
+    }
+
+    private static RuntimeException internal() {
+        return Status.INTERNAL.withDescription(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage()).asRuntimeException();
+    }
+}
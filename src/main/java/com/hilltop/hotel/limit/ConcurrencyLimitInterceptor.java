@@ -0,0 +1,118 @@
+package com.hilltop.hotel.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.hotel.configuration.ConcurrencyLimitProperties;
+import com.hilltop.hotel.controller.BaseController;
+import com.hilltop.hotel.domain.response.ResponseWrapper;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.metrics.QueryBudgetInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrency limit interceptor
+ * Admits requests to the api controllers through the {@link ConcurrencyLimiter} of their endpoint group and rejects
+ * requests above the limit right away with 503 and Retry-After, before they take a connection. Health checks and
+ * actuator endpoints are not limited.
+ */
+@Slf4j
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".admitted";
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties concurrencyLimitProperties,
+                                       MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod)
+                || !BaseController.class.isAssignableFrom(((HandlerMethod) handler).getBeanType()))
+            return true;
+        String group = concurrencyLimitProperties.getGroup(
+                QueryBudgetInterceptor.getHandlerName((HandlerMethod) handler), request.getMethod(),
+                parameter -> StringUtils.hasText(request.getParameter(parameter)));
+        ConcurrencyLimiter limiter = getLimiter(group);
+        if (!limiter.tryAcquire()) {
+            meterRegistry.counter(MetricName.CONCURRENCY_REJECTED, "group", group).increment();
+            log.debug("Rejected request above the concurrency limit. group: {}, limit: {}, uri: {}", group,
+                    limiter.getLimit(), request.getRequestURI());
+            reject(response);
+            return false;
+        }
+        request.setAttribute(ADMITTED_ATTRIBUTE, new Admission(limiter, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object attribute = request.getAttribute(ADMITTED_ATTRIBUTE);
+        if (!(attribute instanceof Admission))
+            return;
+        request.removeAttribute(ADMITTED_ATTRIBUTE);
+        Admission admission = (Admission) attribute;
+        admission.limiter.release(System.nanoTime() - admission.startedAt);
+    }
+
+    /**
+     * This method is used to get the limiter of a group, created with the group limits on first use.
+     *
+     * @param group group name
+     * @return limiter.
+     */
+    public ConcurrencyLimiter getLimiter(String group) {
+        return limiters.computeIfAbsent(group, name -> {
+            ConcurrencyLimitProperties.Group limits = concurrencyLimitProperties.getGroupLimits(name);
+            ConcurrencyLimiter limiter = new ConcurrencyLimiter(limits.getInitialLimit(), limits.getMinLimit(),
+                    limits.getMaxLimit());
+            Gauge.builder(MetricName.CONCURRENCY_LIMIT, limiter, ConcurrencyLimiter::getLimit).tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder(MetricName.CONCURRENCY_IN_FLIGHT, limiter, ConcurrencyLimiter::getInFlight)
+                    .tag("group", name).register(meterRegistry);
+            return limiter;
+        });
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, concurrencyLimitProperties.getRetryAfter().toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ResponseWrapper(ErrorMessage.SERVICE_OVERLOADED.getMessage()));
+    }
+
+    private static final class Admission {
+
+        private final ConcurrencyLimiter limiter;
+        private final long startedAt;
+
+        private Admission(ConcurrencyLimiter limiter, long startedAt) {
+            this.limiter = limiter;
+            this.startedAt = startedAt;
+        }
+    }
+}
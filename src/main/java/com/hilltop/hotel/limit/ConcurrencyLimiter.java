@@ -0,0 +1,75 @@
+package com.hilltop.hotel.limit;
+
+/**
+ * Concurrency limiter
+ * Limits the requests of an endpoint group in flight with a limit that follows the observed latency. Each
+ * completed request updates a short and a long term average latency; their ratio (the gradient, between 0.5 and 1)
+ * shrinks the limit as soon as requests get slower than usual, and a headroom of the square root of the limit lets
+ * it grow while latency stays flat. The long term average decays towards the short term one while the gradient is
+ * below 1, so the limit recovers once a slower latency has become the norm. The limit only grows while at least
+ * half of it is in use, so an idle group does not grow an untested limit.
+ */
+public class ConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double TOLERANCE = 1.5;
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double shortLatency;
+    private double longLatency;
+    private int inFlight;
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit)
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max.");
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * This method is used to admit a request when the group is below its limit.
+     *
+     * @return true/false, true has to be followed by {@link #release(long)}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= getLimit())
+            return false;
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * This method is used to release an admitted request and adapt the limit to its latency.
+     *
+     * @param latencyNanos latency of the request
+     */
+    public synchronized void release(long latencyNanos) {
+        inFlight--;
+        double latency = Math.max(1, latencyNanos);
+        if (longLatency == 0) {
+            shortLatency = latency;
+            longLatency = latency;
+            return;
+        }
+        shortLatency += (latency - shortLatency) / SHORT_WINDOW;
+        longLatency += (shortLatency - longLatency) / LONG_WINDOW;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, TOLERANCE * longLatency / shortLatency));
+        if (gradient < 1)
+            longLatency += (shortLatency - longLatency) * (1 - gradient) / SHORT_WINDOW;
+        double newLimit = limit * gradient + (gradient == 1 && inFlight * 2 >= limit ? Math.sqrt(limit) : 0);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
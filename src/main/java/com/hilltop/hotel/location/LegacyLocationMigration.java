@@ -0,0 +1,88 @@
+package com.hilltop.hotel.location;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.util.List;
+
+/**
+ * Legacy location migration
+ * Hotels stored before the location dictionary keep their location name in the {@code location} column. At startup
+ * every distinct legacy name of hotels without a location id is registered in the dictionary and its hotels are
+ * pointed to the id, shard by shard. Names differing only in case, whitespace or Unicode form end up on one id. The
+ * {@code location} and {@code location_id} columns come from the versioned schema migrations (V1 and V5), which run
+ * before the entity manager this migration uses is created. The legacy column is ignored once all hotels have an id.
+ * Runs as an application runner, so it has finished before the application reports ready and the warm-up marks the
+ * instance up in Eureka.
+ */
+@Component
+@Slf4j
+public class LegacyLocationMigration implements ApplicationRunner {
+
+    private final LocationDictionary locationDictionary;
+    private final ShardRouter shardRouter;
+    private final EntityManager entityManager;
+
+    public LegacyLocationMigration(LocationDictionary locationDictionary, ShardRouter shardRouter,
+                                   EntityManager entityManager) {
+        this.locationDictionary = locationDictionary;
+        this.shardRouter = shardRouter;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    /**
+     * This method is used to migrate the legacy location names of all shards.
+     *
+     * @return migrated hotel count.
+     */
+    public int migrate() {
+        int migrated = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++)
+                migrated += migrateShard(shard);
+            if (migrated > 0)
+                log.info("Migrated the locations of {} hotels to location ids.", migrated);
+        } catch (DataAccessException | PersistenceException e) {
+            log.error("Failed to migrate legacy hotel locations, the next startup will retry. ", e);
+        }
+        return migrated;
+    }
+
+    private int migrateShard(int shard) {
+        List<String> names = shardRouter.executeOnShard(shard, false, this::findUnmigratedLocations);
+        int migrated = 0;
+        for (String name : names) {
+            if (name.isBlank())
+                continue;
+            int locationId = locationDictionary.resolve(name).getId();
+            migrated += shardRouter.executeOnShard(shard, false,
+                    () -> migrateLocation(name, locationId));
+        }
+        return migrated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> findUnmigratedLocations() {
+        return entityManager.createNativeQuery("select distinct location from hotel where location_id is null "
+                + "and location is not null").getResultList();
+    }
+
+    private int migrateLocation(String name, int locationId) {
+        return entityManager.createNativeQuery("update hotel set location_id = ?1 where location_id is null "
+                        + "and location = ?2")
+                .setParameter(1, locationId)
+                .setParameter(2, name)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,34 @@
+package com.hilltop.hotel.location;
+
+import org.springframework.context.annotation.Lazy;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Location converter
+ * Stores a location name as its dictionary id and loads it back as the shared display name of that id, so loaded
+ * entities do not carry their own copies. Query parameters compared with a converted attribute are converted too.
+ * Both directions only read the cache of the dictionary, names are registered by the services before they are
+ * written, so no query runs while Hibernate converts an attribute. Created by Hibernate through the Spring bean
+ * container; the dictionary is injected lazily because it needs the entity manager factory that is being built.
+ */
+@Converter
+public class LocationConverter implements AttributeConverter<String, Integer> {
+
+    private final LocationDictionary locationDictionary;
+
+    public LocationConverter(@Lazy LocationDictionary locationDictionary) {
+        this.locationDictionary = locationDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String location) {
+        return location == null ? null : locationDictionary.get(location).getId();
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer locationId) {
+        return locationId == null ? null : locationDictionary.get(locationId).getName();
+    }
+}
@@ -0,0 +1,183 @@
+package com.hilltop.hotel.location;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.Location;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.repository.LocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Location dictionary
+ * Maps location names to dense integer ids, assigned by the database. The dictionary is kept on shard
+ * {@value #DICTIONARY_SHARD} and cached in memory, entries are never changed or removed, so a cached entry never goes
+ * stale. The whole dictionary is loaded when the context starts and reloaded periodically and when the change log
+ * shows a location registered by another instance, so the lookups by id made while Hibernate loads entities only
+ * read the cache. Names that normalize to the same key share one entry and the display name it was first registered
+ * with. Names that are not registered are
+ * remembered for a short time in a bounded negative cache, so repeated searches for unknown locations do not query
+ * the dictionary shard each time. A registration on this instance clears its negative entry at once, one on another
+ * instance is seen once the entry expires.
+ */
+@Component
+@Slf4j
+public class LocationDictionary {
+
+    static final int DICTIONARY_SHARD = 0;
+    private static final int MAX_CREATE_ATTEMPTS = 3;
+    private final LocationRepository locationRepository;
+    private final ShardRouter shardRouter;
+    private final Map<String, Location> locationsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, Location> locationsById = new ConcurrentHashMap<>();
+    private final Map<String, Long> missingNames;
+    private final long negativeCacheTtlNanos;
+
+    public LocationDictionary(LocationRepository locationRepository, ShardRouter shardRouter,
+                              @Value("${hilltop.location.negative-cache-size:10000}") int negativeCacheSize,
+                              @Value("${hilltop.location.negative-cache-ttl:PT10S}") Duration negativeCacheTtl) {
+        this.locationRepository = locationRepository;
+        this.shardRouter = shardRouter;
+        this.negativeCacheTtlNanos = negativeCacheTtl.toNanos();
+        this.missingNames = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > negativeCacheSize;
+            }
+        });
+    }
+
+    /**
+     * This method is used to find the location of a name without registering it. A name found missing is not
+     * looked up again until its negative cache entry expires or it is registered on this instance.
+     *
+     * @param name location name
+     * @return location, empty when the name is not registered.
+     */
+    public Optional<Location> find(String name) {
+        if (name == null)
+            return Optional.empty();
+        String normalizedName = LocationNames.normalize(name);
+        Location location = locationsByName.get(normalizedName);
+        if (location != null)
+            return Optional.of(location);
+        Long missingUntil = missingNames.get(normalizedName);
+        if (missingUntil != null && missingUntil - System.nanoTime() > 0)
+            return Optional.empty();
+        location = shardRouter.executeOnShard(DICTIONARY_SHARD, false,
+                () -> locationRepository.findByNormalizedName(normalizedName).orElse(null));
+        if (location != null)
+            cache(location);
+        else
+            missingNames.put(normalizedName, System.nanoTime() + negativeCacheTtlNanos);
+        return Optional.ofNullable(location);
+    }
+
+    /**
+     * This method is used to get the location of a name, registering the name when it is new. Runs in its own
+     * transaction on the dictionary shard, retrying when a concurrent registration takes the same name.
+     *
+     * @param name location name
+     * @return location.
+     */
+    public Location resolve(String name) {
+        Optional<Location> existing = find(name);
+        if (existing.isPresent())
+            return existing.get();
+        String normalizedName = LocationNames.normalize(name);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Location location = shardRouter.executeOnShard(DICTIONARY_SHARD, false,
+                        () -> locationRepository.findByNormalizedName(normalizedName)
+                                .orElseGet(() -> locationRepository.save(new Location(name))));
+                cache(location);
+                return location;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_CREATE_ATTEMPTS)
+                    throw e;
+                log.debug("Retrying registration of location: {}. {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * This method is used to get a cached location by id. Never queries the database, so it is safe while Hibernate
+     * loads an entity. Ids registered by other instances are cached at the next reload.
+     *
+     * @param id location id
+     * @return location.
+     */
+    public Location get(int id) {
+        Location location = locationsById.get(id);
+        if (location == null)
+            throw new HillTopHotelApplicationException("Location not loaded for id: " + id);
+        return location;
+    }
+
+    /**
+     * This method is used to get a cached location by name. Never queries the database, so it is safe while
+     * Hibernate writes an entity or binds a query parameter. Names are cached once found or registered.
+     *
+     * @param name location name
+     * @return location.
+     */
+    public Location get(String name) {
+        Location location = locationsByName.get(LocationNames.normalize(name));
+        if (location == null)
+            throw new HillTopHotelApplicationException("Location not loaded for name: " + name);
+        return location;
+    }
+
+    /**
+     * This method is used to check whether a location id is cached.
+     *
+     * @param id location id
+     * @return true if the location is cached.
+     */
+    public boolean contains(int id) {
+        return locationsById.containsKey(id);
+    }
+
+    /**
+     * This method is used to get the number of cached locations.
+     *
+     * @return cached location count.
+     */
+    public int size() {
+        return locationsById.size();
+    }
+
+    /**
+     * This method is used to load all locations of the dictionary shard into the cache, when the context starts and
+     * every {@code hilltop.location.refresh-interval}. A failed load keeps the cached locations.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Scheduled(initialDelayString = "${hilltop.location.refresh-interval:PT1M}",
+            fixedDelayString = "${hilltop.location.refresh-interval:PT1M}")
+    public void reload() {
+        try {
+            shardRouter.executeOnShard(DICTIONARY_SHARD, true, locationRepository::findAll).forEach(this::cache);
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Failed to load the location dictionary, keeping the cached locations. ", e);
+        }
+    }
+
+    private void cache(Location location) {
+        locationsById.putIfAbsent(location.getId(), location);
+        locationsByName.putIfAbsent(location.getNormalizedName(), location);
+        missingNames.remove(location.getNormalizedName());
+    }
+}
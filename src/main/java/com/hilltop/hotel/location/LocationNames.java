@@ -0,0 +1,38 @@
+package com.hilltop.hotel.location;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Location names
+ * Canonical forms of location names. Names are Unicode (NFKC) normalized with runs of whitespace collapsed to one
+ * space, and compared without case.
+ */
+public final class LocationNames {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private LocationNames() {
+    }
+
+    /**
+     * This method is used to get the display form of a location name.
+     *
+     * @param name location name
+     * @return display name.
+     */
+    public static String displayName(String name) {
+        return WHITESPACE.matcher(Normalizer.normalize(name, Normalizer.Form.NFKC)).replaceAll(" ").trim();
+    }
+
+    /**
+     * This method is used to get the key two location names share when they name the same location.
+     *
+     * @param name location name
+     * @return normalized name.
+     */
+    public static String normalize(String name) {
+        return displayName(name).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,28 @@
+package com.hilltop.hotel.metrics;
+
+/**
+ * Metric names published by the hotel service.
+ */
+public final class MetricName {
+
+    public static final String SERVICE_TIMER = "hilltop.service";
+    public static final String SERVICE_EXCEPTIONS = "hilltop.service.exceptions";
+    public static final String SEARCH_RESULTS = "hilltop.search.results";
+    public static final String SEARCH_COMBINATION_FALLBACKS = "hilltop.search.combination.fallbacks";
+    public static final String SEARCH_COALESCING = "hilltop.search.coalescing";
+    public static final String REQUEST_QUERIES = "hilltop.request.queries";
+    public static final String REQUEST_ROWS = "hilltop.request.rows";
+    public static final String REQUEST_QUERY_BUDGET_EXCEEDED = "hilltop.request.query.budget.exceeded";
+    public static final String REQUEST_DEADLINE_EXCEEDED = "hilltop.request.deadline.exceeded";
+    public static final String SUMMARY_DRIFT = "hilltop.summary.drift";
+    public static final String CATALOG_CHANGE_LAG = "hilltop.catalog.change.lag";
+    public static final String CONCURRENCY_LIMIT = "hilltop.concurrency.limit";
+    public static final String CONCURRENCY_IN_FLIGHT = "hilltop.concurrency.in.flight";
+    public static final String CONCURRENCY_REJECTED = "hilltop.concurrency.rejected";
+    public static final String WRITE_BEHIND_PENDING = "hilltop.write.behind.pending";
+    public static final String WRITE_BEHIND_UPDATES = "hilltop.write.behind.updates";
+    public static final String WRITE_BEHIND_BATCH_SIZE = "hilltop.write.behind.batch.size";
+
+    private MetricName() {
+    }
+}
@@ -0,0 +1,73 @@
+package com.hilltop.hotel.metrics;
+
+import com.hilltop.hotel.configuration.QueryBudgetProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Query budget interceptor
+ * Counts the sql statements and entity rows of every request, logs requests that exceed their query budget
+ * and statements that repeat within a request (N+1 candidates).
+ */
+@Slf4j
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private static final String QUERY_COUNT_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".queryCount";
+    private final QueryBudgetProperties queryBudgetProperties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetInterceptor(QueryBudgetProperties queryBudgetProperties, MeterRegistry meterRegistry) {
+        this.queryBudgetProperties = queryBudgetProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod)
+            request.setAttribute(QUERY_COUNT_ATTRIBUTE, QueryCounter.start());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object attribute = request.getAttribute(QUERY_COUNT_ATTRIBUTE);
+        if (!(attribute instanceof QueryCount))
+            return;
+        QueryCount queryCount = (QueryCount) attribute;
+        QueryCounter.stop(queryCount);
+        request.removeAttribute(QUERY_COUNT_ATTRIBUTE);
+
+        String handlerName = getHandlerName((HandlerMethod) handler);
+        DistributionSummary.builder(MetricName.REQUEST_QUERIES).tag("handler", handlerName)
+                .register(meterRegistry).record(queryCount.getStatementCount());
+        DistributionSummary.builder(MetricName.REQUEST_ROWS).tag("handler", handlerName)
+                .register(meterRegistry).record(queryCount.getRowCount());
+
+        int maxQueries = queryBudgetProperties.getMaxQueries(handlerName);
+        if (queryCount.getStatementCount() > maxQueries) {
+            meterRegistry.counter(MetricName.REQUEST_QUERY_BUDGET_EXCEEDED, "handler", handlerName).increment();
+            log.warn("Query budget exceeded. handler: {}, uri: {}, queries: {}, budget: {}, rows: {}", handlerName,
+                    request.getRequestURI(), queryCount.getStatementCount(), maxQueries, queryCount.getRowCount());
+        }
+        queryCount.getRepeatedStatements(queryBudgetProperties.getRepeatedStatementThreshold())
+                .forEach((sql, count) -> log.warn("Possible N+1 query. handler: {}, executions: {}, sql: {}",
+                        handlerName, count, sql));
+    }
+
+    /**
+     * This method is used to get the handler name used as query budget key.
+     *
+     * @param handlerMethod handlerMethod
+     * @return handler name (e.g. HotelController.listOrSearchHotels).
+     */
+    public static String getHandlerName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
@@ -0,0 +1,60 @@
+package com.hilltop.hotel.metrics;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Query count
+ * SQL statements and entity rows observed while a {@link QueryCounter} scope is active.
+ */
+@Getter
+public class QueryCount {
+
+    private int statementCount;
+    private int rowCount;
+    private final Map<String, Integer> statementRepetitions = new HashMap<>();
+
+    /**
+     * This method is used to record an executed sql statement.
+     *
+     * @param sql sql statement
+     */
+    void recordStatement(String sql) {
+        statementCount++;
+        statementRepetitions.merge(sql, 1, Integer::sum);
+    }
+
+    /**
+     * This method is used to record a fetched entity row.
+     */
+    void recordRow() {
+        rowCount++;
+    }
+
+    /**
+     * This method is used to get the most repeated sql statement.
+     *
+     * @return repetitions of the most repeated statement.
+     */
+    public int getMaxStatementRepetition() {
+        return statementRepetitions.values().stream().max(Integer::compare).orElse(0);
+    }
+
+    /**
+     * This method is used to get statements that were executed at least the given number of times.
+     *
+     * @param threshold threshold
+     * @return repeated statement and count map.
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeatedStatements = new HashMap<>();
+        statementRepetitions.forEach((sql, count) -> {
+            if (count >= threshold)
+                repeatedStatements.put(sql, count);
+        });
+        return Collections.unmodifiableMap(repeatedStatements);
+    }
+}
@@ -0,0 +1,26 @@
+package com.hilltop.hotel.metrics;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Query count interceptor
+ * Counts every entity row hydrated by hibernate.
+ */
+public class QueryCountInterceptor extends EmptyInterceptor {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * This method is used to count a loaded entity without changing its state.
+     *
+     * @return false since the entity state is not modified.
+     */
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryCounter.recordRow();
+        return false;
+    }
+}
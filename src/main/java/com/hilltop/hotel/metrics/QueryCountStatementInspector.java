@@ -0,0 +1,24 @@
+package com.hilltop.hotel.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Query count statement inspector
+ * Counts every sql statement prepared by hibernate.
+ */
+public class QueryCountStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * This method is used to count the given statement without changing it.
+     *
+     * @param sql sql statement
+     * @return unchanged sql statement.
+     */
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hilltop.hotel.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Query counter
+ * Thread bound counting scopes fed by {@link QueryCountStatementInspector} and {@link QueryCountInterceptor}.
+ * Scopes can be nested; every active scope of the current thread observes each statement.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Deque<QueryCount>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private QueryCounter() {
+    }
+
+    /**
+     * This method is used to start a counting scope on the current thread.
+     *
+     * @return query count of the new scope.
+     */
+    public static QueryCount start() {
+        QueryCount queryCount = new QueryCount();
+        SCOPES.get().push(queryCount);
+        return queryCount;
+    }
+
+    /**
+     * This method is used to stop the given counting scope.
+     *
+     * @param queryCount queryCount returned by {@link #start()}
+     */
+    public static void stop(QueryCount queryCount) {
+        Deque<QueryCount> scopes = SCOPES.get();
+        scopes.remove(queryCount);
+        if (scopes.isEmpty())
+            SCOPES.remove();
+    }
+
+    /**
+     * This method is used to record an executed sql statement on every active scope.
+     *
+     * @param sql sql statement
+     */
+    static void recordStatement(String sql) {
+        Deque<QueryCount> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            return;
+        }
+        scopes.forEach(queryCount -> queryCount.recordStatement(sql));
+    }
+
+    /**
+     * This method is used to record a fetched entity row on every active scope.
+     */
+    static void recordRow() {
+        Deque<QueryCount> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            return;
+        }
+        scopes.forEach(QueryCount::recordRow);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hilltop.hotel.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Service exception metrics aspect
+ * Counts exception outcomes of service calls per endpoint, tagged by exception type, so unexpected runtime
+ * exceptions are counted alongside application exceptions. Only the outermost service call of a request is counted,
+ * so an exception passing through nested service calls is recorded once.
+ */
+@Aspect
+@Component
+public class ServiceExceptionMetricsAspect {
+
+    private static final String NONE = "none";
+    private static final ThreadLocal<Integer> DEPTH = ThreadLocal.withInitial(() -> 0);
+    private final MeterRegistry meterRegistry;
+
+    public ServiceExceptionMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * This method is used to count exceptions thrown by public service methods.
+     *
+     * @param joinPoint joinPoint
+     * @return service method result.
+     * @throws Throwable service method error
+     */
+    @Around("execution(public * com.hilltop.hotel.service..*(..))")
+    public Object countExceptions(ProceedingJoinPoint joinPoint) throws Throwable {
+        int depth = DEPTH.get();
+        DEPTH.set(depth + 1);
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException e) {
+            if (depth == 0) {
+                meterRegistry.counter(MetricName.SERVICE_EXCEPTIONS,
+                        "endpoint", getEndpoint(),
+                        "method", joinPoint.getSignature().getName(),
+                        "exception", e.getClass().getSimpleName()).increment();
+            }
+            throw e;
+        } finally {
+            if (depth == 0)
+                DEPTH.remove();
+            else
+                DEPTH.set(depth);
+        }
+    }
+
+    /**
+     * This method is used to get the matched request mapping of the current request.
+     *
+     * @return endpoint pattern or none.
+     */
+    private String getEndpoint() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes))
+            return NONE;
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? NONE : request.getMethod() + " " + pattern;
+    }
+}
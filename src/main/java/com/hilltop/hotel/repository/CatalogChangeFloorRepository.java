@@ -0,0 +1,19 @@
+package com.hilltop.hotel.repository;
+
+import com.hilltop.hotel.domain.entity.CatalogChangeFloor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Catalog change floor repository
+ */
+public interface CatalogChangeFloorRepository extends JpaRepository<CatalogChangeFloor, Integer> {
+
+    /**
+     * Used to find the highest version removed by the change log retention.
+     *
+     * @return floor version, 0 when nothing was removed.
+     */
+    @Query("select coalesce(max(f.version), 0) from CatalogChangeFloor f")
+    long findFloorVersion();
+}
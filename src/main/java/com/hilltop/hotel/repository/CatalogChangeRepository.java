@@ -0,0 +1,87 @@
+package com.hilltop.hotel.repository;
+
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Catalog change repository
+ */
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    /**
+     * This method is used to find the changes after a version in version order.
+     *
+     * @param version version
+     * @return catalog changes.
+     */
+    List<CatalogChange> findAllByVersionGreaterThanOrderByVersion(long version);
+
+    /**
+     * This method is used to find a page of the changes after a version in version order.
+     *
+     * @param version  version
+     * @param pageable page
+     * @return catalog changes.
+     */
+    List<CatalogChange> findAllByVersionGreaterThanOrderByVersion(long version, Pageable pageable);
+
+    /**
+     * This method is used to find a page of the changes after a version other than of an entity type in version
+     * order.
+     *
+     * @param version    version
+     * @param entityType excluded entity type
+     * @param pageable   page
+     * @return catalog changes.
+     */
+    List<CatalogChange> findAllByVersionGreaterThanAndEntityTypeNotOrderByVersion(long version,
+                                                                                  CatalogEntityType entityType,
+                                                                                  Pageable pageable);
+
+    /**
+     * This method is used to find changes by versions in version order.
+     *
+     * @param versions versions
+     * @return catalog changes.
+     */
+    List<CatalogChange> findAllByVersionInOrderByVersion(Collection<Long> versions);
+
+    /**
+     * Used to find the latest change version.
+     *
+     * @return latest version, 0 when there are no changes.
+     */
+    @Query("select coalesce(max(c.version), 0) from CatalogChange c")
+    long findMaxVersion();
+
+    /**
+     * Used to find versions of changes before a time that a later change of the same entity supersedes.
+     *
+     * @param before   changed before
+     * @param pageable page
+     * @return superseded versions.
+     */
+    @Query("select c.version from CatalogChange c where c.changedAt < :before and exists ("
+            + "select n.version from CatalogChange n where n.entityType = c.entityType "
+            + "and n.entityId = c.entityId and n.version > c.version) order by c.version")
+    List<Long> findSupersededVersions(@Param("before") Instant before, Pageable pageable);
+
+    /**
+     * Used to find versions of deleted room changes before a time.
+     *
+     * @param before   changed before
+     * @param pageable page
+     * @return tombstone versions.
+     */
+    @Query("select c.version from CatalogChange c where c.deleted = true and c.changedAt < :before "
+            + "order by c.version")
+    List<Long> findDeletedVersions(@Param("before") Instant before, Pageable pageable);
+}
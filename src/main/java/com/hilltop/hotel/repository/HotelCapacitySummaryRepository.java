@@ -0,0 +1,51 @@
+package com.hilltop.hotel.repository;
+
+import com.hilltop.hotel.domain.entity.HotelCapacitySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hotel capacity summary repository
+ */
+public interface HotelCapacitySummaryRepository
+        extends JpaRepository<HotelCapacitySummary, HotelCapacitySummary.Key> {
+
+    /**
+     * Used to find capacity summaries by hotelId.
+     *
+     * @param hotelId hotelId
+     * @return capacity summaries.
+     */
+    List<HotelCapacitySummary> findAllByHotelId(String hotelId);
+
+    /**
+     * Used to find capacity summaries by hotelIds.
+     *
+     * @param hotelIds hotelIds
+     * @return capacity summaries.
+     */
+    List<HotelCapacitySummary> findAllByHotelIdIn(Collection<String> hotelIds);
+
+    /**
+     * Used to aggregate capacity summaries from the rooms of the given hotels.
+     *
+     * @param hotelIds hotelIds
+     * @return capacity summaries.
+     */
+    @Query("select new com.hilltop.hotel.domain.entity.HotelCapacitySummary(r.hotel.id, r.maxPeople, count(r)) "
+            + "from Room r where r.hotel.id in :hotelIds group by r.hotel.id, r.maxPeople")
+    List<HotelCapacitySummary> aggregateByHotelIdIn(@Param("hotelIds") Collection<String> hotelIds);
+
+    /**
+     * Used to aggregate capacity summaries from all rooms.
+     *
+     * @return capacity summaries.
+     */
+    @Query("select new com.hilltop.hotel.domain.entity.HotelCapacitySummary(r.hotel.id, r.maxPeople, count(r)) "
+            + "from Room r group by r.hotel.id, r.maxPeople")
+    List<HotelCapacitySummary> aggregateAll();
+}
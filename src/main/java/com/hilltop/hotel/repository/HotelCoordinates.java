@@ -0,0 +1,14 @@
+package com.hilltop.hotel.repository;
+
+/**
+ * Hotel coordinates
+ * Id and coordinates of a hotel, read without loading the entity.
+ */
+public interface HotelCoordinates {
+
+    String getId();
+
+    double getLatitude();
+
+    double getLongitude();
+}
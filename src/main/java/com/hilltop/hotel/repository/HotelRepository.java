@@ -1,9 +1,15 @@
 package com.hilltop.hotel.repository;
 
 import com.hilltop.hotel.domain.entity.Hotel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Hotel repository
@@ -19,10 +25,97 @@ public interface HotelRepository extends JpaRepository<Hotel, String> {
     List<Hotel> findByNameContaining(String name);
 
     /**
-     * This method is used to find hotels by location.
+     * This method is used to find hotels by location together with their rooms and room types. The location is
+     * bound as its dictionary id.
      *
-     * @param location location
+     * @param location registered location name
      * @return hotel list.
      */
-    List<Hotel> findByLocation(String location);
+    @Query("select distinct h from Hotel h left join fetch h.rooms r left join fetch r.roomType " +
+            "where h.location = :location")
+    List<Hotel> findByLocation(@Param("location") String location);
+
+    /**
+     * This method is used to find hotels by ids together with their rooms and room types.
+     *
+     * @param ids hotelIds
+     * @return hotel list.
+     */
+    @Query("select distinct h from Hotel h left join fetch h.rooms r left join fetch r.roomType " +
+            "where h.id in :ids")
+    List<Hotel> findAllWithRoomsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * This method is used to find hotels by ids.
+     *
+     * @param ids hotelIds
+     * @return hotel list.
+     */
+    List<Hotel> findAllByIdIn(Collection<String> ids);
+
+    /**
+     * This method is used to find all hotels together with their rooms and room types.
+     *
+     * @return hotel list.
+     */
+    @Query("select distinct h from Hotel h left join fetch h.rooms r left join fetch r.roomType")
+    List<Hotel> findAllWithRooms();
+
+    /**
+     * Used to find the locations with the most hotels.
+     *
+     * @param pageable page of locations
+     * @return locations with their hotel count, most hotels first.
+     */
+    @Query("select h.location as location, count(h) as hotelCount from Hotel h where h.location is not null "
+            + "group by h.location order by count(h) desc")
+    List<LocationHotelCount> findLocationHotelCounts(Pageable pageable);
+
+    /**
+     * Used to find the coordinates of all hotels that have them.
+     *
+     * @return hotel coordinates.
+     */
+    @Query("select h.id as id, h.latitude as latitude, h.longitude as longitude from Hotel h "
+            + "where h.latitude is not null and h.longitude is not null")
+    List<HotelCoordinates> findAllCoordinates();
+
+    /**
+     * Used to find the coordinates of the given hotels that have them.
+     *
+     * @param ids hotelIds
+     * @return hotel coordinates.
+     */
+    @Query("select h.id as id, h.latitude as latitude, h.longitude as longitude from Hotel h "
+            + "where h.id in :ids and h.latitude is not null and h.longitude is not null")
+    List<HotelCoordinates> findCoordinatesByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Used to find the version of a hotel.
+     *
+     * @param id hotelId
+     * @return version.
+     */
+    @Query("select h.version from Hotel h where h.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    /**
+     * Used to update the given hotel fields with a single statement. Null fields are left unchanged. The location
+     * is given as its dictionary id since the converter is not applied inside coalesce.
+     *
+     * @param id         hotelId
+     * @param name       name
+     * @param locationId location id
+     * @param latitude   latitude
+     * @param longitude  longitude
+     * @param version    expected version
+     * @return updated row count, 0 when the version does not match.
+     */
+    @Modifying
+    @Query("update Hotel h set h.name = coalesce(:name, h.name), h.location = coalesce(:locationId, h.location), "
+            + "h.latitude = coalesce(:latitude, h.latitude), h.longitude = coalesce(:longitude, h.longitude), "
+            + "h.version = h.version + 1 where h.id = :id and h.version = :version")
+    int patchHotel(@Param("id") String id, @Param("name") String name, @Param("locationId") Integer locationId,
+                   @Param("latitude") Double latitude, @Param("longitude") Double longitude,
+                   @Param("version") long version);
 }
@@ -0,0 +1,52 @@
+package com.hilltop.hotel.repository;
+
+import com.hilltop.hotel.domain.entity.HotelRoomTypeSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hotel room type summary repository
+ */
+public interface HotelRoomTypeSummaryRepository
+        extends JpaRepository<HotelRoomTypeSummary, HotelRoomTypeSummary.Key> {
+
+    /**
+     * Used to find room type summaries by hotelId.
+     *
+     * @param hotelId hotelId
+     * @return room type summaries.
+     */
+    List<HotelRoomTypeSummary> findAllByHotelId(String hotelId);
+
+    /**
+     * Used to find room type summaries by hotelIds.
+     *
+     * @param hotelIds hotelIds
+     * @return room type summaries.
+     */
+    List<HotelRoomTypeSummary> findAllByHotelIdIn(Collection<String> hotelIds);
+
+    /**
+     * Used to aggregate room type summaries from the rooms of the given hotels.
+     *
+     * @param hotelIds hotelIds
+     * @return room type summaries.
+     */
+    @Query("select new com.hilltop.hotel.domain.entity.HotelRoomTypeSummary(r.hotel.id, r.roomType.id, count(r), "
+            + "sum(r.price), min(r.price), max(r.price)) from Room r where r.hotel.id in :hotelIds "
+            + "group by r.hotel.id, r.roomType.id")
+    List<HotelRoomTypeSummary> aggregateByHotelIdIn(@Param("hotelIds") Collection<String> hotelIds);
+
+    /**
+     * Used to aggregate room type summaries from all rooms.
+     *
+     * @return room type summaries.
+     */
+    @Query("select new com.hilltop.hotel.domain.entity.HotelRoomTypeSummary(r.hotel.id, r.roomType.id, count(r), "
+            + "sum(r.price), min(r.price), max(r.price)) from Room r group by r.hotel.id, r.roomType.id")
+    List<HotelRoomTypeSummary> aggregateAll();
+}
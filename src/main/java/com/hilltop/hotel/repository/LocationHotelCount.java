@@ -0,0 +1,12 @@
+package com.hilltop.hotel.repository;
+
+/**
+ * Location hotel count
+ * Location name with the number of its hotels.
+ */
+public interface LocationHotelCount {
+
+    String getLocation();
+
+    long getHotelCount();
+}
@@ -0,0 +1,20 @@
+package com.hilltop.hotel.repository;
+
+import com.hilltop.hotel.domain.entity.Location;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Location repository
+ */
+public interface LocationRepository extends JpaRepository<Location, Integer> {
+
+    /**
+     * This method is used to find a location by its normalized name.
+     *
+     * @param normalizedName normalized name
+     * @return location.
+     */
+    Optional<Location> findByNormalizedName(String normalizedName);
+}
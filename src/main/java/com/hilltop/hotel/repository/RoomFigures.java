@@ -0,0 +1,61 @@
+package com.hilltop.hotel.repository;
+
+import com.hilltop.hotel.domain.entity.Room;
+
+/**
+ * Room figures
+ * Hotel, room type, capacity and price of a room, the inputs of the hotel summaries.
+ */
+public interface RoomFigures {
+
+    String getHotelId();
+
+    String getRoomTypeId();
+
+    int getMaxPeople();
+
+    double getPrice();
+
+    /**
+     * This method is used to take the figures of a room as they are now.
+     *
+     * @param room room
+     * @return room figures.
+     */
+    static RoomFigures of(Room room) {
+        return of(room.getHotel().getId(), room.getRoomType().getId(), room.getMaxPeople(), room.getPrice());
+    }
+
+    /**
+     * This method is used to create room figures.
+     *
+     * @param hotelId    hotelId
+     * @param roomTypeId roomTypeId
+     * @param maxPeople  maxPeople
+     * @param price      price
+     * @return room figures.
+     */
+    static RoomFigures of(String hotelId, String roomTypeId, int maxPeople, double price) {
+        return new RoomFigures() {
+            @Override
+            public String getHotelId() {
+                return hotelId;
+            }
+
+            @Override
+            public String getRoomTypeId() {
+                return roomTypeId;
+            }
+
+            @Override
+            public int getMaxPeople() {
+                return maxPeople;
+            }
+
+            @Override
+            public double getPrice() {
+                return price;
+            }
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.hilltop.hotel.repository;
+
+/**
+ * Room key
+ * Id and summary figures of a room, read without loading the entity.
+ */
+public interface RoomKey extends RoomFigures {
+
+    String getId();
+}
@@ -0,0 +1,14 @@
+package com.hilltop.hotel.repository;
+
+/**
+ * Room pricing
+ * Price inputs, summary figures and version of a room, read without loading the entity.
+ */
+public interface RoomPricing extends RoomFigures {
+
+    double getCost();
+
+    double getMarkupPercentage();
+
+    long getVersion();
+}
@@ -1,9 +1,18 @@
 package com.hilltop.hotel.repository;
 
 import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Room repository
@@ -16,6 +25,7 @@ public interface RoomRepository extends JpaRepository<Room, String> {
      * @param hotelId hotelId
      * @return room list.
      */
+    @EntityGraph(attributePaths = {"hotel", "roomType"})
     List<Room> findAllByHotelId(String hotelId);
 
     /**
@@ -25,6 +35,119 @@ public interface RoomRepository extends JpaRepository<Room, String> {
      * @param roomNo  roomNo
      * @return room list.
      */
+    @EntityGraph(attributePaths = {"hotel", "roomType"})
     List<Room> findAllByHotelIdAndRoomNoContaining(String hotelId, String roomNo);
 
+    /**
+     * Used to find rooms by ids together with their hotels and room types.
+     *
+     * @param ids room ids
+     * @return room list.
+     */
+    @EntityGraph(attributePaths = {"hotel", "roomType"})
+    List<Room> findAllByIdIn(Collection<String> ids);
+
+    /**
+     * Used to find the distinct hotels of rooms by room ids, without locking.
+     *
+     * @param ids room ids
+     * @return hotelIds.
+     */
+    @Query("select distinct r.hotel.id from Room r where r.id in :ids")
+    List<String> findHotelIdsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Used to find and lock for deletion room keys by room ids.
+     *
+     * @param ids room ids
+     * @return room keys.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.id as id, r.hotel.id as hotelId, r.roomType.id as roomTypeId, r.maxPeople as maxPeople, "
+            + "r.price as price from Room r where r.id in :ids")
+    List<RoomKey> findKeysByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Used to find and lock for deletion room keys by hotelId.
+     *
+     * @param hotelId hotelId
+     * @return room keys.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.id as id, r.hotel.id as hotelId, r.roomType.id as roomTypeId, r.maxPeople as maxPeople, "
+            + "r.price as price from Room r where r.hotel.id = :hotelId")
+    List<RoomKey> findKeysByHotelId(@Param("hotelId") String hotelId);
+
+    /**
+     * Used to find and lock for deletion room keys by hotelId & roomNo.
+     *
+     * @param hotelId hotelId
+     * @param roomNo  roomNo
+     * @return room keys.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.id as id, r.hotel.id as hotelId, r.roomType.id as roomTypeId, r.maxPeople as maxPeople, "
+            + "r.price as price from Room r "
+            + "where r.hotel.id = :hotelId and r.roomNo like concat('%', :roomNo, '%')")
+    List<RoomKey> findKeysByHotelIdAndRoomNoContaining(@Param("hotelId") String hotelId,
+                                                       @Param("roomNo") String roomNo);
+
+    /**
+     * Used to delete rooms by ids in a single statement.
+     *
+     * @param ids room ids
+     * @return deleted room count.
+     */
+    @Modifying
+    @Query("delete from Room r where r.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Used to find the pricing inputs and version of a room.
+     *
+     * @param id roomId
+     * @return room pricing.
+     */
+    @Query("select r.hotel.id as hotelId, r.roomType.id as roomTypeId, r.maxPeople as maxPeople, r.price as price, "
+            + "r.cost as cost, r.roomType.markupPercentage as markupPercentage, r.version as version "
+            + "from Room r where r.id = :id")
+    Optional<RoomPricing> findPricingById(@Param("id") String id);
+
+    /**
+     * Used to update the given room fields with a single statement. Null fields are left unchanged.
+     *
+     * @param id        roomId
+     * @param roomNo    roomNo
+     * @param maxPeople maxPeople
+     * @param cost      cost
+     * @param price     price
+     * @param version   expected version
+     * @return updated row count, 0 when the version does not match.
+     */
+    @Modifying
+    @Query("update Room r set r.roomNo = coalesce(:roomNo, r.roomNo), r.maxPeople = coalesce(:maxPeople, r.maxPeople), "
+            + "r.cost = :cost, r.price = :price, r.version = r.version + 1 where r.id = :id and r.version = :version")
+    int patchRoom(@Param("id") String id, @Param("roomNo") String roomNo, @Param("maxPeople") Integer maxPeople,
+                  @Param("cost") double cost, @Param("price") double price, @Param("version") long version);
+
+    /**
+     * Used to update the given room fields and the room type with a single statement. Null fields are left unchanged.
+     *
+     * @param id        roomId
+     * @param roomNo    roomNo
+     * @param maxPeople maxPeople
+     * @param cost      cost
+     * @param price     price
+     * @param roomType  roomType
+     * @param version   expected version
+     * @return updated row count, 0 when the version does not match.
+     */
+    @Modifying
+    @Query("update Room r set r.roomNo = coalesce(:roomNo, r.roomNo), r.maxPeople = coalesce(:maxPeople, r.maxPeople), "
+            + "r.cost = :cost, r.price = :price, r.roomType = :roomType, r.version = r.version + 1 "
+            + "where r.id = :id and r.version = :version")
+    int patchRoomAndRoomType(@Param("id") String id, @Param("roomNo") String roomNo,
+                             @Param("maxPeople") Integer maxPeople, @Param("cost") double cost,
+                             @Param("price") double price, @Param("roomType") RoomType roomType,
+                             @Param("version") long version);
 }
@@ -0,0 +1,89 @@
+package com.hilltop.hotel.repository;
+
+import com.hilltop.hotel.domain.entity.RoomUpdate;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Room update repository
+ */
+public interface RoomUpdateRepository extends JpaRepository<RoomUpdate, Long> {
+
+    /**
+     * Used to find a room update by trackingId.
+     *
+     * @param trackingId trackingId
+     * @return room update.
+     */
+    Optional<RoomUpdate> findByTrackingId(String trackingId);
+
+    /**
+     * Used to find and lock a room update by trackingId and status.
+     *
+     * @param trackingId trackingId
+     * @param status     status
+     * @return room update.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RoomUpdate> findByTrackingIdAndStatus(String trackingId, RoomUpdateStatus status);
+
+    /**
+     * Used to find and lock a page of the room updates of a status in acceptance order.
+     *
+     * @param status   status
+     * @param pageable page
+     * @return room updates.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<RoomUpdate> findAllByStatusOrderById(RoomUpdateStatus status, Pageable pageable);
+
+    /**
+     * Used to find a page of the trackingIds of a status in acceptance order.
+     *
+     * @param status   status
+     * @param pageable page
+     * @return trackingIds.
+     */
+    @Query("select u.trackingId from RoomUpdate u where u.status = :status order by u.id")
+    List<String> findTrackingIdsByStatus(@Param("status") RoomUpdateStatus status, Pageable pageable);
+
+    /**
+     * Used to count the room updates of a status.
+     *
+     * @param status status
+     * @return room update count.
+     */
+    long countByStatus(RoomUpdateStatus status);
+
+    /**
+     * Used to base the pending updates of rooms on the current room versions with a single statement.
+     *
+     * @param roomIds room ids
+     * @return rebased room update count.
+     */
+    @Modifying
+    @Query("update RoomUpdate u set u.expectedVersion = (select r.version from Room r where r.id = u.roomId) "
+            + "where u.status = com.hilltop.hotel.enumeration.RoomUpdateStatus.PENDING and u.roomId in :roomIds")
+    int rebasePendingUpdates(@Param("roomIds") Collection<String> roomIds);
+
+    /**
+     * Used to delete the room updates finished before a time.
+     *
+     * @param before finished before
+     * @return deleted room update count.
+     */
+    @Modifying
+    @Query("delete from RoomUpdate u where u.finishedAt < :before")
+    int deleteAllFinishedBefore(@Param("before") Instant before);
+}
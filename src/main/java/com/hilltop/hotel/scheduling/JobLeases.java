@@ -0,0 +1,65 @@
+package com.hilltop.hotel.scheduling;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Job leases
+ * Lets one instance at a time run a periodic job. The lease of a job is a row of the {@code job_lease} table on
+ * shard 0; the instance holding it renews it on every run and another instance takes it over once it expired, for
+ * example when the holder stopped.
+ */
+@Component
+@Slf4j
+public class JobLeases {
+
+    private final String owner = UUID.randomUUID().toString();
+    private final ShardRouter shardRouter;
+    private final EntityManager entityManager;
+
+    public JobLeases(ShardRouter shardRouter, EntityManager entityManager) {
+        this.shardRouter = shardRouter;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * This method is used to take or renew the lease of a job. Failing to reach the database counts as not holding
+     * the lease.
+     *
+     * @param job      job name
+     * @param duration lease duration, the interval of the job
+     * @return true if this instance holds the lease and runs the job.
+     */
+    public boolean tryAcquire(String job, Duration duration) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        try {
+            return shardRouter.executeOnShard(0, false, () -> {
+                entityManager.createNativeQuery("insert into job_lease (name, owner, locked_until) "
+                                + "values (?1, '', ?2) on duplicate key update name = name")
+                        .setParameter(1, job)
+                        .setParameter(2, Timestamp.from(now))
+                        .executeUpdate();
+                return entityManager.createNativeQuery("update job_lease set owner = ?1, locked_until = ?2 "
+                                + "where name = ?3 and (owner = ?1 or locked_until <= ?4)")
+                        .setParameter(1, owner)
+                        .setParameter(2, Timestamp.from(now.plus(duration)))
+                        .setParameter(3, job)
+                        .setParameter(4, Timestamp.from(now))
+                        .executeUpdate() == 1;
+            });
+        } catch (DataAccessException | PersistenceException e) {
+            log.error("Failed to take the lease of job: {}. ", job, e);
+            return false;
+        }
+    }
+}
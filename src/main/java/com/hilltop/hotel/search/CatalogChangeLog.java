@@ -0,0 +1,144 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import com.hilltop.hotel.repository.CatalogChangeRepository;
+import com.hilltop.hotel.repository.RoomKey;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Catalog change log
+ * Appends hotel, room and room type writes to the change log of their shard, tagged with the id of this instance.
+ * Instances starting from a catalog snapshot catch up on it and running instances tail it to evict what other
+ * instances changed.
+ */
+@Component
+public class CatalogChangeLog {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final ShardRouter shardRouter;
+
+    public CatalogChangeLog(CatalogChangeRepository catalogChangeRepository, ShardRouter shardRouter) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * This method is used to get the id this instance tags its changes with.
+     *
+     * @return origin.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * This method is used to append a hotel write. Runs in the transaction of the caller, on its shard.
+     *
+     * @param hotelId    hotelId
+     * @param locationId new location id of the hotel, null when unchanged
+     */
+    public void recordHotel(String hotelId, Integer locationId) {
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.HOTEL, hotelId, hotelId, locationId,
+                origin));
+    }
+
+    /**
+     * This method is used to append a room write. Runs in the transaction of the caller, on its shard.
+     *
+     * @param roomId  roomId
+     * @param hotelId hotel of the room
+     */
+    public void recordRoom(String roomId, String hotelId) {
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, roomId, hotelId, null, origin));
+    }
+
+    /**
+     * This method is used to append a room type write. Runs in the transaction of the caller, on its shard.
+     *
+     * @param roomTypeId roomTypeId
+     */
+    public void recordRoomType(String roomTypeId) {
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM_TYPE, roomTypeId, null, null,
+                origin));
+    }
+
+    /**
+     * This method is used to append deleted rooms with a single saveAll. Runs in the transaction of the caller, on
+     * its shard.
+     *
+     * @param rooms deleted rooms
+     */
+    public void recordRoomsDeleted(Collection<RoomKey> rooms) {
+        List<CatalogChange> catalogChanges = new ArrayList<>(rooms.size());
+        for (RoomKey room : rooms)
+            catalogChanges.add(new CatalogChange(CatalogEntityType.ROOM, room.getId(), room.getHotelId(), null,
+                    origin, true));
+        catalogChangeRepository.saveAll(catalogChanges);
+    }
+
+    /**
+     * This method is used to get the latest change version of a shard.
+     *
+     * @param shard shard
+     * @return latest version, 0 when there are no changes.
+     */
+    public long getVersion(int shard) {
+        return shardRouter.executeOnShard(shard, true, catalogChangeRepository::findMaxVersion);
+    }
+
+    /**
+     * This method is used to get the latest change version of the shard of the current transaction, as seen by it.
+     *
+     * @return latest version, 0 when there are no changes.
+     */
+    public long getVersion() {
+        return catalogChangeRepository.findMaxVersion();
+    }
+
+    /**
+     * This method is used to get the changes of a shard after a version.
+     *
+     * @param shard   shard
+     * @param version version
+     * @return catalog changes in version order.
+     */
+    public List<CatalogChange> getChangesAfter(int shard, long version) {
+        return shardRouter.executeOnShard(shard, true,
+                () -> catalogChangeRepository.findAllByVersionGreaterThanOrderByVersion(version));
+    }
+
+    /**
+     * This method is used to get at most limit changes of a shard after a version.
+     *
+     * @param shard   shard
+     * @param version version
+     * @param limit   maximum change count
+     * @return catalog changes in version order.
+     */
+    public List<CatalogChange> getChangesAfter(int shard, long version, int limit) {
+        return shardRouter.executeOnShard(shard, true,
+                () -> catalogChangeRepository.findAllByVersionGreaterThanOrderByVersion(version,
+                        PageRequest.of(0, limit)));
+    }
+
+    /**
+     * This method is used to get the changes of a shard with the given versions.
+     *
+     * @param shard    shard
+     * @param versions versions
+     * @return catalog changes in version order.
+     */
+    public List<CatalogChange> getChanges(int shard, Collection<Long> versions) {
+        return shardRouter.executeOnShard(shard, true,
+                () -> catalogChangeRepository.findAllByVersionInOrderByVersion(versions));
+    }
+}
@@ -0,0 +1,177 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import com.hilltop.hotel.geo.HotelGeoIndex;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.metrics.MetricName;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Catalog change tailer
+ * Polls the change log of every shard after the last seen version and evicts what other instances changed: the
+ * room catalog locations of changed hotels and rooms, and the geo index entries of changed hotels. A hotel change
+ * naming a location this instance has not loaded yet reloads the location dictionary. Room types are
+ * immutable once added, so their changes evict nothing. Versions are assigned at insert but become visible at
+ * commit, so a version skipped by a poll is looked up again until {@code hilltop.catalog.change-gap-timeout}
+ * passes, which also ends the wait for versions of rolled back transactions. The time from a change to its
+ * eviction is published as {@value MetricName#CATALOG_CHANGE_LAG}.
+ */
+@Component
+@Slf4j
+public class CatalogChangeTailer {
+
+    private final CatalogChangeLog catalogChangeLog;
+    private final RoomCatalog roomCatalog;
+    private final HotelGeoIndex hotelGeoIndex;
+    private final LocationDictionary locationDictionary;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private final Timer lagTimer;
+    private long[] versions;
+    private List<Map<Long, Long>> gaps;
+
+    public CatalogChangeTailer(CatalogChangeLog catalogChangeLog, RoomCatalog roomCatalog,
+                               HotelGeoIndex hotelGeoIndex, LocationDictionary locationDictionary,
+                               ShardRouter shardRouter,
+                               @Value("${hilltop.catalog.change-batch-size:500}") int batchSize,
+                               @Value("${hilltop.catalog.change-gap-timeout:PT10S}") Duration gapTimeout,
+                               MeterRegistry meterRegistry) {
+        this.catalogChangeLog = catalogChangeLog;
+        this.roomCatalog = roomCatalog;
+        this.hotelGeoIndex = hotelGeoIndex;
+        this.locationDictionary = locationDictionary;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.lagTimer = Timer.builder(MetricName.CATALOG_CHANGE_LAG)
+                .description("Time from a change of another instance to its eviction on this instance.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * This method is used to start tailing at the latest version of every shard, before anything is cached.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (versions != null)
+            return;
+        try {
+            long[] latestVersions = new long[shardRouter.getShardCount()];
+            List<Map<Long, Long>> shardGaps = new ArrayList<>(latestVersions.length);
+            for (int shard = 0; shard < latestVersions.length; shard++) {
+                latestVersions[shard] = catalogChangeLog.getVersion(shard);
+                shardGaps.add(new HashMap<>());
+            }
+            gaps = shardGaps;
+            versions = latestVersions;
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to read the catalog change log versions, retrying at the next poll. ", e);
+        }
+    }
+
+    /**
+     * This method is used to evict the changes of other instances logged since the last poll.
+     *
+     * @return evicted change count.
+     */
+    @Scheduled(initialDelayString = "${hilltop.catalog.change-poll-interval:PT1S}",
+            fixedDelayString = "${hilltop.catalog.change-poll-interval:PT1S}")
+    public synchronized int poll() {
+        if (versions == null) {
+            start();
+            return 0;
+        }
+        int evicted = 0;
+        try {
+            for (int shard = 0; shard < versions.length; shard++)
+                evicted += pollShard(shard);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to poll the catalog change log, retrying at the next poll. ", e);
+        }
+        return evicted;
+    }
+
+    /**
+     * This method is used to read the late changes and the next changes of a shard and evict them.
+     *
+     * @param shard shard
+     * @return evicted change count.
+     */
+    private int pollShard(int shard) {
+        Map<Long, Long> shardGaps = gaps.get(shard);
+        List<CatalogChange> catalogChanges = new ArrayList<>();
+        long now = System.nanoTime();
+        if (!shardGaps.isEmpty()) {
+            catalogChanges.addAll(catalogChangeLog.getChanges(shard, new ArrayList<>(shardGaps.keySet())));
+            for (CatalogChange catalogChange : catalogChanges)
+                shardGaps.remove(catalogChange.getVersion());
+            shardGaps.values().removeIf(firstSeen -> now - firstSeen > gapTimeoutNanos);
+        }
+        List<CatalogChange> nextChanges = catalogChangeLog.getChangesAfter(shard, versions[shard], batchSize);
+        for (CatalogChange catalogChange : nextChanges) {
+            if (catalogChange.getVersion() - versions[shard] <= batchSize)
+                for (long version = versions[shard] + 1; version < catalogChange.getVersion(); version++)
+                    shardGaps.put(version, now);
+            versions[shard] = catalogChange.getVersion();
+        }
+        catalogChanges.addAll(nextChanges);
+        return evict(catalogChanges);
+    }
+
+    /**
+     * This method is used to evict the cached entries of changes of other instances.
+     *
+     * @param catalogChanges catalogChanges
+     * @return evicted change count.
+     */
+    private int evict(List<CatalogChange> catalogChanges) {
+        Set<String> hotelIds = new HashSet<>();
+        Set<String> changedHotelIds = new HashSet<>();
+        Set<Integer> locationIds = new HashSet<>();
+        int evicted = 0;
+        for (CatalogChange catalogChange : catalogChanges) {
+            if (catalogChangeLog.getOrigin().equals(catalogChange.getOrigin()))
+                continue;
+            if (catalogChange.getHotelId() != null)
+                hotelIds.add(catalogChange.getHotelId());
+            if (catalogChange.getEntityType() == CatalogEntityType.HOTEL)
+                changedHotelIds.add(catalogChange.getEntityId());
+            if (catalogChange.getLocationId() != null)
+                locationIds.add(catalogChange.getLocationId());
+            evicted++;
+        }
+        if (evicted == 0)
+            return 0;
+        if (!locationIds.stream().allMatch(locationDictionary::contains))
+            locationDictionary.reload();
+        roomCatalog.invalidateHotels(hotelIds);
+        locationIds.forEach(roomCatalog::invalidateLocation);
+        if (!changedHotelIds.isEmpty())
+            hotelGeoIndex.refreshHotels(changedHotelIds);
+        Instant evictedAt = Instant.now();
+        for (CatalogChange catalogChange : catalogChanges) {
+            if (catalogChangeLog.getOrigin().equals(catalogChange.getOrigin()))
+                continue;
+            Duration lag = Duration.between(catalogChange.getChangedAt(), evictedAt);
+            lagTimer.record(lag.isNegative() ? Duration.ZERO : lag);
+        }
+        log.debug("Evicted {} catalog changes of other instances.", evicted);
+        return evicted;
+    }
+}
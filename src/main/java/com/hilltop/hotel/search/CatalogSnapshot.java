@@ -0,0 +1,340 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Location;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.scheduling.JobLeases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Catalog snapshot
+ * Periodically writes the rooms of all hotels, grouped by location, to a binary file together with the change log
+ * version of every shard and a CRC32 checksum. At startup the file is memory mapped, verified and loaded into the
+ * room catalog, so a new instance serves searches without loading every location from the database. Locations
+ * with changes logged after the snapshot versions are left out and load from the database on their first search.
+ * The version and the hotels of a shard are read in one transaction, so both come from the same database snapshot.
+ * Only the instance holding the snapshot lease writes the file. Disabled while {@code hilltop.catalog.snapshot.path}
+ * is empty.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshot {
+
+    private static final String SNAPSHOT_JOB = "catalog-snapshot";
+    private static final int MAGIC = 0x48544353;
+    private static final int FORMAT_VERSION = 1;
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+    private final RoomCatalog roomCatalog;
+    private final CatalogChangeLog catalogChangeLog;
+    private final HotelRepository hotelRepository;
+    private final LocationDictionary locationDictionary;
+    private final ShardRouter shardRouter;
+    private final JobLeases jobLeases;
+    private final String path;
+    private final Duration interval;
+
+    public CatalogSnapshot(RoomCatalog roomCatalog, CatalogChangeLog catalogChangeLog,
+                           HotelRepository hotelRepository, LocationDictionary locationDictionary,
+                           ShardRouter shardRouter, JobLeases jobLeases,
+                           @Value("${hilltop.catalog.snapshot.path:}") String path,
+                           @Value("${hilltop.catalog.snapshot.interval:PT10M}") Duration interval) {
+        this.roomCatalog = roomCatalog;
+        this.catalogChangeLog = catalogChangeLog;
+        this.hotelRepository = hotelRepository;
+        this.locationDictionary = locationDictionary;
+        this.shardRouter = shardRouter;
+        this.jobLeases = jobLeases;
+        this.path = path;
+        this.interval = interval;
+    }
+
+    /**
+     * This method is used to write the configured snapshot file on the instance holding the snapshot lease.
+     *
+     * @return written location count.
+     */
+    @Scheduled(initialDelayString = "${hilltop.catalog.snapshot.interval:PT10M}",
+            fixedDelayString = "${hilltop.catalog.snapshot.interval:PT10M}")
+    public int write() {
+        if (path.isBlank() || !jobLeases.tryAcquire(SNAPSHOT_JOB, interval))
+            return 0;
+        try {
+            return write(Path.of(path));
+        } catch (IOException | DataAccessException e) {
+            log.error("Failed to write catalog snapshot to {}. ", path, e);
+            return 0;
+        }
+    }
+
+    /**
+     * This method is used to write a snapshot of all shards. The file is written next to the target and moved
+     * over it, so readers never see a partial snapshot.
+     *
+     * @param target snapshot file
+     * @return written location count.
+     * @throws IOException when the file can not be written
+     */
+    public int write(Path target) throws IOException {
+        int shardCount = shardRouter.getShardCount();
+        long[] versions = new long[shardCount];
+        Map<String, Integer> roomTypeIndexes = new LinkedHashMap<>();
+        Map<Integer, List<HotelRooms>> locations = new TreeMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            ShardContent content = shardRouter.executeOnShard(shard, true,
+                    () -> new ShardContent(catalogChangeLog.getVersion(), hotelRepository.findAllWithRooms()));
+            versions[shard] = content.version;
+            for (Hotel hotel : content.hotels) {
+                Optional<Location> location = hotel.getLocation() == null ? Optional.empty()
+                        : locationDictionary.find(hotel.getLocation());
+                if (location.isEmpty())
+                    continue;
+                locations.computeIfAbsent(location.get().getId(), id -> new ArrayList<>())
+                        .add(HotelRooms.of(hotel.getId(), hotel.getRooms() == null ? List.of() : hotel.getRooms(),
+                                roomTypeId -> roomTypeIndexes.computeIfAbsent(roomTypeId,
+                                        id -> roomTypeIndexes.size())));
+            }
+        }
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory != null)
+            Files.createDirectories(directory);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc32 = new CRC32();
+        try (OutputStream fileStream = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(fileStream, crc32));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(shardCount);
+            for (long version : versions)
+                out.writeLong(version);
+            out.writeInt(roomTypeIndexes.size());
+            for (String roomTypeId : roomTypeIndexes.keySet())
+                writeString(out, roomTypeId);
+            out.writeInt(locations.size());
+            for (Map.Entry<Integer, List<HotelRooms>> location : locations.entrySet()) {
+                out.writeInt(location.getKey());
+                out.writeInt(location.getValue().size());
+                for (HotelRooms hotelRooms : location.getValue())
+                    writeHotelRooms(out, hotelRooms);
+            }
+            out.flush();
+            new DataOutputStream(fileStream).writeLong(crc32.getValue());
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote catalog snapshot of {} locations at versions {}.", locations.size(),
+                Arrays.toString(versions));
+        return locations.size();
+    }
+
+    /**
+     * This method is used to load the configured snapshot file at startup.
+     *
+     * @return loaded location count.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int load() {
+        if (path.isBlank())
+            return 0;
+        return load(Path.of(path));
+    }
+
+    /**
+     * This method is used to load a snapshot into the room catalog after leaving out the locations changed since.
+     * A missing, corrupt or unreadable snapshot is skipped and locations load from the database.
+     *
+     * @param source snapshot file
+     * @return loaded location count.
+     */
+    public int load(Path source) {
+        if (!Files.isReadable(source))
+            return 0;
+        long startedAt = System.nanoTime();
+        long generation = roomCatalog.getGeneration();
+        Snapshot snapshot;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            snapshot = read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Skipped unreadable catalog snapshot {}. ", source, e);
+            return 0;
+        }
+        if (snapshot.versions.length != shardRouter.getShardCount()) {
+            log.warn("Skipped catalog snapshot {} of {} shards.", source, snapshot.versions.length);
+            return 0;
+        }
+        int changes;
+        try {
+            changes = removeChangedLocations(snapshot);
+        } catch (DataAccessException e) {
+            log.warn("Skipped catalog snapshot {}, failed to read the changes after it. ", source, e);
+            return 0;
+        }
+        snapshot.locations.forEach((locationId, hotelRooms) -> roomCatalog.put(locationId, hotelRooms, generation));
+        log.info("Loaded catalog snapshot of {} locations written at {}, skipped {} changes after it, in {} ms.",
+                snapshot.locations.size(), new Date(snapshot.createdAt), changes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return snapshot.locations.size();
+    }
+
+    /**
+     * This method is used to leave out the locations of hotels changed after the snapshot versions.
+     *
+     * @param snapshot snapshot
+     * @return change count.
+     */
+    private int removeChangedLocations(Snapshot snapshot) {
+        Map<String, Integer> hotelLocations = new HashMap<>();
+        snapshot.locations.forEach((locationId, hotelRooms) -> {
+            for (HotelRooms rooms : hotelRooms)
+                hotelLocations.put(rooms.getHotelId(), locationId);
+        });
+        int changes = 0;
+        for (int shard = 0; shard < snapshot.versions.length; shard++) {
+            for (CatalogChange catalogChange : catalogChangeLog.getChangesAfter(shard, snapshot.versions[shard])) {
+                Integer locationId = hotelLocations.get(catalogChange.getHotelId());
+                if (locationId != null)
+                    snapshot.locations.remove(locationId);
+                if (catalogChange.getLocationId() != null)
+                    snapshot.locations.remove(catalogChange.getLocationId());
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * This method is used to verify and decode a mapped snapshot.
+     *
+     * @param buffer mapped snapshot
+     * @return snapshot.
+     * @throws IOException when the snapshot is not a valid snapshot of this format
+     */
+    private Snapshot read(MappedByteBuffer buffer) throws IOException {
+        int contentLength = buffer.limit() - CHECKSUM_BYTES;
+        if (contentLength < 0)
+            throw new IOException("Catalog snapshot is truncated.");
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.duplicate().limit(contentLength));
+        if (crc32.getValue() != buffer.getLong(contentLength))
+            throw new IOException("Catalog snapshot checksum does not match.");
+        buffer.limit(contentLength);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+            throw new IOException("Catalog snapshot format is not supported.");
+        long createdAt = buffer.getLong();
+        long[] versions = new long[buffer.getInt()];
+        for (int shard = 0; shard < versions.length; shard++)
+            versions[shard] = buffer.getLong();
+        int[] roomTypeOrdinals = new int[buffer.getInt()];
+        for (int i = 0; i < roomTypeOrdinals.length; i++)
+            roomTypeOrdinals[i] = roomCatalog.getRoomTypeOrdinal(readString(buffer));
+        int locationCount = buffer.getInt();
+        Map<Integer, HotelRooms[]> locations = new HashMap<>(locationCount * 2);
+        for (int location = 0; location < locationCount; location++) {
+            int locationId = buffer.getInt();
+            HotelRooms[] hotelRooms = new HotelRooms[buffer.getInt()];
+            for (int hotel = 0; hotel < hotelRooms.length; hotel++)
+                hotelRooms[hotel] = readHotelRooms(buffer, roomTypeOrdinals);
+            locations.put(locationId, hotelRooms);
+        }
+        return new Snapshot(createdAt, versions, locations);
+    }
+
+    private static void writeHotelRooms(DataOutputStream out, HotelRooms hotelRooms) throws IOException {
+        writeString(out, hotelRooms.getHotelId());
+        out.writeInt(hotelRooms.size());
+        for (int i = 0; i < hotelRooms.size(); i++) {
+            writeString(out, hotelRooms.getRoomId(i));
+            out.writeInt(hotelRooms.getMaxPeople(i));
+            out.writeDouble(hotelRooms.getPrice(i));
+            out.writeInt(hotelRooms.getRoomTypeOrdinal(i));
+        }
+    }
+
+    private static HotelRooms readHotelRooms(ByteBuffer buffer, int[] roomTypeOrdinals) {
+        String hotelId = readString(buffer);
+        int size = buffer.getInt();
+        String[] roomIds = new String[size];
+        int[] maxPeople = new int[size];
+        double[] prices = new double[size];
+        int[] ordinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            roomIds[i] = readString(buffer);
+            maxPeople[i] = buffer.getInt();
+            prices[i] = buffer.getDouble();
+            int roomTypeIndex = buffer.getInt();
+            ordinals[i] = roomTypeIndex < 0 ? -1 : roomTypeOrdinals[roomTypeIndex];
+        }
+        return HotelRooms.ofSorted(hotelId, roomIds, maxPeople, prices, ordinals);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Shard content
+     * Change version and hotels of a shard, read in one transaction.
+     */
+    private static final class ShardContent {
+
+        private final long version;
+        private final List<Hotel> hotels;
+
+        private ShardContent(long version, List<Hotel> hotels) {
+            this.version = version;
+            this.hotels = hotels;
+        }
+    }
+
+    /**
+     * Snapshot
+     * Decoded snapshot content.
+     */
+    private static final class Snapshot {
+
+        private final long createdAt;
+        private final long[] versions;
+        private final Map<Integer, HotelRooms[]> locations;
+
+        private Snapshot(long createdAt, long[] versions, Map<Integer, HotelRooms[]> locations) {
+            this.createdAt = createdAt;
+            this.versions = versions;
+            this.locations = locations;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.domain.entity.Room;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Hotel rooms
+ * The rooms of one hotel as parallel primitive arrays sorted by capacity, then price, so a search scans
+ * contiguous memory and finds a capacity range by binary search. Rooms are referred to by their index and
+ * resolved to entities by id only for the search results. Instances are immutable.
+ */
+public final class HotelRooms {
+
+    private static final Comparator<Room> ROOM_ORDER = Comparator.comparingInt(Room::getMaxPeople)
+            .thenComparingDouble(Room::getPrice);
+    private final String hotelId;
+    private final String[] roomIds;
+    private final int[] maxPeople;
+    private final double[] prices;
+    private final int[] roomTypeOrdinals;
+
+    private HotelRooms(String hotelId, String[] roomIds, int[] maxPeople, double[] prices, int[] roomTypeOrdinals) {
+        this.hotelId = hotelId;
+        this.roomIds = roomIds;
+        this.maxPeople = maxPeople;
+        this.prices = prices;
+        this.roomTypeOrdinals = roomTypeOrdinals;
+    }
+
+    /**
+     * This method is used to copy the rooms of a hotel into arrays.
+     *
+     * @param hotelId            hotelId
+     * @param rooms              rooms of the hotel
+     * @param roomTypeOrdinalMap maps a room type id to its ordinal
+     * @return hotel rooms.
+     */
+    public static HotelRooms of(String hotelId, Collection<Room> rooms, ToIntFunction<String> roomTypeOrdinalMap) {
+        Room[] sortedRooms = rooms.toArray(new Room[0]);
+        Arrays.sort(sortedRooms, ROOM_ORDER);
+        int size = sortedRooms.length;
+        String[] roomIds = new String[size];
+        int[] maxPeople = new int[size];
+        double[] prices = new double[size];
+        int[] roomTypeOrdinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            Room room = sortedRooms[i];
+            roomIds[i] = room.getId();
+            maxPeople[i] = room.getMaxPeople();
+            prices[i] = room.getPrice();
+            roomTypeOrdinals[i] = room.getRoomType() == null ? -1
+                    : roomTypeOrdinalMap.applyAsInt(room.getRoomType().getId());
+        }
+        return new HotelRooms(hotelId, roomIds, maxPeople, prices, roomTypeOrdinals);
+    }
+
+    /**
+     * This method is used to wrap arrays already sorted by capacity, then price, e.g. read from a catalog snapshot.
+     *
+     * @param hotelId          hotelId
+     * @param roomIds          room ids
+     * @param maxPeople        room capacities
+     * @param prices           room prices
+     * @param roomTypeOrdinals room type ordinals
+     * @return hotel rooms.
+     */
+    static HotelRooms ofSorted(String hotelId, String[] roomIds, int[] maxPeople, double[] prices,
+                               int[] roomTypeOrdinals) {
+        return new HotelRooms(hotelId, roomIds, maxPeople, prices, roomTypeOrdinals);
+    }
+
+    public String getHotelId() {
+        return hotelId;
+    }
+
+    public int size() {
+        return roomIds.length;
+    }
+
+    public String getRoomId(int index) {
+        return roomIds[index];
+    }
+
+    public int getMaxPeople(int index) {
+        return maxPeople[index];
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public int getRoomTypeOrdinal(int index) {
+        return roomTypeOrdinals[index];
+    }
+
+    /**
+     * This method is used to find the first room with more capacity than given.
+     *
+     * @param capacity capacity
+     * @return index of the first larger room, size when there is none.
+     */
+    public int firstIndexAbove(int capacity) {
+        int low = 0;
+        int high = maxPeople.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxPeople[middle] <= capacity)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+}
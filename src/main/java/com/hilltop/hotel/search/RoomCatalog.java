@@ -0,0 +1,181 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.event.HotelRoomsChangedEvent;
+import com.hilltop.hotel.event.RoomsDeletedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Room catalog
+ * Read model of the rooms of each location, keyed by location id, that the search scans instead of entities. A
+ * location is built from the hotels loaded by its first search and then serves searches until a local write to one
+ * of its hotels invalidates it after commit, the change log tailer evicts a write of another instance, or it is
+ * older than {@code hilltop.catalog.max-age}, which bounds the staleness when a change is missed.
+ */
+@Component
+public class RoomCatalog {
+
+    private final long maxAgeNanos;
+    private final Map<Integer, LocationRooms> locations = new ConcurrentHashMap<>();
+    private final Map<String, Integer> hotelLocations = new ConcurrentHashMap<>();
+    private final Map<String, Integer> roomTypeOrdinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRoomTypeOrdinal = new AtomicInteger();
+    private final AtomicLong generation = new AtomicLong();
+
+    public RoomCatalog(@Value("${hilltop.catalog.max-age:PT5M}") Duration maxAge) {
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * This method is used to get the rooms of the hotels of a location.
+     *
+     * @param locationId location id
+     * @return hotel rooms, null when the location is not built or expired.
+     */
+    public HotelRooms[] get(int locationId) {
+        LocationRooms locationRooms = locations.get(locationId);
+        if (locationRooms == null || System.nanoTime() - locationRooms.builtAt > maxAgeNanos)
+            return null;
+        return locationRooms.hotels;
+    }
+
+    /**
+     * This method is used to get the generation to pass to {@link #put(int, List, long)} before loading hotels.
+     *
+     * @return current generation.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * This method is used to build the rooms of a location from its loaded hotels. The result is kept only when
+     * nothing was invalidated since the hotels were loaded.
+     *
+     * @param locationId location id
+     * @param hotels     hotels of the location with their rooms
+     * @param loadedAt   generation read before the hotels were loaded
+     * @return hotel rooms.
+     */
+    public HotelRooms[] put(int locationId, List<Hotel> hotels, long loadedAt) {
+        HotelRooms[] hotelRooms = new HotelRooms[hotels.size()];
+        for (int i = 0; i < hotelRooms.length; i++)
+            hotelRooms[i] = toHotelRooms(hotels.get(i));
+        return put(locationId, hotelRooms, loadedAt);
+    }
+
+    /**
+     * This method is used to keep built rooms of a location, only when nothing was invalidated since they were
+     * read.
+     *
+     * @param locationId location id
+     * @param hotelRooms rooms of the hotels of the location
+     * @param loadedAt   generation read before the rooms were read
+     * @return hotel rooms.
+     */
+    public HotelRooms[] put(int locationId, HotelRooms[] hotelRooms, long loadedAt) {
+        synchronized (this) {
+            if (generation.get() == loadedAt) {
+                locations.put(locationId, new LocationRooms(hotelRooms, System.nanoTime()));
+                for (HotelRooms rooms : hotelRooms)
+                    hotelLocations.put(rooms.getHotelId(), locationId);
+            }
+        }
+        return hotelRooms;
+    }
+
+    /**
+     * This method is used to copy the rooms of a loaded hotel into arrays.
+     *
+     * @param hotel hotel with its rooms
+     * @return hotel rooms.
+     */
+    public HotelRooms toHotelRooms(Hotel hotel) {
+        return HotelRooms.of(hotel.getId(), hotel.getRooms() == null ? List.of() : hotel.getRooms(),
+                this::getRoomTypeOrdinal);
+    }
+
+    /**
+     * This method is used to get the ordinal of a room type, assigning the next one to a new room type.
+     *
+     * @param roomTypeId roomTypeId
+     * @return room type ordinal.
+     */
+    public int getRoomTypeOrdinal(String roomTypeId) {
+        return roomTypeOrdinals.computeIfAbsent(roomTypeId, id -> nextRoomTypeOrdinal.getAndIncrement());
+    }
+
+    /**
+     * This method is used to drop the locations of the given hotels.
+     *
+     * @param hotelIds hotelIds
+     */
+    public synchronized void invalidateHotels(Collection<String> hotelIds) {
+        generation.incrementAndGet();
+        for (String hotelId : hotelIds) {
+            Integer locationId = hotelLocations.get(hotelId);
+            if (locationId != null)
+                invalidateLocation(locationId);
+        }
+    }
+
+    /**
+     * This method is used to drop a location.
+     *
+     * @param locationId location id
+     */
+    public synchronized void invalidateLocation(int locationId) {
+        generation.incrementAndGet();
+        LocationRooms locationRooms = locations.remove(locationId);
+        if (locationRooms != null)
+            for (HotelRooms hotelRooms : locationRooms.hotels)
+                hotelLocations.remove(hotelRooms.getHotelId(), locationId);
+    }
+
+    /**
+     * This method is used to drop the locations of changed hotels once the change is committed.
+     *
+     * @param hotelRoomsChangedEvent hotelRoomsChangedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelRoomsChanged(HotelRoomsChangedEvent hotelRoomsChangedEvent) {
+        invalidateHotels(hotelRoomsChangedEvent.getHotelIds());
+        if (hotelRoomsChangedEvent.getLocationId() != null)
+            invalidateLocation(hotelRoomsChangedEvent.getLocationId());
+    }
+
+    /**
+     * This method is used to drop the locations of hotels that lost rooms once the delete is committed.
+     *
+     * @param roomsDeletedEvent roomsDeletedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomsDeleted(RoomsDeletedEvent roomsDeletedEvent) {
+        invalidateHotels(roomsDeletedEvent.getHotelIds());
+    }
+
+    /**
+     * Location rooms
+     * Hotel rooms of a location with the time they were built.
+     */
+    private static final class LocationRooms {
+
+        private final HotelRooms[] hotels;
+        private final long builtAt;
+
+        private LocationRooms(HotelRooms[] hotels, long builtAt) {
+            this.hotels = hotels;
+            this.builtAt = builtAt;
+        }
+    }
+}
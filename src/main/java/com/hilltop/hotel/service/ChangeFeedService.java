@@ -0,0 +1,222 @@
+package com.hilltop.hotel.service;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.domain.entity.CatalogChangeFloor;
+import com.hilltop.hotel.domain.response.CatalogChangeResponseDto;
+import com.hilltop.hotel.domain.response.ChangeFeedResponseDto;
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import com.hilltop.hotel.exception.ChangeFeedCursorExpiredException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.InvalidChangeFeedCursorException;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.repository.CatalogChangeFloorRepository;
+import com.hilltop.hotel.repository.CatalogChangeRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Change feed service
+ * Serves the catalog change log of all shards as one feed. The cursor holds the last returned version of every
+ * shard joined by dots, a single sequence number with one shard. Shards are merged by change time and each is read
+ * in version order up to the first change younger than {@code hilltop.change-feed.settle-delay}, so a version that
+ * becomes visible late is not skipped. Room type changes are logged on every shard and served from the first one.
+ * The log is compacted to the latest change of every entity once changes are older than
+ * {@code hilltop.change-feed.compaction-delay}, and deleted room changes are removed after
+ * {@code hilltop.change-feed.retention}, which raises the floor below which cursors require a full resync.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    private static final String CURSOR_SEPARATOR = ".";
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final CatalogChangeFloorRepository catalogChangeFloorRepository;
+    private final ShardRouter shardRouter;
+    private final Duration settleDelay;
+    private final Duration compactionDelay;
+    private final Duration retention;
+    private final int compactionBatchSize;
+
+    public ChangeFeedService(CatalogChangeRepository catalogChangeRepository,
+                             CatalogChangeFloorRepository catalogChangeFloorRepository, ShardRouter shardRouter,
+                             @Value("${hilltop.change-feed.settle-delay:PT10S}") Duration settleDelay,
+                             @Value("${hilltop.change-feed.compaction-delay:PT1H}") Duration compactionDelay,
+                             @Value("${hilltop.change-feed.retention:P7D}") Duration retention,
+                             @Value("${hilltop.change-feed.compaction-batch-size:500}") int compactionBatchSize) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.catalogChangeFloorRepository = catalogChangeFloorRepository;
+        this.shardRouter = shardRouter;
+        this.settleDelay = settleDelay;
+        this.compactionDelay = compactionDelay;
+        this.retention = retention;
+        this.compactionBatchSize = compactionBatchSize;
+    }
+
+    /**
+     * This method is used to get the changes after a cursor.
+     *
+     * @param cursor cursor of the previous page, null to read from the oldest retained change
+     * @param limit  maximum change count
+     * @return change feed page.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public ChangeFeedResponseDto getChanges(String cursor, int limit) {
+        try {
+            long[] versions = parseCursor(cursor);
+            Instant settledBefore = Instant.now().minus(settleDelay);
+            List<List<CatalogChange>> shardChanges = new ArrayList<>(versions.length);
+            boolean hasMore = false;
+            for (int shard = 0; shard < versions.length; shard++) {
+                List<CatalogChange> changes = getShardChanges(shard, cursor != null, versions[shard], limit);
+                int settled = 0;
+                while (settled < changes.size() && !changes.get(settled).getChangedAt().isAfter(settledBefore))
+                    settled++;
+                hasMore |= settled == limit;
+                shardChanges.add(changes.subList(0, settled));
+            }
+            List<CatalogChangeResponseDto> page = new ArrayList<>(limit);
+            int[] positions = new int[versions.length];
+            while (page.size() < limit) {
+                int next = -1;
+                for (int shard = 0; shard < versions.length; shard++)
+                    if (positions[shard] < shardChanges.get(shard).size() && (next < 0
+                            || shardChanges.get(shard).get(positions[shard]).getChangedAt()
+                            .isBefore(shardChanges.get(next).get(positions[next]).getChangedAt())))
+                        next = shard;
+                if (next < 0)
+                    break;
+                CatalogChange catalogChange = shardChanges.get(next).get(positions[next]++);
+                versions[next] = catalogChange.getVersion();
+                page.add(new CatalogChangeResponseDto(catalogChange));
+            }
+            for (int shard = 0; shard < versions.length; shard++)
+                hasMore |= positions[shard] < shardChanges.get(shard).size();
+            return new ChangeFeedResponseDto(page, formatCursor(versions), hasMore);
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get catalog changes from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to compact the change log of every shard.
+     *
+     * @return removed change count.
+     */
+    @Scheduled(initialDelayString = "${hilltop.change-feed.compaction-interval:PT1H}",
+            fixedDelayString = "${hilltop.change-feed.compaction-interval:PT1H}")
+    public int compact() {
+        try {
+            Instant now = Instant.now();
+            int removed = 0;
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                removed += removeInBatches(shard, now.minus(compactionDelay), false,
+                        catalogChangeRepository::findSupersededVersions);
+                removed += removeInBatches(shard, now.minus(retention), true,
+                        catalogChangeRepository::findDeletedVersions);
+            }
+            if (removed > 0)
+                log.info("Compacted {} catalog changes.", removed);
+            return removed;
+        } catch (DataAccessException e) {
+            log.error("Failed to compact the catalog change log. ", e);
+            return 0;
+        }
+    }
+
+    /**
+     * This method is used to read a page of the changes of a shard after a version.
+     *
+     * @param shard      shard
+     * @param checkFloor whether the version has to be at or above the retention floor
+     * @param version    version
+     * @param limit      maximum change count
+     * @return catalog changes in version order.
+     */
+    private List<CatalogChange> getShardChanges(int shard, boolean checkFloor, long version, int limit) {
+        if (checkFloor && version < shardRouter.executeOnShard(shard, true,
+                catalogChangeFloorRepository::findFloorVersion))
+            throw new ChangeFeedCursorExpiredException("Change feed cursor is below the floor of shard: " + shard);
+        return shardRouter.executeOnShard(shard, true, () -> shard == 0
+                ? catalogChangeRepository.findAllByVersionGreaterThanOrderByVersion(version, PageRequest.of(0, limit))
+                : catalogChangeRepository.findAllByVersionGreaterThanAndEntityTypeNotOrderByVersion(version,
+                CatalogEntityType.ROOM_TYPE, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * This method is used to remove changes of a shard in batches, each in its own transaction.
+     *
+     * @param shard      shard
+     * @param before     changed before
+     * @param raiseFloor whether removed versions raise the retention floor
+     * @param finder     finds a batch of versions to remove
+     * @return removed change count.
+     */
+    private int removeInBatches(int shard, Instant before, boolean raiseFloor,
+                                BiFunction<Instant, PageRequest, List<Long>> finder) {
+        int removed = 0;
+        int batch;
+        do {
+            batch = shardRouter.executeOnShard(shard, false, () -> {
+                List<Long> versions = finder.apply(before, PageRequest.of(0, compactionBatchSize));
+                if (versions.isEmpty())
+                    return 0;
+                catalogChangeRepository.deleteAllByIdInBatch(versions);
+                if (raiseFloor) {
+                    long floor = Math.max(versions.get(versions.size() - 1),
+                            catalogChangeFloorRepository.findFloorVersion());
+                    catalogChangeFloorRepository.save(new CatalogChangeFloor(CatalogChangeFloor.ID, floor));
+                }
+                return versions.size();
+            });
+            removed += batch;
+        } while (batch == compactionBatchSize);
+        return removed;
+    }
+
+    /**
+     * This method is used to parse a cursor into the versions of every shard.
+     *
+     * @param cursor cursor, null for the start of the feed
+     * @return versions.
+     */
+    private long[] parseCursor(String cursor) {
+        long[] versions = new long[shardRouter.getShardCount()];
+        if (cursor == null)
+            return versions;
+        String[] parts = cursor.split("\\" + CURSOR_SEPARATOR, -1);
+        if (parts.length != versions.length)
+            throw new InvalidChangeFeedCursorException("Change feed cursor does not match the shard count: " + cursor);
+        try {
+            for (int shard = 0; shard < versions.length; shard++) {
+                versions[shard] = Long.parseLong(parts[shard]);
+                if (versions[shard] < 0)
+                    throw new InvalidChangeFeedCursorException("Change feed cursor is negative: " + cursor);
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidChangeFeedCursorException("Change feed cursor is not a version list: " + cursor);
+        }
+        return versions;
+    }
+
+    private static String formatCursor(long[] versions) {
+        StringBuilder cursor = new StringBuilder();
+        for (long version : versions) {
+            if (cursor.length() > 0)
+                cursor.append(CURSOR_SEPARATOR);
+            cursor.append(version);
+        }
+        return cursor.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package com.hilltop.hotel.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chunks
+ * Splits id lists into chunks that bound the size of {@code IN} lists and delete statements.
+ */
+final class Chunks {
+
+    private Chunks() {
+    }
+
+    /**
+     * This method is used to split a list into chunks.
+     *
+     * @param list      list
+     * @param chunkSize maximum chunk size
+     * @param <T>       element type
+     * @return chunks.
+     */
+    static <T> List<List<T>> of(List<T> list, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += chunkSize)
+            chunks.add(list.subList(from, Math.min(from + chunkSize, list.size())));
+        return chunks;
+    }
+}
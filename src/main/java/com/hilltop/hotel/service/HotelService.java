@@ -1,17 +1,44 @@
 package com.hilltop.hotel.service;
 
+import com.hilltop.hotel.datasource.ShardRouter;
 import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Location;
 import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.request.HotelPatchRequestDto;
 import com.hilltop.hotel.domain.request.HotelRequestDto;
 import com.hilltop.hotel.domain.request.UpdateHotelRequestDto;
+import com.hilltop.hotel.enumeration.SearchSort;
+import com.hilltop.hotel.event.HotelLocationChangedEvent;
+import com.hilltop.hotel.event.HotelRoomsChangedEvent;
 import com.hilltop.hotel.exception.DataNotFoundException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.ShardRelocationException;
+import com.hilltop.hotel.exception.VersionConflictException;
+import com.hilltop.hotel.geo.GeoDistance;
+import com.hilltop.hotel.geo.GeoHit;
+import com.hilltop.hotel.geo.HotelGeoIndex;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.metrics.MetricName;
 import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.search.CatalogChangeLog;
+import com.hilltop.hotel.search.HotelRooms;
+import com.hilltop.hotel.search.RoomCatalog;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -21,10 +48,44 @@ import java.util.stream.Collectors;
 @Slf4j
 public class HotelService {
 
+    public static final int MAX_SEARCH_LIMIT = 1000;
+    private static final Comparator<Hotel> HOTEL_ORDER = Comparator.comparing(Hotel::getName,
+            Comparator.nullsFirst(Comparator.<String>naturalOrder())).thenComparing(Hotel::getId);
+    private static final int NEARBY_MIN_BATCH_SIZE = 20;
+    private static final int LOOKUP_CHUNK_SIZE = 100;
+    private static final int[] NO_ROOMS = new int[0];
     private final HotelRepository hotelRepository;
+    private final ShardRouter shardRouter;
+    private final HotelGeoIndex hotelGeoIndex;
+    private final LocationDictionary locationDictionary;
+    private final RoomCatalog roomCatalog;
+    private final CatalogChangeLog catalogChangeLog;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final DistributionSummary searchResultSummary;
+    private final Counter combinationFoundCounter;
+    private final Counter combinationNotFoundCounter;
+    private final SingleFlight<SearchKey, Map<Hotel, List<Room>>> searchFlight;
 
-    public HotelService(HotelRepository hotelRepository) {
+    public HotelService(HotelRepository hotelRepository, ShardRouter shardRouter, HotelGeoIndex hotelGeoIndex,
+                        LocationDictionary locationDictionary, RoomCatalog roomCatalog,
+                        CatalogChangeLog catalogChangeLog, ApplicationEventPublisher applicationEventPublisher,
+                        MeterRegistry meterRegistry,
+                        @Value("${hilltop.search.coalescing-max-wait:PT2S}") Duration coalescingMaxWait) {
         this.hotelRepository = hotelRepository;
+        this.shardRouter = shardRouter;
+        this.hotelGeoIndex = hotelGeoIndex;
+        this.locationDictionary = locationDictionary;
+        this.roomCatalog = roomCatalog;
+        this.catalogChangeLog = catalogChangeLog;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.searchResultSummary = DistributionSummary.builder(MetricName.SEARCH_RESULTS)
+                .description("Number of hotels returned by a location and pax count search.")
+                .register(meterRegistry);
+        this.combinationFoundCounter = meterRegistry.counter(MetricName.SEARCH_COMBINATION_FALLBACKS,
+                "outcome", "found");
+        this.combinationNotFoundCounter = meterRegistry.counter(MetricName.SEARCH_COMBINATION_FALLBACKS,
+                "outcome", "not_found");
+        this.searchFlight = new SingleFlight<>(coalescingMaxWait, meterRegistry, MetricName.SEARCH_COALESCING);
     }
 
     /**
@@ -32,9 +93,22 @@ public class HotelService {
      *
      * @param hotelRequestDto hotelRequestDto
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
     public void addHotel(HotelRequestDto hotelRequestDto) {
         try {
-            hotelRepository.save(new Hotel(hotelRequestDto));
+            int shard = shardRouter.routeByLocation(hotelRequestDto.getLocation());
+            Hotel hotel = new Hotel(hotelRequestDto, shard);
+            Location location = locationDictionary.resolve(hotelRequestDto.getLocation());
+            hotel.setLocation(location.getName());
+            hotelRepository.save(hotel);
+            hotelRepository.flush();
+            catalogChangeLog.recordHotel(hotel.getId(), location.getId());
+            applicationEventPublisher.publishEvent(new HotelRoomsChangedEvent(List.of(hotel.getId()),
+                    location.getId()));
+            if (hotel.getLatitude() != null)
+                applicationEventPublisher.publishEvent(new HotelLocationChangedEvent(hotel.getId(),
+                        hotel.getLatitude(), hotel.getLongitude()));
             log.debug("Successfully added hotel data.");
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to save hotel info in database.", e);
@@ -46,11 +120,25 @@ public class HotelService {
      *
      * @param updateHotelRequestDto updateHotelRequestDto
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
     public void updateHotel(UpdateHotelRequestDto updateHotelRequestDto) {
         try {
-            Hotel hotel = getHotelById(updateHotelRequestDto.getId());
+            String id = updateHotelRequestDto.getId();
+            if (shardRouter.shardForLocation(updateHotelRequestDto.getLocation()) != shardRouter.shardForId(id))
+                throw new ShardRelocationException("Hotel " + id + " can not move to location: "
+                        + updateHotelRequestDto.getLocation());
+            Hotel hotel = findHotelById(id);
             hotel.updateHotel(updateHotelRequestDto);
+            Location location = locationDictionary.resolve(updateHotelRequestDto.getLocation());
+            hotel.setLocation(location.getName());
             hotelRepository.save(hotel);
+            hotelRepository.flush();
+            catalogChangeLog.recordHotel(hotel.getId(), location.getId());
+            applicationEventPublisher.publishEvent(new HotelRoomsChangedEvent(List.of(hotel.getId()),
+                    location.getId()));
+            applicationEventPublisher.publishEvent(new HotelLocationChangedEvent(id, hotel.getLatitude(),
+                    hotel.getLongitude()));
             log.debug("Successfully updated hotel data.");
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to update hotel info in database.", e);
@@ -58,13 +146,53 @@ public class HotelService {
     }
 
     /**
-     * This method is used to get hotel list.
+     * This method is used to update the given hotel fields with a single statement.
+     *
+     * @param id                   hotelId
+     * @param hotelPatchRequestDto hotelPatchRequestDto
+     * @param expectedVersion      version the change is based on, null for the current version
+     * @return new version.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
+    public long patchHotel(String id, HotelPatchRequestDto hotelPatchRequestDto, Long expectedVersion) {
+        try {
+            int shard = shardRouter.routeById(id);
+            String location = hotelPatchRequestDto.getLocation();
+            if (location != null && shardRouter.shardForLocation(location) != shard)
+                throw new ShardRelocationException("Hotel " + id + " can not move to location: " + location);
+            Integer locationId = location == null ? null : locationDictionary.resolve(location).getId();
+            long version = hotelRepository.findVersionById(id)
+                    .orElseThrow(() -> new DataNotFoundException("Hotel not found for id: " + id));
+            if (expectedVersion != null && expectedVersion != version
+                    || hotelRepository.patchHotel(id, hotelPatchRequestDto.getName(), locationId,
+                    hotelPatchRequestDto.getLatitude(), hotelPatchRequestDto.getLongitude(), version) == 0)
+                throw new VersionConflictException("Hotel " + id + " is not at version " + version + ".");
+            catalogChangeLog.recordHotel(id, locationId);
+            if (locationId != null)
+                applicationEventPublisher.publishEvent(new HotelRoomsChangedEvent(List.of(id), locationId));
+            if (hotelPatchRequestDto.getLatitude() != null)
+                applicationEventPublisher.publishEvent(new HotelLocationChangedEvent(id,
+                        hotelPatchRequestDto.getLatitude(), hotelPatchRequestDto.getLongitude()));
+            log.debug("Successfully patched hotel data.");
+            return version + 1;
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to update hotel info in database.", e);
+        }
+    }
+
+    /**
+     * This method is used to get hotel list from all shards, ordered by name.
      *
      * @return hotel list.
      */
+    @Timed(MetricName.SERVICE_TIMER)
     public List<Hotel> getHotelList() {
         try {
-            return hotelRepository.findAll();
+            List<Hotel> hotelList = new ArrayList<>();
+            shardRouter.executeOnAllShards(true, hotelRepository::findAll).forEach(hotelList::addAll);
+            hotelList.sort(HOTEL_ORDER);
+            return hotelList;
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to get all hotel data from database.", e);
         }
@@ -76,90 +204,478 @@ public class HotelService {
      * @param id hotelId
      * @return hotel detail.
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public Hotel getHotelById(String id) {
         try {
-            return hotelRepository.findById(id)
-                    .orElseThrow(() -> new DataNotFoundException("Hotel not found for id: " + id));
+            return findHotelById(id);
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to get hotel info from database.", e);
         }
     }
 
+    /**
+     * This method is used to find a hotel by id on its shard. Service methods use it instead of getHotelById, so the
+     * lookup is not a self-invocation that bypasses the proxy of getHotelById.
+     *
+     * @param id hotelId
+     * @return hotel.
+     */
+    private Hotel findHotelById(String id) {
+        shardRouter.routeById(id);
+        return hotelRepository.findById(id)
+                .orElseThrow(() -> new DataNotFoundException("Hotel not found for id: " + id));
+    }
+
+    /**
+     * This method is used to get hotels by ids that are all on the same shard, with chunked queries in the current
+     * transaction.
+     *
+     * @param ids hotelIds of one shard
+     * @return found hotels by id.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Map<String, Hotel> getShardHotelsByIds(Collection<String> ids) {
+        if (ids.isEmpty())
+            return Map.of();
+        try {
+            shardRouter.routeById(ids.iterator().next());
+            Map<String, Hotel> hotelsById = new HashMap<>();
+            for (List<String> chunk : Chunks.of(List.copyOf(ids), LOOKUP_CHUNK_SIZE))
+                hotelRepository.findAllByIdIn(chunk).forEach(hotel -> hotelsById.put(hotel.getId(), hotel));
+            return hotelsById;
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get hotels by ids from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to get hotels by ids with chunked queries, one read-only transaction per shard.
+     *
+     * @param ids hotelIds
+     * @return found hotels in the order of the ids.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public List<Hotel> getHotelsByIds(List<String> ids) {
+        try {
+            List<String> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+            Map<String, Hotel> hotelsById = new HashMap<>();
+            Map<Integer, List<String>> idsByShard = distinctIds.stream()
+                    .collect(Collectors.groupingBy(shardRouter::shardForId));
+            for (Map.Entry<Integer, List<String>> shardIds : idsByShard.entrySet())
+                shardRouter.executeOnShard(shardIds.getKey(), true, () -> {
+                    for (List<String> chunk : Chunks.of(shardIds.getValue(), LOOKUP_CHUNK_SIZE))
+                        hotelRepository.findAllByIdIn(chunk).forEach(hotel -> hotelsById.put(hotel.getId(), hotel));
+                    return null;
+                });
+            return distinctIds.stream().map(hotelsById::get).filter(Objects::nonNull).collect(Collectors.toList());
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get hotels by ids from database.", e);
+        }
+    }
+
     /**
      * This method is used to search hotels by location and pax count.
      *
      * @param location location
      * @param paxCount paxCount
-     * @return hotel & rooms map.
+     * @return hotel & rooms map ordered by price.
      */
+    @Timed(MetricName.SERVICE_TIMER)
     public Map<Hotel, List<Room>> getHotelsByLocationAndPaxCount(String location, int paxCount) {
+        return getHotelsByLocationAndPaxCount(location, paxCount, null, null, SearchSort.PRICE, null);
+    }
+
+    /**
+     * This method is used to search hotels by location and pax count within a room price range. The rooms are
+     * scanned in the room catalog of the location, which is built from the hotels of the first search, and hotel
+     * entities are loaded with one query only for the results. Only the best limit hotels are kept while the
+     * candidates are scanned, so the selection cost grows with the limit rather than with the number of matching
+     * hotels. Hotels are matched on the location id, so the location is matched without case, surrounding
+     * whitespace or Unicode form differences, and an unregistered location is not queried. Concurrent identical
+     * searches share one computation and receive the same unmodifiable result. Only that computation runs in a
+     * read-only transaction on the shard of the location, so callers waiting for it do not hold a connection.
+     *
+     * @param location   location
+     * @param paxCount   paxCount
+     * @param minPrice   optional minimum room price
+     * @param maxPrice   optional maximum room price
+     * @param searchSort result order
+     * @param limit      optional maximum hotel count
+     * @return hotel & rooms map in result order.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public Map<Hotel, List<Room>> getHotelsByLocationAndPaxCount(String location, int paxCount, Double minPrice,
+                                                                 Double maxPrice, SearchSort searchSort,
+                                                                 Integer limit) {
+        Optional<Location> registeredLocation = locationDictionary.find(location);
+        if (registeredLocation.isEmpty()) {
+            searchResultSummary.record(0);
+            return new LinkedHashMap<>();
+        }
+        SearchKey searchKey = new SearchKey(registeredLocation.get().getId(), paxCount, minPrice, maxPrice,
+                searchSort, limit);
+        return searchFlight.execute(searchKey, () -> Collections.unmodifiableMap(search(registeredLocation.get(),
+                paxCount, minPrice, maxPrice, searchSort, limit)));
+    }
+
+    /**
+     * This method is used to compute the result of a location and pax count search in a read-only transaction on
+     * the shard of the location.
+     *
+     * @param registeredLocation registered location
+     * @param paxCount           paxCount
+     * @param minPrice           optional minimum room price
+     * @param maxPrice           optional maximum room price
+     * @param searchSort         result order
+     * @param limit              optional maximum hotel count
+     * @return hotel & rooms map in result order.
+     */
+    private Map<Hotel, List<Room>> search(Location registeredLocation, int paxCount, Double minPrice,
+                                          Double maxPrice, SearchSort searchSort, Integer limit) {
         try {
-            List<Hotel> hotelList = hotelRepository.findByLocation(location);
-            Map<Hotel, List<Room>> hotelAndRoomsMap = new HashMap<>();
-            for (Hotel hotel : hotelList) {
-                List<Room> sortedRoomList = hotel.getRooms().stream()
-                        .filter(room -> room.getMaxPeople() == paxCount).collect(Collectors.toList());
-                if (sortedRoomList.isEmpty())
-                    sortedRoomList = getPossibleRoomsForPaxCount(hotel.getRooms(), paxCount);
-                if (!sortedRoomList.isEmpty())
-                    hotelAndRoomsMap.put(hotel, sortedRoomList);
+            return shardRouter.executeOnShard(shardRouter.shardForLocation(registeredLocation.getName()), true,
+                    () -> searchOnShard(registeredLocation, paxCount, minPrice, maxPrice, searchSort, limit));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get hotels from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to compute the result of a location and pax count search on the current shard.
+     *
+     * @param registeredLocation registered location
+     * @param paxCount           paxCount
+     * @param minPrice           optional minimum room price
+     * @param maxPrice           optional maximum room price
+     * @param searchSort         result order
+     * @param limit              optional maximum hotel count
+     * @return hotel & rooms map in result order.
+     */
+    private Map<Hotel, List<Room>> searchOnShard(Location registeredLocation, int paxCount, Double minPrice,
+                                                 Double maxPrice, SearchSort searchSort, Integer limit) {
+        int locationId = registeredLocation.getId();
+        Map<String, Hotel> hotelsById = null;
+        HotelRooms[] catalog = roomCatalog.get(locationId);
+        if (catalog == null) {
+            long generation = roomCatalog.getGeneration();
+            List<Hotel> hotelList = hotelRepository.findByLocation(registeredLocation.getName());
+            catalog = roomCatalog.put(locationId, hotelList, generation);
+            hotelsById = hotelList.stream().collect(Collectors.toMap(Hotel::getId, Function.identity()));
+        }
+        double lowestPrice = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double highestPrice = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        Comparator<HotelOffer> offerOrder = searchSort == SearchSort.CAPACITY_FIT
+                ? HotelOffer.CAPACITY_FIT_ORDER : HotelOffer.PRICE_ORDER;
+        Collection<HotelOffer> offers = limit == null ? new ArrayList<>()
+                : new PriorityQueue<>(Math.min(limit, catalog.length) + 1, offerOrder.reversed());
+        for (HotelRooms hotelRooms : catalog) {
+            int[] roomIndexes = getRoomsForPaxCount(hotelRooms, paxCount, lowestPrice, highestPrice);
+            if (roomIndexes.length == 0)
+                continue;
+            offers.add(new HotelOffer(hotelRooms, roomIndexes, paxCount));
+            if (limit != null && offers.size() > limit)
+                ((PriorityQueue<HotelOffer>) offers).poll();
+        }
+        List<HotelOffer> sortedOffers = new ArrayList<>(offers);
+        sortedOffers.sort(offerOrder);
+        if (hotelsById == null && !sortedOffers.isEmpty()) {
+            hotelsById = new HashMap<>();
+            for (List<String> chunk : Chunks.of(sortedOffers.stream().map(HotelOffer::getHotelId)
+                    .collect(Collectors.toList()), LOOKUP_CHUNK_SIZE))
+                for (Hotel hotel : hotelRepository.findAllWithRoomsByIdIn(chunk))
+                    hotelsById.put(hotel.getId(), hotel);
+        }
+        Map<Hotel, List<Room>> hotelAndRoomsMap = new LinkedHashMap<>();
+        for (HotelOffer offer : sortedOffers) {
+            Hotel hotel = hotelsById.get(offer.getHotelId());
+            List<Room> rooms = hotel == null ? null : toRooms(hotel, offer.hotelRooms, offer.roomIndexes);
+            if (rooms == null) {
+                log.debug("Skipped hotel {} changed since its rooms were cataloged.", offer.getHotelId());
+                roomCatalog.invalidateHotels(List.of(offer.getHotelId()));
+                continue;
             }
+            hotelAndRoomsMap.put(hotel, rooms);
+        }
+        searchResultSummary.record(hotelAndRoomsMap.size());
+        return hotelAndRoomsMap;
+    }
+
+    /**
+     * This method is used to search hotels within a radius that have rooms for the pax count, nearest first.
+     * Candidates come from the geo index and are loaded nearest first in batches until the limit is reached.
+     *
+     * @param latitude  latitude of the search point
+     * @param longitude longitude of the search point
+     * @param radiusKm  radius in km
+     * @param paxCount  paxCount
+     * @param limit     optional maximum hotel count
+     * @return hotel & rooms map ordered by distance.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public Map<Hotel, List<Room>> getHotelsNearby(double latitude, double longitude, double radiusKm, int paxCount,
+                                                  Integer limit) {
+        try {
+            List<GeoHit> geoHits = hotelGeoIndex.findWithinRadius(latitude, longitude, radiusKm);
+            int batchSize = limit == null ? Math.max(1, geoHits.size()) : Math.max(limit, NEARBY_MIN_BATCH_SIZE);
+            Map<Hotel, List<Room>> hotelAndRoomsMap = new LinkedHashMap<>();
+            for (int from = 0; from < geoHits.size() && (limit == null || hotelAndRoomsMap.size() < limit);
+                 from += batchSize) {
+                List<GeoHit> batch = geoHits.subList(from, Math.min(from + batchSize, geoHits.size()));
+                Map<String, Hotel> hotelsById = new HashMap<>();
+                Map<Integer, List<String>> hotelIdsByShard = batch.stream().map(GeoHit::getHotelId)
+                        .collect(Collectors.groupingBy(shardRouter::shardForId));
+                for (Map.Entry<Integer, List<String>> shardHotelIds : hotelIdsByShard.entrySet())
+                    shardRouter.executeOnShard(shardHotelIds.getKey(), true, () -> {
+                        for (List<String> chunk : Chunks.of(shardHotelIds.getValue(), LOOKUP_CHUNK_SIZE))
+                            hotelRepository.findAllWithRoomsByIdIn(chunk)
+                                    .forEach(hotel -> hotelsById.put(hotel.getId(), hotel));
+                        return null;
+                    });
+                for (GeoHit geoHit : batch) {
+                    Hotel hotel = hotelsById.get(geoHit.getHotelId());
+                    if (hotel == null || hotel.getLatitude() == null || hotel.getLongitude() == null
+                            || GeoDistance.distanceKm(latitude, longitude, hotel.getLatitude(),
+                            hotel.getLongitude()) > radiusKm)
+                        continue;
+                    HotelRooms hotelRooms = roomCatalog.toHotelRooms(hotel);
+                    int[] roomIndexes = getRoomsForPaxCount(hotelRooms, paxCount, Double.NEGATIVE_INFINITY,
+                            Double.POSITIVE_INFINITY);
+                    if (roomIndexes.length > 0)
+                        hotelAndRoomsMap.put(hotel, toRooms(hotel, hotelRooms, roomIndexes));
+                    if (limit != null && hotelAndRoomsMap.size() == limit)
+                        break;
+                }
+            }
+            searchResultSummary.record(hotelAndRoomsMap.size());
             return hotelAndRoomsMap;
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to get hotels from database.", e);
         }
     }
 
+    /**
+     * This method is used to get the rooms of a hotel for pax count, exact capacity matches first.
+     *
+     * @param hotelRooms hotelRooms
+     * @param paxCount   paxCount
+     * @param minPrice   minimum room price
+     * @param maxPrice   maximum room price
+     * @return room indexes.
+     */
+    private int[] getRoomsForPaxCount(HotelRooms hotelRooms, int paxCount, double minPrice, double maxPrice) {
+        int[] roomIndexes = getRoomsInCapacityRange(hotelRooms, paxCount - 1, paxCount, minPrice, maxPrice);
+        if (roomIndexes.length == 0)
+            roomIndexes = getPossibleRoomsForPaxCount(hotelRooms, paxCount, minPrice, maxPrice);
+        return roomIndexes;
+    }
+
     /**
      * This method is used to get possible rooms for pax count.
      * If pax count is 5 method will return rooms with pax count 6 and 7.
      * Else method will return multiple rooms to fulfill pax count (e.g. two rooms with pax count 3 & 2 ).
      *
-     * @param roomSet  roomSet
-     * @param paxCount paxCount
-     * @return list of rooms.
+     * @param hotelRooms hotelRooms
+     * @param paxCount   paxCount
+     * @param minPrice   minimum room price
+     * @param maxPrice   maximum room price
+     * @return room indexes.
      */
-    private List<Room> getPossibleRoomsForPaxCount(Set<Room> roomSet, int paxCount) {
-        List<Room> sortedRoomList = roomSet.stream()
-                .filter(room -> room.getMaxPeople() > paxCount && room.getMaxPeople() <= paxCount + 2)
-                .collect(Collectors.toList());
-        if (sortedRoomList.isEmpty()) {
-            Optional<Room> optionalRoom = roomSet.stream().filter(room -> room.getMaxPeople() < paxCount)
-                    .max(Comparator.comparing(Room::getMaxPeople));
-            if (optionalRoom.isPresent())
-                sortedRoomList = getRoomCombination(optionalRoom.get(), roomSet, paxCount);
+    private int[] getPossibleRoomsForPaxCount(HotelRooms hotelRooms, int paxCount, double minPrice,
+                                              double maxPrice) {
+        int[] roomIndexes = getRoomsInCapacityRange(hotelRooms, paxCount, paxCount + 2, minPrice, maxPrice);
+        if (roomIndexes.length == 0) {
+            int largestRoom = -1;
+            for (int i = hotelRooms.firstIndexAbove(paxCount - 1) - 1; i >= 0; i--) {
+                if (largestRoom >= 0 && hotelRooms.getMaxPeople(i) < hotelRooms.getMaxPeople(largestRoom))
+                    break;
+                if (isInPriceRange(hotelRooms, i, minPrice, maxPrice))
+                    largestRoom = i;
+            }
+            if (largestRoom >= 0)
+                roomIndexes = getRoomCombination(largestRoom, hotelRooms, paxCount, minPrice, maxPrice);
         }
-        return sortedRoomList;
+        return roomIndexes;
     }
 
     /**
      * This method is used to return multiple rooms to fulfill pax count.
      * e.g. if required pax count is 5 method will return two rooms with pax count 3 & 2.
+     * Rooms are taken largest first and cheapest first among rooms of the same capacity.
      *
-     * @param possibleMaximumPaxRoom possibleMaximumPaxRoom
-     * @param roomSet                roomSet
+     * @param possibleMaximumPaxRoom index of the largest room
+     * @param hotelRooms             hotelRooms
      * @param paxCount               paxCount
-     * @return list of rooms.
-     */
-    private List<Room> getRoomCombination(Room possibleMaximumPaxRoom, Set<Room> roomSet, int paxCount) {
-        List<Room> sortedRoomList = new ArrayList<>();
-        sortedRoomList.add(possibleMaximumPaxRoom);
-        int totalPaxCount = possibleMaximumPaxRoom.getMaxPeople();
-
-        List<Room> paxCountDecendingRoomList = roomSet.stream()
-                .sorted(Comparator.comparing(Room::getMaxPeople).reversed()).collect(Collectors.toList());
-        paxCountDecendingRoomList.remove(possibleMaximumPaxRoom);
-
-        for (Room room : paxCountDecendingRoomList) {
-            if (totalPaxCount + room.getMaxPeople() <= paxCount) {
-                sortedRoomList.add(room);
-                totalPaxCount += room.getMaxPeople();
-                if (totalPaxCount == paxCount)
-                    break;
+     * @param minPrice               minimum room price
+     * @param maxPrice               maximum room price
+     * @return room indexes.
+     */
+    private int[] getRoomCombination(int possibleMaximumPaxRoom, HotelRooms hotelRooms, int paxCount,
+                                     double minPrice, double maxPrice) {
+        int[] roomIndexes = new int[hotelRooms.size()];
+        roomIndexes[0] = possibleMaximumPaxRoom;
+        int roomCount = 1;
+        int totalPaxCount = hotelRooms.getMaxPeople(possibleMaximumPaxRoom);
+
+        int end = hotelRooms.firstIndexAbove(paxCount - totalPaxCount);
+        while (end > 0 && totalPaxCount < paxCount) {
+            int capacity = hotelRooms.getMaxPeople(end - 1);
+            int start = end - 1;
+            while (start > 0 && hotelRooms.getMaxPeople(start - 1) == capacity)
+                start--;
+            for (int i = start; i < end && totalPaxCount + capacity <= paxCount; i++) {
+                if (i != possibleMaximumPaxRoom && isInPriceRange(hotelRooms, i, minPrice, maxPrice)) {
+                    roomIndexes[roomCount++] = i;
+                    totalPaxCount += capacity;
+                }
+            }
+            end = Math.min(start, hotelRooms.firstIndexAbove(paxCount - totalPaxCount));
+        }
+        if (totalPaxCount != paxCount) {
+            combinationNotFoundCounter.increment();
+            return NO_ROOMS;
+        }
+        combinationFoundCounter.increment();
+        return Arrays.copyOf(roomIndexes, roomCount);
+    }
+
+    /**
+     * This method is used to get the rooms within the price range whose capacity is above one bound and at most
+     * the other.
+     *
+     * @param hotelRooms hotelRooms
+     * @param above      exclusive lower capacity bound
+     * @param atMost     inclusive upper capacity bound
+     * @param minPrice   minimum room price
+     * @param maxPrice   maximum room price
+     * @return room indexes in capacity and price order.
+     */
+    private static int[] getRoomsInCapacityRange(HotelRooms hotelRooms, int above, int atMost, double minPrice,
+                                                 double maxPrice) {
+        int from = hotelRooms.firstIndexAbove(above);
+        int to = hotelRooms.firstIndexAbove(atMost);
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (isInPriceRange(hotelRooms, i, minPrice, maxPrice))
+                count++;
+        }
+        if (count == 0)
+            return NO_ROOMS;
+        int[] roomIndexes = new int[count];
+        count = 0;
+        for (int i = from; i < to; i++) {
+            if (isInPriceRange(hotelRooms, i, minPrice, maxPrice))
+                roomIndexes[count++] = i;
+        }
+        return roomIndexes;
+    }
+
+    private static boolean isInPriceRange(HotelRooms hotelRooms, int index, double minPrice, double maxPrice) {
+        double price = hotelRooms.getPrice(index);
+        return price >= minPrice && price <= maxPrice;
+    }
+
+    /**
+     * This method is used to resolve room indexes to the room entities of a loaded hotel.
+     *
+     * @param hotel       hotel with its rooms
+     * @param hotelRooms  hotelRooms the indexes refer to
+     * @param roomIndexes roomIndexes
+     * @return rooms, null when a room is no longer in the hotel.
+     */
+    private static List<Room> toRooms(Hotel hotel, HotelRooms hotelRooms, int[] roomIndexes) {
+        Map<String, Room> roomsById = new HashMap<>();
+        for (Room room : hotel.getRooms())
+            roomsById.put(room.getId(), room);
+        List<Room> rooms = new ArrayList<>(roomIndexes.length);
+        for (int roomIndex : roomIndexes) {
+            Room room = roomsById.get(hotelRooms.getRoomId(roomIndex));
+            if (room == null)
+                return null;
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    /**
+     * Search key
+     * Parameters of a location and pax count search, equal for searches that share one computation.
+     */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class SearchKey {
+
+        private final int locationId;
+        private final int paxCount;
+        private final Double minPrice;
+        private final Double maxPrice;
+        private final SearchSort searchSort;
+        private final Integer limit;
+    }
+
+    /**
+     * Hotel offer
+     * Rooms found for a search in one hotel with the keys the results are ordered by.
+     */
+    private static final class HotelOffer {
+
+        private static final Comparator<HotelOffer> PRICE_ORDER = Comparator.comparingDouble(HotelOffer::getPrice)
+                .thenComparingInt(HotelOffer::getSpareCapacity).thenComparing(HotelOffer::getHotelId);
+        private static final Comparator<HotelOffer> CAPACITY_FIT_ORDER = Comparator
+                .comparingInt(HotelOffer::getSpareCapacity).thenComparingInt(HotelOffer::getRoomCount)
+                .thenComparingDouble(HotelOffer::getPrice).thenComparing(HotelOffer::getHotelId);
+        private final HotelRooms hotelRooms;
+        private final int[] roomIndexes;
+        private final double price;
+        private final int spareCapacity;
+        private final int roomCount;
+
+        /**
+         * Rooms that each fit the pax count are alternatives, the offer is the best of them. Otherwise the rooms
+         * are a combination that is booked together.
+         *
+         * @param hotelRooms  hotelRooms
+         * @param roomIndexes rooms found for the search
+         * @param paxCount    paxCount
+         */
+        private HotelOffer(HotelRooms hotelRooms, int[] roomIndexes, int paxCount) {
+            this.hotelRooms = hotelRooms;
+            this.roomIndexes = roomIndexes;
+            double minPrice = Double.POSITIVE_INFINITY;
+            double totalPrice = 0;
+            int minSpareCapacity = Integer.MAX_VALUE;
+            for (int roomIndex : roomIndexes) {
+                double roomPrice = hotelRooms.getPrice(roomIndex);
+                minPrice = Math.min(minPrice, roomPrice);
+                totalPrice += roomPrice;
+                minSpareCapacity = Math.min(minSpareCapacity, hotelRooms.getMaxPeople(roomIndex) - paxCount);
+            }
+            if (minSpareCapacity >= 0) {
+                this.price = minPrice;
+                this.spareCapacity = minSpareCapacity;
+                this.roomCount = 1;
+            } else {
+                this.price = totalPrice;
+                this.spareCapacity = 0;
+                this.roomCount = roomIndexes.length;
             }
         }
-        if (totalPaxCount != paxCount)
-            return List.of();
-        return sortedRoomList;
+
+        private double getPrice() {
+            return price;
+        }
+
+        private int getSpareCapacity() {
+            return spareCapacity;
+        }
+
+        private int getRoomCount() {
+            return roomCount;
+        }
+
+        private String getHotelId() {
+            return hotelRooms.getHotelId();
+        }
     }
 }
@@ -0,0 +1,382 @@
+package com.hilltop.hotel.service;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.HotelCapacitySummary;
+import com.hilltop.hotel.domain.entity.HotelRoomTypeSummary;
+import com.hilltop.hotel.domain.response.HotelSummaryResponseDto;
+import com.hilltop.hotel.exception.DataNotFoundException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.repository.HotelCapacitySummaryRepository;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.HotelRoomTypeSummaryRepository;
+import com.hilltop.hotel.repository.RoomFigures;
+import com.hilltop.hotel.scheduling.JobLeases;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hotel summary service
+ * Keeps the per hotel room count, capacity histogram and room type price ranges. Every room write locks the hotels
+ * it touches before writing, so the summary maintenance of a hotel is serialized. Added, changed and removed rooms
+ * are applied as deltas and only the price ranges of the affected room types are recomputed. A periodic job, run by
+ * one instance, reconciles all summaries with the rooms.
+ */
+@Service
+@Slf4j
+public class HotelSummaryService {
+
+    private static final String RECONCILE_JOB = "hotel-summary-reconcile";
+    private static final double PRICE_TOLERANCE = 1e-6;
+    private final HotelRoomTypeSummaryRepository hotelRoomTypeSummaryRepository;
+    private final HotelCapacitySummaryRepository hotelCapacitySummaryRepository;
+    private final HotelRepository hotelRepository;
+    private final ShardRouter shardRouter;
+    private final EntityManager entityManager;
+    private final JobLeases jobLeases;
+    private final Duration reconcileInterval;
+    private final Counter driftCounter;
+
+    public HotelSummaryService(HotelRoomTypeSummaryRepository hotelRoomTypeSummaryRepository,
+                               HotelCapacitySummaryRepository hotelCapacitySummaryRepository,
+                               HotelRepository hotelRepository, ShardRouter shardRouter,
+                               EntityManager entityManager, JobLeases jobLeases,
+                               @Value("${hilltop.summary.reconcile-interval:PT15M}") Duration reconcileInterval,
+                               MeterRegistry meterRegistry) {
+        this.hotelRoomTypeSummaryRepository = hotelRoomTypeSummaryRepository;
+        this.hotelCapacitySummaryRepository = hotelCapacitySummaryRepository;
+        this.hotelRepository = hotelRepository;
+        this.shardRouter = shardRouter;
+        this.entityManager = entityManager;
+        this.jobLeases = jobLeases;
+        this.reconcileInterval = reconcileInterval;
+        this.driftCounter = Counter.builder(MetricName.SUMMARY_DRIFT)
+                .description("Number of hotel summary rows corrected by the reconciliation job.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * This method is used to lock the given hotels for summary maintenance until the transaction of the caller
+     * ends. Room writes call it before writing rooms, hotels are locked in id order so writers do not deadlock.
+     *
+     * @param hotelIds hotelIds
+     */
+    public void lockHotels(Collection<String> hotelIds) {
+        if (hotelIds.isEmpty())
+            return;
+        entityManager.createNativeQuery("select id from hotel where id in (:hotelIds) order by id for update")
+                .setParameter("hotelIds", new TreeSet<>(hotelIds))
+                .getResultList();
+    }
+
+    /**
+     * This method is used to add a new or changed room to the summaries of its hotel. Runs in the transaction of
+     * the caller, which holds the lock of the hotel. Each summary is incremented or created by a single upsert.
+     *
+     * @param room figures of the room after the write
+     */
+    public void recordRoomAdded(RoomFigures room) {
+        entityManager.createNativeQuery("insert into hotel_room_type_summary "
+                        + "(hotel_id, room_type_id, room_count, total_price, min_price, max_price) "
+                        + "values (?1, ?2, 1, ?3, ?3, ?3) on duplicate key update room_count = room_count + 1, "
+                        + "total_price = total_price + ?3, min_price = least(min_price, ?3), "
+                        + "max_price = greatest(max_price, ?3)")
+                .setParameter(1, room.getHotelId())
+                .setParameter(2, room.getRoomTypeId())
+                .setParameter(3, room.getPrice())
+                .executeUpdate();
+        entityManager.createNativeQuery("insert into hotel_capacity_summary (hotel_id, max_people, room_count) "
+                        + "values (?1, ?2, 1) on duplicate key update room_count = room_count + 1")
+                .setParameter(1, room.getHotelId())
+                .setParameter(2, room.getMaxPeople())
+                .executeUpdate();
+    }
+
+    /**
+     * This method is used to take deleted or changed rooms out of the summaries of their hotels. Runs in the
+     * transaction of the caller, which holds the locks of the hotels and has already written the rooms. Counts and
+     * totals are decremented, emptied summaries are deleted and the price ranges of the affected room types are
+     * recomputed from the rooms. Changed rooms are added again with {@link #recordRoomAdded} afterwards.
+     *
+     * @param rooms figures of the rooms before the write
+     */
+    public void recordRoomsRemoved(Collection<? extends RoomFigures> rooms) {
+        if (rooms.isEmpty())
+            return;
+        Map<HotelRoomTypeSummary.Key, List<RoomFigures>> roomsByRoomType = rooms.stream().collect(Collectors
+                .groupingBy(room -> new HotelRoomTypeSummary.Key(room.getHotelId(), room.getRoomTypeId())));
+        roomsByRoomType.forEach((key, roomTypeRooms) -> entityManager.createNativeQuery(
+                        "update hotel_room_type_summary set room_count = room_count - ?1, "
+                                + "total_price = total_price - ?2 where hotel_id = ?3 and room_type_id = ?4")
+                .setParameter(1, roomTypeRooms.size())
+                .setParameter(2, roomTypeRooms.stream().mapToDouble(RoomFigures::getPrice).sum())
+                .setParameter(3, key.getHotelId())
+                .setParameter(4, key.getRoomTypeId())
+                .executeUpdate());
+        rooms.stream().collect(Collectors.groupingBy(
+                        room -> new HotelCapacitySummary.Key(room.getHotelId(), room.getMaxPeople()),
+                        Collectors.counting()))
+                .forEach((key, count) -> entityManager.createNativeQuery("update hotel_capacity_summary "
+                                + "set room_count = room_count - ?1 where hotel_id = ?2 and max_people = ?3")
+                        .setParameter(1, count)
+                        .setParameter(2, key.getHotelId())
+                        .setParameter(3, key.getMaxPeople())
+                        .executeUpdate());
+        Set<String> hotelIds = rooms.stream().map(RoomFigures::getHotelId).collect(Collectors.toSet());
+        for (String table : List.of("hotel_room_type_summary", "hotel_capacity_summary"))
+            entityManager.createNativeQuery("delete from " + table
+                            + " where hotel_id in (:hotelIds) and room_count <= 0")
+                    .setParameter("hotelIds", hotelIds)
+                    .executeUpdate();
+        roomsByRoomType.keySet().forEach(this::recomputePriceRange);
+    }
+
+    /**
+     * This method is used to reconcile all summaries with the rooms, shard by shard, on the instance holding the
+     * reconcile lease. Drifted hotels are found without locks and then recomputed one by one, each in its own
+     * transaction that starts by locking the hotel, so no concurrent room write is overwritten.
+     *
+     * @return corrected summary row count.
+     */
+    @Scheduled(initialDelayString = "${hilltop.summary.reconcile-interval:PT15M}",
+            fixedDelayString = "${hilltop.summary.reconcile-interval:PT15M}")
+    public int reconcile() {
+        if (!jobLeases.tryAcquire(RECONCILE_JOB, reconcileInterval))
+            return 0;
+        try {
+            int drift = 0;
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                int reconciledShard = shard;
+                Set<String> driftedHotelIds = shardRouter.executeOnShard(shard, false, this::findDriftedHotels);
+                for (String hotelId : driftedHotelIds)
+                    drift += shardRouter.executeOnShard(reconciledShard, false, () -> {
+                        lockHotels(List.of(hotelId));
+                        return recomputeHotels(List.of(hotelId));
+                    });
+            }
+            driftCounter.increment(drift);
+            if (drift > 0)
+                log.warn("Corrected {} drifted hotel summary rows.", drift);
+            return drift;
+        } catch (DataAccessException e) {
+            log.error("Failed to reconcile hotel summaries. ", e);
+            return 0;
+        }
+    }
+
+    /**
+     * This method is used to get the summary of a hotel.
+     *
+     * @param hotelId hotelId
+     * @return hotel summary.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public HotelSummaryResponseDto getHotelSummary(String hotelId) {
+        try {
+            shardRouter.routeById(hotelId);
+            List<HotelRoomTypeSummary> roomTypeSummaries = hotelRoomTypeSummaryRepository.findAllByHotelId(hotelId);
+            List<HotelCapacitySummary> capacitySummaries = hotelCapacitySummaryRepository.findAllByHotelId(hotelId);
+            if (capacitySummaries.isEmpty() && !hotelRepository.existsById(hotelId))
+                throw new DataNotFoundException("Hotel not found for id: " + hotelId);
+            return new HotelSummaryResponseDto(hotelId, roomTypeSummaries, capacitySummaries);
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get hotel summary from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to recompute the price range of a room type summary from the rooms. The prices are read
+     * with a locking read, so rooms committed after the snapshot of the transaction are included.
+     *
+     * @param key room type summary key
+     */
+    private void recomputePriceRange(HotelRoomTypeSummary.Key key) {
+        List<?> prices = entityManager.createNativeQuery("select price from room "
+                        + "where hotel_id = ?1 and room_type_id = ?2 for update")
+                .setParameter(1, key.getHotelId())
+                .setParameter(2, key.getRoomTypeId())
+                .getResultList();
+        if (prices.isEmpty())
+            return;
+        DoubleSummaryStatistics priceRange = prices.stream()
+                .mapToDouble(price -> ((Number) price).doubleValue())
+                .summaryStatistics();
+        entityManager.createNativeQuery("update hotel_room_type_summary set min_price = ?1, max_price = ?2 "
+                        + "where hotel_id = ?3 and room_type_id = ?4")
+                .setParameter(1, priceRange.getMin())
+                .setParameter(2, priceRange.getMax())
+                .setParameter(3, key.getHotelId())
+                .setParameter(4, key.getRoomTypeId())
+                .executeUpdate();
+    }
+
+    /**
+     * This method is used to find the hotels whose stored summaries differ from the rooms of the current shard.
+     *
+     * @return hotelIds.
+     */
+    private Set<String> findDriftedHotels() {
+        Set<String> hotelIds = findDrifted(hotelRoomTypeSummaryRepository.findAll(),
+                hotelRoomTypeSummaryRepository.aggregateAll(),
+                summary -> new HotelRoomTypeSummary.Key(summary.getHotelId(), summary.getRoomTypeId()),
+                HotelRoomTypeSummary::getHotelId, HotelSummaryService::sameRoomTypeSummary);
+        hotelIds.addAll(findDrifted(hotelCapacitySummaryRepository.findAll(),
+                hotelCapacitySummaryRepository.aggregateAll(),
+                summary -> new HotelCapacitySummary.Key(summary.getHotelId(), summary.getMaxPeople()),
+                HotelCapacitySummary::getHotelId, HotelSummaryService::sameCapacitySummary));
+        return hotelIds;
+    }
+
+    /**
+     * This method is used to recompute the summaries of the given hotels from their rooms. Runs in the
+     * transaction of the caller, which locked the hotels before its first read.
+     *
+     * @param hotelIds hotelIds
+     * @return changed summary row count.
+     */
+    private int recomputeHotels(Collection<String> hotelIds) {
+        return reconcileRoomTypeSummaries(hotelRoomTypeSummaryRepository.findAllByHotelIdIn(hotelIds),
+                hotelRoomTypeSummaryRepository.aggregateByHotelIdIn(hotelIds))
+                + reconcileCapacitySummaries(hotelCapacitySummaryRepository.findAllByHotelIdIn(hotelIds),
+                hotelCapacitySummaryRepository.aggregateByHotelIdIn(hotelIds));
+    }
+
+    /**
+     * This method is used to bring stored room type summaries in line with aggregated ones.
+     *
+     * @param stored     managed summaries
+     * @param aggregated summaries aggregated from the rooms
+     * @return changed row count.
+     */
+    private int reconcileRoomTypeSummaries(List<HotelRoomTypeSummary> stored, List<HotelRoomTypeSummary> aggregated) {
+        return reconcile(stored, aggregated, hotelRoomTypeSummaryRepository,
+                summary -> new HotelRoomTypeSummary.Key(summary.getHotelId(), summary.getRoomTypeId()),
+                HotelSummaryService::sameRoomTypeSummary,
+                (current, expected) -> {
+                    current.setRoomCount(expected.getRoomCount());
+                    current.setTotalPrice(expected.getTotalPrice());
+                    current.setMinPrice(expected.getMinPrice());
+                    current.setMaxPrice(expected.getMaxPrice());
+                });
+    }
+
+    /**
+     * This method is used to bring stored capacity summaries in line with aggregated ones.
+     *
+     * @param stored     managed summaries
+     * @param aggregated summaries aggregated from the rooms
+     * @return changed row count.
+     */
+    private int reconcileCapacitySummaries(List<HotelCapacitySummary> stored, List<HotelCapacitySummary> aggregated) {
+        return reconcile(stored, aggregated, hotelCapacitySummaryRepository,
+                summary -> new HotelCapacitySummary.Key(summary.getHotelId(), summary.getMaxPeople()),
+                HotelSummaryService::sameCapacitySummary,
+                (current, expected) -> current.setRoomCount(expected.getRoomCount()));
+    }
+
+    /**
+     * This method is used to compare two room type summaries.
+     *
+     * @param current  current summary
+     * @param expected expected summary
+     * @return true if both hold the same values.
+     */
+    private static boolean sameRoomTypeSummary(HotelRoomTypeSummary current, HotelRoomTypeSummary expected) {
+        return current.getRoomCount() == expected.getRoomCount()
+                && Math.abs(current.getTotalPrice() - expected.getTotalPrice()) < PRICE_TOLERANCE
+                && Math.abs(current.getMinPrice() - expected.getMinPrice()) < PRICE_TOLERANCE
+                && Math.abs(current.getMaxPrice() - expected.getMaxPrice()) < PRICE_TOLERANCE;
+    }
+
+    /**
+     * This method is used to compare two capacity summaries.
+     *
+     * @param current  current summary
+     * @param expected expected summary
+     * @return true if both hold the same values.
+     */
+    private static boolean sameCapacitySummary(HotelCapacitySummary current, HotelCapacitySummary expected) {
+        return current.getRoomCount() == expected.getRoomCount();
+    }
+
+    /**
+     * This method is used to find the hotels of summaries that are changed, missing or stale.
+     *
+     * @param stored     stored summaries
+     * @param aggregated summaries aggregated from the rooms
+     * @param key        summary key
+     * @param hotelId    hotel of a summary
+     * @param same       whether two summaries hold the same values
+     * @param <T>        summary type
+     * @param <K>        summary key type
+     * @return hotelIds.
+     */
+    private static <T, K> Set<String> findDrifted(List<T> stored, List<T> aggregated, Function<T, K> key,
+                                                  Function<T, String> hotelId, BiPredicate<T, T> same) {
+        Map<K, T> storedByKey = new HashMap<>();
+        for (T summary : stored)
+            storedByKey.put(key.apply(summary), summary);
+        Set<String> hotelIds = new HashSet<>();
+        for (T expected : aggregated) {
+            T current = storedByKey.remove(key.apply(expected));
+            if (current == null || !same.test(current, expected))
+                hotelIds.add(hotelId.apply(expected));
+        }
+        storedByKey.values().forEach(summary -> hotelIds.add(hotelId.apply(summary)));
+        return hotelIds;
+    }
+
+    /**
+     * This method is used to update changed summaries in place, insert missing ones and delete stale ones.
+     *
+     * @param stored     managed summaries
+     * @param aggregated summaries aggregated from the rooms
+     * @param repository summary repository
+     * @param key        summary key
+     * @param same       whether two summaries hold the same values
+     * @param copy       copies the values of the second summary into the first
+     * @param <T>        summary type
+     * @param <K>        summary key type
+     * @return changed row count.
+     */
+    private static <T, K> int reconcile(List<T> stored, List<T> aggregated, JpaRepository<T, K> repository,
+                                        Function<T, K> key, BiPredicate<T, T> same, BiConsumer<T, T> copy) {
+        Map<K, T> storedByKey = new HashMap<>();
+        for (T summary : stored)
+            storedByKey.put(key.apply(summary), summary);
+        int changed = 0;
+        for (T expected : aggregated) {
+            T current = storedByKey.remove(key.apply(expected));
+            if (current == null) {
+                repository.save(expected);
+                changed++;
+            } else if (!same.test(current, expected)) {
+                copy.accept(current, expected);
+                changed++;
+            }
+        }
+        if (!storedByKey.isEmpty())
+            repository.deleteAll(storedByKey.values());
+        changed += storedByKey.size();
+        if (changed > 0)
+            repository.flush();
+        return changed;
+    }
+}
@@ -1,18 +1,48 @@
 package com.hilltop.hotel.service;
 
+import com.hilltop.hotel.datasource.ShardIds;
+import com.hilltop.hotel.datasource.ShardRouter;
 import com.hilltop.hotel.domain.entity.Hotel;
 import com.hilltop.hotel.domain.entity.Room;
 import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.entity.RoomUpdate;
+import com.hilltop.hotel.domain.request.RoomPatchRequestDto;
 import com.hilltop.hotel.domain.request.RoomRequestDto;
 import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.domain.response.RoomUpdateStatusResponseDto;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import com.hilltop.hotel.event.HotelRoomsChangedEvent;
+import com.hilltop.hotel.event.RoomsDeletedEvent;
 import com.hilltop.hotel.exception.DataNotFoundException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.ShardRelocationException;
+import com.hilltop.hotel.exception.VersionConflictException;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.repository.RoomFigures;
+import com.hilltop.hotel.repository.RoomKey;
+import com.hilltop.hotel.repository.RoomPricing;
 import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomUpdateRepository;
+import com.hilltop.hotel.search.CatalogChangeLog;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Room service
@@ -21,14 +51,30 @@ import java.util.List;
 @Slf4j
 public class RoomService {
 
+    private static final int DELETE_CHUNK_SIZE = 500;
+    private static final int LOOKUP_CHUNK_SIZE = 100;
+    private static final String TRACKING_ID_PREFIX = "ruid-";
     private final RoomRepository roomRepository;
+    private final RoomUpdateRepository roomUpdateRepository;
     private final HotelService hotelService;
     private final RoomTypeService roomTypeService;
+    private final ShardRouter shardRouter;
+    private final HotelSummaryService hotelSummaryService;
+    private final CatalogChangeLog catalogChangeLog;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
-    public RoomService(RoomRepository roomRepository, HotelService hotelService, RoomTypeService roomTypeService) {
+    public RoomService(RoomRepository roomRepository, RoomUpdateRepository roomUpdateRepository,
+                       HotelService hotelService, RoomTypeService roomTypeService, ShardRouter shardRouter,
+                       HotelSummaryService hotelSummaryService, CatalogChangeLog catalogChangeLog,
+                       ApplicationEventPublisher applicationEventPublisher) {
         this.roomRepository = roomRepository;
+        this.roomUpdateRepository = roomUpdateRepository;
         this.hotelService = hotelService;
         this.roomTypeService = roomTypeService;
+        this.shardRouter = shardRouter;
+        this.hotelSummaryService = hotelSummaryService;
+        this.catalogChangeLog = catalogChangeLog;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -36,11 +82,20 @@ public class RoomService {
      *
      * @param roomRequestDto roomRequestDto
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
     public void addRoom(RoomRequestDto roomRequestDto) {
         try {
+            shardRouter.routeById(roomRequestDto.getHotelId());
+            hotelSummaryService.lockHotels(List.of(roomRequestDto.getHotelId()));
             Hotel hotel = hotelService.getHotelById(roomRequestDto.getHotelId());
             RoomType roomType = roomTypeService.getRoomTypeById(roomRequestDto.getRoomTypeId());
-            roomRepository.save(new Room(roomRequestDto, hotel, roomType));
+            Room room = new Room(roomRequestDto, hotel, roomType);
+            roomRepository.save(room);
+            roomRepository.flush();
+            hotelSummaryService.recordRoomAdded(RoomFigures.of(room));
+            catalogChangeLog.recordRoom(room.getId(), hotel.getId());
+            applicationEventPublisher.publishEvent(new HotelRoomsChangedEvent(List.of(hotel.getId()), null));
             log.debug("Successfully added room data.");
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to save room details on database.", e);
@@ -52,33 +107,432 @@ public class RoomService {
      *
      * @param updateRoomRequestDto updateRoomRequestDto
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
     public void updateRoom(UpdateRoomRequestDto updateRoomRequestDto) {
         try {
-            Room room = getRoomById(updateRoomRequestDto.getId());
+            if (!sameShard(updateRoomRequestDto.getHotelId(), updateRoomRequestDto.getId()))
+                throw new ShardRelocationException("Room " + updateRoomRequestDto.getId()
+                        + " can not move to hotel: " + updateRoomRequestDto.getHotelId());
+            Room room = findRoomById(updateRoomRequestDto.getId());
+            Set<String> hotelIds = new HashSet<>(List.of(room.getHotel().getId(), updateRoomRequestDto.getHotelId()));
+            hotelSummaryService.lockHotels(hotelIds);
+            RoomFigures previousFigures = RoomFigures.of(room);
             Hotel hotel = hotelService.getHotelById(updateRoomRequestDto.getHotelId());
             RoomType roomType = roomTypeService.getRoomTypeById(updateRoomRequestDto.getRoomTypeId());
             room.updateRoom(updateRoomRequestDto, hotel, roomType);
             roomRepository.save(room);
+            roomRepository.flush();
+            hotelSummaryService.recordRoomsRemoved(List.of(previousFigures));
+            hotelSummaryService.recordRoomAdded(RoomFigures.of(room));
+            for (String hotelId : hotelIds)
+                catalogChangeLog.recordRoom(room.getId(), hotelId);
+            applicationEventPublisher.publishEvent(new HotelRoomsChangedEvent(hotelIds, null));
             log.debug("Successfully updated room data.");
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to update room info in database.", e);
         }
     }
 
+    /**
+     * This method is used to validate a room update that is applied later and store it in the outbox of the room's
+     * shard, in one transaction. The update is durable once this method returns. The room is read in a read-write
+     * transaction, so the version the update is based on comes from the primary.
+     *
+     * @param updateRoomRequestDto updateRoomRequestDto
+     * @return status of the accepted update.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
+    public RoomUpdateStatusResponseDto acceptRoomUpdate(UpdateRoomRequestDto updateRoomRequestDto) {
+        try {
+            if (!sameShard(updateRoomRequestDto.getHotelId(), updateRoomRequestDto.getId()))
+                throw new ShardRelocationException("Room " + updateRoomRequestDto.getId()
+                        + " can not move to hotel: " + updateRoomRequestDto.getHotelId());
+            int shard = shardRouter.routeById(updateRoomRequestDto.getId());
+            RoomPricing roomPricing = roomRepository.findPricingById(updateRoomRequestDto.getId())
+                    .orElseThrow(() -> new DataNotFoundException("Room not found for roomId: "
+                            + updateRoomRequestDto.getId()));
+            hotelService.getHotelById(updateRoomRequestDto.getHotelId());
+            roomTypeService.getRoomTypeById(updateRoomRequestDto.getRoomTypeId());
+            RoomUpdate roomUpdate = roomUpdateRepository.save(new RoomUpdate(
+                    ShardIds.newId(TRACKING_ID_PREFIX, shard), updateRoomRequestDto, roomPricing.getVersion()));
+            return toRoomUpdateStatus(roomUpdate);
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to save room update on database.", e);
+        }
+    }
+
+    /**
+     * This method is used to get the status of an accepted room update from the outbox of its shard. It is read in
+     * a read-write transaction, so an update accepted just before is found.
+     *
+     * @param trackingId trackingId
+     * @return room update status.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
+    public RoomUpdateStatusResponseDto getRoomUpdateStatus(String trackingId) {
+        try {
+            shardRouter.routeById(trackingId);
+            return toRoomUpdateStatus(roomUpdateRepository.findByTrackingId(trackingId)
+                    .orElseThrow(() -> new DataNotFoundException("Room update not found for trackingId: "
+                            + trackingId)));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get room update from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to apply the oldest pending room updates of a shard in a single transaction, see
+     * {@link #applyRoomUpdates(List)}. The updates are locked, so no other instance applies them meanwhile.
+     *
+     * @param shard shard
+     * @param limit maximum update count
+     * @return finished room updates.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public List<RoomUpdate> applyRoomUpdates(int shard, int limit) {
+        try {
+            return shardRouter.executeOnShard(shard, false, () -> applyRoomUpdates(
+                    roomUpdateRepository.findAllByStatusOrderById(RoomUpdateStatus.PENDING, PageRequest.of(0, limit))));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to apply room updates in database.", e);
+        }
+    }
+
+    /**
+     * This method is used to apply one pending room update in its own transaction.
+     *
+     * @param trackingId trackingId
+     * @return finished room update, empty when it is not pending any more.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public List<RoomUpdate> applyRoomUpdate(String trackingId) {
+        try {
+            return shardRouter.executeOnShard(shardRouter.shardForId(trackingId), false, () -> applyRoomUpdates(
+                    roomUpdateRepository.findByTrackingIdAndStatus(trackingId, RoomUpdateStatus.PENDING).stream()
+                            .collect(Collectors.toList())));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to apply room update in database.", e);
+        }
+    }
+
+    /**
+     * This method is used to finish a pending room update that can not be applied as FAILED.
+     *
+     * @param trackingId trackingId
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public void failRoomUpdate(String trackingId) {
+        try {
+            shardRouter.executeOnShard(shardRouter.shardForId(trackingId), false, () -> {
+                roomUpdateRepository.findByTrackingIdAndStatus(trackingId, RoomUpdateStatus.PENDING)
+                        .ifPresent(roomUpdate -> roomUpdate.finish(RoomUpdateStatus.FAILED));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to finish room update in database.", e);
+        }
+    }
+
+    /**
+     * This method is used to get the trackingIds of the oldest pending room updates of a shard.
+     *
+     * @param shard shard
+     * @param limit maximum update count
+     * @return trackingIds in acceptance order.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public List<String> getPendingRoomUpdateIds(int shard, int limit) {
+        try {
+            return shardRouter.executeOnShard(shard, true, () -> roomUpdateRepository.findTrackingIdsByStatus(
+                    RoomUpdateStatus.PENDING, PageRequest.of(0, limit)));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get pending room updates from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to get the count of pending room updates of a shard.
+     *
+     * @param shard shard
+     * @return pending room update count.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public long getPendingRoomUpdateCount(int shard) {
+        try {
+            return shardRouter.executeOnShard(shard, true,
+                    () -> roomUpdateRepository.countByStatus(RoomUpdateStatus.PENDING));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to count pending room updates on database.", e);
+        }
+    }
+
+    /**
+     * This method is used to remove the room updates of a shard finished before a time.
+     *
+     * @param shard  shard
+     * @param before finished before
+     * @return removed room update count.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public int removeFinishedRoomUpdates(int shard, Instant before) {
+        try {
+            return shardRouter.executeOnShard(shard, false,
+                    () -> roomUpdateRepository.deleteAllFinishedBefore(before));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to remove finished room updates from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to apply locked pending room updates in the current shard transaction. Updates of a room
+     * are coalesced, the last accepted one wins. A room is only updated while it is still at the version its updates
+     * were validated against; its updates end as CONFLICT otherwise. The outcome is stored with the room update, and
+     * later pending updates of updated rooms are based on the new room versions.
+     *
+     * @param lockedRoomUpdates locked room updates in acceptance order
+     * @return finished room updates.
+     */
+    private List<RoomUpdate> applyRoomUpdates(List<RoomUpdate> lockedRoomUpdates) {
+        List<RoomUpdate> roomUpdates = lockedRoomUpdates.stream()
+                .filter(roomUpdate -> roomUpdate.getStatus() == RoomUpdateStatus.PENDING)
+                .collect(Collectors.toList());
+        if (roomUpdates.isEmpty())
+            return roomUpdates;
+        Map<String, UpdateRoomRequestDto> updatesByRoomId = new LinkedHashMap<>();
+        Map<String, Long> expectedVersions = new HashMap<>();
+        for (RoomUpdate roomUpdate : roomUpdates) {
+            updatesByRoomId.put(roomUpdate.getRoomId(), roomUpdate.toUpdateRoomRequestDto());
+            expectedVersions.merge(roomUpdate.getRoomId(), roomUpdate.getExpectedVersion(), Math::max);
+        }
+        Map<String, Long> newVersions = updateRooms(new ArrayList<>(updatesByRoomId.values()), expectedVersions);
+        for (RoomUpdate roomUpdate : roomUpdates)
+            roomUpdate.finish(newVersions.containsKey(roomUpdate.getRoomId()) ? RoomUpdateStatus.COMPLETED
+                    : RoomUpdateStatus.CONFLICT);
+        roomUpdateRepository.flush();
+        if (!newVersions.isEmpty())
+            roomUpdateRepository.rebasePendingUpdates(newVersions.keySet());
+        return roomUpdates;
+    }
+
+    /**
+     * This method is used to update rooms of one shard in the current transaction. A room is only updated while it
+     * is still at the expected version; other rooms are left out. Hotels and room types of the batch are loaded once.
+     *
+     * @param updateRoomRequestDtos updates of rooms on the same shard, validated with {@link #acceptRoomUpdate}
+     * @param expectedVersions      expected version by roomId
+     * @return new version by roomId of the updated rooms.
+     */
+    private Map<String, Long> updateRooms(List<UpdateRoomRequestDto> updateRoomRequestDtos,
+                                          Map<String, Long> expectedVersions) {
+        Map<String, Room> roomsById = roomRepository.findAllByIdIn(updateRoomRequestDtos.stream()
+                        .map(UpdateRoomRequestDto::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Room::getId, room -> room));
+        Map<String, Hotel> hotelsById = hotelService.getShardHotelsByIds(updateRoomRequestDtos.stream()
+                .map(UpdateRoomRequestDto::getHotelId).collect(Collectors.toSet()));
+        Map<String, RoomType> roomTypesById = roomTypeService.getRoomTypesByIds(updateRoomRequestDtos.stream()
+                .map(UpdateRoomRequestDto::getRoomTypeId).collect(Collectors.toSet()));
+        Set<String> lockedHotelIds = new HashSet<>();
+        for (UpdateRoomRequestDto updateRoomRequestDto : updateRoomRequestDtos) {
+            lockedHotelIds.add(updateRoomRequestDto.getHotelId());
+            Room room = roomsById.get(updateRoomRequestDto.getId());
+            if (room != null)
+                lockedHotelIds.add(room.getHotel().getId());
+        }
+        hotelSummaryService.lockHotels(lockedHotelIds);
+        Map<String, Set<String>> hotelIdsByRoomId = new HashMap<>();
+        List<RoomFigures> previousFigures = new ArrayList<>();
+        List<Room> updatedRooms = new ArrayList<>();
+        for (UpdateRoomRequestDto updateRoomRequestDto : updateRoomRequestDtos) {
+            Room room = roomsById.get(updateRoomRequestDto.getId());
+            if (room == null || !Objects.equals(expectedVersions.get(room.getId()), room.getVersion()))
+                continue;
+            String previousHotelId = room.getHotel().getId();
+            Hotel hotel = hotelsById.get(updateRoomRequestDto.getHotelId());
+            if (hotel == null)
+                throw new DataNotFoundException("Hotel not found for id: " + updateRoomRequestDto.getHotelId());
+            RoomType roomType = roomTypesById.get(updateRoomRequestDto.getRoomTypeId());
+            if (roomType == null)
+                throw new DataNotFoundException("Room type not found for id: " + updateRoomRequestDto.getRoomTypeId());
+            previousFigures.add(RoomFigures.of(room));
+            room.updateRoom(updateRoomRequestDto, hotel, roomType);
+            hotelIdsByRoomId.put(room.getId(), new HashSet<>(List.of(previousHotelId, hotel.getId())));
+            updatedRooms.add(room);
+        }
+        if (updatedRooms.isEmpty())
+            return Map.of();
+        roomRepository.saveAll(updatedRooms);
+        roomRepository.flush();
+        Set<String> hotelIds = hotelIdsByRoomId.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+        hotelSummaryService.recordRoomsRemoved(previousFigures);
+        updatedRooms.forEach(room -> hotelSummaryService.recordRoomAdded(RoomFigures.of(room)));
+        hotelIdsByRoomId.forEach((roomId, roomHotelIds) -> roomHotelIds
+                .forEach(hotelId -> catalogChangeLog.recordRoom(roomId, hotelId)));
+        applicationEventPublisher.publishEvent(new HotelRoomsChangedEvent(hotelIds, null));
+        log.debug("Successfully updated {} rooms.", updatedRooms.size());
+        return updatedRooms.stream().collect(Collectors.toMap(Room::getId, Room::getVersion));
+    }
+
+    /**
+     * This method is used to get the status of a room update.
+     *
+     * @param roomUpdate roomUpdate
+     * @return room update status.
+     */
+    private static RoomUpdateStatusResponseDto toRoomUpdateStatus(RoomUpdate roomUpdate) {
+        return new RoomUpdateStatusResponseDto(roomUpdate.getTrackingId(), roomUpdate.getRoomId(),
+                roomUpdate.getStatus());
+    }
+
+    /**
+     * This method is used to check whether a room stays on the shard of the hotel it is moved to.
+     *
+     * @param hotelId hotelId
+     * @param roomId  roomId
+     * @return true if the hotel and the room are on the same shard.
+     */
+    private boolean sameShard(String hotelId, String roomId) {
+        return shardRouter.shardForId(hotelId) == shardRouter.shardForId(roomId);
+    }
+
+    /**
+     * This method is used to update the given room fields with a single statement. The price is recomputed when
+     * the cost or the room type changes.
+     *
+     * @param id                  roomId
+     * @param roomPatchRequestDto roomPatchRequestDto
+     * @param expectedVersion     version the change is based on, null for the current version
+     * @return new version.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
+    public long patchRoom(String id, RoomPatchRequestDto roomPatchRequestDto, Long expectedVersion) {
+        try {
+            shardRouter.routeById(id);
+            RoomPricing roomPricing = roomRepository.findPricingById(id)
+                    .orElseThrow(() -> new DataNotFoundException("Room not found for roomId: " + id));
+            hotelSummaryService.lockHotels(List.of(roomPricing.getHotelId()));
+            long version = roomPricing.getVersion();
+            if (expectedVersion != null && expectedVersion != version)
+                throw new VersionConflictException("Room " + id + " is not at version " + version + ".");
+            double cost = roomPatchRequestDto.getCost() != null ? roomPatchRequestDto.getCost() : roomPricing.getCost();
+            int updatedCount;
+            RoomFigures figures;
+            if (roomPatchRequestDto.getRoomTypeId() != null) {
+                RoomType roomType = roomTypeService.getRoomTypeById(roomPatchRequestDto.getRoomTypeId());
+                double price = Room.calculateRoomPrice(cost, roomType.getMarkupPercentage());
+                updatedCount = roomRepository.patchRoomAndRoomType(id, roomPatchRequestDto.getRoomNo(),
+                        roomPatchRequestDto.getMaxPeople(), cost, price, roomType, version);
+                figures = getPatchedFigures(roomPricing, roomType.getId(), roomPatchRequestDto.getMaxPeople(), price);
+            } else {
+                double price = Room.calculateRoomPrice(cost, roomPricing.getMarkupPercentage());
+                updatedCount = roomRepository.patchRoom(id, roomPatchRequestDto.getRoomNo(),
+                        roomPatchRequestDto.getMaxPeople(), cost, price, version);
+                figures = getPatchedFigures(roomPricing, roomPricing.getRoomTypeId(),
+                        roomPatchRequestDto.getMaxPeople(), price);
+            }
+            if (updatedCount == 0)
+                throw new VersionConflictException("Room " + id + " is not at version " + version + ".");
+            catalogChangeLog.recordRoom(id, roomPricing.getHotelId());
+            if (roomPatchRequestDto.getCost() != null || roomPatchRequestDto.getRoomTypeId() != null
+                    || roomPatchRequestDto.getMaxPeople() != null) {
+                hotelSummaryService.recordRoomsRemoved(List.of(roomPricing));
+                hotelSummaryService.recordRoomAdded(figures);
+                applicationEventPublisher.publishEvent(new HotelRoomsChangedEvent(
+                        List.of(roomPricing.getHotelId()), null));
+            }
+            log.debug("Successfully patched room data.");
+            return version + 1;
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to update room info in database.", e);
+        }
+    }
+
     /**
      * This method is used to delete room detail.
      *
      * @param roomId roomId
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional
     public void deleteRoomById(String roomId) {
         try {
+            shardRouter.routeById(roomId);
+            Set<String> lockedHotelIds = new HashSet<>();
+            List<RoomKey> roomKeys = lockRooms(List.of(roomId), lockedHotelIds);
             roomRepository.deleteById(roomId);
-            log.debug("Successfully deleted room.");
+            roomRepository.flush();
+            hotelSummaryService.recordRoomsRemoved(roomKeys);
+            catalogChangeLog.recordRoomsDeleted(roomKeys);
+            publishRoomsDeleted(roomKeys, roomKeys.size());
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to delete room from database.", e);
         }
     }
 
+    /**
+     * This method is used to delete rooms by ids with chunked single statement deletes, one transaction per shard.
+     * The deleted rooms are taken out of the summaries of their hotels once per shard, in its transaction.
+     *
+     * @param roomIds roomIds
+     * @return deleted room count.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public int deleteRoomsByIds(List<String> roomIds) {
+        try {
+            Map<Integer, List<String>> roomIdsByShard = roomIds.stream().distinct()
+                    .collect(Collectors.groupingBy(shardRouter::shardForId));
+            List<RoomKey> deletedRooms = new ArrayList<>();
+            int deletedCount = 0;
+            for (Map.Entry<Integer, List<String>> shardRoomIds : roomIdsByShard.entrySet()) {
+                deletedCount += shardRouter.executeOnShard(shardRoomIds.getKey(), false, () -> {
+                    List<RoomKey> shardDeletedRooms = new ArrayList<>();
+                    Set<String> lockedHotelIds = new HashSet<>();
+                    int deleted = 0;
+                    for (List<String> chunk : Chunks.of(shardRoomIds.getValue(), DELETE_CHUNK_SIZE))
+                        deleted += deleteRooms(lockRooms(chunk, lockedHotelIds), shardDeletedRooms);
+                    hotelSummaryService.recordRoomsRemoved(shardDeletedRooms);
+                    deletedRooms.addAll(shardDeletedRooms);
+                    return deleted;
+                });
+            }
+            publishRoomsDeleted(deletedRooms, deletedCount);
+            return deletedCount;
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to delete rooms from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to delete rooms of a hotel with chunked single statement deletes.
+     *
+     * @param hotelId hotelId
+     * @param roomNo  optional roomNo filter, matches room numbers containing it
+     * @return deleted room count.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public int deleteRoomsByHotelId(String hotelId, String roomNo) {
+        try {
+            List<RoomKey> deletedRooms = new ArrayList<>();
+            int deletedCount = shardRouter.executeOnShard(shardRouter.shardForId(hotelId), false, () -> {
+                hotelSummaryService.lockHotels(List.of(hotelId));
+                List<RoomKey> roomKeys = roomNo == null ? roomRepository.findKeysByHotelId(hotelId)
+                        : roomRepository.findKeysByHotelIdAndRoomNoContaining(hotelId, roomNo);
+                int deleted = 0;
+                for (List<RoomKey> chunk : Chunks.of(roomKeys, DELETE_CHUNK_SIZE))
+                    deleted += deleteRooms(chunk, deletedRooms);
+                hotelSummaryService.recordRoomsRemoved(deletedRooms);
+                return deleted;
+            });
+            publishRoomsDeleted(deletedRooms, deletedCount);
+            return deletedCount;
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to delete rooms from database.", e);
+        }
+    }
+
     /**
      * This method is used to get room list by hotelId.
      *
@@ -86,8 +540,11 @@ public class RoomService {
      * @param searchTerm searchTerm
      * @return room list.
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public List<Room> getRoomListByHotelIdAndSearchTerm(String hotelId, String searchTerm) {
         try {
+            shardRouter.routeById(hotelId);
             if (searchTerm == null)
                 return roomRepository.findAllByHotelId(hotelId);
             return roomRepository.findAllByHotelIdAndRoomNoContaining(hotelId, searchTerm);
@@ -102,12 +559,139 @@ public class RoomService {
      * @param roomId roomId
      * @return room details.
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public Room getRoomById(String roomId) {
         try {
-            return roomRepository.findById(roomId)
-                    .orElseThrow(() -> new DataNotFoundException("Room not found for roomId: " + roomId));
+            return findRoomById(roomId);
         } catch (DataAccessException e) {
             throw new HillTopHotelApplicationException("Failed to get room info from database.", e);
         }
     }
+
+    /**
+     * This method is used to find a room by id on its shard. Service methods use it instead of getRoomById, so the
+     * lookup is not a self-invocation that bypasses the proxy of getRoomById.
+     *
+     * @param roomId roomId
+     * @return room.
+     */
+    private Room findRoomById(String roomId) {
+        shardRouter.routeById(roomId);
+        return roomRepository.findById(roomId)
+                .orElseThrow(() -> new DataNotFoundException("Room not found for roomId: " + roomId));
+    }
+
+    /**
+     * This method is used to get rooms by ids with chunked queries, one read-only transaction per shard.
+     *
+     * @param roomIds roomIds
+     * @return found rooms in the order of the ids.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    public List<Room> getRoomsByIds(List<String> roomIds) {
+        try {
+            List<String> distinctIds = roomIds.stream().distinct().collect(Collectors.toList());
+            Map<String, Room> roomsById = new HashMap<>();
+            Map<Integer, List<String>> roomIdsByShard = distinctIds.stream()
+                    .collect(Collectors.groupingBy(shardRouter::shardForId));
+            for (Map.Entry<Integer, List<String>> shardRoomIds : roomIdsByShard.entrySet())
+                shardRouter.executeOnShard(shardRoomIds.getKey(), true, () -> {
+                    for (List<String> chunk : Chunks.of(shardRoomIds.getValue(), LOOKUP_CHUNK_SIZE))
+                        roomRepository.findAllByIdIn(chunk).forEach(room -> roomsById.put(room.getId(), room));
+                    return null;
+                });
+            return distinctIds.stream().map(roomsById::get).filter(Objects::nonNull).collect(Collectors.toList());
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get rooms by ids from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to lock rooms for deletion together with their hotels. The hotels are locked first, found
+     * by a read without locks, so room deletes take their locks in the same order as other room writes. A room that
+     * moved to another hotel in between gets that hotel locked as well.
+     *
+     * @param roomIds        roomIds, at most one chunk
+     * @param lockedHotelIds hotels already locked by the transaction, collects the newly locked ones
+     * @return locked room keys.
+     */
+    private List<RoomKey> lockRooms(List<String> roomIds, Set<String> lockedHotelIds) {
+        lockNewHotels(roomRepository.findHotelIdsByIdIn(roomIds), lockedHotelIds);
+        List<RoomKey> roomKeys = roomRepository.findKeysByIdIn(roomIds);
+        lockNewHotels(getHotelIds(roomKeys), lockedHotelIds);
+        return roomKeys;
+    }
+
+    /**
+     * This method is used to lock the given hotels that the transaction has not locked yet.
+     *
+     * @param hotelIds       hotelIds
+     * @param lockedHotelIds hotels already locked by the transaction, collects the newly locked ones
+     */
+    private void lockNewHotels(Collection<String> hotelIds, Set<String> lockedHotelIds) {
+        Set<String> newHotelIds = new HashSet<>(hotelIds);
+        newHotelIds.removeAll(lockedHotelIds);
+        if (newHotelIds.isEmpty())
+            return;
+        hotelSummaryService.lockHotels(newHotelIds);
+        lockedHotelIds.addAll(newHotelIds);
+    }
+
+    /**
+     * This method is used to get the summary figures of a patched room. Fields not patched keep their value.
+     *
+     * @param roomPricing room before the patch
+     * @param roomTypeId  room type after the patch
+     * @param maxPeople   patched maxPeople, null when unchanged
+     * @param price       price after the patch
+     * @return room figures.
+     */
+    private static RoomFigures getPatchedFigures(RoomPricing roomPricing, String roomTypeId, Integer maxPeople,
+                                                 double price) {
+        return RoomFigures.of(roomPricing.getHotelId(), roomTypeId,
+                maxPeople != null ? maxPeople : roomPricing.getMaxPeople(), price);
+    }
+
+    /**
+     * This method is used to delete rooms with a single statement and append them to the catalog change log in the
+     * same transaction. The rooms are locked by the query that found them, so no one else deletes them in between
+     * and the rooms found are exactly the rooms deleted.
+     *
+     * @param roomKeys     locked rooms to delete, at most one chunk
+     * @param deletedRooms collects the deleted rooms
+     * @return deleted room count.
+     */
+    private int deleteRooms(List<RoomKey> roomKeys, List<RoomKey> deletedRooms) {
+        if (roomKeys.isEmpty())
+            return 0;
+        int deleted = roomRepository.deleteAllByIdIn(roomKeys.stream().map(RoomKey::getId)
+                .collect(Collectors.toList()));
+        catalogChangeLog.recordRoomsDeleted(roomKeys);
+        deletedRooms.addAll(roomKeys);
+        return deleted;
+    }
+
+    /**
+     * This method is used to get the distinct hotels of rooms.
+     *
+     * @param roomKeys roomKeys
+     * @return hotelIds.
+     */
+    private static Set<String> getHotelIds(List<RoomKey> roomKeys) {
+        return roomKeys.stream().map(RoomKey::getHotelId).collect(Collectors.toSet());
+    }
+
+    /**
+     * This method is used to publish one event for all deleted rooms.
+     *
+     * @param deletedRooms deletedRooms
+     * @param deletedCount deleted room count
+     */
+    private void publishRoomsDeleted(List<RoomKey> deletedRooms, int deletedCount) {
+        if (!deletedRooms.isEmpty())
+            applicationEventPublisher.publishEvent(new RoomsDeletedEvent(deletedRooms.stream()
+                    .collect(Collectors.toMap(RoomKey::getId, RoomKey::getHotelId, (first, second) -> first))));
+        log.debug("Successfully deleted {} rooms.", deletedCount);
+    }
 }
@@ -1,13 +1,24 @@
 package com.hilltop.hotel.service;
 
+import com.hilltop.hotel.datasource.ShardRouter;
 import com.hilltop.hotel.domain.entity.RoomType;
 import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
 import com.hilltop.hotel.exception.DataNotFoundException;
+import com.hilltop.hotel.exception.DeadlineExceededException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.metrics.MetricName;
 import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.search.CatalogChangeLog;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Room type service
@@ -17,24 +28,44 @@ import org.springframework.stereotype.Service;
 public class RoomTypeService {
 
     private final RoomTypeRepository roomTypeRepository;
+    private final ShardRouter shardRouter;
+    private final CatalogChangeLog catalogChangeLog;
 
-    public RoomTypeService(RoomTypeRepository roomTypeRepository) {
+    public RoomTypeService(RoomTypeRepository roomTypeRepository, ShardRouter shardRouter,
+                           CatalogChangeLog catalogChangeLog) {
         this.roomTypeRepository = roomTypeRepository;
+        this.shardRouter = shardRouter;
+        this.catalogChangeLog = catalogChangeLog;
     }
 
     /**
-     * This method is used to add room type.
+     * This method is used to add room type. Room types are copied to every shard and logged in the change log of
+     * every shard. Each shard commits on its own, so when a shard fails the copies already committed are removed
+     * again and nothing of the room type is left behind. Room types stored before sharding are copied to the other
+     * shards at startup by {@link com.hilltop.hotel.datasource.RoomTypeShardBackfill}.
      *
      * @param roomTypeRequestDto roomTypeRequestDto
      * @return roomType.
      */
+    @Timed(MetricName.SERVICE_TIMER)
     public RoomType addRoomType(RoomTypeRequestDto roomTypeRequestDto) {
+        RoomType roomType = new RoomType(roomTypeRequestDto);
+        int shard = 0;
         try {
-            RoomType roomType = new RoomType(roomTypeRequestDto);
-            roomTypeRepository.save(roomType);
+            for (; shard < shardRouter.getShardCount(); shard++)
+                shardRouter.executeOnShard(shard, false, () -> {
+                    roomTypeRepository.save(roomType);
+                    roomTypeRepository.flush();
+                    catalogChangeLog.recordRoomType(roomType.getId());
+                    return roomType;
+                });
             log.debug("Successfully added room type.");
             return roomType;
-        } catch (DataAccessException e) {
+        } catch (HillTopHotelApplicationException | DeadlineExceededException e) {
+            removeRoomType(roomType.getId(), shard);
+            throw e;
+        } catch (RuntimeException e) {
+            removeRoomType(roomType.getId(), shard);
             throw new HillTopHotelApplicationException("Failed to save room type on database.", e);
         }
     }
@@ -45,6 +76,8 @@ public class RoomTypeService {
      * @param id roomTypeId
      * @return roomType.
      */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public RoomType getRoomTypeById(String id) {
         try {
             return roomTypeRepository.findById(id)
@@ -53,4 +86,42 @@ public class RoomTypeService {
             throw new HillTopHotelApplicationException("Failed to get room type from database.", e);
         }
     }
+
+    /**
+     * This method is used to get room types by ids from the current shard, every shard holds all room types.
+     *
+     * @param ids roomTypeIds
+     * @return found room types by id.
+     */
+    @Timed(MetricName.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Map<String, RoomType> getRoomTypesByIds(Collection<String> ids) {
+        try {
+            return roomTypeRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(RoomType::getId, Function.identity()));
+        } catch (DataAccessException e) {
+            throw new HillTopHotelApplicationException("Failed to get room types from database.", e);
+        }
+    }
+
+    /**
+     * This method is used to remove a room type from the shards it was already copied to. The removal is logged
+     * in the change log of those shards, so readers of the change feed drop the room type again.
+     *
+     * @param id          roomTypeId
+     * @param shardsAdded number of shards the room type was committed to
+     */
+    private void removeRoomType(String id, int shardsAdded) {
+        for (int shard = 0; shard < shardsAdded; shard++) {
+            try {
+                shardRouter.executeOnShard(shard, false, () -> {
+                    roomTypeRepository.deleteById(id);
+                    catalogChangeLog.recordRoomType(id);
+                    return id;
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to remove room type: {} from shard: {}.", id, shard, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.hilltop.hotel.service;
+
+import com.hilltop.hotel.deadline.RequestDeadline;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single flight
+ * Coalesces concurrent calls with the same key into one computation. The first caller computes on its own thread
+ * and every caller arriving meanwhile receives its result or its exception; the key is released when the
+ * computation ends, so results are never reused afterwards. A waiting caller gives up after the max wait and
+ * computes on its own, so a slow computation does not hold waiters longer than a caller of their own would take.
+ * A waiting caller waits no longer than its request deadline. Interrupting a waiting caller only ends its wait.
+ * When the computing caller is interrupted or runs out of its deadline, the waiters do not inherit that and one of
+ * them computes again.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Counter executedCounter;
+    private final Counter sharedCounter;
+    private final Counter timedOutCounter;
+
+    SingleFlight(Duration maxWait, MeterRegistry meterRegistry, String metricName) {
+        this.maxWait = maxWait;
+        this.executedCounter = meterRegistry.counter(metricName, "outcome", "executed");
+        this.sharedCounter = meterRegistry.counter(metricName, "outcome", "shared");
+        this.timedOutCounter = meterRegistry.counter(metricName, "outcome", "timed_out");
+    }
+
+    /**
+     * This method is used to get the result for a key, computed by this call or shared with a running call.
+     *
+     * @param key      key
+     * @param supplier computation
+     * @return result.
+     */
+    V execute(K key, Supplier<V> supplier) {
+        while (true) {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+            if (running == null)
+                return compute(key, flight, supplier);
+            try {
+                V result = running.get(Math.min(maxWait.toNanos(), RequestDeadline.getRemainingNanos()),
+                        TimeUnit.NANOSECONDS);
+                sharedCounter.increment();
+                return result;
+            } catch (CancellationException e) {
+                // the computing caller was interrupted, take over
+            } catch (ExecutionException e) {
+                sharedCounter.increment();
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw (Error) e.getCause();
+            } catch (TimeoutException e) {
+                timedOutCounter.increment();
+                RequestDeadline.check();
+                return supplier.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HillTopHotelApplicationException("Interrupted while waiting for a shared computation.", e);
+            }
+        }
+    }
+
+    /**
+     * This method is used to run the computation and hand its outcome to the waiting callers. The key is released
+     * before the outcome is handed over, so a caller arriving afterwards starts a new computation.
+     *
+     * @param key      key
+     * @param flight   flight of the waiting callers
+     * @param supplier computation
+     * @return result.
+     */
+    private V compute(K key, CompletableFuture<V> flight, Supplier<V> supplier) {
+        executedCounter.increment();
+        V result;
+        try {
+            result = supplier.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            if (Thread.currentThread().isInterrupted() || RequestDeadline.isExpired())
+                flight.cancel(false);
+            else
+                flight.completeExceptionally(e);
+            throw e;
+        }
+        flights.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hilltop.hotel.startup;
+
+import lombok.Getter;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Startup report
+ * Breaks the recorded startup timeline down by phase (step name) and by bean instantiation. Phases report the self
+ * time of their steps, without the time of nested steps, so phase totals do not count a nested step twice.
+ */
+@Getter
+public class StartupReport {
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+    private static final String BEAN_NAME_TAG = "beanName";
+    private final long timeToReadyMillis;
+    private final long jvmUptimeMillis;
+    private final Map<String, Long> phaseMillis;
+    private final Map<String, Long> slowestBeanMillis;
+
+    public StartupReport(StartupTimeline startupTimeline, long timeToReadyMillis, long jvmUptimeMillis,
+                         int beanLimit) {
+        this.timeToReadyMillis = timeToReadyMillis;
+        this.jvmUptimeMillis = jvmUptimeMillis;
+        List<StartupTimeline.TimelineEvent> events = startupTimeline.getEvents();
+        Map<Long, Duration> childDurations = events.stream()
+                .filter(event -> event.getStartupStep().getParentId() != null)
+                .collect(Collectors.groupingBy(event -> event.getStartupStep().getParentId(),
+                        Collectors.reducing(Duration.ZERO, StartupTimeline.TimelineEvent::getDuration,
+                                Duration::plus)));
+        this.phaseMillis = events.stream()
+                .filter(event -> !BEAN_INSTANTIATE_STEP.equals(event.getStartupStep().getName()))
+                .collect(Collectors.groupingBy(event -> event.getStartupStep().getName(),
+                        Collectors.reducing(Duration.ZERO, event -> getSelfDuration(event, childDurations),
+                                Duration::plus)))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toMillis(), (a, b) -> a,
+                        LinkedHashMap::new));
+        this.slowestBeanMillis = events.stream()
+                .filter(event -> BEAN_INSTANTIATE_STEP.equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(beanLimit)
+                .collect(Collectors.toMap(event -> getBeanName(event.getStartupStep()),
+                        event -> event.getDuration().toMillis(), Long::sum, LinkedHashMap::new));
+    }
+
+    /**
+     * This method is used to format the report for the log.
+     *
+     * @return report text.
+     */
+    public String toLogString() {
+        StringBuilder stringBuilder = new StringBuilder()
+                .append("Startup report. time to ready: ").append(timeToReadyMillis).append(" ms, jvm uptime: ")
+                .append(jvmUptimeMillis).append(" ms");
+        stringBuilder.append("\n  Phases:");
+        phaseMillis.forEach((phase, millis) -> stringBuilder.append("\n    ").append(phase).append(": ")
+                .append(millis).append(" ms"));
+        stringBuilder.append("\n  Slowest beans (including dependencies):");
+        slowestBeanMillis.forEach((bean, millis) -> stringBuilder.append("\n    ").append(bean).append(": ")
+                .append(millis).append(" ms"));
+        return stringBuilder.toString();
+    }
+
+    /**
+     * This method is used to get the duration of a step without the duration of its nested steps.
+     *
+     * @param event          event
+     * @param childDurations total duration of the nested steps by parent step id
+     * @return self duration.
+     */
+    private static Duration getSelfDuration(StartupTimeline.TimelineEvent event, Map<Long, Duration> childDurations) {
+        Duration selfDuration = event.getDuration()
+                .minus(childDurations.getOrDefault(event.getStartupStep().getId(), Duration.ZERO));
+        return selfDuration.isNegative() ? Duration.ZERO : selfDuration;
+    }
+
+    private static String getBeanName(StartupStep startupStep) {
+        for (StartupStep.Tag tag : startupStep.getTags()) {
+            if (BEAN_NAME_TAG.equals(tag.getKey()))
+                return tag.getValue();
+        }
+        return "unknown";
+    }
+}
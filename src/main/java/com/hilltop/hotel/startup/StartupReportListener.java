@@ -0,0 +1,57 @@
+package com.hilltop.hotel.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Startup report listener
+ * Logs a {@link StartupReport} once the application is ready. With {@code hilltop.startup.exit-on-ready=true}
+ * the application exits right after, which is used by the class data sharing training run.
+ */
+@Slf4j
+public class StartupReportListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String REPORT_FILE_PROPERTY = "hilltop.startup.report-file";
+    private static final String BEAN_LIMIT_PROPERTY = "hilltop.startup.report-bean-limit";
+    private static final String EXIT_ON_READY_PROPERTY = "hilltop.startup.exit-on-ready";
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        Environment environment = context.getEnvironment();
+        if (context.getApplicationStartup() instanceof BufferingApplicationStartup) {
+            BufferingApplicationStartup applicationStartup =
+                    (BufferingApplicationStartup) context.getApplicationStartup();
+            StartupReport startupReport = new StartupReport(applicationStartup.getBufferedTimeline(),
+                    event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(),
+                    ManagementFactory.getRuntimeMXBean().getUptime(),
+                    environment.getProperty(BEAN_LIMIT_PROPERTY, Integer.class, 20));
+            log.info(startupReport.toLogString());
+            writeReport(startupReport, environment.getProperty(REPORT_FILE_PROPERTY));
+        }
+        if (environment.getProperty(EXIT_ON_READY_PROPERTY, Boolean.class, false))
+            System.exit(SpringApplication.exit(context));
+    }
+
+    private void writeReport(StartupReport startupReport, String reportFile) {
+        if (reportFile == null)
+            return;
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(reportFile),
+                    startupReport);
+        } catch (IOException e) {
+            log.warn("Failed to write startup report to {}.", reportFile, e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.hilltop.hotel.startup;
+
+import com.hilltop.hotel.configuration.WarmUpProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.LocationHotelCount;
+import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.RoomService;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Warm-up runner
+ * The instance registers in Eureka as STARTING ({@code eureka.instance.initial-status}). Once the application is
+ * ready, a background thread opens the connection pools of every shard, then repeatedly searches the configured
+ * or most hotel dense locations and reads hotels and rooms of the results through the real services, so the search
+ * path is compiled and the room catalog holds those locations. The instance is marked UP when the workload is done
+ * or {@code hilltop.warm-up.budget} has passed, whichever comes first.
+ */
+@Component
+@Slf4j
+public class WarmUpRunner {
+
+    private static final long CONNECTION_HOLD_MILLIS = 1000;
+    private static final int MAX_PAX_COUNT = 4;
+    private final WarmUpProperties warmUpProperties;
+    private final HotelService hotelService;
+    private final RoomService roomService;
+    private final HotelRepository hotelRepository;
+    private final ShardRouter shardRouter;
+    private final EntityManager entityManager;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    public WarmUpRunner(WarmUpProperties warmUpProperties, HotelService hotelService, RoomService roomService,
+                        HotelRepository hotelRepository, ShardRouter shardRouter, EntityManager entityManager,
+                        ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+        this.warmUpProperties = warmUpProperties;
+        this.hotelService = hotelService;
+        this.roomService = roomService;
+        this.hotelRepository = hotelRepository;
+        this.shardRouter = shardRouter;
+        this.entityManager = entityManager;
+        this.applicationInfoManager = applicationInfoManager;
+    }
+
+    /**
+     * This method is used to start the warm-up in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!warmUpProperties.isEnabled()) {
+            markUp();
+            return;
+        }
+        Thread thread = new Thread(this::warmUpAndMarkUp, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * This method is used to run the warm-up and mark the instance UP afterwards, also when the warm-up failed.
+     */
+    public void warmUpAndMarkUp() {
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.warn("Warm-up failed, marking the instance UP without it. ", e);
+        } finally {
+            markUp();
+        }
+    }
+
+    /**
+     * This method is used to fill the connection pools and run the synthetic workload within the time budget.
+     *
+     * @return completed iteration count.
+     */
+    public int warmUp() {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + warmUpProperties.getBudget().toNanos();
+        fillConnectionPools(deadline);
+        List<String> locations = getLocations();
+        List<String> hotelIds = new ArrayList<>();
+        int iteration = 0;
+        while (iteration < warmUpProperties.getIterations() && System.nanoTime() < deadline) {
+            int paxCount = iteration % MAX_PAX_COUNT + 1;
+            for (String location : locations) {
+                List<Hotel> hotels = new ArrayList<>(hotelService.getHotelsByLocationAndPaxCount(location, paxCount)
+                        .keySet());
+                if (iteration == 0 && !hotels.isEmpty())
+                    hotelIds.add(hotels.get(0).getId());
+            }
+            if (!hotelIds.isEmpty()) {
+                String hotelId = hotelIds.get(iteration % hotelIds.size());
+                hotelService.getHotelById(hotelId);
+                roomService.getRoomListByHotelIdAndSearchTerm(hotelId, null);
+            }
+            iteration++;
+        }
+        log.info("Warmed up {} locations with {} iterations in {} ms.", locations.size(), iteration,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return iteration;
+    }
+
+    /**
+     * This method is used to get the locations to warm up, the configured ones or else those with the most hotels.
+     *
+     * @return location names.
+     */
+    public List<String> getLocations() {
+        if (!warmUpProperties.getLocations().isEmpty())
+            return warmUpProperties.getLocations();
+        int limit = warmUpProperties.getLocationLimit();
+        List<LocationHotelCount> locationHotelCounts = new ArrayList<>();
+        shardRouter.executeOnAllShards(true, () -> hotelRepository.findLocationHotelCounts(PageRequest.of(0, limit)))
+                .forEach(locationHotelCounts::addAll);
+        return locationHotelCounts.stream()
+                .sorted(Comparator.comparingLong(LocationHotelCount::getHotelCount).reversed())
+                .limit(limit)
+                .map(LocationHotelCount::getLocation)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method is used to open connections of every shard, for writes and for read-only transactions, by
+     * holding them at the same time.
+     *
+     * @param deadline deadline in nanos
+     */
+    private void fillConnectionPools(long deadline) {
+        int connections = warmUpProperties.getConnections();
+        if (connections <= 0)
+            return;
+        ExecutorService executorService = Executors.newFixedThreadPool(connections);
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                fillConnectionPool(executorService, shard, false, deadline);
+                fillConnectionPool(executorService, shard, true, deadline);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void fillConnectionPool(ExecutorService executorService, int shard, boolean readOnly, long deadline) {
+        int connections = warmUpProperties.getConnections();
+        CountDownLatch acquired = new CountDownLatch(connections);
+        List<Future<Object>> futures = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++)
+            futures.add(executorService.submit(() -> shardRouter.executeOnShard(shard, readOnly, () -> {
+                entityManager.createNativeQuery("select 1").getSingleResult();
+                acquired.countDown();
+                awaitQuietly(acquired);
+                return null;
+            })));
+        for (Future<Object> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Failed to open a connection of shard {} during warm-up. ", shard, e);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(CONNECTION_HOLD_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void markUp() {
+        applicationInfoManager.ifAvailable(manager -> {
+            manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+            log.info("Marked the instance UP in Eureka.");
+        });
+    }
+}
@@ -0,0 +1,368 @@
+package com.hilltop.hotel.writebehind;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.RoomUpdate;
+import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.domain.response.RoomUpdateStatusResponseDto;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.WriteBehindRejectedException;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.service.RoomService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Room write behind queue
+ * Accepts room updates into the outbox of the room's shard, so an update is durable before it is acknowledged, and
+ * applies them in the background, in group commits of up to {@code hilltop.write-behind.batch-size} updates per shard
+ * transaction. The outbox is drained once a batch of local updates is full, the oldest one has waited
+ * {@code hilltop.write-behind.max-delay}, or every {@code hilltop.write-behind.poll-interval}, so updates accepted by
+ * an instance that stopped are applied by any other. Updates of a room are coalesced within a batch, the last one
+ * wins. An update is only applied while the room is still at the version it was validated against, so it never
+ * overwrites a change made after it was accepted; it ends as CONFLICT instead. Its status is stored with it and turns
+ * COMPLETED in the transaction that applies it. At most {@code hilltop.write-behind.max-pending} updates wait per
+ * shard, further ones are rejected. The bound is checked against a per shard count kept in memory: an accept reserves
+ * a slot before its insert, so concurrent accepts of an instance can not overshoot, and every drain replaces the count
+ * with the pending rows of the shard, which includes the updates accepted by other instances. Finished updates are
+ * kept for {@code hilltop.write-behind.status-retention}.
+ */
+@Component
+@Slf4j
+public class RoomWriteBehindQueue implements SmartLifecycle {
+
+    /**
+     * Stops after the web server (Integer.MAX_VALUE - 1), so no update is accepted while the queue drains.
+     */
+    private static final int PHASE = Integer.MAX_VALUE - 2;
+    private static final String OUTCOME = "outcome";
+    private final RoomService roomService;
+    private final ShardRouter shardRouter;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxPending;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration pollInterval;
+    private final Duration statusRetention;
+    private final Duration shutdownTimeout;
+    private final Object lock = new Object();
+    private int localPendingCount;
+    private long firstPendingAt;
+    private long[] shardPendingCounts = new long[0];
+    private long[] shardAcceptedCounts = new long[0];
+    private int[] shardAcceptingCounts = new int[0];
+    private volatile long pendingCount;
+    private boolean running;
+    private Thread flusher;
+
+    public RoomWriteBehindQueue(RoomService roomService, ShardRouter shardRouter, MeterRegistry meterRegistry,
+                                @Value("${hilltop.write-behind.enabled:true}") boolean enabled,
+                                @Value("${hilltop.write-behind.max-pending:10000}") int maxPending,
+                                @Value("${hilltop.write-behind.batch-size:100}") int batchSize,
+                                @Value("${hilltop.write-behind.max-delay:PT0.1S}") Duration maxDelay,
+                                @Value("${hilltop.write-behind.poll-interval:PT5S}") Duration pollInterval,
+                                @Value("${hilltop.write-behind.status-retention:PT24H}") Duration statusRetention,
+                                @Value("${hilltop.write-behind.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.roomService = roomService;
+        this.shardRouter = shardRouter;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.pollInterval = pollInterval;
+        this.statusRetention = statusRetention;
+        this.shutdownTimeout = shutdownTimeout;
+        Gauge.builder(MetricName.WRITE_BEHIND_PENDING, this, RoomWriteBehindQueue::getPendingCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * This method is used to validate a room update and store it in the outbox for a later group commit.
+     *
+     * @param updateRoomRequestDto updateRoomRequestDto
+     * @return status of the accepted update.
+     */
+    public RoomUpdateStatusResponseDto accept(UpdateRoomRequestDto updateRoomRequestDto) {
+        int shard = shardRouter.shardForId(updateRoomRequestDto.getId());
+        synchronized (lock) {
+            if (!running)
+                throw new WriteBehindRejectedException("Room updates are not accepted while the queue is stopped.");
+            long pending = shardPendingCounts[shard] + shardAcceptingCounts[shard];
+            if (pending >= maxPending) {
+                meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, OUTCOME, "rejected").increment();
+                throw new WriteBehindRejectedException("Room update queue of shard " + shard + " is full with "
+                        + pending + " pending updates.");
+            }
+            shardAcceptingCounts[shard]++;
+        }
+        RoomUpdateStatusResponseDto status = null;
+        try {
+            status = roomService.acceptRoomUpdate(updateRoomRequestDto);
+        } finally {
+            synchronized (lock) {
+                shardAcceptingCounts[shard]--;
+                if (status != null) {
+                    shardPendingCounts[shard]++;
+                    shardAcceptedCounts[shard]++;
+                    if (localPendingCount++ == 0)
+                        firstPendingAt = System.nanoTime();
+                    if (localPendingCount == 1 || localPendingCount >= batchSize)
+                        lock.notifyAll();
+                }
+            }
+        }
+        meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, OUTCOME, "accepted").increment();
+        return status;
+    }
+
+    /**
+     * This method is used to get the status of an accepted room update, wherever it was accepted.
+     *
+     * @param trackingId trackingId
+     * @return room update status.
+     */
+    public RoomUpdateStatusResponseDto getStatus(String trackingId) {
+        return roomService.getRoomUpdateStatus(trackingId);
+    }
+
+    /**
+     * This method is used to get the count of pending updates on all shards as of the last drain.
+     *
+     * @return pending update count.
+     */
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method is used to count the pending updates of every shard and start the flusher when write-behind
+     * updates are enabled.
+     */
+    @Override
+    public void start() {
+        if (!enabled)
+            return;
+        int shardCount = shardRouter.getShardCount();
+        synchronized (lock) {
+            shardPendingCounts = new long[shardCount];
+            shardAcceptedCounts = new long[shardCount];
+            shardAcceptingCounts = new int[shardCount];
+        }
+        long pending = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            try {
+                pending += countPending(shard);
+            } catch (RuntimeException e) {
+                log.warn("Failed to count pending room updates of shard {}, counting them at the next drain. ",
+                        shard, e);
+            }
+        }
+        pendingCount = pending;
+        synchronized (lock) {
+            running = true;
+            flusher = new Thread(this::flushPending, "room-write-behind");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+        log.info("Started the room write-behind queue with batch size {} and max delay {}.", batchSize, maxDelay);
+    }
+
+    /**
+     * This method is used to stop accepting updates and wait up to the shutdown timeout until the outbox is drained.
+     * Updates left pending stay in the outbox and are applied by the next instance that drains it.
+     */
+    @Override
+    public void stop() {
+        Thread stoppedFlusher;
+        synchronized (lock) {
+            if (!running)
+                return;
+            running = false;
+            stoppedFlusher = flusher;
+            flusher = null;
+            lock.notifyAll();
+        }
+        try {
+            stoppedFlusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (stoppedFlusher.isAlive()) {
+            log.warn("Room write-behind queue did not drain within {}, pending updates are applied later.",
+                    shutdownTimeout);
+            stoppedFlusher.interrupt();
+            return;
+        }
+        log.info("Stopped the room write-behind queue.");
+    }
+
+    @Override
+    public boolean isRunning() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * This method is used to drain the outbox whenever it is due until the queue is stopped, then once more.
+     */
+    private void flushPending() {
+        long lastRemovedAt = System.nanoTime();
+        try {
+            boolean stopping = false;
+            while (!stopping) {
+                stopping = !awaitFlush();
+                drain();
+                if (System.nanoTime() - lastRemovedAt >= pollInterval.toNanos()) {
+                    removeFinished();
+                    lastRemovedAt = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method is used to wait until the outbox is due to be drained, which is once the local updates fill a
+     * batch, the oldest of them has waited the max delay, the poll interval has passed or the queue is stopping.
+     *
+     * @return false once the queue is stopping.
+     */
+    private boolean awaitFlush() throws InterruptedException {
+        synchronized (lock) {
+            long pollAt = System.nanoTime() + pollInterval.toNanos();
+            long waitNanos;
+            while (running && localPendingCount < batchSize && (waitNanos = (localPendingCount == 0 ? pollAt
+                    : Math.min(pollAt, firstPendingAt + maxDelay.toNanos())) - System.nanoTime()) > 0)
+                TimeUnit.NANOSECONDS.timedWait(lock, waitNanos);
+            localPendingCount = 0;
+            return running;
+        }
+    }
+
+    /**
+     * This method is used to apply the pending updates of every shard, batch by batch, until a batch is not full.
+     * A shard that can not be reached is left for the next drain.
+     */
+    private void drain() {
+        long pending = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            try {
+                while (apply(shard) >= batchSize) {
+                    if (Thread.currentThread().isInterrupted())
+                        return;
+                }
+                pending += countPending(shard);
+            } catch (RuntimeException e) {
+                log.error("Failed to apply pending room updates of shard {}. ", shard, e);
+            }
+        }
+        pendingCount = pending;
+    }
+
+    /**
+     * This method is used to replace the in-memory pending count of a shard with its pending rows. Updates accepted
+     * locally while the rows are counted are added again, so they are never missed, at worst counted twice until the
+     * next drain.
+     *
+     * @param shard shard
+     * @return pending rows of the shard.
+     */
+    private long countPending(int shard) {
+        long acceptedBefore;
+        synchronized (lock) {
+            acceptedBefore = shardAcceptedCounts[shard];
+        }
+        long pending = roomService.getPendingRoomUpdateCount(shard);
+        synchronized (lock) {
+            shardPendingCounts[shard] = pending + shardAcceptedCounts[shard] - acceptedBefore;
+        }
+        return pending;
+    }
+
+    /**
+     * This method is used to apply the next batch of a shard in one transaction. When the group commit fails, the
+     * updates are applied one by one, so only the failing ones end as FAILED.
+     *
+     * @param shard shard
+     * @return finished update count.
+     */
+    private int apply(int shard) {
+        try {
+            return record(roomService.applyRoomUpdates(shard, batchSize));
+        } catch (HillTopHotelApplicationException e) {
+            log.warn("Group commit of room updates on shard {} failed, applying them one by one. ", shard, e);
+        }
+        int finished = 0;
+        for (String trackingId : roomService.getPendingRoomUpdateIds(shard, batchSize)) {
+            try {
+                finished += record(roomService.applyRoomUpdate(trackingId));
+            } catch (HillTopHotelApplicationException e) {
+                log.error("Failed to apply room update {}. ", trackingId, e);
+                roomService.failRoomUpdate(trackingId);
+                meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, OUTCOME, "failed").increment();
+                finished++;
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * This method is used to record the outcomes of a committed batch.
+     *
+     * @param roomUpdates finished room updates
+     * @return finished update count.
+     */
+    private int record(List<RoomUpdate> roomUpdates) {
+        if (roomUpdates.isEmpty())
+            return 0;
+        meterRegistry.summary(MetricName.WRITE_BEHIND_BATCH_SIZE).record(roomUpdates.size());
+        long coalesced = roomUpdates.size() - roomUpdates.stream().map(RoomUpdate::getRoomId).distinct().count();
+        if (coalesced > 0)
+            meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, OUTCOME, "coalesced").increment(coalesced);
+        Map<RoomUpdateStatus, Long> countsByStatus = roomUpdates.stream()
+                .collect(Collectors.groupingBy(RoomUpdate::getStatus, Collectors.counting()));
+        countsByStatus.forEach((status, count) -> meterRegistry
+                .counter(MetricName.WRITE_BEHIND_UPDATES, OUTCOME, status.name().toLowerCase()).increment(count));
+        return roomUpdates.size();
+    }
+
+    /**
+     * This method is used to remove the updates finished longer than the status retention ago from every shard.
+     */
+    private void removeFinished() {
+        Instant before = Instant.now().minus(statusRetention);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            try {
+                int removed = roomService.removeFinishedRoomUpdates(shard, before);
+                if (removed > 0)
+                    log.debug("Removed {} finished room updates of shard {}.", removed, shard);
+            } catch (RuntimeException e) {
+                log.error("Failed to remove finished room updates of shard {}. ", shard, e);
+            }
+        }
+    }
+}
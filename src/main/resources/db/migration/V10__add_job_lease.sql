@@ -0,0 +1,8 @@
+-- Leases of periodic jobs that only one instance runs at a time, on shard 0. Rows are added by the first instance
+-- taking a lease.
+create table job_lease (
+    name         varchar(255) not null,
+    owner        varchar(255) not null,
+    locked_until datetime(6)  not null,
+    primary key (name)
+);
@@ -0,0 +1,2 @@
+-- Location ids are assigned by the database, so a new location no longer reads the highest id before its insert.
+alter table location modify id integer not null auto_increment;
@@ -0,0 +1,27 @@
+-- Schema of the first release, created by hibernate from the entities of that release.
+create table hotel (
+    id       varchar(255) not null,
+    location varchar(255),
+    name     varchar(255),
+    primary key (id)
+);
+
+create table room_type (
+    id                varchar(255)     not null,
+    markup_percentage double precision not null,
+    name              varchar(255),
+    primary key (id)
+);
+
+create table room (
+    id           varchar(255)     not null,
+    cost         double precision not null,
+    max_people   integer          not null,
+    price        double precision not null,
+    room_no      varchar(255),
+    hotel_id     varchar(255)     not null,
+    room_type_id varchar(255),
+    primary key (id),
+    constraint fk_room_hotel foreign key (hotel_id) references hotel (id),
+    constraint fk_room_room_type foreign key (room_type_id) references room_type (id)
+);
@@ -0,0 +1,3 @@
+-- Optimistic locking versions of hotels and rooms, existing rows start at version 0.
+alter table hotel add column version bigint not null default 0;
+alter table room add column version bigint not null default 0;
@@ -0,0 +1,17 @@
+-- Per hotel room summaries, summaries of existing hotels are filled in by the periodic reconciliation.
+create table hotel_capacity_summary (
+    hotel_id   varchar(255) not null,
+    max_people integer      not null,
+    room_count bigint       not null,
+    primary key (hotel_id, max_people)
+);
+
+create table hotel_room_type_summary (
+    hotel_id     varchar(255)     not null,
+    room_type_id varchar(255)     not null,
+    room_count   bigint           not null,
+    total_price  double precision not null,
+    min_price    double precision not null,
+    max_price    double precision not null,
+    primary key (hotel_id, room_type_id)
+);
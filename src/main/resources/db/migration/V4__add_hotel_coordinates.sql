@@ -0,0 +1,3 @@
+-- Optional hotel coordinates of the nearby search.
+alter table hotel add column latitude double precision;
+alter table hotel add column longitude double precision;
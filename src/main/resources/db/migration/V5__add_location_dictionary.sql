@@ -0,0 +1,12 @@
+-- Location dictionary, used on the dictionary shard only. Hotels refer to their location by id, the legacy location
+-- column is filled in by LegacyLocationMigration at startup and kept for hotels written by older releases.
+create table location (
+    id              integer      not null,
+    normalized_name varchar(255) not null,
+    name            varchar(255) not null,
+    primary key (id),
+    constraint uk_location_normalized_name unique (normalized_name)
+);
+
+alter table hotel add column location_id integer;
+create index idx_hotel_location_id on hotel (location_id);
@@ -0,0 +1,8 @@
+-- Catalog change log, hotels whose rooms or location changed, read to leave stale locations out of catalog snapshots.
+create table catalog_change (
+    version     bigint       not null auto_increment,
+    hotel_id    varchar(255) not null,
+    location_id integer,
+    changed_at  datetime(6)  not null,
+    primary key (version)
+);
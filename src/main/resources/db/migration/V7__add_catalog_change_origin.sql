@@ -0,0 +1,7 @@
+-- Entity and origin of every catalog change, tailed by other instances to evict their cached catalogs. Existing
+-- entries are hotel changes of an unknown origin, which every instance evicts.
+alter table catalog_change add column entity_type varchar(255) not null default 'HOTEL';
+alter table catalog_change add column entity_id varchar(255) not null default '';
+alter table catalog_change add column origin varchar(255) not null default '';
+update catalog_change set entity_id = hotel_id;
+alter table catalog_change modify column hotel_id varchar(255) null;
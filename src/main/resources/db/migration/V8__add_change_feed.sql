@@ -0,0 +1,10 @@
+-- Change feed over the catalog change log: deletions, lookups by entity and by age, and the pruned version floor.
+alter table catalog_change add column deleted bit not null default 0;
+create index idx_catalog_change_entity on catalog_change (entity_type, entity_id, version);
+create index idx_catalog_change_changed_at on catalog_change (changed_at);
+
+create table catalog_change_floor (
+    id      integer not null,
+    version bigint  not null,
+    primary key (id)
+);
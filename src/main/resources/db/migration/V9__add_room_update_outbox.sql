@@ -0,0 +1,21 @@
+-- Outbox of write-behind room updates: stored on the room's shard before the update is accepted, applied and
+-- finished there by any instance.
+create table room_update (
+    id               bigint           not null auto_increment,
+    tracking_id      varchar(255)     not null,
+    room_id          varchar(255)     not null,
+    hotel_id         varchar(255)     not null,
+    room_type_id     varchar(255)     not null,
+    room_no          varchar(255)     not null,
+    max_people       integer          not null,
+    cost             double precision not null,
+    expected_version bigint           not null,
+    status           varchar(255)     not null,
+    accepted_at      datetime(6)      not null,
+    finished_at      datetime(6),
+    primary key (id),
+    constraint uk_room_update_tracking_id unique (tracking_id)
+);
+create index idx_room_update_status on room_update (status, id);
+create index idx_room_update_room on room_update (room_id, status);
+create index idx_room_update_finished_at on room_update (finished_at);
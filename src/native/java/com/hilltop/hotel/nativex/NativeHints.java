@@ -0,0 +1,83 @@
+package com.hilltop.hotel.nativex;
+
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.domain.entity.CatalogChangeFloor;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.HotelCapacitySummary;
+import com.hilltop.hotel.domain.entity.HotelRoomTypeSummary;
+import com.hilltop.hotel.domain.entity.Location;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.entity.RoomUpdate;
+import com.hilltop.hotel.domain.request.HotelPatchRequestDto;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.LookupRequestDto;
+import com.hilltop.hotel.domain.request.RoomBulkDeleteRequestDto;
+import com.hilltop.hotel.domain.request.RoomPatchRequestDto;
+import com.hilltop.hotel.domain.request.RoomRequestDto;
+import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
+import com.hilltop.hotel.domain.request.UpdateHotelRequestDto;
+import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.domain.response.BulkDeleteResponseDto;
+import com.hilltop.hotel.domain.response.CatalogChangeResponseDto;
+import com.hilltop.hotel.domain.response.ChangeFeedResponseDto;
+import com.hilltop.hotel.domain.response.HotelListResponseDto;
+import com.hilltop.hotel.domain.response.HotelLookupResponseDto;
+import com.hilltop.hotel.domain.response.HotelResponseDto;
+import com.hilltop.hotel.domain.response.HotelSummaryResponseDto;
+import com.hilltop.hotel.domain.response.ResponseWrapper;
+import com.hilltop.hotel.domain.response.RoomListResponseDto;
+import com.hilltop.hotel.domain.response.RoomLookupResponseDto;
+import com.hilltop.hotel.domain.response.RoomResponseDto;
+import com.hilltop.hotel.domain.response.RoomTypeResponseDto;
+import com.hilltop.hotel.domain.response.RoomTypeSummaryResponseDto;
+import com.hilltop.hotel.domain.response.RoomUpdateStatusResponseDto;
+import com.hilltop.hotel.location.LocationConverter;
+import com.hilltop.hotel.service.ChangeFeedService;
+import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.HotelSummaryService;
+import com.hilltop.hotel.service.RoomService;
+import com.hilltop.hotel.service.RoomTypeService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.nativex.hint.AccessBits;
+import org.springframework.nativex.hint.AotProxyHint;
+import org.springframework.nativex.hint.NativeHint;
+import org.springframework.nativex.hint.ProxyBits;
+import org.springframework.nativex.hint.ResourceHint;
+import org.springframework.nativex.hint.TypeHint;
+
+/**
+ * Native hints
+ * Reflection hints for the JPA entities and the Jackson (de)serialized request and response types, resource hints
+ * for the schema migrations and class proxy hints for the services advised by the metrics aspects. Only compiled
+ * with the native profile.
+ */
+@NativeHint(
+        types = {
+                @TypeHint(types = {Hotel.class, Room.class, RoomType.class, HotelRoomTypeSummary.class,
+                        HotelRoomTypeSummary.Key.class, HotelCapacitySummary.class, HotelCapacitySummary.Key.class,
+                        Location.class, LocationConverter.class, CatalogChange.class, CatalogChangeFloor.class,
+                        RoomUpdate.class},
+                        access = AccessBits.FULL_REFLECTION),
+                @TypeHint(types = {
+                        HotelRequestDto.class, UpdateHotelRequestDto.class, RoomRequestDto.class,
+                        UpdateRoomRequestDto.class, RoomTypeRequestDto.class, ResponseWrapper.class,
+                        HotelListResponseDto.class, HotelResponseDto.class, RoomListResponseDto.class,
+                        RoomResponseDto.class, RoomTypeResponseDto.class, HotelSummaryResponseDto.class,
+                        RoomTypeSummaryResponseDto.class, RoomBulkDeleteRequestDto.class, BulkDeleteResponseDto.class,
+                        HotelPatchRequestDto.class, RoomPatchRequestDto.class, CatalogChangeResponseDto.class,
+                        ChangeFeedResponseDto.class, LookupRequestDto.class, HotelLookupResponseDto.class,
+                        RoomLookupResponseDto.class, RoomUpdateStatusResponseDto.class},
+                        access = AccessBits.FULL_REFLECTION)
+        },
+        resources = @ResourceHint(patterns = "db/migration/.*\\.sql"),
+        aotProxies = {
+                @AotProxyHint(targetClass = HotelService.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = RoomService.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = RoomTypeService.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = HotelSummaryService.class, proxyFeatures = ProxyBits.IS_STATIC),
+                @AotProxyHint(targetClass = ChangeFeedService.class, proxyFeatures = ProxyBits.IS_STATIC)
+        })
+@Configuration(proxyBeanMethods = false)
+public class NativeHints {
+}
@@ -0,0 +1,90 @@
+#!/usr/bin/env bash
+# Smoke test of the native executable and the JVM jar against an embedded H2 database, whose schema is created by
+# the Flyway migrations and validated by Hibernate as in production.
+# Both builds run the same requests through the controllers; startup time and resident memory are
+# compared in target/native-report.json.
+#
+# Usage: src/native/smoke-test.sh [native-executable] [exec-jar]
+set -euo pipefail
+
+NATIVE=${1:-target/hill-top-hotel}
+JAR=${2:-target/hotel-0.0.1-SNAPSHOT-exec.jar}
+PORT=${PORT:-5055}
+REPORT=${REPORT:-target/native-report.json}
+BASE_URL="http://localhost:${PORT}/hill-top-hotel"
+APP_ARGS=(--server.port="${PORT}" --spring.profiles.active=native --eureka.client.enabled=false
+  "--spring.datasource.url=jdbc:h2:mem:hill-top-hotel;MODE=MySQL" --spring.datasource.username=sa
+  --spring.datasource.password= --hilltop.grpc.enabled=false)
+
+now_millis() {
+  date +%s%3N
+}
+
+request() {
+  local method=$1 path=$2 body=${3:-}
+  local response
+  if [ -n "$body" ]; then
+    response=$(curl -s -w '\n%{http_code}' -X "$method" -H 'Content-Type: application/json' -d "$body" \
+      "${BASE_URL}${path}")
+  else
+    response=$(curl -s -w '\n%{http_code}' -X "$method" "${BASE_URL}${path}")
+  fi
+  local status=${response##*$'\n'}
+  if [ "${status:0:1}" != "2" ]; then
+    echo "Smoke test failed: $method $path returned $status: ${response%$'\n'*}" >&2
+    return 1
+  fi
+  echo "${response%$'\n'*}"
+}
+
+first_id() {
+  grep -o '"id":"[^"]*"' | head -1 | cut -d'"' -f4
+}
+
+smoke() {
+  local room_type_id hotel_id
+  room_type_id=$(request POST /api/v1/roomType '{"name":"Deluxe","markupPercentage":10}' | first_id)
+  request POST /api/v1/hotel '{"name":"Smoke Hotel","location":"Colombo"}' > /dev/null
+  hotel_id=$(request GET /api/v1/hotel | first_id)
+  request POST /api/v1/room "{\"hotelId\":\"${hotel_id}\",\"roomTypeId\":\"${room_type_id}\",\"roomNo\":\"R1\",\"maxPeople\":2,\"cost\":100}" > /dev/null
+  request GET "/api/v1/hotel?location=Colombo&paxCount=2" | grep -q '"roomNo":"R1"'
+  request GET "/api/v1/room/hotel/${hotel_id}" | grep -q '"roomNo":"R1"'
+}
+
+# Runs one build, prints "<startup millis> <peak rss kb>".
+measure() {
+  local name=$1
+  shift
+  local log="target/${name}-smoke.log"
+  local start pid startup rss
+  start=$(now_millis)
+  "$@" "${APP_ARGS[@]}" > "$log" 2>&1 &
+  pid=$!
+  until curl -s -o /dev/null "${BASE_URL}/"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "$name exited during startup, see $log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  startup=$(($(now_millis) - start))
+  if ! smoke; then
+    kill "$pid"
+    exit 1
+  fi
+  rss=$(awk '/VmHWM/ {print $2}' "/proc/${pid}/status")
+  kill "$pid"
+  wait "$pid" || true
+  echo "$startup $rss"
+}
+
+read -r native_startup native_rss < <(measure native "$NATIVE")
+read -r jvm_startup jvm_rss < <(measure jvm java -jar "$JAR")
+
+cat > "$REPORT" <<JSON
+{
+  "native": {"startupMillis": ${native_startup}, "peakRssKb": ${native_rss}},
+  "jvm": {"startupMillis": ${jvm_startup}, "peakRssKb": ${jvm_rss}}
+}
+JSON
+cat "$REPORT"
@@ -0,0 +1,189 @@
+package com.hilltop.hotel.controller;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.response.CatalogChangeResponseDto;
+import com.hilltop.hotel.domain.response.ChangeFeedResponseDto;
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.CatalogChangeFloorRepository;
+import com.hilltop.hotel.repository.CatalogChangeRepository;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.service.ChangeFeedService;
+import com.hilltop.hotel.service.RoomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Change feed test
+ * Paging, deletes, compaction and retention of the change feed of {@link ChangeFeedController} against an embedded
+ * database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeFeedTest {
+
+    private static final String CHANGES_URI = "/api/v1/changes";
+    private static final String ORIGIN = "test";
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+    @Autowired
+    private CatalogChangeFloorRepository catalogChangeFloorRepository;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private RoomService roomService;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private LocationDictionary locationDictionary;
+
+    @BeforeEach
+    void setUp() {
+        catalogChangeRepository.deleteAllInBatch();
+        catalogChangeFloorRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogChangeRepository.deleteAllInBatch();
+        catalogChangeFloorRepository.deleteAllInBatch();
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+    }
+
+    @Test
+    void Should_ReturnChangesInOrderPageByPage_When_CursorIsFollowed() throws Exception {
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM_TYPE, "tid-1", null, null, ORIGIN));
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.HOTEL, "hid-1", "hid-1", 1, ORIGIN));
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-1", "hid-1", null, ORIGIN));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_URI).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes.length()").value(2))
+                .andExpect(jsonPath("$.data.changes[0].entityType").value("ROOM_TYPE"))
+                .andExpect(jsonPath("$.data.changes[1].entityId").value("hid-1"))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+        ChangeFeedResponseDto firstPage = changeFeedService.getChanges(null, 2);
+        ChangeFeedResponseDto secondPage = changeFeedService.getChanges(firstPage.getCursor(), 2);
+
+        assertEquals(List.of("rid-1"), getEntityIds(secondPage));
+        assertFalse(secondPage.isHasMore());
+        assertTrue(changeFeedService.getChanges(secondPage.getCursor(), 2).getChanges().isEmpty());
+    }
+
+    @Test
+    void Should_KeepLatestChangeOfEntity_When_Compacted() {
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-1", "hid-1", null, ORIGIN));
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-2", "hid-1", null, ORIGIN));
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-1", "hid-1", null, ORIGIN));
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-1", "hid-1", null, ORIGIN,
+                true));
+
+        assertEquals(2, getChangeFeedService(Duration.ofDays(1)).compact());
+        ChangeFeedResponseDto changeFeed = changeFeedService.getChanges(null, 10);
+
+        assertEquals(List.of("rid-2", "rid-1"), getEntityIds(changeFeed));
+        assertTrue(changeFeed.getChanges().get(1).isDeleted());
+    }
+
+    @Test
+    void Should_RequireResync_When_CursorIsBelowExpiredDeletes() throws Exception {
+        CatalogChange deleted = catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-1",
+                "hid-1", null, ORIGIN, true));
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-2", "hid-1", null, ORIGIN));
+
+        assertEquals(1, getChangeFeedService(Duration.ZERO).compact());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_URI)
+                        .param("after", String.valueOf(deleted.getVersion() - 1)))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.CHANGE_FEED_CURSOR_EXPIRED.getMessage()));
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_URI).param("after", String.valueOf(deleted.getVersion())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes[0].entityId").value("rid-2"));
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_URI))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes.length()").value(1));
+    }
+
+    @Test
+    void Should_ServeDeletedRooms_When_BulkDeleteReturns() {
+        RoomType roomType = roomTypeRepository.save(getRoomType());
+        locationDictionary.resolve("Colombo");
+        Hotel hotel = hotelRepository.save(getHotel());
+        Room room = roomRepository.save(getRoom(hotel, roomType));
+
+        assertEquals(1, roomService.deleteRoomsByHotelId(hotel.getId(), null));
+        ChangeFeedResponseDto changeFeed = changeFeedService.getChanges(null, 10);
+
+        assertEquals(List.of(room.getId()), getEntityIds(changeFeed));
+        assertTrue(changeFeed.getChanges().get(0).isDeleted());
+    }
+
+    @Test
+    void Should_HoldBackChanges_When_NotSettled() {
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.ROOM, "rid-1", "hid-1", null, ORIGIN));
+        ChangeFeedService settlingChangeFeedService = new ChangeFeedService(catalogChangeRepository,
+                catalogChangeFloorRepository, shardRouter, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO, 10);
+
+        ChangeFeedResponseDto changeFeed = settlingChangeFeedService.getChanges(null, 10);
+
+        assertTrue(changeFeed.getChanges().isEmpty());
+        assertEquals("0", changeFeed.getCursor());
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_CursorIsInvalid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_URI).param("after", "1.2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_CHANGE_FEED_PARAMETERS.getMessage()));
+        mockMvc.perform(MockMvcRequestBuilders.get(CHANGES_URI).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ChangeFeedService getChangeFeedService(Duration retention) {
+        return new ChangeFeedService(catalogChangeRepository, catalogChangeFloorRepository, shardRouter,
+                Duration.ZERO, Duration.ZERO, retention, 1);
+    }
+
+    private static List<String> getEntityIds(ChangeFeedResponseDto changeFeed) {
+        return changeFeed.getChanges().stream().map(CatalogChangeResponseDto::getEntityId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,142 @@
+package com.hilltop.hotel.controller;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.request.LookupRequestDto;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static com.hilltop.hotel.metrics.QueryCountAssertions.assertMaxQueries;
+import static com.hilltop.hotel.metrics.QueryCountAssertions.assertNoRepeatedQueries;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Hotel controller query budget test
+ * Query budgets of {@link  HotelController} and {@link  RoomController} endpoints against an embedded database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotelControllerQueryBudgetTest {
+
+    private static final int HOTEL_COUNT = 5;
+    private static final int ROOMS_PER_HOTEL = 4;
+    private static final int SUMMARY_DELTA_QUERIES = 4;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    private final List<String> hotelIds = new ArrayList<>();
+    private final List<String> roomIds = new ArrayList<>();
+    private String hotelId;
+
+    @BeforeEach
+    void setUp() {
+        RoomType roomType = roomTypeRepository.save(getRoomType("Deluxe", 10));
+        locationDictionary.resolve("Colombo");
+        for (int i = 0; i < HOTEL_COUNT; i++) {
+            Hotel hotel = hotelRepository.save(getHotel("Hotel " + i, "Colombo"));
+            hotelId = hotel.getId();
+            hotelIds.add(hotelId);
+            for (int j = 1; j <= ROOMS_PER_HOTEL; j++)
+                roomIds.add(roomRepository.save(getRoom(hotel, roomType, "R" + j, j, 100)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+    }
+
+    @Test
+    void Should_UseAtMostOneQuery_When_SearchHotelsByLocationAndPax() throws Throwable {
+        assertMaxQueries(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel")
+                        .param("location", "Colombo").param("paxCount", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(HOTEL_COUNT)));
+    }
+
+    @Test
+    void Should_UseAtMostOneQuery_When_ListAllHotels() throws Throwable {
+        assertMaxQueries(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(HOTEL_COUNT)));
+    }
+
+    @Test
+    void Should_NotRepeatQueries_When_ListRoomsByHotelId() throws Throwable {
+        assertNoRepeatedQueries(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/room/hotel/" + hotelId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.roomList.length()").value(ROOMS_PER_HOTEL)));
+    }
+
+    @Test
+    void Should_DeleteWithOneStatementAndApplySummaryDeltas_When_BulkDeleteRoomsOfHotel() throws Throwable {
+        int maxQueries = 3 + ROOMS_PER_HOTEL + ROOMS_PER_HOTEL + SUMMARY_DELTA_QUERIES;
+        assertMaxQueries(maxQueries, () -> mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/room/bulk-delete")
+                        .content("{\"hotelId\":\"" + hotelId + "\",\"roomNo\":\"R\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.deletedCount").value(ROOMS_PER_HOTEL)));
+    }
+
+    @Test
+    void Should_UseOneQuery_When_LookupHotelsByIds() throws Throwable {
+        LookupRequestDto lookupRequestDto = new LookupRequestDto();
+        List<String> ids = new ArrayList<>(hotelIds);
+        ids.add("hid-missing");
+        lookupRequestDto.setIds(ids);
+        assertMaxQueries(1, () -> mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/hotel/lookup")
+                        .content(lookupRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(HOTEL_COUNT))
+                .andExpect(jsonPath("$.data.hotelList[0].id").value(hotelIds.get(0)))
+                .andExpect(jsonPath("$.data.missingIds[0]").value("hid-missing")));
+    }
+
+    @Test
+    void Should_UseOneQueryPerChunk_When_LookupRoomsByIds() throws Throwable {
+        LookupRequestDto lookupRequestDto = new LookupRequestDto();
+        List<String> ids = new ArrayList<>(roomIds);
+        for (int i = 0; i < 100; i++)
+            ids.add("rid-missing-" + i);
+        lookupRequestDto.setIds(ids);
+        assertMaxQueries(2, () -> mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/room/lookup")
+                        .content(lookupRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.roomList.length()").value(HOTEL_COUNT * ROOMS_PER_HOTEL))
+                .andExpect(jsonPath("$.data.roomList[0].roomType").value("Deluxe"))
+                .andExpect(jsonPath("$.data.missingIds.length()").value(100)));
+    }
+}
@@ -1,22 +1,41 @@
 package com.hilltop.hotel.controller;
 
+import com.hilltop.hotel.deadline.RequestDeadline;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.HotelCapacitySummary;
+import com.hilltop.hotel.domain.entity.HotelRoomTypeSummary;
 import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.LookupRequestDto;
 import com.hilltop.hotel.domain.request.UpdateHotelRequestDto;
+import com.hilltop.hotel.domain.response.HotelSummaryResponseDto;
 import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.enumeration.SearchSort;
 import com.hilltop.hotel.enumeration.SuccessMessage;
 import com.hilltop.hotel.exception.DataNotFoundException;
+import com.hilltop.hotel.exception.DeadlineExceededException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.VersionConflictException;
 import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.HotelSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -35,12 +54,14 @@ class HotelControllerTest {
     private final UpdateHotelRequestDto updateHotelRequestDto = getUpdateHotelRequestDto();
     @Mock
     private HotelService hotelService;
+    @Mock
+    private HotelSummaryService hotelSummaryService;
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        HotelController hotelController = new HotelController(hotelService);
+        HotelController hotelController = new HotelController(hotelService, hotelSummaryService);
         mockMvc = MockMvcBuilders.standaloneSetup(hotelController).build();
     }
 
@@ -80,6 +101,40 @@ class HotelControllerTest {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    @Test
+    void Should_ReturnGatewayTimeout_When_SearchExceededDeadline() throws Exception {
+        when(hotelService.getHotelsByLocationAndPaxCount(anyString(), anyInt(), any(), any(), any(), any()))
+                .thenThrow(new DeadlineExceededException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get(LIST_HOTEL_BY_LOCATION_AND_PAX_URI))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.DEADLINE_EXCEEDED.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnGatewayTimeout_When_SearchQueryTimedOut() throws Exception {
+        when(hotelService.getHotelsByLocationAndPaxCount(anyString(), anyInt(), any(), any(), any(), any()))
+                .thenThrow(new QueryTimeoutException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get(LIST_HOTEL_BY_LOCATION_AND_PAX_URI))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.DEADLINE_EXCEEDED.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnInternalServerError_When_SearchFailedAfterDeadline() throws Exception {
+        when(hotelService.getHotelsByLocationAndPaxCount(anyString(), anyInt(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    RequestDeadline.start(Duration.ZERO);
+                    throw new HillTopHotelApplicationException(FAILED);
+                });
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(LIST_HOTEL_BY_LOCATION_AND_PAX_URI))
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(jsonPath("$.message").value(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage()));
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
     /**
      * Unit tests for updateHotel() method.
      */
@@ -140,6 +195,27 @@ class HotelControllerTest {
                 .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_RETURNED.getMessage()));
     }
 
+    @Test
+    void Should_PassSearchParameters_When_SearchIsSortedAndLimited() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(LIST_HOTEL_BY_LOCATION_AND_PAX_URI
+                                + "&minPrice=100&maxPrice=200&sort=capacityFit&limit=10")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        verify(hotelService).getHotelsByLocationAndPaxCount("galle", 5, 100.0, 200.0, SearchSort.CAPACITY_FIT, 10);
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_SearchParametersAreInvalid() throws Exception {
+        for (String parameters : List.of("&sort=rating", "&limit=0", "&limit=" + Integer.MAX_VALUE,
+                "&minPrice=300&maxPrice=200")) {
+            mockMvc.perform(MockMvcRequestBuilders.get(LIST_HOTEL_BY_LOCATION_AND_PAX_URI + parameters)
+                            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_SEARCH_PARAMETERS.getMessage()));
+        }
+        verifyNoInteractions(hotelService);
+    }
+
     @Test
     void Should_ReturnOk_When_ListAllHotelsIsSuccessful() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get(LIST_ALL_HOTEL_URI)
@@ -152,7 +228,8 @@ class HotelControllerTest {
     void Should_ReturnInternalServerError_When_ListAllHotelsByLocationAndPaxIsFailedDueToInternalErrors()
             throws Exception {
         doThrow(new HillTopHotelApplicationException(FAILED))
-                .when(hotelService).getHotelsByLocationAndPaxCount(anyString(), anyInt());
+                .when(hotelService)
+                .getHotelsByLocationAndPaxCount(anyString(), anyInt(), any(), any(), any(), any());
         mockMvc.perform(MockMvcRequestBuilders.get(LIST_HOTEL_BY_LOCATION_AND_PAX_URI)
                         .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError())
@@ -160,6 +237,122 @@ class HotelControllerTest {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    /**
+     * Unit tests for patchHotel() method.
+     */
+    @Test
+    void Should_ReturnPreconditionFailed_When_PatchHotelVersionConflicts() throws Exception {
+        doThrow(new VersionConflictException(FAILED)).when(hotelService).patchHotel(anyString(), any(), eq(1L));
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/hotel/hid-123")
+                        .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .content("{\"name\":\"Hilton\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.VERSION_CONFLICT.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_PatchHotelHasNoFields() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/hotel/hid-123")
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.MISSING_REQUIRED_FIELDS.getMessage()));
+    }
+
+    /**
+     * Unit tests for lookupHotels() method.
+     */
+    @Test
+    void Should_ReturnHotelsAndMissingIds_When_LookupHotelsIsSuccessful() throws Exception {
+        Hotel hotel = new Hotel(updateHotelRequestDto);
+        List<String> ids = List.of(hotel.getId(), "hid-missing");
+        when(hotelService.getHotelsByIds(ids)).thenReturn(List.of(hotel));
+        LookupRequestDto lookupRequestDto = new LookupRequestDto();
+        lookupRequestDto.setIds(ids);
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/hotel/lookup")
+                        .content(lookupRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList[0].id").value(hotel.getId()))
+                .andExpect(jsonPath("$.data.missingIds[0]").value("hid-missing"));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_LookupHotelsHasNoIds() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/hotel/lookup")
+                        .content("{\"ids\":[]}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.MISSING_REQUIRED_FIELDS.getMessage()));
+        verifyNoInteractions(hotelService);
+    }
+
+    /**
+     * Unit tests for searchHotelsNearby() method.
+     */
+    @Test
+    void Should_ReturnHotelsWithDistance_When_SearchHotelsNearbyIsSuccessful() throws Exception {
+        Hotel hotel = new Hotel(updateHotelRequestDto);
+        hotel.setLatitude(7.2936);
+        hotel.setLongitude(80.6350);
+        when(hotelService.getHotelsNearby(7.2906, 80.6337, 5, 2, null)).thenReturn(Map.of(hotel, List.of()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/nearby")
+                        .param("latitude", "7.2906").param("longitude", "80.6337").param("paxCount", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList[0].latitude").value(7.2936))
+                .andExpect(jsonPath("$.data.hotelList[0].distanceKm").isNumber());
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_NearbySearchParametersAreInvalid() throws Exception {
+        for (String parameters : List.of("latitude=91&longitude=80", "latitude=7&longitude=80&radiusKm=0",
+                "latitude=7&longitude=80&radiusKm=500", "latitude=7&longitude=80&limit=" + Integer.MAX_VALUE)) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/nearby?paxCount=2&" + parameters)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_SEARCH_PARAMETERS.getMessage()));
+        }
+        verifyNoInteractions(hotelService);
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_HotelHasOnlyLatitude() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(ADD_HOTEL_URI)
+                        .content("{\"name\":\"Hotel\",\"location\":\"Kandy\",\"latitude\":7.29}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INVALID_COORDINATES.getMessage()));
+        verifyNoInteractions(hotelService);
+    }
+
+    /**
+     * Unit tests for getHotelSummary() method.
+     */
+    @Test
+    void Should_ReturnHotelSummary_When_HotelHasRooms() throws Exception {
+        when(hotelSummaryService.getHotelSummary("hid-123")).thenReturn(new HotelSummaryResponseDto("hid-123",
+                List.of(new HotelRoomTypeSummary("hid-123", "rtid-1", 2, 300, 100, 200)),
+                List.of(new HotelCapacitySummary("hid-123", 2, 1), new HotelCapacitySummary("hid-123", 4, 1))));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/hid-123/summary")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.roomCount").value(2))
+                .andExpect(jsonPath("$.data.maxPeople").value(4))
+                .andExpect(jsonPath("$.data.capacityHistogram.4").value(1))
+                .andExpect(jsonPath("$.data.roomTypes[0].avgPrice").value(150.0));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_HotelSummaryIsNotFound() throws Exception {
+        when(hotelSummaryService.getHotelSummary("hid-404")).thenThrow(new DataNotFoundException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/hid-404/summary")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.DATA_NOT_FOUND.getMessage()));
+    }
+
     /**
      * This method is used to mock hotelRequestDto.
      *
@@ -0,0 +1,137 @@
+package com.hilltop.hotel.controller;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.location.LegacyLocationMigration;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.LocationRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Hotel location test
+ * Location dictionary lookups of {@link HotelController} and the migration of legacy location names against an
+ * embedded database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotelLocationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private LegacyLocationMigration legacyLocationMigration;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private RoomType standard;
+
+    @BeforeEach
+    void setUp() {
+        standard = roomTypeRepository.save(getRoomType());
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+    }
+
+    @Test
+    void Should_SearchOneLocationAndReturnDisplayName_When_NamesDifferInCaseWhitespaceOrUnicodeForm()
+            throws Exception {
+        for (String location : List.of("Kandy", "  kandy ", "Ｋａｎｄｙ"))
+            addHotel("Hotel " + location.trim(), location);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel")
+                        .param("location", "KANDY\t").param("paxCount", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(3))
+                .andExpect(jsonPath("$.data.hotelList[0].location").value("Kandy"))
+                .andExpect(jsonPath("$.data.hotelList[2].location").value("Kandy"));
+        assertTrue(locationRepository.findByNormalizedName("kandy").isPresent());
+        assertEquals(1, locationRepository.findAll().stream()
+                .filter(location -> location.getNormalizedName().contains("kandy")).count());
+    }
+
+    @Test
+    void Should_ReturnEmptyList_When_LocationIsNotRegistered() throws Exception {
+        long locationCount = locationRepository.count();
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel")
+                        .param("location", "Nowhere").param("paxCount", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(0));
+        assertEquals(locationCount, locationRepository.count());
+    }
+
+    @Test
+    void Should_StoreLocationId_When_LocationIsPatched() throws Exception {
+        addHotel("Lagoon Inn", "Galle");
+        Hotel hotel = hotelRepository.findByNameContaining("Lagoon Inn").get(0);
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/hotel/" + hotel.getId())
+                        .content("{\"location\":\" Negombo \"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel")
+                        .param("location", "negombo").param("paxCount", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(1))
+                .andExpect(jsonPath("$.data.hotelList[0].location").value("Negombo"));
+        assertEquals(0, hotelRepository.findByLocation("Galle").size());
+    }
+
+    @Test
+    void Should_AssignLocationIds_When_HotelsHaveLegacyLocationNames() {
+        jdbcTemplate.update("insert into hotel (id, name, location, version) values "
+                + "('hid-legacy-1', 'Beach Inn', 'Matara', 0), ('hid-legacy-2', 'Fort Inn', ' MATARA', 0), "
+                + "('hid-legacy-3', 'Lake Inn', 'Tissamaharama', 0)");
+
+        assertEquals(3, legacyLocationMigration.migrate());
+        assertEquals(0, legacyLocationMigration.migrate());
+        List<Hotel> hotels = hotelRepository.findByLocation("matara");
+        assertEquals(2, hotels.size());
+        assertEquals(hotels.get(0).getLocation(), hotels.get(1).getLocation());
+        assertEquals("Tissamaharama", hotelRepository.findById("hid-legacy-3").orElseThrow().getLocation());
+    }
+
+    private void addHotel(String name, String location) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/hotel")
+                        .content("{\"name\":\"" + name + "\",\"location\":\"" + location + "\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        Hotel hotel = hotelRepository.findByNameContaining(name).get(0);
+        roomRepository.save(getRoom(hotel, standard));
+    }
+}
@@ -0,0 +1,87 @@
+package com.hilltop.hotel.controller;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.geo.HotelGeoIndex;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Hotel nearby test
+ * Geo index maintenance on hotel writes and the nearby search of {@link HotelController} against an embedded
+ * database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotelNearbyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private HotelGeoIndex hotelGeoIndex;
+
+    @AfterEach
+    void tearDown() {
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+        hotelGeoIndex.refresh();
+    }
+
+    @Test
+    void Should_FindHotelUnderOtherLocationName_When_SearchingNearby() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/hotel")
+                        .content("{\"name\":\"Hill View\",\"location\":\"Peradeniya\",\"latitude\":7.2690,"
+                                + "\"longitude\":80.5942}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        Hotel hotel = hotelRepository.findByNameContaining("Hill View").get(0);
+        addRoom(hotel, 2);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/nearby")
+                        .param("latitude", "7.2906").param("longitude", "80.6337").param("radiusKm", "10")
+                        .param("paxCount", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(1))
+                .andExpect(jsonPath("$.data.hotelList[0].location").value("Peradeniya"))
+                .andExpect(jsonPath("$.data.hotelList[0].rooms.length()").value(1));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/hotel/" + hotel.getId())
+                        .content("{\"latitude\":6.9271,\"longitude\":79.8612}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/nearby")
+                        .param("latitude", "7.2906").param("longitude", "80.6337").param("radiusKm", "10")
+                        .param("paxCount", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hotelList.length()").value(0));
+    }
+
+    private void addRoom(Hotel hotel, int maxPeople) {
+        RoomType roomType = roomTypeRepository.save(getRoomType());
+        roomRepository.save(getRoom(hotel, roomType, "R1", maxPeople, 100));
+    }
+}
@@ -0,0 +1,254 @@
+package com.hilltop.hotel.controller;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.HotelCapacitySummary;
+import com.hilltop.hotel.domain.entity.HotelRoomTypeSummary;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelCapacitySummaryRepository;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.HotelRoomTypeSummaryRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.service.HotelSummaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static com.hilltop.hotel.metrics.QueryCountAssertions.assertMaxQueries;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Hotel summary test
+ * Summary maintenance by the room write paths and the summary endpoint of {@link HotelController} against an
+ * embedded database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotelSummaryTest {
+
+    private static final int MAX_ATTEMPTS = 50;
+    private static final long RETRY_DELAY_MILLIS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    @Autowired
+    private HotelRoomTypeSummaryRepository hotelRoomTypeSummaryRepository;
+    @Autowired
+    private HotelCapacitySummaryRepository hotelCapacitySummaryRepository;
+    @Autowired
+    private HotelSummaryService hotelSummaryService;
+    private Hotel hotel;
+    private RoomType standard;
+
+    @BeforeEach
+    void setUp() {
+        standard = roomTypeRepository.save(getRoomType());
+        locationDictionary.resolve("Colombo");
+        hotel = hotelRepository.save(getHotel());
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotelRoomTypeSummaryRepository.deleteAllInBatch();
+        hotelCapacitySummaryRepository.deleteAllInBatch();
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+    }
+
+    @Test
+    void Should_ReturnIncrementalSummaryWithTwoQueries_When_RoomsAreAdded() throws Throwable {
+        addRoom("R1", 2, 100);
+        addRoom("R2", 2, 200);
+        addRoom("R3", 4, 300);
+        assertMaxQueries(2, () -> mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/" + hotel.getId()
+                                + "/summary")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.roomCount").value(3))
+                .andExpect(jsonPath("$.data.maxPeople").value(4))
+                .andExpect(jsonPath("$.data.capacityHistogram.2").value(2))
+                .andExpect(jsonPath("$.data.capacityHistogram.4").value(1))
+                .andExpect(jsonPath("$.data.minPrice").value(110.0))
+                .andExpect(jsonPath("$.data.maxPrice").value(330.0))
+                .andExpect(jsonPath("$.data.roomTypes[0].avgPrice").value(220.0)));
+    }
+
+    @Test
+    void Should_CountEveryRoom_When_FirstRoomsOfAKeyAreAddedConcurrently() throws Exception {
+        int rooms = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(rooms);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < rooms; i++) {
+                String roomNo = "R" + i;
+                results.add(executorService.submit(() -> {
+                    start.await();
+                    addRoom(roomNo, 2, 100);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Object> result : results)
+                result.get(30, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(rooms, hotelRoomTypeSummaryRepository.findAllByHotelId(hotel.getId()).get(0).getRoomCount());
+        assertEquals(rooms, hotelCapacitySummaryRepository.findAllByHotelId(hotel.getId()).get(0).getRoomCount());
+    }
+
+    @Test
+    void Should_KeepSummaryInLineWithRooms_When_RoomsArePatchedWhileOthersAreAdded() throws Exception {
+        addRoom("P0", 2, 100);
+        addRoom("P1", 2, 100);
+        List<String> patchedRoomIds = roomRepository.findAllByHotelIdAndRoomNoContaining(hotel.getId(), "P").stream()
+                .map(Room::getId).collect(Collectors.toList());
+        int rooms = 6;
+        ExecutorService executorService = Executors.newFixedThreadPool(rooms + patchedRoomIds.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < rooms; i++) {
+                String roomNo = "R" + i;
+                results.add(executorService.submit(() -> {
+                    start.await();
+                    addRoom(roomNo, 2, 100);
+                    return null;
+                }));
+            }
+            for (String roomId : patchedRoomIds)
+                results.add(executorService.submit(() -> {
+                    start.await();
+                    performAdmitted(MockMvcRequestBuilders.patch("/api/v1/room/" + roomId)
+                            .content("{\"maxPeople\":4,\"cost\":300}")
+                            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                            .andExpect(status().isOk());
+                    return null;
+                }));
+            start.countDown();
+            for (Future<Object> result : results)
+                result.get(30, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+        HotelRoomTypeSummary roomTypeSummary = hotelRoomTypeSummaryRepository.findAllByHotelId(hotel.getId()).get(0);
+        assertEquals(rooms + 2, roomTypeSummary.getRoomCount());
+        assertEquals(rooms * 110 + 2 * 330, roomTypeSummary.getTotalPrice(), 0.001);
+        assertEquals(110, roomTypeSummary.getMinPrice(), 0.001);
+        assertEquals(330, roomTypeSummary.getMaxPrice(), 0.001);
+        assertEquals(List.of(2, 4), getCapacities());
+        assertEquals(0, hotelSummaryService.reconcile());
+    }
+
+    @Test
+    void Should_RecomputeSummary_When_RoomIsPatchedAndDeleted() throws Exception {
+        addRoom("R1", 2, 100);
+        addRoom("R2", 2, 200);
+        String roomId = roomRepository.findAllByHotelIdAndRoomNoContaining(hotel.getId(), "R2").get(0).getId();
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/room/" + roomId)
+                        .content("{\"maxPeople\":3,\"cost\":400}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        HotelRoomTypeSummary roomTypeSummary = hotelRoomTypeSummaryRepository.findAllByHotelId(hotel.getId()).get(0);
+        assertEquals(440, roomTypeSummary.getMaxPrice(), 0.001);
+        assertEquals(List.of(2, 3), getCapacities());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/room/" + roomId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertEquals(List.of(2), getCapacities());
+        assertEquals(110, hotelRoomTypeSummaryRepository.findAllByHotelId(hotel.getId()).get(0).getMaxPrice(),
+                0.001);
+    }
+
+    @Test
+    void Should_CorrectDriftedSummaries_When_ReconcileRuns() throws Exception {
+        addRoom("R1", 2, 100);
+        hotelCapacitySummaryRepository.deleteAllInBatch();
+        hotelCapacitySummaryRepository.save(new HotelCapacitySummary(hotel.getId(), 6, 9));
+        HotelRoomTypeSummary roomTypeSummary = hotelRoomTypeSummaryRepository.findAllByHotelId(hotel.getId()).get(0);
+        roomTypeSummary.setRoomCount(5);
+        hotelRoomTypeSummaryRepository.save(roomTypeSummary);
+
+        assertTrue(hotelSummaryService.reconcile() >= 3);
+        assertEquals(List.of(2), getCapacities());
+        assertEquals(1, hotelRoomTypeSummaryRepository.findAllByHotelId(hotel.getId()).get(0).getRoomCount());
+        assertEquals(0, hotelSummaryService.reconcile());
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_SummaryHotelNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/hotel/hid-unknown/summary")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.DATA_NOT_FOUND.getMessage()));
+    }
+
+    private void addRoom(String roomNo, int maxPeople, double cost) throws Exception {
+        performAdmitted(MockMvcRequestBuilders.post("/api/v1/room")
+                .content("{\"roomNo\":\"" + roomNo + "\",\"hotelId\":\"" + hotel.getId()
+                        + "\",\"roomTypeId\":\"" + standard.getId() + "\",\"maxPeople\":" + maxPeople
+                        + ",\"cost\":" + cost + "}")
+                .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * This method is used to perform a request again while the concurrency limit sheds it, as a client honoring
+     * Retry-After would. Writes to one hotel are serialized, so concurrent writes can lower the write limit.
+     *
+     * @param request request
+     * @return result of the admitted request, or of the last attempt.
+     */
+    private ResultActions performAdmitted(RequestBuilder request) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            ResultActions result = mockMvc.perform(request);
+            if (result.andReturn().getResponse().getStatus() != HttpStatus.SERVICE_UNAVAILABLE.value()
+                    || attempt == MAX_ATTEMPTS)
+                return result;
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        }
+    }
+
+    private List<Integer> getCapacities() {
+        return hotelCapacitySummaryRepository.findAllByHotelId(hotel.getId()).stream()
+                .map(HotelCapacitySummary::getMaxPeople).sorted().collect(Collectors.toList());
+    }
+}
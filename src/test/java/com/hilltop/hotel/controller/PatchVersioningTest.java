@@ -0,0 +1,133 @@
+package com.hilltop.hotel.controller;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static com.hilltop.hotel.metrics.QueryCountAssertions.assertMaxQueries;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Patch versioning test
+ * PATCH endpoints of {@link HotelController} and {@link RoomController} against an embedded database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PatchVersioningTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    private Hotel hotel;
+    private Room room;
+    private RoomType suite;
+
+    @BeforeEach
+    void setUp() {
+        RoomType standard = roomTypeRepository.save(getRoomType());
+        suite = roomTypeRepository.save(getRoomType("Suite", 50));
+        locationDictionary.resolve("Colombo");
+        hotel = hotelRepository.save(getHotel());
+        room = roomRepository.save(getRoom(hotel, standard));
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+    }
+
+    @Test
+    void Should_UpdateOnlyGivenFieldsWithThreeQueries_When_PatchHotel() throws Throwable {
+        assertMaxQueries(3, () -> mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/hotel/" + hotel.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content("{\"name\":\"Hilton Colombo\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\"")));
+        Hotel patchedHotel = hotelRepository.findById(hotel.getId()).orElseThrow();
+        assertEquals("Hilton Colombo", patchedHotel.getName());
+        assertEquals("Colombo", patchedHotel.getLocation());
+        assertEquals(1, patchedHotel.getVersion());
+    }
+
+    @Test
+    void Should_ReturnPreconditionFailed_When_IfMatchVersionIsOutdated() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/hotel/" + hotel.getId())
+                        .content("{\"name\":\"First\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/hotel/" + hotel.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content("{\"name\":\"Second\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.VERSION_CONFLICT.getMessage()));
+        assertEquals("First", hotelRepository.findById(hotel.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void Should_RecomputePrice_When_PatchRoomCost() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/room/" + room.getId())
+                        .content("{\"cost\":200}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        Room patchedRoom = roomRepository.findById(room.getId()).orElseThrow();
+        assertEquals(220, patchedRoom.getPrice(), 0.001);
+        assertEquals("R1", patchedRoom.getRoomNo());
+        assertEquals(2, patchedRoom.getMaxPeople());
+    }
+
+    @Test
+    void Should_RecomputePrice_When_PatchRoomType() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/room/" + room.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content("{\"roomTypeId\":\"" + suite.getId() + "\",\"maxPeople\":3}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Room patchedRoom = roomRepository.findAllByHotelId(hotel.getId()).get(0);
+        assertEquals(150, patchedRoom.getPrice(), 0.001);
+        assertEquals(suite.getId(), patchedRoom.getRoomType().getId());
+        assertEquals(3, patchedRoom.getMaxPeople());
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_PatchedRoomNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/room/rid-unknown")
+                        .content("{\"cost\":200}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.DATA_NOT_FOUND.getMessage()));
+    }
+}
@@ -2,14 +2,20 @@ package com.hilltop.hotel.controller;
 
 import com.hilltop.hotel.domain.entity.Room;
 import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.request.LookupRequestDto;
+import com.hilltop.hotel.domain.request.RoomBulkDeleteRequestDto;
 import com.hilltop.hotel.domain.request.RoomRequestDto;
 import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
 import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.domain.response.RoomUpdateStatusResponseDto;
 import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
 import com.hilltop.hotel.enumeration.SuccessMessage;
 import com.hilltop.hotel.exception.DataNotFoundException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.WriteBehindRejectedException;
 import com.hilltop.hotel.service.RoomService;
+import com.hilltop.hotel.writebehind.RoomWriteBehindQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -18,13 +24,18 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,21 +46,28 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class RoomControllerTest {
 
     private static final String FAILED = "Failed.";
+    private static final String TRACKING_ID = "TRACKING_ID";
     private final String ADD_ROOM_URI = "/api/v1/room";
     private final String UPDATE_ROOM_URI = "/api/v1/room";
     private final String DELETE_ROOM_URI = "/api/v1/room/ID";
     private final String LIST_ROOM_URI = "/api/v1/room/hotel/ID";
+    private final String BULK_DELETE_ROOM_URI = "/api/v1/room/bulk-delete";
+    private final String LOOKUP_ROOM_URI = "/api/v1/room/lookup";
+    private final String ROOM_UPDATE_STATUS_URI = "/api/v1/room/updates/TRACKING_ID";
     private final UpdateRoomRequestDto updateRoomRequestDto = getUpdateRoomRequestDto();
     private final RoomType roomType = new RoomType(getRoomTypeRequestDto());
     private final Room room = getRoom();
     @Mock
     private RoomService roomService;
+    @Mock
+    private RoomWriteBehindQueue roomWriteBehindQueue;
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        RoomController roomController = new RoomController(roomService);
+        when(roomWriteBehindQueue.isEnabled()).thenReturn(true);
+        RoomController roomController = new RoomController(roomService, roomWriteBehindQueue);
         mockMvc = MockMvcBuilders.standaloneSetup(roomController).build();
     }
 
@@ -150,6 +168,77 @@ class RoomControllerTest {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    @Test
+    void Should_ReturnAccepted_When_UpdateRoomPrefersRespondAsync() throws Exception {
+        when(roomWriteBehindQueue.accept(any())).thenReturn(
+                new RoomUpdateStatusResponseDto(TRACKING_ID, updateRoomRequestDto.getId(), RoomUpdateStatus.PENDING));
+        mockMvc.perform(MockMvcRequestBuilders.put(UPDATE_ROOM_URI).header("Prefer", "respond-async, wait=5")
+                        .content(updateRoomRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/v1/room/updates/" + TRACKING_ID))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_ACCEPTED.getMessage()))
+                .andExpect(jsonPath("$.data.trackingId").value(TRACKING_ID))
+                .andExpect(jsonPath("$.data.status").value(RoomUpdateStatus.PENDING.name()));
+        verify(roomWriteBehindQueue).accept(any());
+        verify(roomService, never()).updateRoom(any());
+    }
+
+    @Test
+    void Should_UpdateSynchronously_When_WriteBehindIsDisabled() throws Exception {
+        when(roomWriteBehindQueue.isEnabled()).thenReturn(false);
+        mockMvc.perform(MockMvcRequestBuilders.put(UPDATE_ROOM_URI).header("Prefer", "respond-async")
+                        .content(updateRoomRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_UPDATED.getMessage()));
+        verify(roomService).updateRoom(any());
+        verify(roomWriteBehindQueue, never()).accept(any());
+    }
+
+    @Test
+    void Should_ReturnServiceUnavailable_When_RoomUpdateQueueIsFull() throws Exception {
+        when(roomWriteBehindQueue.accept(any())).thenThrow(new WriteBehindRejectedException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.put(UPDATE_ROOM_URI).header("Prefer", "respond-async")
+                        .content(updateRoomRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.ROOM_UPDATE_QUEUE_FULL.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_AsyncUpdateRoomIsNotFound() throws Exception {
+        when(roomWriteBehindQueue.accept(any())).thenThrow(new DataNotFoundException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.put(UPDATE_ROOM_URI).header("Prefer", "respond-async")
+                        .content(updateRoomRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.DATA_NOT_FOUND.getMessage()));
+        verify(roomService, never()).updateRoom(any());
+    }
+
+    /**
+     * Unit tests for getRoomUpdateStatus() method.
+     */
+    @Test
+    void Should_ReturnStatus_When_RoomUpdateIsTracked() throws Exception {
+        when(roomWriteBehindQueue.getStatus(TRACKING_ID)).thenReturn(
+                new RoomUpdateStatusResponseDto(TRACKING_ID, "rid-123", RoomUpdateStatus.COMPLETED));
+        mockMvc.perform(MockMvcRequestBuilders.get(ROOM_UPDATE_STATUS_URI).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.roomId").value("rid-123"))
+                .andExpect(jsonPath("$.data.status").value(RoomUpdateStatus.COMPLETED.name()));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_RoomUpdateIsNotTracked() throws Exception {
+        when(roomWriteBehindQueue.getStatus(TRACKING_ID)).thenThrow(new DataNotFoundException(FAILED));
+        mockMvc.perform(MockMvcRequestBuilders.get(ROOM_UPDATE_STATUS_URI).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.DATA_NOT_FOUND.getMessage()));
+    }
+
     /**
      * Unit tests for deleteRoom() method.
      */
@@ -172,6 +261,77 @@ class RoomControllerTest {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    /**
+     * Unit tests for deleteRooms() method.
+     */
+    @Test
+    void Should_ReturnDeletedCount_When_BulkDeleteRoomsIsSuccessful() throws Exception {
+        when(roomService.deleteRoomsByHotelId("hid-123", "R")).thenReturn(3);
+        RoomBulkDeleteRequestDto roomBulkDeleteRequestDto = new RoomBulkDeleteRequestDto();
+        roomBulkDeleteRequestDto.setHotelId("hid-123");
+        roomBulkDeleteRequestDto.setRoomNo("R");
+        mockMvc.perform(MockMvcRequestBuilders.post(BULK_DELETE_ROOM_URI)
+                        .content(roomBulkDeleteRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_DELETED.getMessage()))
+                .andExpect(jsonPath("$.data.deletedCount").value(3));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_BulkDeleteHasBothIdsAndHotelId() throws Exception {
+        RoomBulkDeleteRequestDto roomBulkDeleteRequestDto = new RoomBulkDeleteRequestDto();
+        roomBulkDeleteRequestDto.setIds(List.of("rid-123"));
+        roomBulkDeleteRequestDto.setHotelId("hid-123");
+        mockMvc.perform(MockMvcRequestBuilders.post(BULK_DELETE_ROOM_URI)
+                        .content(roomBulkDeleteRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.MISSING_REQUIRED_FIELDS.getMessage()));
+    }
+
+    @Test
+    void Should_ReturnInternalServerError_When_BulkDeleteRoomsIsFailedDueToInternalErrors() throws Exception {
+        doThrow(new HillTopHotelApplicationException(FAILED)).when(roomService).deleteRoomsByIds(any());
+        RoomBulkDeleteRequestDto roomBulkDeleteRequestDto = new RoomBulkDeleteRequestDto();
+        roomBulkDeleteRequestDto.setIds(List.of("rid-123"));
+        mockMvc.perform(MockMvcRequestBuilders.post(BULK_DELETE_ROOM_URI)
+                        .content(roomBulkDeleteRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage()));
+    }
+
+    /**
+     * Unit tests for lookupRooms() method.
+     */
+    @Test
+    void Should_ReturnRoomsAndMissingIds_When_LookupRoomsIsSuccessful() throws Exception {
+        room.setId("rid-1");
+        when(roomService.getRoomsByIds(List.of("rid-1", "rid-2"))).thenReturn(List.of(room));
+        LookupRequestDto lookupRequestDto = new LookupRequestDto();
+        lookupRequestDto.setIds(List.of("rid-1", "rid-2"));
+        mockMvc.perform(MockMvcRequestBuilders.post(LOOKUP_ROOM_URI)
+                        .content(lookupRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value(SuccessMessage.SUCCESSFULLY_RETURNED.getMessage()))
+                .andExpect(jsonPath("$.data.roomList[0].id").value("rid-1"))
+                .andExpect(jsonPath("$.data.missingIds[0]").value("rid-2"));
+    }
+
+    @Test
+    void Should_ReturnBadRequest_When_LookupRoomsHasTooManyIds() throws Exception {
+        LookupRequestDto lookupRequestDto = new LookupRequestDto();
+        lookupRequestDto.setIds(Collections.nCopies(LookupRequestDto.MAX_IDS + 1, "rid-1"));
+        mockMvc.perform(MockMvcRequestBuilders.post(LOOKUP_ROOM_URI)
+                        .content(lookupRequestDto.toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessage.TOO_MANY_LOOKUP_IDS.getMessage()));
+        verifyNoInteractions(roomService);
+    }
+
     /**
      * Unit tests for listAllRoomsByHotelId() method.
      */
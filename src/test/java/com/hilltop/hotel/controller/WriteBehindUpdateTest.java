@@ -0,0 +1,145 @@
+package com.hilltop.hotel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.entity.RoomUpdate;
+import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.repository.RoomUpdateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Write behind update test
+ * Asynchronous room updates of {@link RoomController} against an embedded database.
+ */
+@SpringBootTest(properties = "hilltop.write-behind.poll-interval=PT0.1S")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WriteBehindUpdateTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    @Autowired
+    private RoomUpdateRepository roomUpdateRepository;
+    private Hotel hotel;
+    private Room room;
+    private RoomType roomType;
+
+    @BeforeEach
+    void setUp() {
+        roomType = roomTypeRepository.save(getRoomType());
+        locationDictionary.resolve("Colombo");
+        hotel = hotelRepository.save(getHotel());
+        room = roomRepository.save(getRoom(hotel, roomType));
+    }
+
+    @AfterEach
+    void tearDown() {
+        roomUpdateRepository.deleteAllInBatch();
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+    }
+
+    @Test
+    void Should_ApplyLastUpdate_When_UpdatesAreAcceptedAsynchronously() throws Exception {
+        String first = updateRoomAsync("R2", 200);
+        String second = updateRoomAsync("R3", 300);
+
+        assertEquals(RoomUpdateStatus.COMPLETED, awaitFinished(first));
+        assertEquals(RoomUpdateStatus.COMPLETED, awaitFinished(second));
+        Room updatedRoom = roomRepository.findById(room.getId()).orElseThrow();
+        assertEquals("R3", updatedRoom.getRoomNo());
+        assertEquals(330, updatedRoom.getPrice(), 0.001);
+    }
+
+    @Test
+    void Should_NotOverwriteLaterChange_When_RoomChangedAfterValidation() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/room/" + room.getId())
+                        .content("{\"roomNo\":\"R9\"}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        String trackingId = roomUpdateRepository.save(new RoomUpdate("ruid-conflict",
+                getUpdateRoomRequestDto("R2", 200), 0)).getTrackingId();
+
+        assertEquals(RoomUpdateStatus.CONFLICT, awaitFinished(trackingId));
+        assertEquals("R9", roomRepository.findById(room.getId()).orElseThrow().getRoomNo());
+    }
+
+    @Test
+    void Should_ApplyStoredUpdate_When_AcceptingInstanceStopped() throws Exception {
+        String trackingId = roomUpdateRepository.save(new RoomUpdate("ruid-stored",
+                getUpdateRoomRequestDto("R5", 500), room.getVersion())).getTrackingId();
+
+        assertEquals(RoomUpdateStatus.COMPLETED, awaitFinished(trackingId));
+        assertEquals("R5", roomRepository.findById(room.getId()).orElseThrow().getRoomNo());
+    }
+
+    private String updateRoomAsync(String roomNo, double cost) throws Exception {
+        String response = mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/room")
+                        .header("Prefer", "respond-async")
+                        .content(getUpdateRoomRequestDto(roomNo, cost).toLogJson())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).path("data").path("trackingId").asText();
+    }
+
+    private RoomUpdateStatus awaitFinished(String trackingId) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        RoomUpdateStatus status;
+        do {
+            String response = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/room/updates/" + trackingId)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode data = objectMapper.readTree(response).path("data");
+            status = RoomUpdateStatus.valueOf(data.path("status").asText());
+            if (status == RoomUpdateStatus.PENDING)
+                Thread.sleep(20);
+        } while (status == RoomUpdateStatus.PENDING && System.currentTimeMillis() < deadline);
+        return status;
+    }
+
+    private UpdateRoomRequestDto getUpdateRoomRequestDto(String roomNo, double cost) {
+        UpdateRoomRequestDto updateRoomRequestDto = new UpdateRoomRequestDto();
+        updateRoomRequestDto.setId(room.getId());
+        updateRoomRequestDto.setRoomNo(roomNo);
+        updateRoomRequestDto.setHotelId(hotel.getId());
+        updateRoomRequestDto.setRoomTypeId(roomType.getId());
+        updateRoomRequestDto.setMaxPeople(2);
+        updateRoomRequestDto.setCost(cost);
+        return updateRoomRequestDto;
+    }
+}
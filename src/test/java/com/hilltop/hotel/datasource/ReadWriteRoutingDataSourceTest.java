@@ -0,0 +1,153 @@
+package com.hilltop.hotel.datasource;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.service.HotelService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read write routing data source test
+ * Uses two embedded databases as primary and replica.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hill-top-hotel-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "hilltop.datasource.replicas[0].url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "hilltop.datasource.replicas[0].username=sa",
+        "hilltop.datasource.replica-lag-tolerance=1m"})
+@ActiveProfiles("test")
+class ReadWriteRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:hill-top-hotel-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    @Autowired
+    private HotelService hotelService;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        schema.stream().filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.update("DELETE FROM hotel");
+        ClientContext.clear();
+    }
+
+    @Test
+    void Should_ReadFromReplica_When_TransactionIsReadOnly() {
+        replica.update("INSERT INTO hotel (id, name, version) VALUES ('hid-replica', 'Replica', 0)");
+        List<String> hotelIds = hotelService.getHotelList().stream().map(Hotel::getId).collect(Collectors.toList());
+        assertEquals(List.of("hid-replica"), hotelIds);
+    }
+
+    @Test
+    void Should_WriteToPrimary_When_TransactionIsReadWrite() {
+        hotelService.addHotel(getHotelRequestDto());
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM hotel", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM hotel", Integer.class));
+    }
+
+    @Test
+    void Should_ReadFromPrimary_When_ClientWroteWithinLagTolerance() {
+        ClientContext.setClientId("writer");
+        hotelService.addHotel(getHotelRequestDto());
+        assertEquals(1, hotelService.getHotelList().size());
+        ClientContext.setClientId("reader");
+        assertTrue(hotelService.getHotelList().isEmpty());
+    }
+
+    @Test
+    void Should_NotRecordWrite_When_PrimaryIsUsedOutsideOfTransaction() {
+        ClientContext.setClientId("non-transactional");
+        new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM hotel", Integer.class);
+        assertFalse(readYourWritesTracker.requiresPrimary("non-transactional"));
+    }
+
+    @Test
+    void Should_ForgetWrite_When_LagToleranceElapsed() {
+        MutableClock clock = new MutableClock();
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(2), clock);
+        tracker.recordWrite("writer");
+        assertTrue(tracker.requiresPrimary("writer"));
+        clock.instant = clock.instant.plusSeconds(3);
+        assertFalse(tracker.requiresPrimary("writer"));
+    }
+
+    @Test
+    void Should_NotTrackClient_When_ClientIdHeaderIsMissing() throws Exception {
+        List<String> clientIds = new ArrayList<>();
+        ClientContextFilter clientContextFilter = new ClientContextFilter("X-Client-Id");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        clientContextFilter.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> clientIds.add(ClientContext.getClientId()));
+        request = new MockHttpServletRequest();
+        request.addHeader("X-Client-Id", "writer");
+        clientContextFilter.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> clientIds.add(ClientContext.getClientId()));
+        assertEquals(Arrays.asList(null, "writer"), clientIds);
+        assertNull(ClientContext.getClientId());
+    }
+
+    private HotelRequestDto getHotelRequestDto() {
+        HotelRequestDto hotelRequestDto = new HotelRequestDto();
+        hotelRequestDto.setName("Hilton");
+        hotelRequestDto.setLocation("Colombo");
+        return hotelRequestDto;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.now();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
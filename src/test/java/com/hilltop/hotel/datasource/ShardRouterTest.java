@@ -0,0 +1,156 @@
+package com.hilltop.hotel.datasource;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
+import com.hilltop.hotel.exception.DataNotFoundException;
+import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.RoomTypeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shard router test
+ * Uses two embedded databases as shard 0 and shard 1.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hill-top-hotel-shard-0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "hilltop.datasource.shards[0].url=" + ShardRouterTest.SHARD_1_URL,
+        "hilltop.datasource.shards[0].username=sa",
+        "hilltop.datasource.shard-map.Colombo=0",
+        "hilltop.datasource.shard-map.Kandy=1"})
+@ActiveProfiles("test")
+class ShardRouterTest {
+
+    static final String SHARD_1_URL = "jdbc:h2:mem:hill-top-hotel-shard-1;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    @Autowired
+    private HotelService hotelService;
+    @Autowired
+    private RoomTypeService roomTypeService;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private RoomTypeShardBackfill roomTypeShardBackfill;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    private JdbcTemplate shard0;
+    private JdbcTemplate shard1;
+
+    @BeforeEach
+    void setUp() {
+        shard0 = new JdbcTemplate(primaryDataSource);
+        shard1 = new JdbcTemplate(new DriverManagerDataSource(SHARD_1_URL, "sa", ""));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (JdbcTemplate shard : List.of(shard0, shard1)) {
+            shard.update("DELETE FROM room");
+            shard.update("DELETE FROM hotel");
+            shard.update("DELETE FROM room_type");
+        }
+        ShardContext.clear();
+    }
+
+    @Test
+    void Should_MigrateSchemaOfEveryShard_When_Started() {
+        String latestVersion = "SELECT MAX(CAST(\"version\" AS INT)) FROM \"flyway_schema_history\" WHERE \"success\"";
+        assertEquals(shard0.queryForObject(latestVersion, Integer.class),
+                shard1.queryForObject(latestVersion, Integer.class));
+        assertEquals(0, shard1.queryForObject("SELECT COUNT(*) FROM hotel", Integer.class));
+    }
+
+    @Test
+    void Should_StoreHotelOnLocationShard_When_AddHotel() {
+        hotelService.addHotel(getHotelRequestDto("Kandy Hills", "Kandy"));
+        String id = shard1.queryForObject("SELECT id FROM hotel", String.class);
+        assertTrue(id.startsWith("hid-s1-"));
+        assertEquals(0, shard0.queryForObject("SELECT COUNT(*) FROM hotel", Integer.class));
+        assertEquals("Kandy Hills", hotelService.getHotelById(id).getName());
+    }
+
+    @Test
+    void Should_RestorePreviousShard_When_RoutedTransactionCompletes() {
+        hotelService.addHotel(getHotelRequestDto("Kandy Hills", "Kandy"));
+        assertEquals(0, ShardContext.getShard());
+        String id = shard1.queryForObject("SELECT id FROM hotel", String.class);
+        hotelService.getHotelById(id);
+        assertEquals(0, ShardContext.getShard());
+    }
+
+    @Test
+    void Should_RejectRoute_When_NoTransactionIsActive() {
+        assertThrows(IllegalStateException.class, () -> shardRouter.routeByLocation("Kandy"));
+        assertEquals(0, ShardContext.getShard());
+    }
+
+    @Test
+    void Should_MergeShardsByName_When_GetHotelList() {
+        hotelService.addHotel(getHotelRequestDto("Cinnamon", "Kandy"));
+        hotelService.addHotel(getHotelRequestDto("Hilton", "Colombo"));
+        hotelService.addHotel(getHotelRequestDto("Amaya", "Kandy"));
+        List<String> names = hotelService.getHotelList().stream().map(Hotel::getName).collect(Collectors.toList());
+        assertEquals(List.of("Amaya", "Cinnamon", "Hilton"), names);
+    }
+
+    @Test
+    void Should_CopyRoomTypeToEveryShard_When_AddRoomType() {
+        RoomTypeRequestDto roomTypeRequestDto = new RoomTypeRequestDto();
+        roomTypeRequestDto.setName("Deluxe");
+        roomTypeRequestDto.setMarkupPercentage(10);
+        String id = roomTypeService.addRoomType(roomTypeRequestDto).getId();
+        assertEquals(1, shard0.queryForObject("SELECT COUNT(*) FROM room_type WHERE id = ?", Integer.class, id));
+        assertEquals(1, shard1.queryForObject("SELECT COUNT(*) FROM room_type WHERE id = ?", Integer.class, id));
+    }
+
+    @Test
+    void Should_CopyRoomTypesToEveryShard_When_RoomTypesPredateSharding() {
+        shard0.update("INSERT INTO room_type (id, name, markup_percentage) VALUES "
+                + "('rtid-legacy-1', 'Standard', 10), ('rtid-legacy-2', 'Suite', 25)");
+        assertEquals(2, roomTypeShardBackfill.backfill());
+        assertEquals(0, roomTypeShardBackfill.backfill());
+        assertEquals(25, shard1.queryForObject("SELECT markup_percentage FROM room_type WHERE id = 'rtid-legacy-2'",
+                Double.class));
+        assertEquals(2, shard1.queryForObject("SELECT COUNT(*) FROM room_type", Integer.class));
+    }
+
+    @Test
+    void Should_RouteLegacyIdToShardZero_When_IdHasNoShard() {
+        assertEquals(0, shardRouter.shardForId("hid-0b5c2a4e-8d7e-4c47-9f1a-7d3c2b1a0e9f"));
+        assertEquals(1, shardRouter.shardForId(ShardIds.newId("rid-", 1)));
+        assertEquals(12, ShardIds.shardOf("hid-s12-0b5c2a4e"));
+    }
+
+    @Test
+    void Should_ThrowDataNotFoundException_When_ShardOfIdIsNotConfigured() {
+        assertThrows(DataNotFoundException.class, () -> shardRouter.shardForId(ShardIds.newId("hid-", 2)));
+    }
+
+    @Test
+    void Should_MapLocationConsistently_When_LocationNotInShardMap() {
+        int shard = shardRouter.shardForLocation("Galle");
+        assertEquals(shard, shardRouter.shardForLocation(" galle "));
+        assertTrue(shard == 0 || shard == 1);
+    }
+
+    private HotelRequestDto getHotelRequestDto(String name, String location) {
+        HotelRequestDto hotelRequestDto = new HotelRequestDto();
+        hotelRequestDto.setName(name);
+        hotelRequestDto.setLocation(location);
+        return hotelRequestDto;
+    }
+}
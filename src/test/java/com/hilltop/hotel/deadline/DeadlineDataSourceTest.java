@@ -0,0 +1,62 @@
+package com.hilltop.hotel.deadline;
+
+import com.hilltop.hotel.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Deadline data source test
+ * Query timeouts of {@link DeadlineDataSource} against an embedded database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DeadlineDataSourceTest {
+
+    private static final String SLOW_QUERY = "select sum(x) from system_range(1, 100000000000)";
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void Should_CancelStatement_When_DeadlineIsReached() {
+        assertInstanceOf(DeadlineDataSource.class, dataSource);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            RequestDeadline.start(Duration.ofMillis(200));
+            try {
+                assertThrows(QueryTimeoutException.class, () -> jdbcTemplate.queryForObject(SLOW_QUERY, Long.class));
+            } finally {
+                RequestDeadline.clear();
+            }
+        });
+    }
+
+    @Test
+    void Should_NotRunStatement_When_DeadlineHasPassed() {
+        RequestDeadline.start(Duration.ZERO);
+        assertThrows(DeadlineExceededException.class, () -> jdbcTemplate.queryForObject("select 1", Integer.class));
+    }
+
+    @Test
+    void Should_RunStatement_When_ThreadHasNoDeadline() {
+        assertEquals(1, jdbcTemplate.queryForObject("select 1", Integer.class));
+    }
+}
@@ -0,0 +1,93 @@
+package com.hilltop.hotel.deadline;
+
+import com.hilltop.hotel.configuration.DeadlineProperties;
+import com.hilltop.hotel.controller.AwsHealthController;
+import com.hilltop.hotel.metrics.MetricName;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deadline interceptor test
+ * Unit tests for {@link DeadlineInterceptor}
+ */
+class DeadlineInterceptorTest {
+
+    private static final String HANDLER_NAME = "AwsHealthController.ping";
+    private static final String HEADER = "X-Request-Timeout";
+    private final DeadlineProperties deadlineProperties = new DeadlineProperties();
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineInterceptor deadlineInterceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        deadlineProperties.setMaxTimeout(Duration.ofSeconds(30));
+        deadlineProperties.setEndpoints(Map.of(HANDLER_NAME, Duration.ofSeconds(3)));
+        meterRegistry = new SimpleMeterRegistry();
+        deadlineInterceptor = new DeadlineInterceptor(deadlineProperties, meterRegistry);
+        handler = new HandlerMethod(new AwsHealthController(), AwsHealthController.class.getMethod("ping"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void Should_UseHeaderTimeout_When_HeaderIsGiven() {
+        deadlineInterceptor.preHandle(request("500"), new MockHttpServletResponse(), handler);
+        assertRemainingAtMost(Duration.ofMillis(500));
+    }
+
+    @Test
+    void Should_CapHeaderTimeout_When_AboveMaxTimeout() {
+        deadlineInterceptor.preHandle(request("600000"), new MockHttpServletResponse(), handler);
+        assertRemainingAtMost(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void Should_UseEndpointTimeout_When_HeaderIsMissingOrInvalid() {
+        deadlineInterceptor.preHandle(request("soon"), new MockHttpServletResponse(), handler);
+        assertRemainingAtMost(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void Should_ClearDeadlineAndCountIt_When_RequestEndedWithGatewayTimeout() {
+        MockHttpServletRequest request = request(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        deadlineInterceptor.preHandle(request, response, handler);
+        response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+
+        deadlineInterceptor.afterCompletion(request, response, handler, null);
+
+        assertFalse(RequestDeadline.isSet());
+        assertEquals(1, meterRegistry.get(MetricName.REQUEST_DEADLINE_EXCEEDED).tag("handler", HANDLER_NAME)
+                .counter().count());
+    }
+
+    private static MockHttpServletRequest request(String timeout) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        if (timeout != null)
+            request.addHeader(HEADER, timeout);
+        return request;
+    }
+
+    private static void assertRemainingAtMost(Duration timeout) {
+        long remainingNanos = RequestDeadline.getRemainingNanos();
+        assertTrue(remainingNanos <= timeout.toNanos());
+        assertTrue(remainingNanos > timeout.toNanos() - Duration.ofSeconds(1).toNanos());
+    }
+}
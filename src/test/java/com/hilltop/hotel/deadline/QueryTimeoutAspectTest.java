@@ -0,0 +1,72 @@
+package com.hilltop.hotel.deadline;
+
+import com.hilltop.hotel.exception.DeadlineExceededException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.service.RoomTypeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.UncategorizedDataAccessException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+/**
+ * Query timeout aspect test
+ * Unit tests for {@link QueryTimeoutAspect}
+ */
+class QueryTimeoutAspectTest {
+
+    private static final String FAILED = "Failed.";
+    @Mock
+    private RoomTypeService roomTypeService;
+    private RoomTypeService proxiedRoomTypeService;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(roomTypeService);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new QueryTimeoutAspect());
+        proxiedRoomTypeService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void Should_ThrowDeadlineExceededException_When_WrappedQueryTimedOut() {
+        QueryTimeoutException queryTimeoutException = new QueryTimeoutException(FAILED);
+        when(roomTypeService.getRoomTypeById(anyString()))
+                .thenThrow(new HillTopHotelApplicationException(FAILED, queryTimeoutException));
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+                () -> proxiedRoomTypeService.getRoomTypeById("rtid-123"));
+        assertEquals(queryTimeoutException, exception.getCause().getCause());
+    }
+
+    @Test
+    void Should_ThrowDeadlineExceededException_When_QueryTimeoutIsNestedDeeper() {
+        QueryTimeoutException queryTimeoutException = new QueryTimeoutException(FAILED);
+        when(roomTypeService.getRoomTypeById(anyString())).thenThrow(new HillTopHotelApplicationException(FAILED,
+                new UncategorizedDataAccessException(FAILED, queryTimeoutException) {
+                }));
+        DeadlineExceededException exception = assertThrows(DeadlineExceededException.class,
+                () -> proxiedRoomTypeService.getRoomTypeById("rtid-123"));
+        assertEquals(queryTimeoutException, exception.getCause().getCause().getCause());
+    }
+
+    @Test
+    void Should_ThrowDeadlineExceededException_When_QueryTimedOut() {
+        when(roomTypeService.getRoomTypeById(anyString())).thenThrow(new QueryTimeoutException(FAILED));
+        assertThrows(DeadlineExceededException.class, () -> proxiedRoomTypeService.getRoomTypeById("rtid-123"));
+    }
+
+    @Test
+    void Should_KeepApplicationException_When_FailureIsNotATimeout() {
+        when(roomTypeService.getRoomTypeById(anyString())).thenThrow(new HillTopHotelApplicationException(FAILED));
+        assertThrows(HillTopHotelApplicationException.class,
+                () -> proxiedRoomTypeService.getRoomTypeById("rtid-123"));
+    }
+}
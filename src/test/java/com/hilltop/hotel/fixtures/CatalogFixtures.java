@@ -0,0 +1,112 @@
+package com.hilltop.hotel.fixtures;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
+import com.hilltop.hotel.domain.request.RoomRequestDto;
+import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+
+/**
+ * Catalog fixtures
+ * Room types, hotels and rooms shared by the tests against an embedded database. Hotels saved through a repository
+ * need their location registered in the location dictionary first.
+ */
+public final class CatalogFixtures {
+
+    private CatalogFixtures() {
+    }
+
+    /**
+     * This method is used to mock room type.
+     *
+     * @param name             name
+     * @param markupPercentage markupPercentage
+     * @return room type
+     */
+    public static RoomType getRoomType(String name, double markupPercentage) {
+        RoomTypeRequestDto roomTypeRequestDto = new RoomTypeRequestDto();
+        roomTypeRequestDto.setName(name);
+        roomTypeRequestDto.setMarkupPercentage(markupPercentage);
+        return new RoomType(roomTypeRequestDto);
+    }
+
+    /**
+     * This method is used to mock the standard room type with a 10% markup.
+     *
+     * @return room type
+     */
+    public static RoomType getRoomType() {
+        return getRoomType("Standard", 10);
+    }
+
+    /**
+     * This method is used to mock hotel.
+     *
+     * @param name     name
+     * @param location location
+     * @return hotel
+     */
+    public static Hotel getHotel(String name, String location) {
+        HotelRequestDto hotelRequestDto = new HotelRequestDto();
+        hotelRequestDto.setName(name);
+        hotelRequestDto.setLocation(location);
+        return new Hotel(hotelRequestDto);
+    }
+
+    /**
+     * This method is used to mock the Hilton hotel in Colombo.
+     *
+     * @return hotel
+     */
+    public static Hotel getHotel() {
+        return getHotel("Hilton", "Colombo");
+    }
+
+    /**
+     * This method is used to mock room of the given hotel and room type.
+     *
+     * @param hotel     hotel
+     * @param roomType  roomType
+     * @param roomNo    roomNo
+     * @param maxPeople maxPeople
+     * @param cost      cost
+     * @return room
+     */
+    public static Room getRoom(Hotel hotel, RoomType roomType, String roomNo, int maxPeople, double cost) {
+        RoomRequestDto roomRequestDto = new RoomRequestDto();
+        roomRequestDto.setRoomNo(roomNo);
+        roomRequestDto.setMaxPeople(maxPeople);
+        roomRequestDto.setCost(cost);
+        return new Room(roomRequestDto, hotel, roomType);
+    }
+
+    /**
+     * This method is used to mock room R1 for two people at a cost of 100.
+     *
+     * @param hotel    hotel
+     * @param roomType roomType
+     * @return room
+     */
+    public static Room getRoom(Hotel hotel, RoomType roomType) {
+        return getRoom(hotel, roomType, "R1", 2, 100);
+    }
+
+    /**
+     * This method is used to delete all rooms, hotels and room types. Tables referencing rooms or hotels are
+     * cleared by the caller first.
+     *
+     * @param roomRepository     roomRepository
+     * @param hotelRepository    hotelRepository
+     * @param roomTypeRepository roomTypeRepository
+     */
+    public static void deleteCatalog(RoomRepository roomRepository, HotelRepository hotelRepository,
+                                     RoomTypeRepository roomTypeRepository) {
+        roomRepository.deleteAllInBatch();
+        hotelRepository.deleteAllInBatch();
+        roomTypeRepository.deleteAllInBatch();
+    }
+}
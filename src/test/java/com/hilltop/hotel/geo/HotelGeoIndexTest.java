@@ -0,0 +1,105 @@
+package com.hilltop.hotel.geo;
+
+import com.hilltop.hotel.configuration.DataSourceRoutingProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.event.HotelLocationChangedEvent;
+import com.hilltop.hotel.repository.HotelCoordinates;
+import com.hilltop.hotel.repository.HotelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+/**
+ * Hotel geo index test
+ * Unit tests for {@link HotelGeoIndex}
+ */
+class HotelGeoIndexTest {
+
+    private static final double KANDY_LATITUDE = 7.2906;
+    private static final double KANDY_LONGITUDE = 80.6337;
+    @Mock
+    private HotelRepository hotelRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    private HotelGeoIndex hotelGeoIndex;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        hotelGeoIndex = new HotelGeoIndex(hotelRepository,
+                new ShardRouter(new DataSourceRoutingProperties(), transactionManager, entityManagerFactory));
+    }
+
+    @Test
+    void Should_ReturnHotelsWithinRadiusNearestFirst_When_FindWithinRadius() {
+        hotelGeoIndex.put("hid-peradeniya", 7.2690, 80.5942);
+        hotelGeoIndex.put("hid-kandy", 7.2936, 80.6350);
+        hotelGeoIndex.put("hid-colombo", 6.9271, 79.8612);
+        List<GeoHit> geoHits = hotelGeoIndex.findWithinRadius(KANDY_LATITUDE, KANDY_LONGITUDE, 10);
+        assertEquals(List.of("hid-kandy", "hid-peradeniya"), getHotelIds(geoHits));
+        assertEquals(0.36, geoHits.get(0).getDistanceKm(), 0.05);
+        assertTrue(geoHits.get(1).getDistanceKm() < 10);
+    }
+
+    @Test
+    void Should_FindHotelsAcrossCellBorders_When_RadiusSpansManyCells() {
+        for (int i = 0; i < 50; i++)
+            hotelGeoIndex.put("hid-" + i, KANDY_LATITUDE + i * 0.01, KANDY_LONGITUDE);
+        assertEquals(10, hotelGeoIndex.findWithinRadius(KANDY_LATITUDE, KANDY_LONGITUDE, 10.5).size());
+        assertEquals(50, hotelGeoIndex.findWithinRadius(KANDY_LATITUDE, KANDY_LONGITUDE, 1000).size());
+    }
+
+    @Test
+    void Should_MoveAndRemoveHotel_When_HotelLocationChanges() {
+        hotelGeoIndex.put("hid-123", KANDY_LATITUDE, KANDY_LONGITUDE);
+        hotelGeoIndex.onHotelLocationChanged(new HotelLocationChangedEvent("hid-123", 6.9271, 79.8612));
+        assertTrue(hotelGeoIndex.findWithinRadius(KANDY_LATITUDE, KANDY_LONGITUDE, 10).isEmpty());
+        assertEquals(1, hotelGeoIndex.findWithinRadius(6.9271, 79.8612, 1).size());
+        hotelGeoIndex.onHotelLocationChanged(new HotelLocationChangedEvent("hid-123", null, null));
+        assertEquals(0, hotelGeoIndex.size());
+    }
+
+    @Test
+    void Should_ReplaceIndexWithStoredCoordinates_When_Refreshed() {
+        hotelGeoIndex.put("hid-stale", KANDY_LATITUDE, KANDY_LONGITUDE);
+        when(hotelRepository.findAllCoordinates()).thenReturn(List.of(getCoordinates("hid-123")));
+        hotelGeoIndex.refresh();
+        assertEquals(List.of("hid-123"),
+                getHotelIds(hotelGeoIndex.findWithinRadius(KANDY_LATITUDE, KANDY_LONGITUDE, 1)));
+    }
+
+    private List<String> getHotelIds(List<GeoHit> geoHits) {
+        return geoHits.stream().map(GeoHit::getHotelId).collect(Collectors.toList());
+    }
+
+    private HotelCoordinates getCoordinates(String id) {
+        return new HotelCoordinates() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public double getLatitude() {
+                return KANDY_LATITUDE;
+            }
+
+            @Override
+            public double getLongitude() {
+                return KANDY_LONGITUDE;
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.hilltop.hotel.grpc;
+
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.grpc.proto.HotelCatalogGrpc;
+import com.hilltop.hotel.grpc.proto.HotelLookupResponse;
+import com.hilltop.hotel.grpc.proto.ListRoomsRequest;
+import com.hilltop.hotel.grpc.proto.LookupRequest;
+import com.hilltop.hotel.grpc.proto.SearchHotelsRequest;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.search.RoomCatalog;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Hotel catalog gRPC service test
+ * Calls of {@link HotelCatalogGrpcService} through the gRPC server against an embedded database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HotelCatalogGrpcServiceTest {
+
+    private static final String LOCATION = "Negombo";
+    @Autowired
+    private GrpcServer grpcServer;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private RoomCatalog roomCatalog;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    private ManagedChannel channel;
+    private HotelCatalogGrpc.HotelCatalogBlockingStub stub;
+    private Hotel cheapHotel;
+    private Hotel expensiveHotel;
+
+    @BeforeEach
+    void setUp() {
+        RoomType standard = roomTypeRepository.save(getRoomType("Standard", 0));
+        expensiveHotel = saveHotel("Jetwing", standard, 300);
+        cheapHotel = saveHotel("Camelot", standard, 100);
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        stub = HotelCatalogGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+        roomCatalog.invalidateLocation(locationDictionary.find(LOCATION).orElseThrow().getId());
+    }
+
+    @Test
+    void Should_StreamHotelsInPriceOrder_When_SearchIsValid() {
+        List<com.hilltop.hotel.grpc.proto.Hotel> hotels = new ArrayList<>();
+        stub.searchHotels(SearchHotelsRequest.newBuilder().setLocation(LOCATION).setPaxCount(2).build())
+                .forEachRemaining(hotels::add);
+
+        assertEquals(2, hotels.size());
+        assertEquals(cheapHotel.getId(), hotels.get(0).getId());
+        assertEquals(expensiveHotel.getId(), hotels.get(1).getId());
+        assertEquals("R1", hotels.get(0).getRooms(0).getRoomNo());
+        assertEquals("Standard", hotels.get(0).getRooms(0).getRoomType());
+    }
+
+    @Test
+    void Should_StreamRoomsOfHotel_When_HotelIdIsGiven() {
+        List<com.hilltop.hotel.grpc.proto.Room> rooms = new ArrayList<>();
+        stub.listRooms(ListRoomsRequest.newBuilder().setHotelId(cheapHotel.getId()).build())
+                .forEachRemaining(rooms::add);
+
+        assertEquals(1, rooms.size());
+        assertEquals(2, rooms.get(0).getMaxPeople());
+    }
+
+    @Test
+    void Should_ReturnFoundHotelsAndMissingIds_When_LookingUpHotels() {
+        HotelLookupResponse response = stub.lookupHotels(LookupRequest.newBuilder()
+                .addIds(expensiveHotel.getId()).addIds("hid-missing").addIds(cheapHotel.getId()).build());
+
+        assertEquals(List.of(expensiveHotel.getId(), cheapHotel.getId()),
+                List.of(response.getHotels(0).getId(), response.getHotels(1).getId()));
+        assertEquals(List.of("hid-missing"), response.getMissingIdsList());
+    }
+
+    @Test
+    void Should_FailWithInvalidArgument_When_SearchParametersAreInvalid() {
+        SearchHotelsRequest request = SearchHotelsRequest.newBuilder().setLocation(LOCATION).setPaxCount(2)
+                .setSort("unknown").build();
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> stub.searchHotels(request).hasNext());
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        assertEquals(ErrorMessage.INVALID_SEARCH_PARAMETERS.getMessage(), exception.getStatus().getDescription());
+        SearchHotelsRequest largeLimitRequest = SearchHotelsRequest.newBuilder().setLocation(LOCATION).setPaxCount(2)
+                .setLimit(Integer.MAX_VALUE).build();
+        StatusRuntimeException limitException = assertThrows(StatusRuntimeException.class,
+                () -> stub.searchHotels(largeLimitRequest).hasNext());
+        assertEquals(Status.Code.INVALID_ARGUMENT, limitException.getStatus().getCode());
+        StatusRuntimeException lookupException = assertThrows(StatusRuntimeException.class,
+                () -> stub.lookupHotels(LookupRequest.getDefaultInstance()));
+        assertEquals(Status.Code.INVALID_ARGUMENT, lookupException.getStatus().getCode());
+    }
+
+    private Hotel saveHotel(String name, RoomType roomType, double cost) {
+        locationDictionary.resolve(LOCATION);
+        Hotel hotel = hotelRepository.save(getHotel(name, LOCATION));
+        roomRepository.save(getRoom(hotel, roomType, "R1", 2, cost));
+        return hotel;
+    }
+}
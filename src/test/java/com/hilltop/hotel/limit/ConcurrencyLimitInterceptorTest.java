@@ -0,0 +1,136 @@
+package com.hilltop.hotel.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hilltop.hotel.configuration.ConcurrencyLimitProperties;
+import com.hilltop.hotel.controller.AwsHealthController;
+import com.hilltop.hotel.controller.HotelController;
+import com.hilltop.hotel.enumeration.ErrorMessage;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.HotelSummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Concurrency limit interceptor test
+ * Unit tests for {@link ConcurrencyLimitInterceptor}
+ */
+class ConcurrencyLimitInterceptorTest {
+
+    private static final String SEARCH = "search";
+    private final HotelController hotelController = new HotelController(mock(HotelService.class),
+            mock(HotelSummaryService.class));
+    private final HandlerMethod searchHandler = handler(hotelController, "listOrSearchHotels");
+    private final HandlerMethod addHandler = handler(hotelController, "addHotel");
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties.Group oneRequest = new ConcurrencyLimitProperties.Group();
+        oneRequest.setInitialLimit(1);
+        oneRequest.setMinLimit(1);
+        oneRequest.setMaxLimit(1);
+        ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        concurrencyLimitProperties.setRetryAfter(Duration.ofSeconds(2));
+        concurrencyLimitProperties.setEndpoints(Map.of("HotelController.listOrSearchHotels", SEARCH));
+        concurrencyLimitProperties.setEndpointParameters(Map.of("HotelController.listOrSearchHotels",
+                List.of("location", "paxCount")));
+        concurrencyLimitProperties.setGroups(Map.of(SEARCH, oneRequest, ConcurrencyLimitProperties.WRITE_GROUP,
+                oneRequest, ConcurrencyLimitProperties.LIST_GROUP, oneRequest));
+        meterRegistry = new SimpleMeterRegistry();
+        concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(concurrencyLimitProperties, meterRegistry,
+                new ObjectMapper());
+    }
+
+    @Test
+    void Should_ReturnServiceUnavailableWithRetryAfter_When_GroupIsAtLimit() throws Exception {
+        assertTrue(concurrencyLimitInterceptor.preHandle(searchRequest(), new MockHttpServletResponse(),
+                searchHandler));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(concurrencyLimitInterceptor.preHandle(searchRequest(), response, searchHandler));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains(ErrorMessage.SERVICE_OVERLOADED.getMessage()));
+        assertEquals(1, meterRegistry.get(MetricName.CONCURRENCY_REJECTED).tag("group", SEARCH).counter().count());
+    }
+
+    @Test
+    void Should_AdmitNextRequest_When_AdmittedRequestCompleted() throws Exception {
+        MockHttpServletRequest request = searchRequest();
+        concurrencyLimitInterceptor.preHandle(request, new MockHttpServletResponse(), searchHandler);
+
+        concurrencyLimitInterceptor.afterCompletion(request, new MockHttpServletResponse(), searchHandler, null);
+
+        assertTrue(concurrencyLimitInterceptor.preHandle(searchRequest(), new MockHttpServletResponse(),
+                searchHandler));
+    }
+
+    @Test
+    void Should_AdmitToSearchGroup_When_RequestHasSearchParameters() throws Exception {
+        assertTrue(concurrencyLimitInterceptor.preHandle(searchRequest(), new MockHttpServletResponse(),
+                searchHandler));
+
+        assertEquals(1, concurrencyLimitInterceptor.getLimiter(SEARCH).getInFlight());
+        assertEquals(0, concurrencyLimitInterceptor.getLimiter(ConcurrencyLimitProperties.LIST_GROUP).getInFlight());
+    }
+
+    @Test
+    void Should_AdmitToListGroup_When_RequestHasNoSearchParameters() throws Exception {
+        MockHttpServletRequest request = request("GET");
+        request.setParameter("location", "Colombo");
+        assertTrue(concurrencyLimitInterceptor.preHandle(request, new MockHttpServletResponse(), searchHandler));
+        assertTrue(concurrencyLimitInterceptor.preHandle(searchRequest(), new MockHttpServletResponse(),
+                searchHandler));
+
+        assertEquals(1, concurrencyLimitInterceptor.getLimiter(ConcurrencyLimitProperties.LIST_GROUP).getInFlight());
+        assertEquals(1, concurrencyLimitInterceptor.getLimiter(SEARCH).getInFlight());
+    }
+
+    @Test
+    void Should_AdmitWritesAndHealthChecks_When_SearchGroupIsAtLimit() throws Exception {
+        concurrencyLimitInterceptor.preHandle(searchRequest(), new MockHttpServletResponse(), searchHandler);
+
+        assertTrue(concurrencyLimitInterceptor.preHandle(request("POST"), new MockHttpServletResponse(),
+                addHandler));
+        for (int i = 0; i < 3; i++)
+            assertTrue(concurrencyLimitInterceptor.preHandle(request("GET"), new MockHttpServletResponse(),
+                    handler(new AwsHealthController(), "ping")));
+        assertEquals(1, concurrencyLimitInterceptor.getLimiter(SEARCH).getInFlight());
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/v1/hotel");
+    }
+
+    private static MockHttpServletRequest searchRequest() {
+        MockHttpServletRequest request = request("GET");
+        request.setParameter("location", "Colombo");
+        request.setParameter("paxCount", "2");
+        return request;
+    }
+
+    private static HandlerMethod handler(Object controller, String methodName) {
+        for (Method method : controller.getClass().getMethods())
+            if (method.getName().equals(methodName))
+                return new HandlerMethod(controller, method);
+        throw new IllegalArgumentException(methodName);
+    }
+}
@@ -0,0 +1,88 @@
+package com.hilltop.hotel.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrency limiter test
+ * Unit tests for {@link ConcurrencyLimiter}
+ */
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void Should_RejectRequest_When_LimitIsInFlight() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST);
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void Should_ShrinkLimitToMinimum_When_LatencyRises() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 2, 50);
+        runRequests(limiter, 10, 100, FAST);
+        int limitBefore = limiter.getLimit();
+
+        runRequests(limiter, 1, 10, SLOW);
+        assertTrue(limiter.getLimit() < limitBefore);
+        runRequests(limiter, 1, 200, SLOW * 10);
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void Should_GrowLimitToMaximum_When_LatencyIsFlatAndLimitIsUsed() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 2, 40);
+
+        for (int i = 0; i < 200; i++)
+            runRequests(limiter, limiter.getLimit(), 1, FAST);
+
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void Should_KeepLimit_When_LimitIsMostlyUnused() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 40);
+
+        runRequests(limiter, 1, 500, FAST);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void Should_ThrowIllegalArgumentException_When_LimitsAreInconsistent() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(1, 2, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(5, 0, 10));
+    }
+
+    /**
+     * This method is used to run rounds of concurrent requests that all take the given latency.
+     *
+     * @param limiter     limiter
+     * @param concurrency requests in flight per round
+     * @param rounds      rounds
+     * @param latency     latency in nanos
+     */
+    private static void runRequests(ConcurrencyLimiter limiter, int concurrency, int rounds, long latency) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (admitted < concurrency && limiter.tryAcquire())
+                admitted++;
+            for (int i = 0; i < admitted; i++)
+                limiter.release(latency);
+        }
+    }
+}
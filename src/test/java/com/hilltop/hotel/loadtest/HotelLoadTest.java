@@ -0,0 +1,155 @@
+package com.hilltop.hotel.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hotel load test
+ * Boots the application against an embedded database, seeds a synthetic catalog and drives a mixed workload
+ * of searches, lists, room searches and writes through the real controllers.
+ * Run with {@code mvn -B -Ploadtest test}; sizes are configured through {@link LoadTestSettings}.
+ */
+@Slf4j
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+        "logging.level.com.hilltop=INFO"})
+class HotelLoadTest {
+
+    private static final String SEARCH = "search";
+    private static final String LIST = "list";
+    private static final String ROOM_SEARCH = "roomSearch";
+    private static final String WRITE = "write";
+    private static final double MAX_ERROR_RATE = Double.parseDouble(
+            System.getProperty("loadtest.maxErrorRate", "0.01"));
+    private final LoadTestSettings settings = new LoadTestSettings();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @LocalServerPort
+    private int port;
+    private String baseUri;
+    private SyntheticCatalogGenerator.Catalog catalog;
+    private ZipfSampler locationSampler;
+
+    @Test
+    void Should_WriteLoadTestReport_When_MixedWorkloadIsExecuted() throws Exception {
+        baseUri = "http://localhost:" + port + "/hill-top-hotel/api/v1";
+        catalog = new SyntheticCatalogGenerator(jdbcTemplate, settings).generate();
+        locationSampler = new ZipfSampler(catalog.getLocations().size(), settings.getLocationSkew());
+
+        LoadTestReport report = new LoadTestReport();
+        runWorkload(report, settings.getWarmupSeconds());
+        report.start();
+        runWorkload(report, settings.getDurationSeconds());
+        report.stop();
+
+        Map<String, Object> result = report.write(new File(settings.getReportFile()), settings);
+        log.info("Load test report: {}", result);
+        assertTrue((double) result.get("errorRate") <= MAX_ERROR_RATE, "Error rate too high: " + result);
+    }
+
+    private void runWorkload(LoadTestReport report, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executorService = Executors.newFixedThreadPool(settings.getThreads());
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < settings.getThreads(); i++) {
+                Random random = new Random(settings.getSeed() + i);
+                workers.add(executorService.submit(() -> {
+                    while (System.nanoTime() < deadline)
+                        runOperation(report, random);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers)
+                worker.get();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void runOperation(LoadTestReport report, Random random) throws InterruptedException {
+        int totalWeight = settings.getSearchWeight() + settings.getListWeight() + settings.getRoomSearchWeight() +
+                settings.getWriteWeight();
+        int pick = random.nextInt(totalWeight);
+        String operation;
+        HttpRequest request;
+        if ((pick -= settings.getSearchWeight()) < 0) {
+            operation = SEARCH;
+            request = get("/hotel?location=" + catalog.getLocations().get(locationSampler.next(random)) +
+                    "&paxCount=" + (1 + random.nextInt(settings.getMaxPeople() * 2)));
+        } else if ((pick -= settings.getListWeight()) < 0) {
+            operation = LIST;
+            request = get("/hotel");
+        } else if (pick - settings.getRoomSearchWeight() < 0) {
+            operation = ROOM_SEARCH;
+            request = get("/room/hotel/" + randomHotelId(random) + (random.nextBoolean() ? "?searchTerm=R1" : ""));
+        } else {
+            operation = WRITE;
+            request = random.nextBoolean() ? updateHotel(random) : addRoom(random);
+        }
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            success = false;
+        }
+        report.record(operation, System.nanoTime() - start, success);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path)).GET().build();
+    }
+
+    private HttpRequest updateHotel(Random random) {
+        String body = "{\"id\":\"" + randomHotelId(random) + "\",\"name\":\"Hotel " + random.nextInt() +
+                "\",\"location\":\"" + catalog.getLocations().get(random.nextInt(catalog.getLocations().size())) +
+                "\"}";
+        return json().PUT(HttpRequest.BodyPublishers.ofString(body)).uri(URI.create(baseUri + "/hotel"))
+                .build();
+    }
+
+    private HttpRequest addRoom(Random random) {
+        String body = "{\"hotelId\":\"" + randomHotelId(random) + "\",\"roomNo\":\"N" + random.nextInt(10000) +
+                "\",\"roomTypeId\":\"" + catalog.getRoomTypeIds().get(random.nextInt(catalog.getRoomTypeIds().size())) +
+                "\",\"maxPeople\":" + (1 + random.nextInt(settings.getMaxPeople())) + ",\"cost\":120}";
+        return json().POST(HttpRequest.BodyPublishers.ofString(body)).uri(URI.create(baseUri + "/room"))
+                .build();
+    }
+
+    private HttpRequest.Builder json() {
+        return HttpRequest.newBuilder().header("Content-Type", "application/json");
+    }
+
+    private String randomHotelId(Random random) {
+        return catalog.getHotelIds().get(random.nextInt(catalog.getHotelIds().size()));
+    }
+}
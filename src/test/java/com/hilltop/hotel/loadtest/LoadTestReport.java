@@ -0,0 +1,112 @@
+package com.hilltop.hotel.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test report
+ * Latency histograms and error counts per operation, written as json.
+ */
+class LoadTestReport {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private long startNanos;
+    private long endNanos;
+
+    void start() {
+        operations.clear();
+        startNanos = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * This method is used to record an operation outcome.
+     *
+     * @param operation    operation
+     * @param latencyNanos latencyNanos
+     * @param success      success
+     */
+    void record(String operation, long latencyNanos, boolean success) {
+        if (!recording)
+            return;
+        OperationStats stats = operations.computeIfAbsent(operation, key -> new OperationStats());
+        stats.histogram.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (!success)
+            stats.errors.increment();
+    }
+
+    long getErrorCount() {
+        return operations.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+    }
+
+    /**
+     * This method is used to write the report as json.
+     *
+     * @param file     report file
+     * @param settings settings
+     * @return report content.
+     * @throws IOException when the report can not be written
+     */
+    Map<String, Object> write(File file, LoadTestSettings settings) throws IOException {
+        double seconds = (endNanos - startNanos) / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("durationSeconds", seconds);
+        Map<String, Object> operationReports = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<String, OperationStats> entry : operations.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            long errors = entry.getValue().errors.sum();
+            totalRequests += histogram.getTotalCount();
+            totalErrors += errors;
+            Map<String, Object> operationReport = new LinkedHashMap<>();
+            operationReport.put("requests", histogram.getTotalCount());
+            operationReport.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            operationReport.put("errorRate", histogram.getTotalCount() == 0 ? 0 :
+                    (double) errors / histogram.getTotalCount());
+            operationReport.put("latencyMillis", percentiles(histogram));
+            operationReports.put(entry.getKey(), operationReport);
+        }
+        report.put("throughputPerSecond", totalRequests / seconds);
+        report.put("errorRate", totalRequests == 0 ? 0 : (double) totalErrors / totalRequests);
+        report.put("operations", operationReports);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs())
+            throw new IOException("Failed to create report directory: " + parent);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        return report;
+    }
+
+    private Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", histogram.getValueAtPercentile(50) / 1e6);
+        percentiles.put("p90", histogram.getValueAtPercentile(90) / 1e6);
+        percentiles.put("p99", histogram.getValueAtPercentile(99) / 1e6);
+        percentiles.put("p999", histogram.getValueAtPercentile(99.9) / 1e6);
+        percentiles.put("max", histogram.getMaxValue() / 1e6);
+        return percentiles;
+    }
+
+    private static class OperationStats {
+        private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,27 @@
+package com.hilltop.hotel.loadtest;
+
+import lombok.Getter;
+
+/**
+ * Load test settings
+ * Read from system properties, e.g. {@code -Dloadtest.hotels=50000 -Dloadtest.roomsPerHotel=40}.
+ */
+@Getter
+class LoadTestSettings {
+
+    private final int hotels = Integer.getInteger("loadtest.hotels", 2000);
+    private final int locations = Integer.getInteger("loadtest.locations", 100);
+    private final int roomsPerHotel = Integer.getInteger("loadtest.roomsPerHotel", 10);
+    private final int maxPeople = Integer.getInteger("loadtest.maxPeople", 6);
+    private final double locationSkew = Double.parseDouble(System.getProperty("loadtest.locationSkew", "1.1"));
+    private final double paxSkew = Double.parseDouble(System.getProperty("loadtest.paxSkew", "1.3"));
+    private final int threads = Integer.getInteger("loadtest.threads", 8);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 5);
+    private final int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+    private final int searchWeight = Integer.getInteger("loadtest.searchWeight", 60);
+    private final int listWeight = Integer.getInteger("loadtest.listWeight", 2);
+    private final int roomSearchWeight = Integer.getInteger("loadtest.roomSearchWeight", 28);
+    private final int writeWeight = Integer.getInteger("loadtest.writeWeight", 10);
+    private final long seed = Long.getLong("loadtest.seed", 42L);
+    private final String reportFile = System.getProperty("loadtest.reportFile", "target/loadtest-report.json");
+}
@@ -0,0 +1,101 @@
+package com.hilltop.hotel.loadtest;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic catalog generator
+ * Seeds locations, room types, hotels and rooms with JDBC batch inserts. Hotels are spread over locations with a Zipf
+ * distribution so a few locations are much more popular than the rest, and room capacities are skewed
+ * towards small rooms.
+ */
+@Slf4j
+class SyntheticCatalogGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final double[] ROOM_TYPE_MARKUPS = {10, 20, 35, 50};
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestSettings settings;
+
+    SyntheticCatalogGenerator(JdbcTemplate jdbcTemplate, LoadTestSettings settings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+    }
+
+    /**
+     * This method is used to seed the catalog.
+     *
+     * @return generated catalog.
+     */
+    Catalog generate() {
+        long start = System.currentTimeMillis();
+        Random random = new Random(settings.getSeed());
+        Catalog catalog = new Catalog();
+        int firstLocationId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from location",
+                Integer.class) + 1;
+        List<Object[]> locationRows = new ArrayList<>();
+        for (int i = 0; i < settings.getLocations(); i++) {
+            String location = "Location-" + UUID.randomUUID();
+            catalog.locations.add(location);
+            locationRows.add(new Object[]{firstLocationId + i, location.toLowerCase(Locale.ROOT), location});
+        }
+        jdbcTemplate.batchUpdate("insert into location (id, normalized_name, name) values (?, ?, ?)", locationRows);
+
+        List<Object[]> roomTypeRows = new ArrayList<>();
+        for (double markup : ROOM_TYPE_MARKUPS) {
+            String id = "rtid-" + UUID.randomUUID();
+            catalog.roomTypeIds.add(id);
+            roomTypeRows.add(new Object[]{id, "Type " + (int) markup, markup});
+        }
+        jdbcTemplate.batchUpdate("insert into room_type (id, name, markup_percentage) values (?, ?, ?)",
+                roomTypeRows);
+
+        ZipfSampler locationSampler = new ZipfSampler(settings.getLocations(), settings.getLocationSkew());
+        ZipfSampler paxSampler = new ZipfSampler(settings.getMaxPeople(), settings.getPaxSkew());
+        List<Object[]> hotelRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> roomRows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < settings.getHotels(); i++) {
+            String hotelId = "hid-" + UUID.randomUUID();
+            catalog.hotelIds.add(hotelId);
+            hotelRows.add(new Object[]{hotelId, "Hotel " + i, firstLocationId + locationSampler.next(random)});
+            for (int j = 0; j < settings.getRoomsPerHotel(); j++) {
+                int markupIndex = random.nextInt(ROOM_TYPE_MARKUPS.length);
+                double cost = 20 + random.nextInt(300);
+                roomRows.add(new Object[]{"rid-" + UUID.randomUUID(), "R" + j,
+                        catalog.roomTypeIds.get(markupIndex), paxSampler.next(random) + 1, cost,
+                        cost * (100 + ROOM_TYPE_MARKUPS[markupIndex]) / 100, hotelId});
+            }
+            if (hotelRows.size() >= BATCH_SIZE)
+                flush(hotelRows, roomRows);
+        }
+        flush(hotelRows, roomRows);
+        log.info("Seeded {} hotels and {} rooms in {} ms.", settings.getHotels(),
+                (long) settings.getHotels() * settings.getRoomsPerHotel(), System.currentTimeMillis() - start);
+        return catalog;
+    }
+
+    private void flush(List<Object[]> hotelRows, List<Object[]> roomRows) {
+        jdbcTemplate.batchUpdate("insert into hotel (id, name, location_id, version) values (?, ?, ?, 0)", hotelRows);
+        jdbcTemplate.batchUpdate("insert into room (id, room_no, room_type_id, max_people, cost, price, hotel_id, " +
+                "version) values (?, ?, ?, ?, ?, ?, ?, 0)", roomRows);
+        hotelRows.clear();
+        roomRows.clear();
+    }
+
+    /**
+     * Generated catalog keys used by the workload.
+     */
+    @Getter
+    static class Catalog {
+        private final List<String> locations = new ArrayList<>();
+        private final List<String> hotelIds = new ArrayList<>();
+        private final List<String> roomTypeIds = new ArrayList<>();
+    }
+}
@@ -0,0 +1,35 @@
+package com.hilltop.hotel.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf sampler
+ * Samples ranks 0..n-1 where rank k has a weight of 1 / (k + 1)^skew.
+ */
+class ZipfSampler {
+
+    private final double[] cumulativeWeights;
+
+    ZipfSampler(int n, double skew) {
+        cumulativeWeights = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1 / Math.pow(i + 1, skew);
+            cumulativeWeights[i] = total;
+        }
+        for (int i = 0; i < n; i++)
+            cumulativeWeights[i] /= total;
+    }
+
+    /**
+     * This method is used to sample a rank.
+     *
+     * @param random random
+     * @return rank.
+     */
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulativeWeights.length - 1);
+    }
+}
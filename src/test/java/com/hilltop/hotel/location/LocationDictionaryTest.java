@@ -0,0 +1,111 @@
+package com.hilltop.hotel.location;
+
+import com.hilltop.hotel.configuration.DataSourceRoutingProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.Location;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.repository.LocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+/**
+ * Location dictionary test
+ * Unit tests for {@link LocationDictionary}
+ */
+class LocationDictionaryTest {
+
+    private static final String NEGOMBO = "Negombo";
+    @Mock
+    private LocationRepository locationRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        shardRouter = new ShardRouter(new DataSourceRoutingProperties(), transactionManager, entityManagerFactory);
+        when(locationRepository.findByNormalizedName(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void Should_NotQueryAgain_When_NameWasFoundMissing() {
+        LocationDictionary locationDictionary = locationDictionary(10, Duration.ofMinutes(1));
+
+        assertTrue(locationDictionary.find(NEGOMBO).isEmpty());
+        assertTrue(locationDictionary.find(" negombo ").isEmpty());
+
+        verify(locationRepository, times(1)).findByNormalizedName("negombo");
+    }
+
+    @Test
+    void Should_FindLocation_When_MissingNameIsRegistered() {
+        LocationDictionary locationDictionary = locationDictionary(10, Duration.ofMinutes(1));
+        assertTrue(locationDictionary.find(NEGOMBO).isEmpty());
+        when(locationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Location location = locationDictionary.resolve(NEGOMBO);
+
+        assertEquals(Optional.of(location), locationDictionary.find(NEGOMBO));
+        assertEquals(location, locationDictionary.get(location.getId()));
+        verify(locationRepository, times(1)).save(location);
+    }
+
+    @Test
+    void Should_GetLocationWithoutQuery_When_DictionaryIsLoaded() {
+        LocationDictionary locationDictionary = locationDictionary(10, Duration.ofMinutes(1));
+        when(locationRepository.findAll()).thenReturn(List.of(new Location(7, NEGOMBO)));
+        locationDictionary.reload();
+
+        assertEquals(NEGOMBO, locationDictionary.get(7).getName());
+        assertEquals(7, locationDictionary.get(" negombo ").getId());
+        assertThrows(HillTopHotelApplicationException.class, () -> locationDictionary.get(8));
+        verify(locationRepository, times(1)).findAll();
+        verify(locationRepository, never()).findByNormalizedName(anyString());
+    }
+
+    @Test
+    void Should_QueryAgain_When_NegativeEntryExpired() {
+        LocationDictionary locationDictionary = locationDictionary(10, Duration.ZERO);
+        locationDictionary.find(NEGOMBO);
+        when(locationRepository.findByNormalizedName("negombo")).thenReturn(Optional.of(new Location(7, NEGOMBO)));
+
+        assertEquals(7, locationDictionary.find(NEGOMBO).orElseThrow().getId());
+        verify(locationRepository, times(2)).findByNormalizedName("negombo");
+    }
+
+    @Test
+    void Should_EvictOldestNegativeEntry_When_NegativeCacheIsFull() {
+        LocationDictionary locationDictionary = locationDictionary(1, Duration.ofMinutes(1));
+        locationDictionary.find(NEGOMBO);
+        locationDictionary.find("Galle");
+
+        locationDictionary.find(NEGOMBO);
+
+        verify(locationRepository, times(2)).findByNormalizedName("negombo");
+    }
+
+    private LocationDictionary locationDictionary(int negativeCacheSize, Duration negativeCacheTtl) {
+        return new LocationDictionary(locationRepository, shardRouter, negativeCacheSize, negativeCacheTtl);
+    }
+}
@@ -0,0 +1,24 @@
+package com.hilltop.hotel.location;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Location names test
+ * Unit tests for {@link LocationNames}
+ */
+class LocationNamesTest {
+
+    @Test
+    void Should_ReturnSameNormalizedName_When_NamesDifferInCaseWhitespaceOrUnicodeForm() {
+        assertEquals("nuwara eliya", LocationNames.normalize("Nuwara Eliya"));
+        assertEquals("nuwara eliya", LocationNames.normalize("  NUWARA \t eliya "));
+        assertEquals("nuwara eliya", LocationNames.normalize("Ｎｕｗａｒａ Ｅｌｉｙａ"));
+    }
+
+    @Test
+    void Should_KeepCase_When_DisplayNameIsCreated() {
+        assertEquals("Nuwara Eliya", LocationNames.displayName(" Nuwara   Eliya\n"));
+    }
+}
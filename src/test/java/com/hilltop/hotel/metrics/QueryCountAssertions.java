@@ -0,0 +1,56 @@
+package com.hilltop.hotel.metrics;
+
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query count assertions
+ * Lets tests declare the maximum number of sql statements an action may execute.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * This method is used to assert that the given action executes at most maxQueries sql statements.
+     *
+     * @param maxQueries maxQueries
+     * @param action     action
+     * @param <T>        action result type
+     * @return action result.
+     */
+    public static <T> T assertMaxQueries(int maxQueries, ThrowingSupplier<T> action) throws Throwable {
+        QueryCount queryCount = QueryCounter.start();
+        try {
+            T result = action.get();
+            assertTrue(queryCount.getStatementCount() <= maxQueries, () -> "Expected at most " + maxQueries +
+                    " queries but " + queryCount.getStatementCount() + " were executed: " +
+                    queryCount.getStatementRepetitions().keySet());
+            return result;
+        } finally {
+            QueryCounter.stop(queryCount);
+        }
+    }
+
+    /**
+     * This method is used to assert that no sql statement is executed more than maxRepetitions times by the action.
+     *
+     * @param maxRepetitions maxRepetitions
+     * @param action         action
+     * @param <T>            action result type
+     * @return action result.
+     */
+    public static <T> T assertNoRepeatedQueries(int maxRepetitions, ThrowingSupplier<T> action) throws Throwable {
+        QueryCount queryCount = QueryCounter.start();
+        try {
+            T result = action.get();
+            assertTrue(queryCount.getMaxStatementRepetition() <= maxRepetitions, () -> "Possible N+1 queries: " +
+                    queryCount.getRepeatedStatements(maxRepetitions + 1));
+            return result;
+        } finally {
+            QueryCounter.stop(queryCount);
+        }
+    }
+}
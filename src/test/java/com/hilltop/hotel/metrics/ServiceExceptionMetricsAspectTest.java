@@ -0,0 +1,79 @@
+package com.hilltop.hotel.metrics;
+
+import com.hilltop.hotel.exception.DataNotFoundException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.service.HotelService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+/**
+ * Service exception metrics aspect test
+ * Unit tests for {@link  ServiceExceptionMetricsAspect}
+ */
+class ServiceExceptionMetricsAspectTest {
+
+    @Mock
+    private HotelService hotelService;
+    private SimpleMeterRegistry meterRegistry;
+    private HotelService proxiedHotelService;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(hotelService);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceExceptionMetricsAspect(meterRegistry));
+        proxiedHotelService = proxyFactory.getProxy();
+    }
+
+    /**
+     * Unit tests for countExceptions() method.
+     */
+    @Test
+    void Should_CountExceptionPerEndpoint_When_ServiceThrowsApplicationException() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/hotel");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/hotel");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(hotelService.getHotelById(anyString())).thenThrow(new DataNotFoundException("Failed."));
+        try {
+            assertThrows(DataNotFoundException.class, () -> proxiedHotelService.getHotelById("hid-123"));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        assertEquals(1, meterRegistry.get(MetricName.SERVICE_EXCEPTIONS)
+                .tag("endpoint", "PUT /api/v1/hotel")
+                .tag("exception", "DataNotFoundException").counter().count());
+    }
+
+    @Test
+    void Should_TagEndpointAsNone_When_ServiceIsCalledOutsideRequest() {
+        when(hotelService.getHotelList()).thenThrow(new HillTopHotelApplicationException("Failed."));
+        assertThrows(HillTopHotelApplicationException.class, () -> proxiedHotelService.getHotelList());
+        assertEquals(1, meterRegistry.get(MetricName.SERVICE_EXCEPTIONS)
+                .tag("endpoint", "none")
+                .tag("exception", "HillTopHotelApplicationException").counter().count());
+    }
+
+    @Test
+    void Should_CountExceptionByType_When_ServiceThrowsUnexpectedRuntimeException() {
+        when(hotelService.getHotelList()).thenThrow(new IllegalStateException("Failed."));
+        assertThrows(IllegalStateException.class, () -> proxiedHotelService.getHotelList());
+        assertEquals(1, meterRegistry.get(MetricName.SERVICE_EXCEPTIONS)
+                .tag("method", "getHotelList")
+                .tag("exception", "IllegalStateException").counter().count());
+    }
+}
@@ -0,0 +1,45 @@
+package com.hilltop.hotel.scheduling;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Job leases test
+ * Unit tests for {@link JobLeases} against an embedded database, each instance acting as one application instance.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JobLeasesTest {
+
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void Should_LetOneInstanceRunJob_When_LeaseIsHeld() {
+        JobLeases first = new JobLeases(shardRouter, entityManager);
+        JobLeases second = new JobLeases(shardRouter, entityManager);
+        assertTrue(first.tryAcquire("held-job", Duration.ofMinutes(5)));
+        assertFalse(second.tryAcquire("held-job", Duration.ofMinutes(5)));
+        assertTrue(first.tryAcquire("held-job", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void Should_HandLeaseOver_When_LeaseExpired() {
+        JobLeases first = new JobLeases(shardRouter, entityManager);
+        JobLeases second = new JobLeases(shardRouter, entityManager);
+        assertTrue(first.tryAcquire("expired-job", Duration.ZERO));
+        assertTrue(second.tryAcquire("expired-job", Duration.ofMinutes(5)));
+        assertFalse(first.tryAcquire("expired-job", Duration.ofMinutes(5)));
+    }
+}
@@ -0,0 +1,173 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.domain.entity.CatalogChange;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Location;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.enumeration.CatalogEntityType;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.repository.CatalogChangeRepository;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.LocationRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.service.HotelService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Catalog change tailer test
+ * Eviction of changes written by other instances against an embedded database. Other instances are simulated by
+ * change log rows with a foreign origin.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogChangeTailerTest {
+
+    private static final String OTHER_ORIGIN = "other-instance";
+    private static final int WRITE_LOAD_CHANGES = 200;
+    @Autowired
+    private CatalogChangeTailer catalogChangeTailer;
+    @Autowired
+    private CatalogChangeLog catalogChangeLog;
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+    @Autowired
+    private RoomCatalog roomCatalog;
+    @Autowired
+    private HotelService hotelService;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    private Hotel hotel;
+    private int locationId;
+
+    @BeforeEach
+    void setUp() {
+        RoomType standard = roomTypeRepository.save(getRoomType());
+        locationDictionary.resolve("Negombo");
+        hotel = hotelRepository.save(getHotel("Jetwing", "Negombo"));
+        roomRepository.save(getRoom(hotel, standard));
+        locationId = locationDictionary.find("Negombo").orElseThrow().getId();
+        hotelService.getHotelsByLocationAndPaxCount("Negombo", 2);
+        assertNotNull(roomCatalog.get(locationId));
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+        roomCatalog.invalidateLocation(locationId);
+    }
+
+    @Test
+    void Should_EvictLocation_When_OtherInstanceChangesRoomOfHotel() {
+        catalogChangeRepository.save(roomChange(hotel.getId(), OTHER_ORIGIN));
+        catalogChangeTailer.poll();
+        assertNull(roomCatalog.get(locationId));
+    }
+
+    @Test
+    void Should_LoadLocation_When_OtherInstanceRegisteredIt() {
+        int registeredId = locationRepository.save(new Location("Trincomalee")).getId();
+        assertFalse(locationDictionary.contains(registeredId));
+
+        catalogChangeRepository.save(new CatalogChange(CatalogEntityType.HOTEL, "hid-other", "hid-other",
+                registeredId, OTHER_ORIGIN));
+        catalogChangeTailer.poll();
+        assertEquals("Trincomalee", locationDictionary.get(registeredId).getName());
+    }
+
+    @Test
+    void Should_KeepLocation_When_ChangeIsOwn() {
+        catalogChangeRepository.save(roomChange(hotel.getId(), catalogChangeLog.getOrigin()));
+        catalogChangeTailer.poll();
+        assertNotNull(roomCatalog.get(locationId));
+    }
+
+    @Test
+    void Should_EvictLateChange_When_ItCommitsAfterLaterVersion() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Object> lateChange = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    catalogChangeRepository.saveAndFlush(roomChange(hotel.getId(), OTHER_ORIGIN));
+                    inserted.countDown();
+                    await(commit);
+                    return null;
+                }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+        catalogChangeRepository.save(roomChange("hid-other", OTHER_ORIGIN));
+        catalogChangeTailer.poll();
+        assertNotNull(roomCatalog.get(locationId));
+
+        commit.countDown();
+        lateChange.get(5, TimeUnit.SECONDS);
+        catalogChangeTailer.poll();
+        assertNull(roomCatalog.get(locationId));
+    }
+
+    @Test
+    void Should_EvictWithinPollInterval_When_OtherInstanceWritesUnderLoad() throws Exception {
+        Timer lagTimer = meterRegistry.get(MetricName.CATALOG_CHANGE_LAG).timer();
+        long expectedCount = lagTimer.count() + WRITE_LOAD_CHANGES;
+        for (int i = 0; i < WRITE_LOAD_CHANGES; i++) {
+            catalogChangeRepository.save(roomChange("hid-load-" + i, OTHER_ORIGIN));
+            Thread.sleep(5);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (lagTimer.count() < expectedCount && System.currentTimeMillis() < deadline)
+            Thread.sleep(20);
+        log.info("Invalidation lag of {} changes: mean {} ms, max {} ms.", WRITE_LOAD_CHANGES,
+                Math.round(lagTimer.mean(TimeUnit.MILLISECONDS)), Math.round(lagTimer.max(TimeUnit.MILLISECONDS)));
+        assertTrue(lagTimer.count() >= expectedCount);
+        assertTrue(lagTimer.max(TimeUnit.MILLISECONDS) < 3000);
+    }
+
+    private static CatalogChange roomChange(String hotelId, String origin) {
+        return new CatalogChange(CatalogEntityType.ROOM, "rid-changed", hotelId, null, origin);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
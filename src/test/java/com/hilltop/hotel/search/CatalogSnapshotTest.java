@@ -0,0 +1,147 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.scheduling.JobLeases;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.persistence.EntityManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catalog snapshot test
+ * Writing and loading of catalog snapshots against an embedded database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+    @Autowired
+    private RoomCatalog roomCatalog;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private CatalogChangeLog catalogChangeLog;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private JobLeases jobLeases;
+    @Autowired
+    private EntityManager entityManager;
+    private Hotel hotel;
+    private RoomType standard;
+    private int locationId;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() {
+        standard = roomTypeRepository.save(getRoomType());
+        locationDictionary.resolve("Kandy");
+        hotel = hotelRepository.save(getHotel("Hilton", "Kandy"));
+        roomRepository.save(getRoom(hotel, standard, "R1", 4, 300));
+        roomRepository.save(getRoom(hotel, standard, "R2", 2, 100));
+        locationId = locationDictionary.find("Kandy").orElseThrow().getId();
+        snapshot = directory.resolve("catalog.snapshot");
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+        roomCatalog.invalidateLocation(locationId);
+    }
+
+    @Test
+    void Should_LoadRoomsOfLocation_When_SnapshotIsWritten() throws Exception {
+        assertTrue(catalogSnapshot.write(snapshot) >= 1);
+        roomCatalog.invalidateLocation(locationId);
+
+        assertTrue(catalogSnapshot.load(snapshot) >= 1);
+        HotelRooms[] hotelRooms = roomCatalog.get(locationId);
+        assertNotNull(hotelRooms);
+        assertEquals(1, hotelRooms.length);
+        assertEquals(hotel.getId(), hotelRooms[0].getHotelId());
+        assertEquals(2, hotelRooms[0].size());
+        assertEquals(2, hotelRooms[0].getMaxPeople(0));
+        assertEquals(110, hotelRooms[0].getPrice(0), 0.001);
+        assertEquals(4, hotelRooms[0].getMaxPeople(1));
+        assertEquals(roomCatalog.getRoomTypeOrdinal(standard.getId()), hotelRooms[0].getRoomTypeOrdinal(1));
+    }
+
+    @Test
+    void Should_WriteSnapshotOnLeaseHolderOnly_When_ScheduledWriteRuns() {
+        CatalogSnapshot scheduledSnapshot = new CatalogSnapshot(roomCatalog, catalogChangeLog, hotelRepository,
+                locationDictionary, shardRouter, jobLeases, snapshot.toString(), Duration.ZERO);
+        assertTrue(scheduledSnapshot.write() >= 1);
+        assertTrue(Files.exists(snapshot));
+
+        JobLeases otherInstance = new JobLeases(shardRouter, entityManager);
+        assertTrue(otherInstance.tryAcquire("catalog-snapshot", Duration.ofMinutes(10)));
+        assertEquals(0, scheduledSnapshot.write());
+    }
+
+    @Test
+    void Should_SkipLocation_When_ItChangedAfterSnapshot() throws Exception {
+        catalogSnapshot.write(snapshot);
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/room")
+                        .content("{\"roomNo\":\"R3\",\"hotelId\":\"" + hotel.getId() + "\",\"roomTypeId\":\""
+                                + standard.getId() + "\",\"maxPeople\":3,\"cost\":200}")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        roomCatalog.invalidateLocation(locationId);
+
+        catalogSnapshot.load(snapshot);
+        assertNull(roomCatalog.get(locationId));
+    }
+
+    @Test
+    void Should_SkipSnapshot_When_ChecksumDoesNotMatch() throws Exception {
+        catalogSnapshot.write(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+        roomCatalog.invalidateLocation(locationId);
+
+        assertEquals(0, catalogSnapshot.load(snapshot));
+        assertNull(roomCatalog.get(locationId));
+    }
+}
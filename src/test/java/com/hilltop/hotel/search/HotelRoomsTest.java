@@ -0,0 +1,48 @@
+package com.hilltop.hotel.search;
+
+import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.entity.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hotel rooms test
+ * Unit tests for {@link HotelRooms}
+ */
+class HotelRoomsTest {
+
+    @Test
+    void Should_SortRoomsByCapacityThenPrice_When_RoomsAreCopied() {
+        HotelRooms hotelRooms = HotelRooms.of("hid-1", List.of(getRoom("rid-1", 3, 100),
+                getRoom("rid-2", 1, 300), getRoom("rid-3", 3, 50), getRoom("rid-4", 2, 80)), roomTypeId -> 7);
+        assertEquals("hid-1", hotelRooms.getHotelId());
+        assertEquals(4, hotelRooms.size());
+        assertEquals(List.of("rid-2", "rid-4", "rid-3", "rid-1"), List.of(hotelRooms.getRoomId(0),
+                hotelRooms.getRoomId(1), hotelRooms.getRoomId(2), hotelRooms.getRoomId(3)));
+        assertEquals(50, hotelRooms.getPrice(2));
+        assertEquals(7, hotelRooms.getRoomTypeOrdinal(0));
+    }
+
+    @Test
+    void Should_ReturnFirstLargerRoom_When_FirstIndexAboveIsCalled() {
+        HotelRooms hotelRooms = HotelRooms.of("hid-1", List.of(getRoom("rid-1", 1, 100),
+                getRoom("rid-2", 2, 100), getRoom("rid-3", 2, 200), getRoom("rid-4", 4, 100)), roomTypeId -> 0);
+        assertEquals(0, hotelRooms.firstIndexAbove(0));
+        assertEquals(1, hotelRooms.firstIndexAbove(1));
+        assertEquals(3, hotelRooms.firstIndexAbove(2));
+        assertEquals(3, hotelRooms.firstIndexAbove(3));
+        assertEquals(4, hotelRooms.firstIndexAbove(4));
+    }
+
+    private Room getRoom(String id, int maxPeople, double price) {
+        Room room = new Room();
+        room.setId(id);
+        room.setMaxPeople(maxPeople);
+        room.setPrice(price);
+        room.setRoomType(new RoomType());
+        return room;
+    }
+}
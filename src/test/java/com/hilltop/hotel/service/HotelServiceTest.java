@@ -1,23 +1,59 @@
 package com.hilltop.hotel.service;
 
+import com.hilltop.hotel.configuration.DataSourceRoutingProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
 import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.Location;
 import com.hilltop.hotel.domain.entity.Room;
+import com.hilltop.hotel.domain.request.HotelPatchRequestDto;
+import com.hilltop.hotel.domain.request.HotelRequestDto;
 import com.hilltop.hotel.domain.request.UpdateHotelRequestDto;
+import com.hilltop.hotel.enumeration.SearchSort;
+import com.hilltop.hotel.event.HotelLocationChangedEvent;
+import com.hilltop.hotel.event.HotelRoomsChangedEvent;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.VersionConflictException;
+import com.hilltop.hotel.geo.HotelGeoIndex;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.metrics.MetricName;
 import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.search.CatalogChangeLog;
+import com.hilltop.hotel.search.RoomCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
@@ -28,16 +64,46 @@ import static org.mockito.MockitoAnnotations.openMocks;
 class HotelServiceTest {
 
     private static final String FAILED = "Failed.";
+    private static final Location COLOMBO = new Location(1, "Colombo");
     private final UpdateHotelRequestDto updateHotelRequestDto = getUpdateHotelRequestDto();
     private final Hotel hotel = new Hotel(getUpdateHotelRequestDto());
     @Mock
     private HotelRepository hotelRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    private LocationDictionary locationDictionary;
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
+    private HotelGeoIndex hotelGeoIndex;
+    private RoomCatalog roomCatalog;
     private HotelService hotelService;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        hotelService = new HotelService(hotelRepository);
+        TransactionSynchronizationManager.initSynchronization();
+        meterRegistry = new SimpleMeterRegistry();
+        ShardRouter shardRouter = new ShardRouter(new DataSourceRoutingProperties(), transactionManager,
+                entityManagerFactory);
+        hotelGeoIndex = new HotelGeoIndex(hotelRepository, shardRouter);
+        roomCatalog = new RoomCatalog(Duration.ofSeconds(30));
+        when(locationDictionary.find(any())).thenReturn(Optional.of(COLOMBO));
+        when(locationDictionary.resolve(any())).thenReturn(COLOMBO);
+        hotelService = new HotelService(hotelRepository, shardRouter, hotelGeoIndex, locationDictionary,
+                roomCatalog, catalogChangeLog, applicationEventPublisher, meterRegistry, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clear();
     }
 
     /**
@@ -58,6 +124,21 @@ class HotelServiceTest {
         assertEquals("Failed to save hotel info in database.", exception.getMessage());
     }
 
+    @Test
+    void Should_PublishHotelLocationChangedEvent_When_HotelWithCoordinatesIsAdded() {
+        HotelRequestDto hotelRequestDto = getUpdateHotelRequestDto();
+        hotelRequestDto.setLatitude(7.2906);
+        hotelRequestDto.setLongitude(80.6337);
+        hotelService.addHotel(hotelRequestDto);
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(events.capture());
+        HotelLocationChangedEvent event = events.getAllValues().stream()
+                .filter(HotelLocationChangedEvent.class::isInstance).map(HotelLocationChangedEvent.class::cast)
+                .findFirst().orElseThrow();
+        assertEquals(7.2906, event.getLatitude());
+        assertEquals(80.6337, event.getLongitude());
+    }
+
     /**
      * Unit tests for updateHotel() method.
      */
@@ -78,6 +159,28 @@ class HotelServiceTest {
         assertEquals("Failed to update hotel info in database.", exception.getMessage());
     }
 
+    /**
+     * Unit tests for patchHotel() method.
+     */
+    @Test
+    void Should_ThrowVersionConflictException_When_ExpectedVersionIsOutdated() {
+        when(hotelRepository.findVersionById(anyString())).thenReturn(Optional.of(2L));
+        HotelPatchRequestDto hotelPatchRequestDto = new HotelPatchRequestDto();
+        hotelPatchRequestDto.setName("Hilton");
+        assertThrows(VersionConflictException.class,
+                () -> hotelService.patchHotel("hid-123", hotelPatchRequestDto, 1L));
+        verify(hotelRepository, never()).patchHotel(anyString(), any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void Should_ReturnNextVersion_When_PatchHotelIsSuccessful() {
+        when(hotelRepository.findVersionById(anyString())).thenReturn(Optional.of(2L));
+        when(hotelRepository.patchHotel("hid-123", "Hilton", null, null, null, 2L)).thenReturn(1);
+        HotelPatchRequestDto hotelPatchRequestDto = new HotelPatchRequestDto();
+        hotelPatchRequestDto.setName("Hilton");
+        assertEquals(3, hotelService.patchHotel("hid-123", hotelPatchRequestDto, null));
+    }
+
     /**
      * Unit tests for getHotelList() method
      */
@@ -108,17 +211,52 @@ class HotelServiceTest {
         assertEquals("Failed to get hotel info from database.", exception.getMessage());
     }
 
+    /**
+     * Unit tests for getHotelsByIds() method.
+     */
+    @Test
+    void Should_ReturnFoundHotelsInIdOrder_When_GetHotelsByIdsSpansChunks() {
+        List<String> ids = IntStream.range(0, 150).mapToObj(i -> "hid-" + i).collect(Collectors.toList());
+        when(hotelRepository.findAllByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<String> chunk = invocation.getArgument(0);
+            return chunk.contains("hid-120") ? List.of(getHotel("hid-120")) : List.of();
+        });
+        List<Hotel> hotels = hotelService.getHotelsByIds(ids);
+        assertEquals(List.of("hid-120"), hotels.stream().map(Hotel::getId).collect(Collectors.toList()));
+        verify(hotelRepository, times(2)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void Should_ThrowHillTopHotelApplicationException_When_FailedToGetHotelsByIds() {
+        when(hotelRepository.findAllByIdIn(anyCollection())).thenThrow(new DataAccessException(FAILED) {
+        });
+        HillTopHotelApplicationException exception = assertThrows(HillTopHotelApplicationException.class,
+                () -> hotelService.getHotelsByIds(List.of("hid-123")));
+        assertEquals("Failed to get hotels by ids from database.", exception.getMessage());
+    }
+
+    /**
+     * Unit tests for getShardHotelsByIds() method.
+     */
+    @Test
+    void Should_LoadHotelsInChunks_When_GetShardHotelsByIds() {
+        List<String> ids = IntStream.range(0, 150).mapToObj(i -> "hid-" + i).collect(Collectors.toList());
+        when(hotelRepository.findAllByIdIn(anyCollection())).thenAnswer(invocation -> invocation
+                .<Collection<String>>getArgument(0).stream().map(this::getHotel).collect(Collectors.toList()));
+        assertEquals(150, hotelService.getShardHotelsByIds(ids).size());
+        verify(hotelRepository, times(2)).findAllByIdIn(anyCollection());
+    }
+
     /**
      * Unit tests for getHotelsByLocationAndPaxCount() method.
      */
 
     @Test
     void Should_ReturnHotelAndRoomMap_When_GetHotelsByLocationAndPaxCountIsCalled() {
-        Room room1 = new Room();
-        room1.setRoomNo("R1");
+        Room room1 = getRoom();
         room1.setMaxPeople(1);
 
-        Room room2 = new Room();
+        Room room2 = getRoom();
         room2.setRoomNo("R12");
         room2.setMaxPeople(2);
 
@@ -129,13 +267,40 @@ class HotelServiceTest {
         assertEquals(1, map.size());
     }
 
+    @Test
+    void Should_OpenOneTransaction_When_IdenticalSearchesAreConcurrent() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(hotelRepository.findByLocation(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(getHotel("hid-1", getRoom(2, 100)));
+        });
+        List<Thread> threads = new ArrayList<>();
+        List<CompletableFuture<Map<Hotel, List<Room>>>> searches = new ArrayList<>();
+        searches.add(search(threads));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++)
+            searches.add(search(threads));
+        long deadline = System.currentTimeMillis() + 5000;
+        for (Thread thread : threads.subList(1, threads.size()))
+            while (thread.getState() != Thread.State.TIMED_WAITING && System.currentTimeMillis() < deadline)
+                Thread.sleep(5);
+
+        release.countDown();
+
+        for (CompletableFuture<Map<Hotel, List<Room>>> search : searches)
+            assertEquals(1, search.get(5, TimeUnit.SECONDS).size());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(hotelRepository, times(1)).findByLocation(anyString());
+    }
+
     @Test
     void Should_ReturnEmptyMap_When_NoPossibleCombinationIsFoundForGetHotelsByLocationAndPaxCount() {
-        Room room1 = new Room();
-        room1.setRoomNo("R1");
+        Room room1 = getRoom();
         room1.setMaxPeople(1);
 
-        Room room2 = new Room();
+        Room room2 = getRoom();
         room2.setRoomNo("R12");
         room2.setMaxPeople(2);
 
@@ -146,6 +311,122 @@ class HotelServiceTest {
         assertEquals(0, map.size());
     }
 
+    @Test
+    void Should_RecordSearchResultSizeAndCombinationFallback_When_GetHotelsByLocationAndPaxCountIsCalled() {
+        Room room1 = getRoom();
+        room1.setMaxPeople(1);
+
+        Hotel hotel1 = getHotel();
+        hotel1.setRooms(Set.of(room1, getRoom()));
+        when(hotelRepository.findByLocation(anyString())).thenReturn(List.of(hotel1));
+        hotelService.getHotelsByLocationAndPaxCount("Colombo", 4);
+        assertEquals(1, meterRegistry.get(MetricName.SEARCH_RESULTS).summary().count());
+        assertEquals(1, meterRegistry.get(MetricName.SEARCH_RESULTS).summary().totalAmount());
+        assertEquals(1, meterRegistry.get(MetricName.SEARCH_COMBINATION_FALLBACKS)
+                .tag("outcome", "found").counter().count());
+    }
+
+    @Test
+    void Should_ReturnCheapestHotelsInPriceOrder_When_SearchHasLimit() {
+        Hotel hotel1 = getHotel("hid-1", getRoom(2, 300));
+        Hotel hotel2 = getHotel("hid-2", getRoom(2, 100), getRoom(2, 500));
+        Hotel hotel3 = getHotel("hid-3", getRoom(2, 200));
+        Hotel hotel4 = getHotel("hid-4", getRoom(3, 150));
+        when(hotelRepository.findByLocation("Colombo")).thenReturn(List.of(hotel1, hotel2, hotel3, hotel4));
+        Map<Hotel, List<Room>> map = hotelService.getHotelsByLocationAndPaxCount("Colombo", 2, null, null,
+                SearchSort.PRICE, 3);
+        assertEquals(List.of(hotel2, hotel4, hotel3), List.copyOf(map.keySet()));
+    }
+
+    @Test
+    void Should_ReturnAllMatchingHotels_When_LimitIsLargerThanCandidates() {
+        Hotel hotel1 = getHotel("hid-1", getRoom(2, 300));
+        Hotel hotel2 = getHotel("hid-2", getRoom(2, 100));
+        when(hotelRepository.findByLocation("Colombo")).thenReturn(List.of(hotel1, hotel2));
+        Map<Hotel, List<Room>> map = hotelService.getHotelsByLocationAndPaxCount("Colombo", 2, null, null,
+                SearchSort.PRICE, HotelService.MAX_SEARCH_LIMIT);
+        assertEquals(List.of(hotel2, hotel1), List.copyOf(map.keySet()));
+    }
+
+    @Test
+    void Should_ReturnBestFittingHotelsFirst_When_SearchIsSortedByCapacityFit() {
+        Hotel hotel1 = getHotel("hid-1", getRoom(4, 100));
+        Hotel hotel2 = getHotel("hid-2", getRoom(3, 300));
+        Hotel hotel3 = getHotel("hid-3", getRoom(3, 200));
+        when(hotelRepository.findByLocation("Colombo")).thenReturn(List.of(hotel1, hotel2, hotel3));
+        Map<Hotel, List<Room>> map = hotelService.getHotelsByLocationAndPaxCount("Colombo", 3, null, null,
+                SearchSort.CAPACITY_FIT, null);
+        assertEquals(List.of(hotel3, hotel2, hotel1), List.copyOf(map.keySet()));
+    }
+
+    @Test
+    void Should_OnlyOfferRoomsWithinPriceRange_When_SearchHasPriceBounds() {
+        Room cheapRoom = getRoom(2, 50);
+        Room affordableRoom = getRoom(2, 120);
+        Hotel hotel1 = getHotel("hid-1", cheapRoom, affordableRoom, getRoom(2, 400));
+        Hotel hotel2 = getHotel("hid-2", getRoom(2, 300));
+        when(hotelRepository.findByLocation("Colombo")).thenReturn(List.of(hotel1, hotel2));
+        Map<Hotel, List<Room>> map = hotelService.getHotelsByLocationAndPaxCount("Colombo", 2, 100.0, 200.0,
+                SearchSort.PRICE, null);
+        assertEquals(Map.of(hotel1, List.of(affordableRoom)), map);
+    }
+
+    @Test
+    void Should_LoadOnlyResultHotels_When_LocationIsCataloged() {
+        Room room = getRoom(2, 300);
+        Hotel hotel1 = getHotel("hid-1", room);
+        Hotel hotel2 = getHotel("hid-2", getRoom(1, 100));
+        when(hotelRepository.findByLocation("Colombo")).thenReturn(List.of(hotel1, hotel2));
+        when(hotelRepository.findAllWithRoomsByIdIn(List.of("hid-1"))).thenReturn(List.of(hotel1));
+        hotelService.getHotelsByLocationAndPaxCount("Colombo", 2);
+        assertEquals(Map.of(hotel1, List.of(room)), hotelService.getHotelsByLocationAndPaxCount("Colombo", 2));
+        verify(hotelRepository, times(1)).findByLocation(anyString());
+        verify(hotelRepository, times(1)).findAllWithRoomsByIdIn(List.of("hid-1"));
+    }
+
+    @Test
+    void Should_LoadResultHotelsInChunks_When_ManyHotelsMatch() {
+        List<Hotel> hotels = IntStream.range(0, 250).mapToObj(i -> getHotel("hid-" + i, getRoom(2, 100 + i)))
+                .collect(Collectors.toList());
+        when(hotelRepository.findByLocation("Colombo")).thenReturn(hotels);
+        hotelService.getHotelsByLocationAndPaxCount("Colombo", 2);
+        when(hotelRepository.findAllWithRoomsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return hotels.stream().filter(hotel -> ids.contains(hotel.getId())).collect(Collectors.toList());
+        });
+        assertEquals(250, hotelService.getHotelsByLocationAndPaxCount("Colombo", 2).size());
+        verify(hotelRepository, times(3)).findAllWithRoomsByIdIn(anyCollection());
+    }
+
+    @Test
+    void Should_ReloadLocation_When_RoomsOfCatalogedHotelChanged() {
+        when(hotelRepository.findByLocation("Colombo")).thenReturn(List.of(getHotel("hid-1", getRoom(2, 300))));
+        hotelService.getHotelsByLocationAndPaxCount("Colombo", 2);
+        roomCatalog.onHotelRoomsChanged(new HotelRoomsChangedEvent(List.of("hid-1"), null));
+        hotelService.getHotelsByLocationAndPaxCount("Colombo", 2);
+        verify(hotelRepository, times(2)).findByLocation(anyString());
+        verify(hotelRepository, never()).findAllWithRoomsByIdIn(anyCollection());
+    }
+
+    /**
+     * Unit tests for getHotelsNearby() method.
+     */
+    @Test
+    void Should_ReturnNearestHotelsWithRoomsForPax_When_GetHotelsNearbyIsCalled() {
+        Hotel nearHotel = getHotel("hid-near", 7.2910, 80.6340, getRoom(2, 100));
+        Hotel fullHotel = getHotel("hid-full", 7.2950, 80.6350, getRoom(1, 100));
+        Hotel fartherHotel = getHotel("hid-farther", 7.3100, 80.6400, getRoom(2, 100));
+        Hotel farHotel = getHotel("hid-far", 6.9271, 79.8612, getRoom(2, 100));
+        for (Hotel hotel : List.of(nearHotel, fullHotel, fartherHotel, farHotel))
+            hotelGeoIndex.put(hotel.getId(), hotel.getLatitude(), hotel.getLongitude());
+        when(hotelRepository.findAllWithRoomsByIdIn(anyCollection()))
+                .thenReturn(List.of(fartherHotel, fullHotel, nearHotel));
+        Map<Hotel, List<Room>> map = hotelService.getHotelsNearby(7.2906, 80.6337, 10, 2, null);
+        assertEquals(List.of(nearHotel, fartherHotel), List.copyOf(map.keySet()));
+        assertEquals(List.of(nearHotel), List.copyOf(hotelService.getHotelsNearby(7.2906, 80.6337, 10, 2, 1)
+                .keySet()));
+    }
+
     @Test
     void Should_ThrowHillTopHotelApplicationException_When_FailedToGetHotelsByLocationAndPaxCount() {
         when(hotelRepository.findByLocation(anyString())).thenThrow(new DataAccessException(FAILED) {
@@ -155,6 +436,23 @@ class HotelServiceTest {
         assertEquals("Failed to get hotels from database.", exception.getMessage());
     }
 
+    @Test
+    void Should_ReturnEmptyMapWithoutQuery_When_LocationIsNotRegistered() {
+        when(locationDictionary.find("Kandy")).thenReturn(Optional.empty());
+        assertEquals(Map.of(), hotelService.getHotelsByLocationAndPaxCount("Kandy", 2));
+        verify(hotelRepository, never()).findByLocation(anyString());
+    }
+
+    @Test
+    void Should_StoreRegisteredLocationName_When_HotelIsAdded() {
+        HotelRequestDto hotelRequestDto = getUpdateHotelRequestDto();
+        hotelRequestDto.setLocation(" colombo ");
+        hotelService.addHotel(hotelRequestDto);
+        ArgumentCaptor<Hotel> savedHotel = ArgumentCaptor.forClass(Hotel.class);
+        verify(hotelRepository, times(1)).save(savedHotel.capture());
+        assertEquals("Colombo", savedHotel.getValue().getLocation());
+    }
+
     /**
      * This method is used to mock hotelRequestDto.
      *
@@ -167,6 +465,26 @@ class HotelServiceTest {
         return updateHotelRequestDto;
     }
 
+    /**
+     * This method is used to search hotels of Colombo for two on a new thread.
+     *
+     * @param threads started threads
+     * @return search result.
+     */
+    private CompletableFuture<Map<Hotel, List<Room>>> search(List<Thread> threads) {
+        CompletableFuture<Map<Hotel, List<Room>>> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(hotelService.getHotelsByLocationAndPaxCount("Colombo", 2));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        threads.add(thread);
+        thread.start();
+        return future;
+    }
+
     /**
      * This method is used to mock hotel.
      *
@@ -174,12 +492,57 @@ class HotelServiceTest {
      */
     private Hotel getHotel() {
         Hotel hotel = new Hotel();
+        hotel.setId("hid-123");
         hotel.setName("Hotel");
         hotel.setLocation("Colombo");
         hotel.setRooms(Set.of(getRoom()));
         return hotel;
     }
 
+    /**
+     * This method is used to mock hotel with rooms.
+     *
+     * @param id    hotelId
+     * @param rooms rooms
+     * @return hotel
+     */
+    private Hotel getHotel(String id, Room... rooms) {
+        Hotel hotel = getHotel();
+        hotel.setId(id);
+        hotel.setRooms(Set.of(rooms));
+        return hotel;
+    }
+
+    /**
+     * This method is used to mock hotel with coordinates and rooms.
+     *
+     * @param id        hotelId
+     * @param latitude  latitude
+     * @param longitude longitude
+     * @param rooms     rooms
+     * @return hotel
+     */
+    private Hotel getHotel(String id, double latitude, double longitude, Room... rooms) {
+        Hotel hotel = getHotel(id, rooms);
+        hotel.setLatitude(latitude);
+        hotel.setLongitude(longitude);
+        return hotel;
+    }
+
+    /**
+     * This method is used to mock room with capacity and price.
+     *
+     * @param maxPeople maxPeople
+     * @param price     price
+     * @return room
+     */
+    private Room getRoom(int maxPeople, double price) {
+        Room room = getRoom();
+        room.setMaxPeople(maxPeople);
+        room.setPrice(price);
+        return room;
+    }
+
     /**
      * This method is used to mock room.
      *
@@ -187,6 +550,7 @@ class HotelServiceTest {
      */
     private Room getRoom() {
         Room room = new Room();
+        room.setId("rid-" + UUID.randomUUID());
         room.setRoomNo("R1");
         room.setMaxPeople(3);
         return room;
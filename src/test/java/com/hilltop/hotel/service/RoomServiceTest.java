@@ -1,21 +1,54 @@
 package com.hilltop.hotel.service;
 
+import com.hilltop.hotel.configuration.DataSourceRoutingProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
 import com.hilltop.hotel.domain.entity.Hotel;
 import com.hilltop.hotel.domain.entity.Room;
 import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.domain.entity.RoomUpdate;
+import com.hilltop.hotel.domain.request.RoomPatchRequestDto;
 import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
 import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.domain.response.RoomUpdateStatusResponseDto;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import com.hilltop.hotel.event.RoomsDeletedEvent;
+import com.hilltop.hotel.exception.DataNotFoundException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.VersionConflictException;
+import com.hilltop.hotel.repository.RoomFigures;
+import com.hilltop.hotel.repository.RoomKey;
+import com.hilltop.hotel.repository.RoomPricing;
 import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomUpdateRepository;
+import com.hilltop.hotel.search.CatalogChangeLog;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.openMocks;
@@ -36,14 +69,36 @@ class RoomServiceTest {
     @Mock
     private RoomRepository roomRepository;
     @Mock
+    private RoomUpdateRepository roomUpdateRepository;
+    @Mock
     private RoomTypeService roomTypeService;
     @Mock
     private HotelService hotelService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private HotelSummaryService hotelSummaryService;
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        roomService = new RoomService(roomRepository, hotelService, roomTypeService);
+        TransactionSynchronizationManager.initSynchronization();
+        roomService = new RoomService(roomRepository, roomUpdateRepository, hotelService, roomTypeService,
+                new ShardRouter(new DataSourceRoutingProperties(), transactionManager, entityManagerFactory),
+                hotelSummaryService, catalogChangeLog, applicationEventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clear();
     }
 
     /**
@@ -54,7 +109,11 @@ class RoomServiceTest {
         when(hotelService.getHotelById(anyString())).thenReturn(hotel);
         when(roomTypeService.getRoomTypeById(anyString())).thenReturn(roomType);
         roomService.addRoom(updateRoomRequestDto);
-        verify(roomRepository, times(1)).save(any());
+        InOrder inOrder = inOrder(hotelSummaryService, roomRepository);
+        inOrder.verify(hotelSummaryService, times(1)).lockHotels(List.of("hid-123"));
+        inOrder.verify(roomRepository, times(1)).save(any());
+        inOrder.verify(hotelSummaryService, times(1)).recordRoomAdded(any());
+        verify(catalogChangeLog, times(1)).recordRoom(anyString(), eq(hotel.getId()));
     }
 
     @Test
@@ -75,7 +134,12 @@ class RoomServiceTest {
         when(hotelService.getHotelById(anyString())).thenReturn(hotel);
         when(roomTypeService.getRoomTypeById(anyString())).thenReturn(roomType);
         roomService.updateRoom(updateRoomRequestDto);
-        verify(roomRepository, times(1)).save(any());
+        InOrder inOrder = inOrder(hotelSummaryService, roomRepository);
+        inOrder.verify(hotelSummaryService, times(1)).lockHotels(Set.of("hid-123"));
+        inOrder.verify(roomRepository, times(1)).save(any());
+        inOrder.verify(hotelSummaryService, times(1)).recordRoomsRemoved(anyCollection());
+        inOrder.verify(hotelSummaryService, times(1)).recordRoomAdded(any());
+        verify(catalogChangeLog, times(1)).recordRoom(room.getId(), "hid-123");
     }
 
     @Test
@@ -88,6 +152,122 @@ class RoomServiceTest {
         assertEquals("Failed to update room info in database.", exception.getMessage());
     }
 
+    /**
+     * Unit tests for acceptRoomUpdate() & applyRoomUpdates() methods.
+     */
+    @Test
+    void Should_StoreRoomUpdateAtRoomVersion_When_RoomUpdateIsValid() {
+        when(roomRepository.findPricingById(ROOM_ID)).thenReturn(Optional.of(getRoomPricing(100, 10, 4)));
+        when(roomUpdateRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        RoomUpdateStatusResponseDto roomUpdateStatusResponseDto = roomService.acceptRoomUpdate(updateRoomRequestDto);
+        assertEquals(ROOM_ID, roomUpdateStatusResponseDto.getRoomId());
+        assertEquals(RoomUpdateStatus.PENDING, roomUpdateStatusResponseDto.getStatus());
+        ArgumentCaptor<RoomUpdate> roomUpdate = ArgumentCaptor.forClass(RoomUpdate.class);
+        verify(roomUpdateRepository, times(1)).save(roomUpdate.capture());
+        assertEquals(4, roomUpdate.getValue().getExpectedVersion());
+        assertEquals(roomUpdateStatusResponseDto.getTrackingId(), roomUpdate.getValue().getTrackingId());
+        verify(hotelService, times(1)).getHotelById("hid-123");
+        verify(roomTypeService, times(1)).getRoomTypeById("rtid-123");
+        verify(roomRepository, never()).save(any());
+    }
+
+    @Test
+    void Should_OnlyUpdateRoomsAtExpectedVersion_When_ApplyRoomUpdates() {
+        room.setId(ROOM_ID);
+        room.setVersion(4);
+        Room changedRoom = getRoom();
+        changedRoom.setId("rid-456");
+        changedRoom.setVersion(7);
+        UpdateRoomRequestDto changedRoomUpdate = getUpdateRoomRequestDto();
+        changedRoomUpdate.setId("rid-456");
+        RoomUpdate firstUpdate = new RoomUpdate("ruid-1", updateRoomRequestDto, 3);
+        RoomUpdate secondUpdate = new RoomUpdate("ruid-2", updateRoomRequestDto, 4);
+        RoomUpdate changedRoomUpdateEntry = new RoomUpdate("ruid-3", changedRoomUpdate, 6);
+        when(roomUpdateRepository.findAllByStatusOrderById(eq(RoomUpdateStatus.PENDING), any()))
+                .thenReturn(List.of(firstUpdate, secondUpdate, changedRoomUpdateEntry));
+        when(roomRepository.findAllByIdIn(List.of(ROOM_ID, "rid-456"))).thenReturn(List.of(room, changedRoom));
+        when(hotelService.getShardHotelsByIds(Set.of("hid-123"))).thenReturn(Map.of("hid-123", hotel));
+        when(roomTypeService.getRoomTypesByIds(Set.of("rtid-123"))).thenReturn(Map.of("rtid-123", roomType));
+        List<RoomUpdate> roomUpdates = roomService.applyRoomUpdates(0, 100);
+        assertEquals(List.of(RoomUpdateStatus.COMPLETED, RoomUpdateStatus.COMPLETED, RoomUpdateStatus.CONFLICT),
+                roomUpdates.stream().map(RoomUpdate::getStatus).collect(Collectors.toList()));
+        verify(hotelService, never()).getHotelById(anyString());
+        verify(roomTypeService, never()).getRoomTypeById(anyString());
+        verify(roomRepository, times(1)).saveAll(List.of(room));
+        verify(hotelSummaryService, times(1)).lockHotels(Set.of("hid-123"));
+        verify(hotelSummaryService, times(1)).recordRoomsRemoved(argThat(rooms -> rooms.size() == 1));
+        verify(hotelSummaryService, times(1)).recordRoomAdded(any());
+        verify(catalogChangeLog, times(1)).recordRoom(ROOM_ID, "hid-123");
+        verify(catalogChangeLog, never()).recordRoom(eq("rid-456"), anyString());
+        verify(roomUpdateRepository, times(1)).rebasePendingUpdates(Set.of(ROOM_ID));
+    }
+
+    @Test
+    void Should_ThrowHillTopHotelApplicationException_When_FailedToApplyRoomUpdates() {
+        when(roomUpdateRepository.findAllByStatusOrderById(eq(RoomUpdateStatus.PENDING), any()))
+                .thenReturn(List.of(new RoomUpdate("ruid-1", updateRoomRequestDto, 4)));
+        when(roomRepository.findAllByIdIn(anyCollection())).thenThrow(new DataAccessException(FAILED) {
+        });
+        HillTopHotelApplicationException exception = assertThrows(HillTopHotelApplicationException.class,
+                () -> roomService.applyRoomUpdates(0, 100));
+        assertEquals("Failed to apply room updates in database.", exception.getMessage());
+    }
+
+    @Test
+    void Should_FinishRoomUpdateAsFailed_When_FailRoomUpdate() {
+        RoomUpdate roomUpdate = new RoomUpdate("ruid-1", updateRoomRequestDto, 4);
+        when(roomUpdateRepository.findByTrackingIdAndStatus("ruid-1", RoomUpdateStatus.PENDING))
+                .thenReturn(Optional.of(roomUpdate));
+        roomService.failRoomUpdate("ruid-1");
+        assertEquals(RoomUpdateStatus.FAILED, roomUpdate.getStatus());
+    }
+
+    @Test
+    void Should_ThrowDataNotFoundException_When_RoomUpdateIsUnknown() {
+        when(roomUpdateRepository.findByTrackingId("ruid-1")).thenReturn(Optional.empty());
+        assertThrows(DataNotFoundException.class, () -> roomService.getRoomUpdateStatus("ruid-1"));
+    }
+
+    /**
+     * Unit tests for patchRoom() method.
+     */
+    @Test
+    void Should_RecomputePriceWithNewRoomType_When_PatchRoomType() {
+        when(roomRepository.findPricingById(ROOM_ID)).thenReturn(Optional.of(getRoomPricing(100, 10, 4)));
+        when(roomTypeService.getRoomTypeById("rtid-123")).thenReturn(roomType);
+        when(roomRepository.patchRoomAndRoomType(ROOM_ID, null, null, 100, 105, roomType, 4)).thenReturn(1);
+        RoomPatchRequestDto roomPatchRequestDto = new RoomPatchRequestDto();
+        roomPatchRequestDto.setRoomTypeId("rtid-123");
+        assertEquals(5, roomService.patchRoom(ROOM_ID, roomPatchRequestDto, 4L));
+        verify(hotelSummaryService, times(1)).lockHotels(List.of("hid-123"));
+        ArgumentCaptor<RoomFigures> figures = ArgumentCaptor.forClass(RoomFigures.class);
+        verify(hotelSummaryService, times(1)).recordRoomsRemoved(anyCollection());
+        verify(hotelSummaryService, times(1)).recordRoomAdded(figures.capture());
+        assertEquals(roomType.getId(), figures.getValue().getRoomTypeId());
+        assertEquals(2, figures.getValue().getMaxPeople());
+        assertEquals(105, figures.getValue().getPrice());
+    }
+
+    @Test
+    void Should_NotRecomputeHotelSummary_When_OnlyRoomNoIsPatched() {
+        when(roomRepository.findPricingById(ROOM_ID)).thenReturn(Optional.of(getRoomPricing(100, 10, 4)));
+        when(roomRepository.patchRoom(ROOM_ID, "R2", null, 100, 110, 4)).thenReturn(1);
+        RoomPatchRequestDto roomPatchRequestDto = new RoomPatchRequestDto();
+        roomPatchRequestDto.setRoomNo("R2");
+        assertEquals(5, roomService.patchRoom(ROOM_ID, roomPatchRequestDto, null));
+        verify(hotelSummaryService, never()).recordRoomsRemoved(anyCollection());
+        verify(hotelSummaryService, never()).recordRoomAdded(any());
+    }
+
+    @Test
+    void Should_ThrowVersionConflictException_When_RoomChangedConcurrently() {
+        when(roomRepository.findPricingById(ROOM_ID)).thenReturn(Optional.of(getRoomPricing(100, 10, 4)));
+        when(roomRepository.patchRoom(anyString(), any(), any(), anyDouble(), anyDouble(), anyLong())).thenReturn(0);
+        RoomPatchRequestDto roomPatchRequestDto = new RoomPatchRequestDto();
+        roomPatchRequestDto.setCost(200.0);
+        assertThrows(VersionConflictException.class, () -> roomService.patchRoom(ROOM_ID, roomPatchRequestDto, null));
+    }
+
     /**
      * Unit tests for deleteRoomById() method.
      */
@@ -97,6 +277,34 @@ class RoomServiceTest {
         verify(roomRepository, times(1)).deleteById(anyString());
     }
 
+    @Test
+    void Should_PublishRoomsDeletedEvent_When_RoomIsDeleted() {
+        List<RoomKey> roomKeys = List.of(getRoomKey(ROOM_ID, "hid-123"));
+        when(roomRepository.findHotelIdsByIdIn(List.of(ROOM_ID))).thenReturn(List.of("hid-123"));
+        when(roomRepository.findKeysByIdIn(List.of(ROOM_ID))).thenReturn(roomKeys);
+        roomService.deleteRoomById(ROOM_ID);
+        verify(catalogChangeLog, times(1)).recordRoomsDeleted(anyCollection());
+        InOrder inOrder = inOrder(hotelSummaryService, roomRepository);
+        inOrder.verify(hotelSummaryService, times(1)).lockHotels(Set.of("hid-123"));
+        inOrder.verify(roomRepository, times(1)).findKeysByIdIn(List.of(ROOM_ID));
+        inOrder.verify(roomRepository, times(1)).deleteById(ROOM_ID);
+        inOrder.verify(hotelSummaryService, times(1)).recordRoomsRemoved(roomKeys);
+        ArgumentCaptor<RoomsDeletedEvent> event = ArgumentCaptor.forClass(RoomsDeletedEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(Set.of("hid-123"), event.getValue().getHotelIds());
+    }
+
+    @Test
+    void Should_LockNewHotelOfRoom_When_RoomMovedBeforeItWasLocked() {
+        when(roomRepository.findHotelIdsByIdIn(List.of(ROOM_ID))).thenReturn(List.of("hid-123"));
+        when(roomRepository.findKeysByIdIn(List.of(ROOM_ID))).thenReturn(List.of(getRoomKey(ROOM_ID, "hid-456")));
+        roomService.deleteRoomById(ROOM_ID);
+        InOrder inOrder = inOrder(hotelSummaryService, roomRepository);
+        inOrder.verify(hotelSummaryService, times(1)).lockHotels(Set.of("hid-123"));
+        inOrder.verify(hotelSummaryService, times(1)).lockHotels(Set.of("hid-456"));
+        inOrder.verify(roomRepository, times(1)).deleteById(ROOM_ID);
+    }
+
     @Test
     void Should_ThrowHillTopHotelApplicationException_When_DeletingRoomDataIsFailed() {
         doThrow(new DataAccessException(FAILED) {
@@ -106,6 +314,67 @@ class RoomServiceTest {
         assertEquals("Failed to delete room from database.", exception.getMessage());
     }
 
+    /**
+     * Unit tests for deleteRoomsByIds() & deleteRoomsByHotelId() methods.
+     */
+    @Test
+    void Should_DeleteRoomsInChunksAndPublishOneEvent_When_DeleteRoomsByIds() {
+        List<String> roomIds = IntStream.range(0, 1200).mapToObj(i -> "rid-" + i).collect(Collectors.toList());
+        when(roomRepository.findKeysByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> getRoomKey(id, "hid-123")).collect(Collectors.toList());
+        });
+        when(roomRepository.deleteAllByIdIn(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).size());
+        assertEquals(1200, roomService.deleteRoomsByIds(roomIds));
+        verify(roomRepository, times(3)).deleteAllByIdIn(anyCollection());
+        verify(catalogChangeLog, times(3)).recordRoomsDeleted(anyCollection());
+        verify(hotelSummaryService, times(1)).lockHotels(Set.of("hid-123"));
+        verify(hotelSummaryService, times(1)).recordRoomsRemoved(argThat(rooms -> rooms.size() == 1200));
+        ArgumentCaptor<RoomsDeletedEvent> event = ArgumentCaptor.forClass(RoomsDeletedEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(Set.of("hid-123"), event.getValue().getHotelIds());
+        assertEquals(1200, event.getValue().getRoomIds().size());
+    }
+
+    @Test
+    void Should_DeleteFilteredRoomsOfHotel_When_RoomNoIsGiven() {
+        when(roomRepository.findKeysByHotelIdAndRoomNoContaining("hid-123", "R1"))
+                .thenReturn(List.of(getRoomKey("rid-1", "hid-123"), getRoomKey("rid-2", "hid-123")));
+        when(roomRepository.deleteAllByIdIn(List.of("rid-1", "rid-2"))).thenReturn(2);
+        assertEquals(2, roomService.deleteRoomsByHotelId("hid-123", "R1"));
+        verify(roomRepository, times(1)).deleteAllByIdIn(List.of("rid-1", "rid-2"));
+        verify(catalogChangeLog, times(1)).recordRoomsDeleted(anyCollection());
+        verify(hotelSummaryService, times(1)).lockHotels(List.of("hid-123"));
+        verify(hotelSummaryService, times(1)).recordRoomsRemoved(argThat(rooms -> rooms.size() == 2));
+        verify(roomRepository, never()).findKeysByHotelId(anyString());
+    }
+
+    @Test
+    void Should_CountAffectedRows_When_DeleteRoomsOfHotel() {
+        when(roomRepository.findKeysByHotelId("hid-123"))
+                .thenReturn(List.of(getRoomKey("rid-1", "hid-123"), getRoomKey("rid-2", "hid-123")));
+        when(roomRepository.deleteAllByIdIn(anyCollection())).thenReturn(1);
+        assertEquals(1, roomService.deleteRoomsByHotelId("hid-123", null));
+    }
+
+    @Test
+    void Should_NotPublishEvent_When_NoRoomsAreDeleted() {
+        assertEquals(0, roomService.deleteRoomsByHotelId("hid-123", null));
+        verify(roomRepository, never()).deleteAllByIdIn(anyCollection());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void Should_ThrowHillTopHotelApplicationException_When_BulkDeletingRoomsIsFailed() {
+        when(roomRepository.findKeysByIdIn(anyCollection())).thenThrow(new DataAccessException(FAILED) {
+        });
+        List<String> roomIds = List.of(ROOM_ID);
+        HillTopHotelApplicationException exception = assertThrows(HillTopHotelApplicationException.class,
+                () -> roomService.deleteRoomsByIds(roomIds));
+        assertEquals("Failed to delete rooms from database.", exception.getMessage());
+    }
+
     /**
      * Unit tests for getRoomListByHotelIdAndSearchTerm() method.
      */
@@ -158,6 +427,89 @@ class RoomServiceTest {
         return updateRoomRequestDto;
     }
 
+    /**
+     * This method is used to mock room pricing.
+     *
+     * @param cost             cost
+     * @param markupPercentage markupPercentage
+     * @param version          version
+     * @return room pricing
+     */
+    private RoomPricing getRoomPricing(double cost, double markupPercentage, long version) {
+        return new RoomPricing() {
+            @Override
+            public String getHotelId() {
+                return "hid-123";
+            }
+
+            @Override
+            public String getRoomTypeId() {
+                return "rtid-123";
+            }
+
+            @Override
+            public int getMaxPeople() {
+                return 2;
+            }
+
+            @Override
+            public double getPrice() {
+                return Room.calculateRoomPrice(cost, markupPercentage);
+            }
+
+            @Override
+            public double getCost() {
+                return cost;
+            }
+
+            @Override
+            public double getMarkupPercentage() {
+                return markupPercentage;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    /**
+     * This method is used to mock room key.
+     *
+     * @param id      roomId
+     * @param hotelId hotelId
+     * @return room key
+     */
+    private RoomKey getRoomKey(String id, String hotelId) {
+        return new RoomKey() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getHotelId() {
+                return hotelId;
+            }
+
+            @Override
+            public String getRoomTypeId() {
+                return "rtid-123";
+            }
+
+            @Override
+            public int getMaxPeople() {
+                return 2;
+            }
+
+            @Override
+            public double getPrice() {
+                return 110;
+            }
+        };
+    }
+
     /**
      * This method is used to mock room.
      *
@@ -167,6 +519,8 @@ class RoomServiceTest {
         Room room = new Room();
         room.setRoomNo("R1");
         room.setMaxPeople(5);
+        room.setHotel(getHotel());
+        room.setRoomType(new RoomType(getRoomTypeRequestDto()));
         return room;
     }
 
@@ -177,6 +531,7 @@ class RoomServiceTest {
      */
     private Hotel getHotel() {
         Hotel hotel = new Hotel();
+        hotel.setId("hid-123");
         hotel.setName("Hotel");
         hotel.setLocation("Colombo");
         return hotel;
@@ -1,14 +1,21 @@
 package com.hilltop.hotel.service;
 
+import com.hilltop.hotel.configuration.DataSourceRoutingProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.RoomType;
 import com.hilltop.hotel.domain.request.RoomTypeRequestDto;
 import com.hilltop.hotel.exception.DataNotFoundException;
 import com.hilltop.hotel.exception.HillTopHotelApplicationException;
 import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.search.CatalogChangeLog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -27,12 +34,20 @@ class RoomTypeServiceTest {
     private final RoomTypeRequestDto roomTypeRequestDto = getRoomTypeRequestDto();
     @Mock
     private RoomTypeRepository roomTypeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
     private RoomTypeService roomTypeService;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
-        roomTypeService = new RoomTypeService(roomTypeRepository);
+        roomTypeService = new RoomTypeService(roomTypeRepository,
+                new ShardRouter(new DataSourceRoutingProperties(), transactionManager, entityManagerFactory),
+                catalogChangeLog);
     }
 
     /**
@@ -40,8 +55,9 @@ class RoomTypeServiceTest {
      */
     @Test
     void Should_SaveRoomTypeDetailOnDatabase_When_ValidDataIsGiven() {
-        roomTypeService.addRoomType(roomTypeRequestDto);
+        RoomType roomType = roomTypeService.addRoomType(roomTypeRequestDto);
         verify(roomTypeRepository, times(1)).save(any());
+        verify(catalogChangeLog, times(1)).recordRoomType(roomType.getId());
     }
 
     @Test
@@ -53,6 +69,29 @@ class RoomTypeServiceTest {
         assertEquals("Failed to save room type on database.", exception.getMessage());
     }
 
+    @Test
+    void Should_ThrowHillTopHotelApplicationException_When_ShardCommitFailsWithoutDataAccessException() {
+        doThrow(new TransactionSystemException(FAILED)).when(transactionManager).commit(any());
+        HillTopHotelApplicationException exception = assertThrows(HillTopHotelApplicationException.class,
+                () -> roomTypeService.addRoomType(roomTypeRequestDto));
+        assertEquals("Failed to save room type on database.", exception.getMessage());
+    }
+
+    @Test
+    void Should_RemoveRoomTypeFromWrittenShards_When_FailedToAddRoomTypeOnLaterShard() {
+        DataSourceRoutingProperties dataSourceRoutingProperties = new DataSourceRoutingProperties();
+        dataSourceRoutingProperties.getShards().add(new DataSourceRoutingProperties.Shard());
+        roomTypeService = new RoomTypeService(roomTypeRepository,
+                new ShardRouter(dataSourceRoutingProperties, transactionManager, entityManagerFactory),
+                catalogChangeLog);
+        when(roomTypeRepository.save(any())).then(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataAccessException(FAILED) {
+                });
+        assertThrows(HillTopHotelApplicationException.class, () -> roomTypeService.addRoomType(roomTypeRequestDto));
+        verify(roomTypeRepository, times(1)).deleteById(anyString());
+        verify(catalogChangeLog, times(2)).recordRoomType(anyString());
+    }
+
     /**
      * Unit tests for getRoomTypeById() method.
      */
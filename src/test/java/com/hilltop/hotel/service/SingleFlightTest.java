@@ -0,0 +1,216 @@
+package com.hilltop.hotel.service;
+
+import com.hilltop.hotel.deadline.RequestDeadline;
+import com.hilltop.hotel.exception.DeadlineExceededException;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single flight test
+ * Unit tests for {@link SingleFlight}
+ */
+class SingleFlightTest {
+
+    private static final String KEY = "Colombo/2";
+    private static final String METRIC = "test.coalescing";
+    private static final int WAITERS = 8;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger computations = new AtomicInteger();
+    private final List<Thread> threads = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>(Duration.ofSeconds(5), meterRegistry, METRIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        threads.forEach(Thread::interrupt);
+    }
+
+    @Test
+    void Should_ShareOneComputation_When_IdenticalCallsAreConcurrent() throws Exception {
+        CompletableFuture<String> first = call(singleFlight, blockingComputation("result"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++)
+            waiters.add(call(singleFlight, () -> "own-" + computations.incrementAndGet()));
+        awaitWaiting();
+
+        release.countDown();
+
+        assertEquals("result", first.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<String> waiter : waiters)
+            assertEquals("result", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, computations.get());
+        assertEquals(1, count("executed"));
+        assertEquals(WAITERS, count("shared"));
+    }
+
+    @Test
+    void Should_ComputeAgain_When_PreviousCallCompleted() {
+        assertEquals("first", singleFlight.execute(KEY, () -> "first"));
+        assertEquals("second", singleFlight.execute(KEY, () -> "second"));
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void Should_ThrowSameException_When_SharedComputationFails() throws Exception {
+        HillTopHotelApplicationException failure = new HillTopHotelApplicationException("Failed.");
+        CompletableFuture<String> first = call(singleFlight, () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> waiter = call(singleFlight, () -> "own");
+        awaitWaiting();
+
+        release.countDown();
+
+        assertEquals(failure, getCause(first));
+        assertEquals(failure, getCause(waiter));
+    }
+
+    @Test
+    void Should_ComputeOnOwn_When_MaxWaitElapsed() throws Exception {
+        SingleFlight<String, String> impatientFlight = new SingleFlight<>(Duration.ofMillis(50), meterRegistry,
+                METRIC);
+        CompletableFuture<String> first = call(impatientFlight, blockingComputation("slow"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("own", impatientFlight.execute(KEY, () -> "own"));
+
+        release.countDown();
+        assertEquals("slow", first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, count("timed_out"));
+    }
+
+    @Test
+    void Should_TakeOver_When_ComputingCallIsInterrupted() throws Exception {
+        CompletableFuture<String> first = call(singleFlight, () -> {
+            started.countDown();
+            try {
+                release.await();
+                return "never";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HillTopHotelApplicationException("Interrupted.", e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> waiter = call(singleFlight, () -> "taken over");
+        awaitWaiting();
+
+        threads.get(0).interrupt();
+
+        assertInstanceOf(HillTopHotelApplicationException.class, getCause(first));
+        assertEquals("taken over", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void Should_TakeOver_When_ComputingCallRunsOutOfDeadline() throws Exception {
+        CompletableFuture<String> first = call(singleFlight, () -> {
+            RequestDeadline.start(Duration.ofMillis(100));
+            started.countDown();
+            await(release);
+            while (!RequestDeadline.isExpired())
+                Thread.onSpinWait();
+            RequestDeadline.check();
+            return "never";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> waiter = call(singleFlight, () -> "taken over");
+        awaitWaiting();
+
+        release.countDown();
+
+        assertInstanceOf(DeadlineExceededException.class, getCause(first));
+        assertEquals("taken over", waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void Should_OnlyStopWaiting_When_WaitingCallIsInterrupted() throws Exception {
+        CompletableFuture<String> first = call(singleFlight, blockingComputation("result"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> waiter = call(singleFlight, () -> "own");
+        awaitWaiting();
+
+        threads.get(1).interrupt();
+
+        assertInstanceOf(HillTopHotelApplicationException.class, getCause(waiter));
+        release.countDown();
+        assertEquals("result", first.get(5, TimeUnit.SECONDS));
+    }
+
+    private Supplier<String> blockingComputation(String result) {
+        return () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result;
+        };
+    }
+
+    private CompletableFuture<String> call(SingleFlight<String, String> flight, Supplier<String> supplier) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(flight.execute(KEY, supplier));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        threads.add(thread);
+        thread.start();
+        return future;
+    }
+
+    private void awaitWaiting() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        for (Thread thread : threads.subList(1, threads.size()))
+            while (thread.getState() != Thread.State.TIMED_WAITING && System.currentTimeMillis() < deadline)
+                Thread.sleep(5);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get(METRIC).tag("outcome", outcome).counter().count();
+    }
+
+    private static Throwable getCause(CompletableFuture<String> future) throws Exception {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return exception.getCause();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hilltop.hotel.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Startup report test
+ * Unit tests for {@link  StartupReport}
+ */
+class StartupReportTest {
+
+    @Test
+    void Should_GroupStepsByPhaseAndBean_When_ReportIsCreated() {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        applicationStartup.startRecording();
+        StartupStep refresh = applicationStartup.start("spring.context.refresh");
+        applicationStartup.start("spring.beans.instantiate").tag("beanName", "hotelService").end();
+        applicationStartup.start("spring.beans.instantiate").tag("beanName", "roomService").end();
+        refresh.end();
+
+        StartupReport startupReport = new StartupReport(applicationStartup.getBufferedTimeline(), 1200, 1500, 1);
+
+        assertEquals(1, startupReport.getPhaseMillis().size());
+        assertTrue(startupReport.getPhaseMillis().containsKey("spring.context.refresh"));
+        assertEquals(1, startupReport.getSlowestBeanMillis().size());
+        assertTrue(startupReport.toLogString().contains("time to ready: 1200 ms"));
+    }
+
+    @Test
+    void Should_NotCountNestedStepTwice_When_StepsAreNested() throws InterruptedException {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        applicationStartup.startRecording();
+        StartupStep refresh = applicationStartup.start("spring.context.refresh");
+        StartupStep postProcess = applicationStartup.start("spring.context.beans.post-process");
+        Thread.sleep(100);
+        postProcess.end();
+        refresh.end();
+
+        StartupReport startupReport = new StartupReport(applicationStartup.getBufferedTimeline(), 1200, 1500, 1);
+
+        assertTrue(startupReport.getPhaseMillis().get("spring.context.beans.post-process") >= 100);
+        assertTrue(startupReport.getPhaseMillis().get("spring.context.refresh") < 100);
+    }
+}
@@ -0,0 +1,104 @@
+package com.hilltop.hotel.startup;
+
+import com.hilltop.hotel.configuration.WarmUpProperties;
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.Hotel;
+import com.hilltop.hotel.domain.entity.RoomType;
+import com.hilltop.hotel.location.LocationDictionary;
+import com.hilltop.hotel.repository.HotelRepository;
+import com.hilltop.hotel.repository.RoomRepository;
+import com.hilltop.hotel.repository.RoomTypeRepository;
+import com.hilltop.hotel.search.RoomCatalog;
+import com.hilltop.hotel.service.HotelService;
+import com.hilltop.hotel.service.RoomService;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.hilltop.hotel.fixtures.CatalogFixtures.deleteCatalog;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getHotel;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoom;
+import static com.hilltop.hotel.fixtures.CatalogFixtures.getRoomType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Warm-up runner test
+ * Warm-up workload and Eureka status of {@link WarmUpRunner} against an embedded database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WarmUpRunnerTest {
+
+    @Autowired
+    private HotelService hotelService;
+    @Autowired
+    private RoomService roomService;
+    @Autowired
+    private HotelRepository hotelRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private RoomCatalog roomCatalog;
+    @Autowired
+    private LocationDictionary locationDictionary;
+    private final WarmUpProperties warmUpProperties = new WarmUpProperties();
+    private final ApplicationInfoManager applicationInfoManager = mock(ApplicationInfoManager.class);
+    private WarmUpRunner warmUpRunner;
+
+    @BeforeEach
+    void setUp() {
+        RoomType standard = roomTypeRepository.save(getRoomType());
+        locationDictionary.resolve("Galle");
+        locationDictionary.resolve("Ella");
+        Hotel galle = hotelRepository.save(getHotel("Jetwing", "Galle"));
+        hotelRepository.save(getHotel("Amangalla", "Galle"));
+        hotelRepository.save(getHotel("Cinnamon", "Ella"));
+        roomRepository.save(getRoom(galle, standard, "R1", 4, 100));
+        warmUpProperties.setIterations(20);
+        warmUpProperties.setConnections(2);
+        warmUpProperties.setLocationLimit(1);
+        warmUpRunner = new WarmUpRunner(warmUpProperties, hotelService, roomService, hotelRepository, shardRouter,
+                entityManager, new StaticListableBeanFactory(Map.of("applicationInfoManager",
+                applicationInfoManager)).getBeanProvider(ApplicationInfoManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteCatalog(roomRepository, hotelRepository, roomTypeRepository);
+        roomCatalog.invalidateLocation(locationDictionary.find("Galle").orElseThrow().getId());
+    }
+
+    @Test
+    void Should_PreloadLocationWithMostHotels_When_WarmUpRuns() {
+        assertEquals(List.of("Galle"), warmUpRunner.getLocations());
+        assertEquals(20, warmUpRunner.warmUp());
+        assertNotNull(roomCatalog.get(locationDictionary.find("Galle").orElseThrow().getId()));
+    }
+
+    @Test
+    void Should_MarkInstanceUp_When_BudgetRunsOut() {
+        warmUpProperties.setBudget(Duration.ZERO);
+        warmUpRunner.warmUpAndMarkUp();
+        verify(applicationInfoManager).setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+    }
+}
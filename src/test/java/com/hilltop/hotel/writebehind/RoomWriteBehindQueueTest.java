@@ -0,0 +1,206 @@
+package com.hilltop.hotel.writebehind;
+
+import com.hilltop.hotel.datasource.ShardRouter;
+import com.hilltop.hotel.domain.entity.RoomUpdate;
+import com.hilltop.hotel.domain.request.UpdateRoomRequestDto;
+import com.hilltop.hotel.domain.response.RoomUpdateStatusResponseDto;
+import com.hilltop.hotel.enumeration.RoomUpdateStatus;
+import com.hilltop.hotel.exception.HillTopHotelApplicationException;
+import com.hilltop.hotel.exception.WriteBehindRejectedException;
+import com.hilltop.hotel.metrics.MetricName;
+import com.hilltop.hotel.service.RoomService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+/**
+ * Room write behind queue test
+ * Unit tests for {@link RoomWriteBehindQueue}
+ */
+class RoomWriteBehindQueueTest {
+
+    private static final String ROOM_A = "rid-a";
+    private static final String ROOM_B = "rid-b";
+    private static final Duration LONG = Duration.ofHours(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private RoomService roomService;
+    @Mock
+    private ShardRouter shardRouter;
+    private RoomWriteBehindQueue roomWriteBehindQueue;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+        when(shardRouter.getShardCount()).thenReturn(1);
+        when(roomService.applyRoomUpdates(anyInt(), anyInt())).thenReturn(List.of());
+        when(roomService.acceptRoomUpdate(any())).thenAnswer(invocation -> new RoomUpdateStatusResponseDto(
+                "ruid-1", invocation.<UpdateRoomRequestDto>getArgument(0).getId(), RoomUpdateStatus.PENDING));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (roomWriteBehindQueue != null)
+            roomWriteBehindQueue.stop();
+    }
+
+    @Test
+    void Should_StoreUpdateInOutbox_When_UpdateIsAccepted() {
+        roomWriteBehindQueue = startQueue(100, LONG, LONG);
+        RoomUpdateStatusResponseDto status = roomWriteBehindQueue.accept(getUpdateRoomRequestDto(ROOM_A, "R1"));
+        assertEquals(RoomUpdateStatus.PENDING, status.getStatus());
+        verify(roomService, times(1)).acceptRoomUpdate(any());
+        assertEquals(1, meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, "outcome", "accepted").count());
+    }
+
+    @Test
+    void Should_ApplyOutbox_When_BatchIsFull() {
+        roomWriteBehindQueue = startQueue(2, LONG, LONG);
+        roomWriteBehindQueue.accept(getUpdateRoomRequestDto(ROOM_A, "R1"));
+        roomWriteBehindQueue.accept(getUpdateRoomRequestDto(ROOM_B, "R2"));
+        verify(roomService, timeout(5000).times(1)).applyRoomUpdates(0, 2);
+    }
+
+    @Test
+    void Should_ApplyOutbox_When_MaxDelayElapsed() {
+        roomWriteBehindQueue = startQueue(100, Duration.ofMillis(20), LONG);
+        roomWriteBehindQueue.accept(getUpdateRoomRequestDto(ROOM_A, "R1"));
+        verify(roomService, timeout(5000).times(1)).applyRoomUpdates(0, 100);
+    }
+
+    @Test
+    void Should_ApplyOutboxAndRemoveFinishedUpdates_When_PollIntervalElapsed() {
+        roomWriteBehindQueue = startQueue(100, LONG, Duration.ofMillis(20));
+        verify(roomService, timeout(5000).atLeastOnce()).applyRoomUpdates(0, 100);
+        verify(roomService, timeout(5000).atLeastOnce()).removeFinishedRoomUpdates(eq(0), any());
+    }
+
+    @Test
+    void Should_ApplyNextBatch_When_BatchWasFull() {
+        when(roomService.applyRoomUpdates(0, 2))
+                .thenReturn(List.of(finished(ROOM_A, RoomUpdateStatus.COMPLETED),
+                        finished(ROOM_B, RoomUpdateStatus.COMPLETED)))
+                .thenReturn(List.of());
+        roomWriteBehindQueue = startQueue(2, LONG, LONG);
+        roomWriteBehindQueue.stop();
+        verify(roomService, times(2)).applyRoomUpdates(0, 2);
+    }
+
+    @Test
+    void Should_RecordOutcomes_When_BatchIsApplied() {
+        when(roomService.applyRoomUpdates(0, 100)).thenReturn(List.of(finished(ROOM_A, RoomUpdateStatus.COMPLETED),
+                finished(ROOM_A, RoomUpdateStatus.COMPLETED), finished(ROOM_B, RoomUpdateStatus.CONFLICT)));
+        when(roomService.getPendingRoomUpdateCount(0)).thenReturn(7L);
+        roomWriteBehindQueue = startQueue(100, LONG, LONG);
+        roomWriteBehindQueue.stop();
+        assertEquals(2, meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, "outcome", "completed").count());
+        assertEquals(1, meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, "outcome", "conflict").count());
+        assertEquals(1, meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, "outcome", "coalesced").count());
+        assertEquals(3, meterRegistry.summary(MetricName.WRITE_BEHIND_BATCH_SIZE).totalAmount());
+        assertEquals(7, roomWriteBehindQueue.getPendingCount());
+    }
+
+    @Test
+    void Should_ApplyUpdatesOneByOne_When_GroupCommitFails() {
+        when(roomService.applyRoomUpdates(0, 100)).thenThrow(new HillTopHotelApplicationException("Failed."));
+        when(roomService.getPendingRoomUpdateIds(0, 100)).thenReturn(List.of("ruid-1", "ruid-2"));
+        when(roomService.applyRoomUpdate("ruid-1")).thenReturn(List.of(finished(ROOM_A, RoomUpdateStatus.COMPLETED)));
+        when(roomService.applyRoomUpdate("ruid-2")).thenThrow(new HillTopHotelApplicationException("Failed."));
+        roomWriteBehindQueue = startQueue(100, LONG, LONG);
+        roomWriteBehindQueue.stop();
+        verify(roomService, never()).failRoomUpdate("ruid-1");
+        verify(roomService, times(1)).failRoomUpdate("ruid-2");
+        assertEquals(1, meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, "outcome", "failed").count());
+    }
+
+    @Test
+    void Should_ApplyOtherShards_When_ShardIsUnreachable() {
+        when(shardRouter.getShardCount()).thenReturn(2);
+        when(roomService.applyRoomUpdates(0, 100)).thenThrow(new HillTopHotelApplicationException("Failed."));
+        when(roomService.getPendingRoomUpdateIds(0, 100)).thenThrow(new HillTopHotelApplicationException("Failed."));
+        roomWriteBehindQueue = startQueue(100, LONG, LONG);
+        roomWriteBehindQueue.stop();
+        verify(roomService, times(1)).applyRoomUpdates(1, 100);
+        verify(roomService, never()).failRoomUpdate(any());
+    }
+
+    @Test
+    void Should_RejectUpdate_When_OutboxIsFull() {
+        when(roomService.getPendingRoomUpdateCount(0)).thenReturn(10L);
+        roomWriteBehindQueue = startQueue(100, LONG, LONG);
+        UpdateRoomRequestDto updateRoomRequestDto = getUpdateRoomRequestDto(ROOM_A, "R1");
+        assertThrows(WriteBehindRejectedException.class, () -> roomWriteBehindQueue.accept(updateRoomRequestDto));
+        assertEquals(1, meterRegistry.counter(MetricName.WRITE_BEHIND_UPDATES, "outcome", "rejected").count());
+        verify(roomService, never()).acceptRoomUpdate(any());
+    }
+
+    @Test
+    void Should_RejectUpdate_When_LocalAcceptsFillOutbox() {
+        when(roomService.getPendingRoomUpdateCount(0)).thenReturn(9L);
+        roomWriteBehindQueue = startQueue(100, LONG, LONG);
+        roomWriteBehindQueue.accept(getUpdateRoomRequestDto(ROOM_A, "R1"));
+        UpdateRoomRequestDto updateRoomRequestDto = getUpdateRoomRequestDto(ROOM_B, "R2");
+        assertThrows(WriteBehindRejectedException.class, () -> roomWriteBehindQueue.accept(updateRoomRequestDto));
+        verify(roomService, times(1)).acceptRoomUpdate(any());
+    }
+
+    @Test
+    void Should_AcceptUpdate_When_DrainCountsFreedOutbox() {
+        when(roomService.getPendingRoomUpdateCount(0)).thenReturn(10L, 0L);
+        roomWriteBehindQueue = startQueue(100, LONG, Duration.ofMillis(20));
+        UpdateRoomRequestDto updateRoomRequestDto = getUpdateRoomRequestDto(ROOM_A, "R1");
+        assertThrows(WriteBehindRejectedException.class, () -> roomWriteBehindQueue.accept(updateRoomRequestDto));
+        verify(roomService, timeout(5000).atLeast(3)).getPendingRoomUpdateCount(0);
+        assertEquals(RoomUpdateStatus.PENDING, roomWriteBehindQueue.accept(updateRoomRequestDto).getStatus());
+    }
+
+    @Test
+    void Should_RejectUpdate_When_QueueIsStopped() {
+        roomWriteBehindQueue = startQueue(100, LONG, LONG);
+        roomWriteBehindQueue.stop();
+        UpdateRoomRequestDto updateRoomRequestDto = getUpdateRoomRequestDto(ROOM_A, "R1");
+        assertThrows(WriteBehindRejectedException.class, () -> roomWriteBehindQueue.accept(updateRoomRequestDto));
+        verify(roomService, never()).acceptRoomUpdate(any());
+    }
+
+    private RoomWriteBehindQueue startQueue(int batchSize, Duration maxDelay, Duration pollInterval) {
+        RoomWriteBehindQueue queue = new RoomWriteBehindQueue(roomService, shardRouter, meterRegistry, true, 10,
+                batchSize, maxDelay, pollInterval, Duration.ofHours(24), Duration.ofSeconds(5));
+        queue.start();
+        return queue;
+    }
+
+    private static RoomUpdate finished(String roomId, RoomUpdateStatus status) {
+        RoomUpdate roomUpdate = new RoomUpdate("ruid-" + roomId, getUpdateRoomRequestDto(roomId, "R1"), 1);
+        roomUpdate.finish(status);
+        return roomUpdate;
+    }
+
+    private static UpdateRoomRequestDto getUpdateRoomRequestDto(String id, String roomNo) {
+        UpdateRoomRequestDto updateRoomRequestDto = new UpdateRoomRequestDto();
+        updateRoomRequestDto.setId(id);
+        updateRoomRequestDto.setRoomNo(roomNo);
+        updateRoomRequestDto.setHotelId("hid-123");
+        updateRoomRequestDto.setRoomTypeId("rtid-123");
+        updateRoomRequestDto.setMaxPeople(2);
+        updateRoomRequestDto.setCost(100);
+        return updateRoomRequestDto;
+    }
+}